@@ -70,7 +70,9 @@ public class VectorTilesResource {
       Arrays.asList(requestedLayers.split(",")),
       serverContext.vectorTileConfig().layers(),
       VectorTilesResource::createLayerBuilder,
-      serverContext
+      serverContext,
+      serverContext.vectorTileCache(),
+      this::dataVersion
     );
   }
 
@@ -152,6 +154,21 @@ public class VectorTilesResource {
     };
   }
 
+  /**
+   * The version of the data a layer is built from. The stop layers are only changed when a new
+   * graph is loaded, but may show real-time information, so they are cached for the
+   * {@code cacheMaxSeconds} of the layer.
+   */
+  private long dataVersion(LayerType type) {
+    return switch (type) {
+      case Stop, Station, AreaStop -> 0;
+      case VehicleRental, VehicleRentalStation, VehicleRentalVehicle -> serverContext
+        .vehicleRentalService()
+        .version();
+      case VehicleParking, VehicleParkingGroup -> serverContext.vehicleParkingService().version();
+    };
+  }
+
   public enum LayerType {
     Stop,
     Station,
@@ -11,6 +11,6 @@ public class VehicleRentalParameters extends VehicleRentalUpdaterParameters {
     Duration frequency,
     VehicleRentalDataSourceParameters sourceParameters
   ) {
-    super(configRef, frequency, sourceParameters);
+    super(configRef, frequency, sourceParameters, false);
   }
 }
@@ -16,7 +16,9 @@ import java.io.IOException;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Map;
+import org.opentripplanner.apis.support.graphql.GraphQLDocumentCache;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
+import org.opentripplanner.utils.lang.ObjectUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +35,14 @@ public class GtfsGraphQLAPI {
     this.serverContext = serverContext;
   }
 
+  /**
+   * Set up the API with the router configuration. This should be called before the web server
+   * is started. If not called, the defaults are used.
+   */
+  public static void setUp(int maxCachedDocuments) {
+    GtfsGraphQLIndex.setUpDocumentCache(maxCachedDocuments);
+  }
+
   /**
    * This class is only here for backwards-compatibility. It will be removed in the future.
    */
@@ -55,7 +65,16 @@ public class GtfsGraphQLAPI {
     @HeaderParam("OTPMaxResolves") @DefaultValue("1000000") int maxResolves,
     @Context HttpHeaders headers
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    Object queryExtensions = queryParameters == null ? null : queryParameters.get("extensions");
+    Map<String, Object> extensions = queryExtensions instanceof Map
+      ? (Map) queryExtensions
+      : new HashMap<>();
+
+    // The query can be left out if the hash of a persisted query is given
+    if (
+      queryParameters == null ||
+      !(queryParameters.containsKey("query") || GraphQLDocumentCache.hasPersistedQuery(extensions))
+    ) {
       LOG.debug("No query found in body");
       return Response
         .status(Response.Status.BAD_REQUEST)
@@ -68,7 +87,7 @@ public class GtfsGraphQLAPI {
       ? headers.getAcceptableLanguages().get(0)
       : serverContext.defaultLocale();
 
-    String query = (String) queryParameters.get("query");
+    String query = ObjectUtils.ifNotNull((String) queryParameters.get("query"), "");
     Object queryVariables = queryParameters.getOrDefault("variables", null);
     String operationName = (String) queryParameters.getOrDefault("operationName", null);
     Map<String, Object> variables;
@@ -92,6 +111,7 @@ public class GtfsGraphQLAPI {
       query,
       variables,
       operationName,
+      extensions,
       maxResolves,
       timeout,
       locale,
@@ -114,6 +134,7 @@ public class GtfsGraphQLAPI {
       query,
       null,
       null,
+      null,
       maxResolves,
       timeout,
       locale,
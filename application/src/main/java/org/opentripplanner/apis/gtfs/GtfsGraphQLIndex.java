@@ -83,6 +83,7 @@ import org.opentripplanner.apis.gtfs.datafetchers.serviceTimeRangeImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.stepImpl;
 import org.opentripplanner.apis.gtfs.datafetchers.stopAtDistanceImpl;
 import org.opentripplanner.apis.gtfs.model.StopPosition;
+import org.opentripplanner.apis.support.graphql.GraphQLDocumentCache;
 import org.opentripplanner.apis.support.graphql.LoggingDataFetcherExceptionHandler;
 import org.opentripplanner.ext.actuator.MicrometerGraphQLInstrumentation;
 import org.opentripplanner.framework.application.OTPFeature;
@@ -96,6 +97,14 @@ class GtfsGraphQLIndex {
 
   private static final GraphQLSchema indexSchema = buildSchema();
 
+  private static GraphQLDocumentCache documentCache = new GraphQLDocumentCache(
+    GraphQLDocumentCache.DEFAULT_MAXIMUM_SIZE
+  );
+
+  static void setUpDocumentCache(int maxCachedDocuments) {
+    documentCache = new GraphQLDocumentCache(maxCachedDocuments);
+  }
+
   protected static GraphQLSchema buildSchema() {
     try {
       URL url = Objects.requireNonNull(GtfsGraphQLIndex.class.getResource("schema.graphqls"));
@@ -194,6 +203,7 @@ class GtfsGraphQLIndex {
     String query,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     int maxResolves,
     int timeoutMs,
     Locale locale,
@@ -212,12 +222,16 @@ class GtfsGraphQLIndex {
     GraphQL graphQL = GraphQL
       .newGraphQL(indexSchema)
       .instrumentation(instrumentation)
+      .preparsedDocumentProvider(documentCache)
       .defaultDataFetcherExceptionHandler(new LoggingDataFetcherExceptionHandler())
       .build();
 
     if (variables == null) {
       variables = new HashMap<>();
     }
+    if (extensions == null) {
+      extensions = new HashMap<>();
+    }
 
     ExecutionInput executionInput = ExecutionInput
       .newExecutionInput()
@@ -225,6 +239,7 @@ class GtfsGraphQLIndex {
       .operationName(operationName)
       .context(requestContext)
       .variables(variables)
+      .extensions(extensions)
       .locale(locale)
       .build();
     try {
@@ -238,6 +253,7 @@ class GtfsGraphQLIndex {
     String query,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     int maxResolves,
     int timeoutMs,
     Locale locale,
@@ -247,6 +263,7 @@ class GtfsGraphQLIndex {
       query,
       variables,
       operationName,
+      extensions,
       maxResolves,
       timeoutMs,
       locale,
@@ -0,0 +1,127 @@
+package org.opentripplanner.apis.support.graphql;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.execution.preparsed.PreparsedDocumentProvider;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+
+/**
+ * Cache the parsed and validated documents of GraphQL queries. The clients send the same few
+ * queries over and over again, only with other variables, so most of the requests can skip
+ * parsing and validating the query.
+ * <p>
+ * This also supports persisted queries, as used by Apollo clients. The client sends the SHA-256
+ * hash of the query in the {@code persistedQuery} extension of the request, and leaves out the
+ * query text. If the query is not known by the server, the client sends the request again with
+ * both the hash and the query.
+ * <p>
+ * Only valid documents are cached. The documents are valid for the schema of the API, so each API
+ * needs its own cache.
+ */
+public class GraphQLDocumentCache implements PreparsedDocumentProvider {
+
+  /** The default maximum number of documents in the cache. */
+  public static final int DEFAULT_MAXIMUM_SIZE = 1000;
+
+  public static final String PERSISTED_QUERY_NOT_FOUND = "PersistedQueryNotFound";
+  public static final String PERSISTED_QUERY_ID_INVALID = "PersistedQueryIdInvalid";
+
+  private static final String PERSISTED_QUERY = "persistedQuery";
+  private static final String SHA_256_HASH = "sha256Hash";
+
+  private final Cache<String, PreparsedDocumentEntry> documents;
+  private final Cache<String, String> persistedQueries;
+
+  public GraphQLDocumentCache(int maximumSize) {
+    this.documents = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    this.persistedQueries = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Return {@code true} if the request extensions contain a persisted query hash. The query text
+   * may then be left out of the request.
+   */
+  public static boolean hasPersistedQuery(@Nullable Map<String, Object> extensions) {
+    return persistedQueryHash(extensions) != null;
+  }
+
+  /**
+   * The document is looked up, or parsed and validated, on the calling thread. The returned future
+   * is always completed.
+   */
+  @Override
+  public CompletableFuture<PreparsedDocumentEntry> getDocumentAsync(
+    ExecutionInput executionInput,
+    Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+  ) {
+    return CompletableFuture.completedFuture(getDocument(executionInput, parseAndValidateFunction));
+  }
+
+  public long size() {
+    return documents.size();
+  }
+
+  static String sha256(String query) {
+    return Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+  }
+
+  private PreparsedDocumentEntry getDocument(
+    ExecutionInput executionInput,
+    Function<ExecutionInput, PreparsedDocumentEntry> parseAndValidateFunction
+  ) {
+    var hash = persistedQueryHash(executionInput.getExtensions());
+    var query = executionInput.getQuery();
+
+    if (hash != null) {
+      if (query == null || query.isBlank()) {
+        query = persistedQueries.getIfPresent(hash);
+        if (query == null) {
+          return error(PERSISTED_QUERY_NOT_FOUND, "PERSISTED_QUERY_NOT_FOUND");
+        }
+        var persistedQuery = query;
+        executionInput = executionInput.transform(it -> it.query(persistedQuery));
+      } else if (!hash.equalsIgnoreCase(sha256(query))) {
+        return error(PERSISTED_QUERY_ID_INVALID, "PERSISTED_QUERY_ID_INVALID");
+      }
+    }
+
+    var entry = documents.getIfPresent(query);
+    if (entry == null) {
+      entry = parseAndValidateFunction.apply(executionInput);
+      if (entry.hasErrors()) {
+        return entry;
+      }
+      documents.put(query, entry);
+    }
+    if (hash != null) {
+      persistedQueries.put(hash, query);
+    }
+    return entry;
+  }
+
+  @Nullable
+  private static String persistedQueryHash(@Nullable Map<String, Object> extensions) {
+    if (
+      extensions != null &&
+      extensions.get(PERSISTED_QUERY) instanceof Map<?, ?> persistedQuery &&
+      persistedQuery.get(SHA_256_HASH) instanceof String hash
+    ) {
+      return hash;
+    }
+    return null;
+  }
+
+  private static PreparsedDocumentEntry error(String message, String code) {
+    return new PreparsedDocumentEntry(
+      GraphQLError.newError().message(message).extensions(Map.of("code", code)).build()
+    );
+  }
+}
@@ -19,6 +19,7 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
+import org.opentripplanner.apis.support.graphql.GraphQLDocumentCache;
 import org.opentripplanner.apis.transmodel.mapping.TransitIdMapper;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
@@ -34,6 +35,7 @@ public class TransmodelAPI {
   private static final Logger LOG = LoggerFactory.getLogger(TransmodelAPI.class);
 
   private static GraphQLSchema schema;
+  private static GraphQLDocumentCache documentCache;
   private static Collection<String> tracingHeaderTags;
   private static int maxNumberOfResultFields;
 
@@ -43,7 +45,7 @@ public class TransmodelAPI {
 
   public TransmodelAPI(@Context OtpServerRequestContext serverContext) {
     this.serverContext = serverContext;
-    this.index = new TransmodelGraph(schema);
+    this.index = new TransmodelGraph(schema, documentCache);
   }
 
   /**
@@ -69,7 +71,8 @@ public class TransmodelAPI {
     TransmodelAPIParameters config,
     TimetableRepository timetableRepository,
     RouteRequest defaultRouteRequest,
-    TransitRoutingConfig transitRoutingConfig
+    TransitRoutingConfig transitRoutingConfig,
+    int maxCachedDocuments
   ) {
     if (config.hideFeedId()) {
       TransitIdMapper.setupFixedFeedId(timetableRepository.getAgencies());
@@ -82,6 +85,7 @@ public class TransmodelAPI {
         timetableRepository.getTimeZone(),
         transitRoutingConfig
       );
+    documentCache = new GraphQLDocumentCache(maxCachedDocuments);
   }
 
   @POST
@@ -90,12 +94,22 @@ public class TransmodelAPI {
     HashMap<String, Object> queryParameters,
     @Context HttpHeaders headers
   ) {
-    if (queryParameters == null || !queryParameters.containsKey("query")) {
+    Map<String, Object> extensions = queryParameters != null &&
+      queryParameters.get("extensions") instanceof Map queryExtensionsAsMap
+      ? queryExtensionsAsMap
+      : Collections.emptyMap();
+
+    // The query can be left out if the hash of a persisted query is given
+    if (
+      queryParameters == null ||
+      !(queryParameters.containsKey("query") || GraphQLDocumentCache.hasPersistedQuery(extensions))
+    ) {
       LOG.debug("No query found in body");
       throw new BadRequestException("No query found in body");
     }
 
-    if (!(queryParameters.get("query") instanceof String query)) {
+    Object queryValue = queryParameters.getOrDefault("query", "");
+    if (!(queryValue instanceof String query)) {
       throw new BadRequestException("Invalid format for query");
     }
 
@@ -120,6 +134,7 @@ public class TransmodelAPI {
       serverContext,
       variables,
       operationName,
+      extensions,
       maxNumberOfResultFields,
       getTagsFromHeaders(headers)
     );
@@ -133,6 +148,7 @@ public class TransmodelAPI {
       serverContext,
       null,
       null,
+      null,
       maxNumberOfResultFields,
       getTagsFromHeaders(headers)
     );
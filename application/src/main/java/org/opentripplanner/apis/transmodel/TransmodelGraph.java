@@ -16,6 +16,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import org.opentripplanner.apis.support.graphql.GraphQLDocumentCache;
 import org.opentripplanner.apis.support.graphql.LoggingDataFetcherExceptionHandler;
 import org.opentripplanner.apis.transmodel.support.AbortOnUnprocessableRequestExecutionStrategy;
 import org.opentripplanner.apis.transmodel.support.ExecutionResultMapper;
@@ -35,13 +36,15 @@ class TransmodelGraph {
 
   private static final int MAX_ERROR_TO_RETURN = 25;
   private final GraphQLSchema indexSchema;
+  private final GraphQLDocumentCache documentCache;
 
   final ExecutorService threadPool;
 
-  TransmodelGraph(GraphQLSchema schema) {
+  TransmodelGraph(GraphQLSchema schema, GraphQLDocumentCache documentCache) {
     this.threadPool =
       Executors.newCachedThreadPool(OtpRequestThreadFactory.of("transmodel-api-%d"));
     this.indexSchema = schema;
+    this.documentCache = documentCache;
   }
 
   Response executeGraphQL(
@@ -49,11 +52,13 @@ class TransmodelGraph {
     OtpServerRequestContext serverContext,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     int maxNumberOfResultFields,
     Iterable<Tag> tracingTags
   ) {
     try (var executionStrategy = new AbortOnUnprocessableRequestExecutionStrategy()) {
       variables = ObjectUtils.ifNotNull(variables, new HashMap<>());
+      extensions = ObjectUtils.ifNotNull(extensions, new HashMap<>());
       var instrumentation = createInstrumentation(maxNumberOfResultFields, tracingTags);
       var transmodelRequestContext = createRequestContext(serverContext);
       var executionInput = createExecutionInput(
@@ -61,6 +66,7 @@ class TransmodelGraph {
         serverContext,
         variables,
         operationName,
+        extensions,
         transmodelRequestContext
       );
       var graphQL = createGraphQL(instrumentation, executionStrategy);
@@ -112,6 +118,7 @@ class TransmodelGraph {
     OtpServerRequestContext serverContext,
     Map<String, Object> variables,
     String operationName,
+    Map<String, Object> extensions,
     TransmodelRequestContext transmodelRequestContext
   ) {
     return ExecutionInput
@@ -121,6 +128,7 @@ class TransmodelGraph {
       .context(transmodelRequestContext)
       .root(serverContext)
       .variables(variables)
+      .extensions(extensions)
       .build();
   }
 
@@ -132,6 +140,7 @@ class TransmodelGraph {
       .newGraphQL(indexSchema)
       .instrumentation(instrumentation)
       .queryExecutionStrategy(executionStrategy)
+      .preparsedDocumentProvider(documentCache)
       .defaultDataFetcherExceptionHandler(new LoggingDataFetcherExceptionHandler())
       .build();
   }
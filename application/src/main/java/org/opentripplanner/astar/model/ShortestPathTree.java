@@ -2,7 +2,9 @@ package org.opentripplanner.astar.model;
 
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.IdentityHashMap;
@@ -33,6 +35,12 @@ import org.slf4j.LoggerFactory;
  * when walking. The turn restriction handling is done in the base dominance function
  * implementation, and applies to all subclasses. It essentially splits each vertex into N vertices
  * depending on the incoming edge being taken.
+ * <p>
+ * The states of vertices with a dense index (see {@link AStarVertex#getIndex()}) are stored in
+ * arrays, split into fixed size pages allocated on first use. This avoids hashing in the search
+ * inner loop, and a search touching a small part of the graph only allocates the pages it needs.
+ * Vertices without an index, like the temporary vertices created for each request, are kept in
+ * an identity map.
  */
 public class ShortestPathTree<
   State extends AStarState<State, Edge, Vertex>,
@@ -44,15 +52,27 @@ public class ShortestPathTree<
 
   public final DominanceFunction<State> dominanceFunction;
 
-  private final Map<Vertex, List<State>> stateSets;
+  private static final int PAGE_BITS = 10;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+  private static final int INITIAL_NUMBER_OF_PAGES = 64;
+
+  /** State lists of indexed vertices, paged by vertex index. Elements are {@code List<State>}. */
+  private Object[][] pages = new Object[INITIAL_NUMBER_OF_PAGES][];
+
+  /** State lists of vertices without an index. */
+  private final Map<Vertex, List<State>> unindexedStateSets = new IdentityHashMap<>();
+
+  /** All state lists in the order the vertices were first reached, used for iteration. */
+  private final List<List<State>> stateSets = new ArrayList<>();
+
+  private final Set<Vertex> vertices = new VertexSet();
 
   /** Indicates that the search timed out or was otherwise aborted. */
   private boolean aborted = false;
 
   public ShortestPathTree(DominanceFunction<State> dominanceFunction) {
     this.dominanceFunction = dominanceFunction;
-    // Initialized with a reasonable size, see #4445
-    stateSets = new IdentityHashMap<>(10_000);
   }
 
   /** @return a list of GraphPaths, sometimes empty but never null. */
@@ -85,8 +105,7 @@ public class ShortestPathTree<
     Multiset<Integer> histogram = HashMultiset.create();
     int statesCount = 0;
     int maxSize = 0;
-    for (Map.Entry<Vertex, List<State>> kv : stateSets.entrySet()) {
-      List<State> states = kv.getValue();
+    for (List<State> states : stateSets) {
       int size = states.size();
       histogram.add(size);
       statesCount += size;
@@ -111,8 +130,12 @@ public class ShortestPathTree<
     }
   }
 
+  /**
+   * An unmodifiable view of the vertices reached by the search, the view is backed by the tree.
+   * Vertices are compared by identity.
+   */
   public Set<Vertex> getVertices() {
-    return stateSets.keySet();
+    return vertices;
   }
 
   /**
@@ -127,13 +150,14 @@ public class ShortestPathTree<
    */
   public boolean add(State newState) {
     Vertex vertex = newState.getVertex();
-    List<State> states = stateSets.get(vertex);
+    List<State> states = stateSet(vertex);
 
     // if the vertex has no states, add one and return
     if (states == null) {
-      states = new ArrayList<>();
-      stateSets.put(vertex, states);
+      states = new ArrayList<>(2);
       states.add(newState);
+      putStateSet(vertex, states);
+      stateSets.add(states);
       return true;
     }
 
@@ -164,7 +188,7 @@ public class ShortestPathTree<
    * @return a 'best' state at that vertex
    */
   public State getState(Vertex dest) {
-    Collection<State> states = stateSets.get(dest);
+    Collection<State> states = stateSet(dest);
     if (states == null) {
       return null;
     }
@@ -188,12 +212,12 @@ public class ShortestPathTree<
    * @return a collection of 'interesting' states at that vertex
    */
   public List<State> getStates(Vertex dest) {
-    return stateSets.get(dest);
+    return stateSet(dest);
   }
 
   /** @return number of vertices referenced in this SPT */
   public int getVertexCount() {
-    return stateSets.keySet().size();
+    return stateSets.size();
   }
 
   /**
@@ -222,7 +246,7 @@ public class ShortestPathTree<
    */
   public boolean visit(State state) {
     boolean ret = false;
-    for (State s : stateSets.get(state.getVertex())) {
+    for (State s : stateSet(state.getVertex())) {
       if (s == state) {
         ret = true;
         break;
@@ -234,7 +258,7 @@ public class ShortestPathTree<
   /** @return every state in this tree */
   public Collection<State> getAllStates() {
     ArrayList<State> allStates = new ArrayList<>();
-    for (List<State> stateSet : stateSets.values()) {
+    for (List<State> stateSet : stateSets) {
       allStates.addAll(stateSet);
     }
     return allStates;
@@ -247,4 +271,74 @@ public class ShortestPathTree<
   public String toString() {
     return "ShortestPathTree(" + this.stateSets.size() + " vertices)";
   }
+
+  @SuppressWarnings("unchecked")
+  private List<State> stateSet(Vertex vertex) {
+    int index = vertex.getIndex();
+    if (index == AStarVertex.NO_INDEX) {
+      return unindexedStateSets.get(vertex);
+    }
+    int pageIndex = index >>> PAGE_BITS;
+    if (pageIndex >= pages.length) {
+      return null;
+    }
+    Object[] page = pages[pageIndex];
+    return page == null ? null : (List<State>) page[index & PAGE_MASK];
+  }
+
+  private void putStateSet(Vertex vertex, List<State> states) {
+    int index = vertex.getIndex();
+    if (index == AStarVertex.NO_INDEX) {
+      unindexedStateSets.put(vertex, states);
+      return;
+    }
+    int pageIndex = index >>> PAGE_BITS;
+    if (pageIndex >= pages.length) {
+      pages = Arrays.copyOf(pages, Math.max(pageIndex + 1, pages.length * 2));
+    }
+    Object[] page = pages[pageIndex];
+    if (page == null) {
+      page = new Object[PAGE_SIZE];
+      pages[pageIndex] = page;
+    }
+    page[index & PAGE_MASK] = states;
+  }
+
+  /**
+   * The vertices of {@link #stateSets}. A state list is never empty and all its states are at the
+   * same vertex.
+   */
+  private class VertexSet extends AbstractSet<Vertex> {
+
+    @Override
+    public Iterator<Vertex> iterator() {
+      var it = stateSets.iterator();
+      return new Iterator<>() {
+        @Override
+        public boolean hasNext() {
+          return it.hasNext();
+        }
+
+        @Override
+        public Vertex next() {
+          return it.next().getFirst().getVertex();
+        }
+      };
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean contains(Object o) {
+      if (!(o instanceof AStarVertex<?, ?, ?>)) {
+        return false;
+      }
+      List<State> states = stateSet((Vertex) o);
+      return states != null && states.getFirst().getVertex() == o;
+    }
+
+    @Override
+    public int size() {
+      return stateSets.size();
+    }
+  }
 }
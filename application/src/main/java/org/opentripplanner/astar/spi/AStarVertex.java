@@ -7,6 +7,9 @@ public interface AStarVertex<
   Edge extends AStarEdge<State, Edge, Vertex>,
   Vertex extends AStarVertex<State, Edge, Vertex>
 > {
+  /** Returned by {@link #getIndex()} for vertices without a dense index. */
+  int NO_INDEX = -1;
+
   /**
    * Get a collection containing all the edges leading from this vertex to other vertices. There is
    * probably some overhead to creating the wrapper ArrayList objects, but this allows filtering and
@@ -16,4 +19,12 @@ public interface AStarVertex<
 
   /** Get a collection containing all the edges leading from other vertices to this vertex. */
   Collection<Edge> getIncoming();
+
+  /**
+   * A small, stable, non-negative integer identifying this vertex, or {@link #NO_INDEX} if the
+   * vertex is not indexed (for example temporary vertices created for a single request). The
+   * index is used by the {@link org.opentripplanner.astar.model.ShortestPathTree} to look up
+   * states in arrays instead of a hash map.
+   */
+  int getIndex();
 }
@@ -0,0 +1,77 @@
+package org.opentripplanner.framework.concurrent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+
+/**
+ * Run parts of a request in parallel, each in its own virtual thread, and wait for all of them to
+ * complete. The tasks never outlive the call:
+ * <ul>
+ *   <li>
+ *     The threads are created with the {@link OtpRequestThreadFactory}, so the log context of the
+ *     calling thread is propagated to the tasks.
+ *   </li>
+ *   <li>
+ *     If the calling thread is interrupted while waiting, which is how the web server signals a
+ *     request timeout, the tasks are interrupted and an {@link OTPRequestTimeoutException} is
+ *     thrown. The tasks must check for the timeout with
+ *     {@link OTPRequestTimeoutException#checkForTimeout()} as usual. Tasks started from a task
+ *     are interrupted the same way, since the task is the calling thread for them.
+ *   </li>
+ *   <li>
+ *     If a task fails, the other tasks are interrupted, and the exception of the failed task is
+ *     rethrown in the calling thread.
+ *   </li>
+ * </ul>
+ */
+public final class OtpRequestTasks {
+
+  private OtpRequestTasks() {}
+
+  /**
+   * Run the tasks in parallel and wait for all of them to complete.
+   *
+   * @param namePrefix the prefix of the thread names, used for logging.
+   */
+  public static void runAll(String namePrefix, Runnable... tasks) {
+    var threadFactory = OtpRequestThreadFactory.ofVirtual(namePrefix);
+    try (var executor = Executors.newThreadPerTaskExecutor(threadFactory)) {
+      var completionService = new ExecutorCompletionService<Void>(executor);
+      var futures = new ArrayList<Future<Void>>();
+      for (Runnable task : tasks) {
+        futures.add(completionService.submit(task, null));
+      }
+      try {
+        for (int i = 0; i < futures.size(); ++i) {
+          completionService.take().get();
+        }
+      } catch (InterruptedException e) {
+        cancelAll(futures);
+        Thread.currentThread().interrupt();
+        throw new OTPRequestTimeoutException();
+      } catch (ExecutionException e) {
+        cancelAll(futures);
+        rethrow(e.getCause());
+      }
+    }
+  }
+
+  private static void cancelAll(List<Future<Void>> futures) {
+    futures.forEach(it -> it.cancel(true));
+  }
+
+  private static void rethrow(Throwable e) {
+    if (e instanceof RuntimeException runtimeException) {
+      throw runtimeException;
+    }
+    if (e instanceof Error error) {
+      throw error;
+    }
+    throw new RuntimeException(e);
+  }
+}
@@ -179,6 +179,14 @@ public class GraphBuilder implements Runnable {
       graphBuilder.addModuleOptional(factory.dataOverlayFactory());
     }
 
+    // Build the contraction hierarchies last, after all changes to the street graph. Hierarchies
+    // in a loaded street graph are out of date when the streets are split to link new stops.
+    if (config.streetContractionHierarchies && (hasOsm || loadStreetGraph)) {
+      graphBuilder.addModule(factory.streetContractionHierarchyModule());
+    } else {
+      graphBuilder.graph.setStreetContractionHierarchies(null);
+    }
+
     graphBuilder.addModule(factory.calculateWorldEnvelopeModule());
 
     return graphBuilder;
@@ -0,0 +1,44 @@
+package org.opentripplanner.graph_builder.module;
+
+import org.opentripplanner.graph_builder.model.GraphBuilderModule;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.search.ch.StreetContractionHierarchies;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build the contraction hierarchies used for direct car and bicycle routing. This must run after
+ * all modules which add or remove street vertices and edges.
+ * <p>
+ * The cost of each edge is computed with the preferences of the given request. The hierarchies are
+ * only used for requests with the same cost preferences, so the request should match the routing
+ * defaults of the router config.
+ */
+public class StreetContractionHierarchyModule implements GraphBuilderModule {
+
+  private static final Logger LOG = LoggerFactory.getLogger(
+    StreetContractionHierarchyModule.class
+  );
+
+  private final Graph graph;
+  private final RouteRequest request;
+
+  public StreetContractionHierarchyModule(Graph graph, RouteRequest request) {
+    this.graph = graph;
+    this.request = request;
+  }
+
+  @Override
+  public void buildGraph() {
+    LOG.info("Building street contraction hierarchies...");
+    var hierarchies = StreetContractionHierarchies.build(
+      graph.getVertices(),
+      graph.vertexIndexSize(),
+      request.preferences(),
+      StreetContractionHierarchies.SUPPORTED_MODES
+    );
+    graph.setStreetContractionHierarchies(hierarchies);
+    LOG.info("Done building street contraction hierarchies: {}", hierarchies);
+  }
+}
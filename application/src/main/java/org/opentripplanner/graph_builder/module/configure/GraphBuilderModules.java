@@ -25,6 +25,7 @@ import org.opentripplanner.graph_builder.issue.report.DataImportIssueReporter;
 import org.opentripplanner.graph_builder.issue.service.DefaultDataImportIssueStore;
 import org.opentripplanner.graph_builder.module.DirectTransferGenerator;
 import org.opentripplanner.graph_builder.module.RouteToCentroidStationIdsValidator;
+import org.opentripplanner.graph_builder.module.StreetContractionHierarchyModule;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
 import org.opentripplanner.graph_builder.module.islandpruning.PruneIslands;
 import org.opentripplanner.graph_builder.module.ned.DegreeGridNEDTileSource;
@@ -72,6 +73,7 @@ public class GraphBuilderModules {
           osmConfiguredDataSource.config().osmTagMapper(),
           osmConfiguredDataSource.config().timeZone(),
           config.osmCacheDataInMem,
+          config.multiThreadOsmParsing,
           issueStore
         )
       );
@@ -275,6 +277,15 @@ public class GraphBuilderModules {
     );
   }
 
+  @Provides
+  @Singleton
+  static StreetContractionHierarchyModule provideStreetContractionHierarchyModule(
+    BuildConfig config,
+    Graph graph
+  ) {
+    return new StreetContractionHierarchyModule(graph, config.streetContractionHierarchiesRequest);
+  }
+
   @Provides
   @Singleton
   static EdgeUpdaterModule provideDataOverlayFactory(BuildConfig config, Graph graph) {
@@ -0,0 +1,275 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.TransitStopVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+
+/**
+ * Find the islands of the street graph for one traverse mode, using the {@link StreetConnections}
+ * of the mode. All state is kept in arrays indexed by the dense vertex index, see
+ * {@link Vertex#getIndex()}.
+ * <p>
+ * The islands are returned in the order of their first street vertex in the given vertex list.
+ * Transit stop vertices are not owned by an island, a stop may be part of several expanded
+ * islands.
+ */
+class IslandFinder {
+
+  private static final int NONE = -1;
+
+  /** The vertices in the order the graph returns them. */
+  private final List<Vertex> vertices;
+  private final Vertex[] vertexByIndex;
+
+  private final int[] from;
+  private final int[] to;
+  private final BitSet noThruTraffic = new BitSet();
+
+  /**
+   * @param removedEdges Edges removed from the graph after the connections were collected. The
+   *                     connections of these edges are ignored.
+   */
+  IslandFinder(
+    List<Vertex> vertices,
+    int vertexIndexSize,
+    StreetConnections connections,
+    Set<Edge> removedEdges
+  ) {
+    this.vertices = vertices;
+    this.vertexByIndex = new Vertex[vertexIndexSize];
+    for (Vertex v : vertices) {
+      vertexByIndex[v.getIndex()] = v;
+    }
+
+    int n = 0;
+    int[] from = new int[connections.size()];
+    int[] to = new int[connections.size()];
+    for (int i = 0; i < connections.size(); i++) {
+      if (removedEdges.contains(connections.edge(i))) {
+        continue;
+      }
+      from[n] = connections.from(i);
+      to[n] = connections.to(i);
+      if (connections.isNoThruTraffic(i)) {
+        noThruTraffic.set(n);
+      }
+      ++n;
+    }
+    this.from = Arrays.copyOf(from, n);
+    this.to = Arrays.copyOf(to, n);
+  }
+
+  /**
+   * Find the connected subgraphs using union-find.
+   *
+   * @param includeNoThruTraffic if {@code false}, the no-thru-traffic edges of the mode are not
+   *                             used to connect vertices.
+   */
+  Islands connectedSubgraphs(boolean includeNoThruTraffic) {
+    int n = vertexByIndex.length;
+    int[] parent = new int[n];
+    int[] size = new int[n];
+    var connected = new BitSet(n);
+    Arrays.fill(parent, NONE);
+    Arrays.fill(size, 1);
+
+    for (int i = 0; i < from.length; i++) {
+      if (!includeNoThruTraffic && noThruTraffic.get(i)) {
+        continue;
+      }
+      union(parent, size, from[i], to[i]);
+      connected.set(from[i]);
+      connected.set(to[i]);
+    }
+
+    var result = new Islands(n);
+    int[] islandOfRoot = new int[n];
+    Arrays.fill(islandOfRoot, NONE);
+
+    // Each subgraph is created when the first street vertex of it is found
+    for (Vertex v : vertices) {
+      int i = v.getIndex();
+      if (v instanceof StreetVertex && connected.get(i)) {
+        int root = find(parent, i);
+        if (islandOfRoot[root] == NONE) {
+          islandOfRoot[root] = result.subgraphs.size();
+          result.subgraphs.add(new Subgraph());
+        }
+      }
+    }
+    for (Vertex v : vertices) {
+      int i = v.getIndex();
+      if (!connected.get(i)) {
+        continue;
+      }
+      int island = islandOfRoot[find(parent, i)];
+      if (island != NONE) {
+        result.add(island, v);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Expand the given islands by accepting the no-thru-traffic edges, but do not jump from one of
+   * the given islands to another. Then find the islands which are only connected by
+   * no-thru-traffic edges. A vertex not in any of the given islands belongs to the first expanded
+   * island which reaches it, so these islands are found with a breadth first search in the order
+   * of the vertices.
+   */
+  ExpandedIslands expand(Islands anchors) {
+    int n = vertexByIndex.length;
+    int[] adjacencyStart = new int[n + 1];
+    int[] adjacency = new int[2 * from.length];
+
+    for (int i = 0; i < from.length; i++) {
+      ++adjacencyStart[from[i] + 1];
+      ++adjacencyStart[to[i] + 1];
+    }
+    for (int i = 0; i < n; i++) {
+      adjacencyStart[i + 1] += adjacencyStart[i];
+    }
+    int[] next = Arrays.copyOf(adjacencyStart, n);
+    for (int i = 0; i < from.length; i++) {
+      adjacency[next[from[i]]++] = to[i];
+      adjacency[next[to[i]]++] = from[i];
+    }
+
+    var search = new Search(adjacencyStart, adjacency);
+    var result = new ExpandedIslands(new ArrayList<>(), new ArrayList<>());
+
+    for (Vertex v : vertices) {
+      int i = v.getIndex();
+      int anchor = anchors.islandOf[i];
+      if (v instanceof StreetVertex && anchor != NONE && search.isNew(i)) {
+        result.anchored().add(search.subgraph(i, anchor, anchors.islandOf));
+      }
+    }
+    for (Vertex v : vertices) {
+      int i = v.getIndex();
+      if (v instanceof StreetVertex && search.isNew(i)) {
+        result.noThruTraffic().add(search.subgraph(i, NONE, anchors.islandOf));
+      }
+    }
+    return result;
+  }
+
+  private static void union(int[] parent, int[] size, int a, int b) {
+    int rootA = find(parent, a);
+    int rootB = find(parent, b);
+    if (rootA == rootB) {
+      return;
+    }
+    if (size[rootA] < size[rootB]) {
+      int tmp = rootA;
+      rootA = rootB;
+      rootB = tmp;
+    }
+    parent[rootB] = rootA;
+    size[rootA] += size[rootB];
+  }
+
+  /** Find the root of the set, with path halving. A vertex not in any set is its own root. */
+  private static int find(int[] parent, int i) {
+    while (parent[i] != NONE) {
+      if (parent[parent[i]] != NONE) {
+        parent[i] = parent[parent[i]];
+      }
+      i = parent[i];
+    }
+    return i;
+  }
+
+  /** The islands, and the island of each non-stop vertex by vertex index. */
+  static class Islands {
+
+    final List<Subgraph> subgraphs = new ArrayList<>();
+    final int[] islandOf;
+
+    private Islands(int vertexIndexSize) {
+      this.islandOf = new int[vertexIndexSize];
+      Arrays.fill(islandOf, NONE);
+    }
+
+    private void add(int island, Vertex v) {
+      subgraphs.get(island).addVertex(v);
+      if (!(v instanceof TransitStopVertex)) {
+        islandOf[v.getIndex()] = island;
+      }
+    }
+  }
+
+  /**
+   * @param anchored the given islands, expanded with the vertices only reached by
+   *                 no-thru-traffic edges.
+   * @param noThruTraffic the islands which are only connected to the rest of the graph by
+   *                      no-thru-traffic edges.
+   */
+  record ExpandedIslands(List<Subgraph> anchored, List<Subgraph> noThruTraffic) {}
+
+  /**
+   * Breadth first search. The search remembers the vertices visited by earlier searches, a
+   * non-stop vertex is only part of one subgraph.
+   */
+  private class Search {
+
+    private final int[] adjacencyStart;
+    private final int[] adjacency;
+    private final int[] visitedBy;
+    private final int[] queue;
+    private int nextId = 0;
+
+    private Search(int[] adjacencyStart, int[] adjacency) {
+      this.adjacencyStart = adjacencyStart;
+      this.adjacency = adjacency;
+      this.visitedBy = new int[vertexByIndex.length];
+      this.queue = new int[vertexByIndex.length];
+      Arrays.fill(visitedBy, NONE);
+    }
+
+    /** Return {@code true} if the vertex is connected and not part of any subgraph yet. */
+    private boolean isNew(int i) {
+      return visitedBy[i] == NONE && adjacencyStart[i] < adjacencyStart[i + 1];
+    }
+
+    private Subgraph subgraph(int start, int anchor, int[] islandOf) {
+      int id = nextId++;
+      var subgraph = new Subgraph();
+      int head = 0;
+      int tail = 0;
+
+      visitedBy[start] = id;
+      subgraph.addVertex(vertexByIndex[start]);
+      queue[tail++] = start;
+
+      while (head < tail) {
+        int v = queue[head++];
+        for (int j = adjacencyStart[v]; j < adjacencyStart[v + 1]; j++) {
+          int neighbor = adjacency[j];
+          if (visitedBy[neighbor] == id) {
+            continue;
+          }
+          // Only stops can be part of several subgraphs
+          boolean isStop = vertexByIndex[neighbor] instanceof TransitStopVertex;
+          if (visitedBy[neighbor] != NONE && !isStop) {
+            continue;
+          }
+          // Do not enter another island
+          if (anchor != NONE && islandOf[neighbor] != NONE && islandOf[neighbor] != anchor) {
+            continue;
+          }
+          visitedBy[neighbor] = id;
+          subgraph.addVertex(vertexByIndex[neighbor]);
+          queue[tail++] = neighbor;
+        }
+      }
+      return subgraph;
+    }
+  }
+}
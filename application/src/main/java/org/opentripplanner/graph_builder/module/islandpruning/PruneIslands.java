@@ -1,7 +1,6 @@
 package org.opentripplanner.graph_builder.module.islandpruning;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -9,14 +8,13 @@ import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.graph_builder.issues.GraphConnectivity;
 import org.opentripplanner.graph_builder.issues.IsolatedStop;
 import org.opentripplanner.graph_builder.model.GraphBuilderModule;
 import org.opentripplanner.graph_builder.module.StreetLinkerModule;
-import org.opentripplanner.routing.api.request.StreetMode;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.routing.graph.index.StreetIndex;
 import org.opentripplanner.routing.linking.VertexLinker;
@@ -30,8 +28,6 @@ import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.model.vertex.VertexLabel;
 import org.opentripplanner.street.search.TraverseMode;
-import org.opentripplanner.street.search.request.StreetSearchRequest;
-import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.transit.service.TimetableRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -58,6 +54,9 @@ public class PruneIslands implements GraphBuilderModule {
   private VertexLinker vertexLinker;
   private StreetIndex streetIndex;
 
+  /** The edges removed by the pruning, these are ignored when the next mode is pruned. */
+  private final Set<Edge> removedEdges = new HashSet<>();
+
   public PruneIslands(
     Graph graph,
     TimetableRepository timetableRepository,
@@ -84,9 +83,25 @@ public class PruneIslands implements GraphBuilderModule {
     this.vertexLinker = graph.getLinkerSafe(timetableRepository.getSiteRepository());
     this.streetIndex = graph.getStreetIndexSafe(timetableRepository.getSiteRepository());
 
-    pruneIslands(TraverseMode.BICYCLE);
-    pruneIslands(TraverseMode.WALK);
-    pruneIslands(TraverseMode.CAR);
+    // The connections of all modes are collected in parallel before the graph is modified. The
+    // modes are then pruned in order, ignoring the edges removed when pruning the previous modes.
+    List<Vertex> vertices = List.copyOf(graph.getVertices());
+    List<TraverseMode> traverseModes = List.of(
+      TraverseMode.BICYCLE,
+      TraverseMode.WALK,
+      TraverseMode.CAR
+    );
+    List<StreetConnections> connections = new ArrayList<>(
+      traverseModes
+        .parallelStream()
+        .map(traverseMode -> StreetConnections.collect(vertices, traverseMode))
+        .toList()
+    );
+    for (int i = 0; i < traverseModes.size(); i++) {
+      pruneIslands(traverseModes.get(i), connections.get(i), vertices);
+      // let the connections of the pruned mode go
+      connections.set(i, null);
+    }
 
     // reconnect stops that got disconnected
     if (streetLinkerModule != null) {
@@ -168,55 +183,47 @@ public class PruneIslands implements GraphBuilderModule {
           to noThruTraffic state. Remove traversal mode specific access from unreachable edges. Remove unconnected edges.
      */
 
-  private void pruneIslands(TraverseMode traverseMode) {
+  private void pruneIslands(
+    TraverseMode traverseMode,
+    StreetConnections connections,
+    List<Vertex> vertices
+  ) {
     LOG.debug("nothru pruning");
-    Map<Vertex, Subgraph> subgraphs = new HashMap<>();
-    Map<Vertex, Subgraph> extgraphs = new HashMap<>();
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex = new HashMap<>();
+    var finder = new IslandFinder(vertices, graph.vertexIndexSize(), connections, removedEdges);
     Map<Edge, Boolean> isolated = new HashMap<>();
-    ArrayList<Subgraph> islands = new ArrayList<>();
-    int count;
-
-    /* establish vertex neighbourhood without currently relevant noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, false);
 
-    /* associate each connected vertex with a subgraph */
-    count = collectSubGraphs(neighborsForVertex, subgraphs, null, null);
-    LOG.info("Islands when {} noThruTraffic is considered: {}", traverseMode, count);
-
-    /* Expand vertex neighbourhood with relevant noThruTrafficEdges
-       Note that we can reuse the original neighbour map here
-       and simply process a smaller set of noThruTrafficEdges */
-    collectNeighbourVertices(neighborsForVertex, traverseMode, true);
+    /* associate each connected vertex with a subgraph, without relevant noThruTrafficEdges */
+    var subgraphs = finder.connectedSubgraphs(false);
+    LOG.info(
+      "Islands when {} noThruTraffic is considered: {}",
+      traverseMode,
+      subgraphs.subgraphs.size()
+    );
 
     /* Next: generate subgraphs without considering access limitations */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
-    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, count);
+    var extgraphs = finder.connectedSubgraphs(true).subgraphs;
+    LOG.info("Islands when {} noThruTraffic is ignored: {}", traverseMode, extgraphs.size());
 
     /* collect unreachable edges to a map */
-    processIslands(islands, isolated, true, traverseMode);
-
-    extgraphs = new HashMap<>(); // let old map go
-    islands = new ArrayList<>(); // reset this too
+    processIslands(extgraphs, isolated, true, traverseMode);
 
     /* Recompute expanded subgraphs by accepting noThruTraffic edges in graph expansion.
-       However, expansion is not allowed to jump from an original island to another one
-     */
-    collectSubGraphs(neighborsForVertex, extgraphs, subgraphs, islands);
-
-    /* Next round: generate purely noThruTraffic islands if such ones exist */
-    count = collectSubGraphs(neighborsForVertex, extgraphs, null, islands);
+       However, expansion is not allowed to jump from an original island to another one.
+       Next round: generate purely noThruTraffic islands if such ones exist */
+    var expanded = finder.expand(subgraphs);
+    List<Subgraph> islands = new ArrayList<>(expanded.anchored());
+    islands.addAll(expanded.noThruTraffic());
 
-    LOG.info("{} noThruTraffic island count: {}", traverseMode, count);
+    LOG.info("{} noThruTraffic island count: {}", traverseMode, expanded.noThruTraffic().size());
 
     LOG.info("Total {} sub graphs found", islands.size());
 
-    count = processIslands(islands, isolated, false, traverseMode);
+    int count = processIslands(islands, isolated, false, traverseMode);
     LOG.info("Modified {} islands", count);
   }
 
   private int processIslands(
-    ArrayList<Subgraph> islands,
+    List<Subgraph> islands,
     Map<Edge, Boolean> isolated,
     boolean markIsolated,
     TraverseMode traverseMode
@@ -303,87 +310,6 @@ public class PruneIslands implements GraphBuilderModule {
     return count;
   }
 
-  private void collectNeighbourVertices(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    TraverseMode traverseMode,
-    boolean shouldMatchNoThruType
-  ) {
-    StreetMode streetMode =
-      switch (traverseMode) {
-        case WALK -> StreetMode.WALK;
-        case BICYCLE -> StreetMode.BIKE;
-        case CAR -> StreetMode.CAR;
-        default -> throw new IllegalArgumentException();
-      };
-
-    StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
-
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
-        continue;
-      }
-      State s0 = new State(gv, request);
-      for (Edge e : gv.getOutgoing()) {
-        if (
-          e instanceof StreetEdge &&
-          shouldMatchNoThruType != ((StreetEdge) e).isNoThruTraffic(traverseMode)
-        ) {
-          continue;
-        }
-        State[] states = e.traverse(s0);
-        if (State.isEmpty(states)) {
-          continue;
-        }
-        Arrays
-          .stream(states)
-          .map(State::getVertex)
-          .forEach(out -> {
-            var vertexList = neighborsForVertex.computeIfAbsent(gv, k -> new ArrayList<>());
-            vertexList.add(out);
-
-            // note: this assumes that edges are bi-directional. Maybe explicit state traversal is needed for CAR mode.
-            vertexList = neighborsForVertex.computeIfAbsent(out, k -> new ArrayList<>());
-            vertexList.add(gv);
-          });
-      }
-    }
-  }
-
-  private int collectSubGraphs(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Map<Vertex, Subgraph> newgraphs, // put new subgraphs here
-    Map<Vertex, Subgraph> subgraphs, // optional isolation map from a previous round
-    ArrayList<Subgraph> islands
-  ) { // final list of islands or null
-    int count = 0;
-    for (Vertex gv : graph.getVertices()) {
-      if (!(gv instanceof StreetVertex)) {
-        continue;
-      }
-
-      if (subgraphs != null && !subgraphs.containsKey(gv)) {
-        // do not start new graph generation from non-classified vertex
-        continue;
-      }
-      if (newgraphs.containsKey(gv)) { // already processed
-        continue;
-      }
-      if (!neighborsForVertex.containsKey(gv)) {
-        continue;
-      }
-      Subgraph subgraph = computeConnectedSubgraph(neighborsForVertex, gv, subgraphs, newgraphs);
-      for (Iterator<Vertex> vIter = subgraph.streetIterator(); vIter.hasNext();) {
-        Vertex subnode = vIter.next();
-        newgraphs.put(subnode, subgraph);
-      }
-      if (islands != null) {
-        islands.add(subgraph);
-      }
-      count++;
-    }
-    return count;
-  }
-
   private boolean restrictOrRemove(
     Subgraph island,
     Map<Edge, Boolean> isolated,
@@ -452,6 +378,7 @@ public class PruneIslands implements GraphBuilderModule {
                   // currently we must update spatial index manually, graph.removeEdge does not do that
                   vertexLinker.removePermanentEdgeFromIndex(pse);
                   graph.removeEdge(pse);
+                  removedEdges.add(pse);
                   stats.put("removed", stats.get("removed") + 1);
                   removed++;
                 } else {
@@ -483,6 +410,7 @@ public class PruneIslands implements GraphBuilderModule {
         edges.addAll(v.getIncoming());
         for (Edge e : edges) {
           graph.removeEdge(e);
+          removedEdges.add(e);
         }
       }
       if (island.stopSize() > 0) {
@@ -501,37 +429,4 @@ public class PruneIslands implements GraphBuilderModule {
     issueStore.add(new GraphIsland(island, nothru, restricted, removed, traverseMode.name()));
     return true;
   }
-
-  private Subgraph computeConnectedSubgraph(
-    Map<Vertex, ArrayList<Vertex>> neighborsForVertex,
-    Vertex startVertex,
-    Map<Vertex, Subgraph> anchors,
-    Map<Vertex, Subgraph> alreadyMapped
-  ) {
-    Subgraph subgraph = new Subgraph();
-    Queue<Vertex> q = new LinkedList<>();
-    Subgraph anchor = null;
-
-    if (anchors != null) {
-      // anchor subgraph expansion to this subgraph
-      anchor = anchors.get(startVertex);
-    }
-    q.add(startVertex);
-    while (!q.isEmpty()) {
-      Vertex vertex = q.poll();
-      for (Vertex neighbor : neighborsForVertex.get(vertex)) {
-        if (!subgraph.contains(neighbor) && !alreadyMapped.containsKey(neighbor)) {
-          if (anchor != null) {
-            Subgraph compare = anchors.get(neighbor);
-            if (compare != null && compare != anchor) { // do not enter a new island
-              continue;
-            }
-          }
-          subgraph.addVertex(neighbor);
-          q.add(neighbor);
-        }
-      }
-    }
-    return subgraph;
-  }
 }
@@ -0,0 +1,92 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+
+/**
+ * The connections in the street graph for one traverse mode. There is one connection for each
+ * state reached by traversing an outgoing edge of a street vertex. The connections are used as if
+ * they are bidirectional. The vertices are stored by their dense index, see
+ * {@link Vertex#getIndex()}.
+ * <p>
+ * The graph is only read, so the connections of several traverse modes can be collected at the
+ * same time.
+ */
+class StreetConnections {
+
+  private final TIntList from = new TIntArrayList();
+  private final TIntList to = new TIntArrayList();
+  private final List<Edge> edges = new ArrayList<>();
+  private final BitSet noThruTraffic = new BitSet();
+
+  private StreetConnections() {}
+
+  static StreetConnections collect(Collection<Vertex> vertices, TraverseMode traverseMode) {
+    StreetMode streetMode =
+      switch (traverseMode) {
+        case WALK -> StreetMode.WALK;
+        case BICYCLE -> StreetMode.BIKE;
+        case CAR -> StreetMode.CAR;
+        default -> throw new IllegalArgumentException();
+      };
+
+    StreetSearchRequest request = StreetSearchRequest.of().withMode(streetMode).build();
+    var connections = new StreetConnections();
+
+    for (Vertex gv : vertices) {
+      if (!(gv instanceof StreetVertex)) {
+        continue;
+      }
+      State s0 = new State(gv, request);
+      for (Edge e : gv.getOutgoing()) {
+        boolean noThruTraffic =
+          e instanceof StreetEdge streetEdge && streetEdge.isNoThruTraffic(traverseMode);
+        for (State state : e.traverse(s0)) {
+          connections.add(gv, state.getVertex(), e, noThruTraffic);
+        }
+      }
+    }
+    return connections;
+  }
+
+  int size() {
+    return edges.size();
+  }
+
+  int from(int i) {
+    return from.get(i);
+  }
+
+  int to(int i) {
+    return to.get(i);
+  }
+
+  Edge edge(int i) {
+    return edges.get(i);
+  }
+
+  boolean isNoThruTraffic(int i) {
+    return noThruTraffic.get(i);
+  }
+
+  private void add(Vertex from, Vertex to, Edge edge, boolean noThruTraffic) {
+    if (noThruTraffic) {
+      this.noThruTraffic.set(edges.size());
+    }
+    this.from.add(from.getIndex());
+    this.to.add(to.getIndex());
+    this.edges.add(edge);
+  }
+}
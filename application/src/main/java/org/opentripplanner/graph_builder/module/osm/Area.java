@@ -3,11 +3,11 @@ package org.opentripplanner.graph_builder.module.osm;
 import com.google.common.collect.ArrayListMultimap;
 import gnu.trove.list.TLongList;
 import gnu.trove.list.array.TLongArrayList;
-import gnu.trove.map.TLongObjectMap;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.LongFunction;
 import org.locationtech.jts.geom.MultiPolygon;
 import org.locationtech.jts.geom.Polygon;
 import org.locationtech.jts.geom.TopologyException;
@@ -32,7 +32,7 @@ class Area {
     OsmWithTags parent,
     List<OsmWay> outerRingWays,
     List<OsmWay> innerRingWays,
-    TLongObjectMap<OsmNode> nodes
+    LongFunction<OsmNode> nodes
   ) {
     this.parent = parent;
     // ring assignment
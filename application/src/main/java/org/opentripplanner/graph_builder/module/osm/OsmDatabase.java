@@ -60,7 +60,7 @@ public class OsmDatabase {
   private final DataImportIssueStore issueStore;
 
   /* Map of all nodes used in ways/areas keyed by their OSM ID */
-  private final TLongObjectMap<OsmNode> nodesById = new TLongObjectHashMap<>();
+  private final OsmNodeStore nodesById = new OsmNodeStore();
 
   /* Map of all bike parking nodes, keyed by their OSM ID */
   private final TLongObjectMap<OsmNode> bikeParkingNodes = new TLongObjectHashMap<>();
@@ -227,10 +227,7 @@ public class OsmDatabase {
       return;
     }
 
-    if (nodesById.containsKey(node.getId())) {
-      return;
-    }
-    nodesById.put(node.getId(), node);
+    nodesById.add(node);
   }
 
   public void addWay(OsmWay way) {
@@ -632,7 +629,7 @@ public class OsmDatabase {
     node.setId(virtualNodeId);
     virtualNodeId--;
     waysNodeIds.add(node.getId());
-    nodesById.put(node.getId(), node);
+    nodesById.add(node);
     return node;
   }
 
@@ -683,12 +680,12 @@ public class OsmDatabase {
       TLongIterator longIterator = way.getNodeRefs().iterator();
       while (longIterator.hasNext()) {
         long nodeRef = longIterator.next();
-        if (!nodesById.containsKey(nodeRef)) {
+        if (!nodesById.contains(nodeRef)) {
           continue AREA;
         }
       }
       try {
-        addArea(new Area(way, List.of(way), Collections.emptyList(), nodesById));
+        addArea(new Area(way, List.of(way), Collections.emptyList(), nodesById::get));
       } catch (Area.AreaConstructionException | Ring.RingConstructionException e) {
         // this area cannot be constructed, but we already have all the
         // necessary nodes to construct it. So, something must be wrong with
@@ -733,7 +730,7 @@ public class OsmDatabase {
         TLongIterator wayNodeIterator = way.getNodeRefs().iterator();
         while (wayNodeIterator.hasNext()) {
           long nodeId = wayNodeIterator.next();
-          if (nodesById.containsKey(nodeId)) {
+          if (nodesById.contains(nodeId)) {
             TroveUtils.addToMapSet(areasForNode, nodeId, way);
           } else {
             // this area is missing some nodes, perhaps because it is on
@@ -751,7 +748,7 @@ public class OsmDatabase {
       }
       processedAreas.add(relation);
       try {
-        addArea(new Area(relation, outerWays, innerWays, nodesById));
+        addArea(new Area(relation, outerWays, innerWays, nodesById::get));
       } catch (Area.AreaConstructionException | Ring.RingConstructionException e) {
         issueStore.add(new InvalidOsmGeometry(relation));
         continue;
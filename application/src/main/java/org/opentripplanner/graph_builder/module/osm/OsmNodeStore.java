@@ -0,0 +1,188 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.osm.model.OsmNode;
+
+/**
+ * Store the OSM nodes kept by the {@link OsmDatabase}. Most nodes in an OSM file are plain way
+ * geometry: they have no tags and only the id, coordinate and provider are needed. These are kept
+ * in primitive arrays sorted by id, using about a third of the memory of an {@link OsmNode}
+ * instance in a hash map. Tagged nodes and nodes created during the build are kept as objects.
+ * <p>
+ * A new {@link OsmNode} is created for an untagged node each time it is requested. Nodes are equal
+ * if they have the same id, so the sets and maps of nodes used by the graph build work with these
+ * instances. The instances are not cached, they are short-lived and cheap to collect.
+ * <p>
+ * The arrays are kept on the heap. A store in direct buffers would be capped by
+ * {@code -XX:MaxDirectMemorySize} instead of {@code -Xmx}, and a memory-mapped file by neither. A
+ * mapped store would need a temporary file of unknown size while the OSM files are read, and
+ * would move the memory use of the build outside the limits set for the JVM. The compact arrays
+ * already remove most of the per-node overhead.
+ * <p>
+ * PBF files are sorted by id, so the arrays are usually sorted when loaded. If not, or if more
+ * than one file is loaded, the arrays are sorted on the first lookup. If the same id is added
+ * more than once, the first node is kept.
+ * <p>
+ * This class is not thread-safe.
+ */
+class OsmNodeStore {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final TLongObjectMap<OsmNode> nodesWithTags = new TLongObjectHashMap<>();
+
+  private final List<OsmProvider> providers = new ArrayList<>();
+  private long[] ids = new long[INITIAL_CAPACITY];
+  private double[] lats = new double[INITIAL_CAPACITY];
+  private double[] lons = new double[INITIAL_CAPACITY];
+  private short[] providerIndexes = new short[INITIAL_CAPACITY];
+  private int size = 0;
+  private boolean sorted = true;
+
+  /**
+   * Add a node. Untagged nodes are copied into the primitive arrays, the given instance is not
+   * kept.
+   */
+  void add(OsmNode node) {
+    if (!isStoredAsObject(node)) {
+      addUntagged(node);
+    } else if (!nodesWithTags.containsKey(node.getId())) {
+      nodesWithTags.put(node.getId(), node);
+    }
+  }
+
+  boolean contains(long id) {
+    return nodesWithTags.containsKey(id) || indexOf(id) >= 0;
+  }
+
+  /**
+   * Return the node with the given id, or {@code null} if it is not in the store.
+   */
+  OsmNode get(long id) {
+    OsmNode node = nodesWithTags.get(id);
+    if (node != null) {
+      return node;
+    }
+    int index = indexOf(id);
+    return index < 0 ? null : materialize(index);
+  }
+
+  int size() {
+    sortIfNeeded();
+    return nodesWithTags.size() + size;
+  }
+
+  private static boolean isStoredAsObject(OsmNode node) {
+    return !node.getTags().isEmpty() || node.getId() < 0 || node.getOsmProvider() == null;
+  }
+
+  private void addUntagged(OsmNode node) {
+    if (size == ids.length) {
+      int capacity = size + (size >> 1);
+      ids = Arrays.copyOf(ids, capacity);
+      lats = Arrays.copyOf(lats, capacity);
+      lons = Arrays.copyOf(lons, capacity);
+      providerIndexes = Arrays.copyOf(providerIndexes, capacity);
+    }
+    if (size > 0 && ids[size - 1] >= node.getId()) {
+      sorted = false;
+    }
+    ids[size] = node.getId();
+    lats[size] = node.lat;
+    lons[size] = node.lon;
+    providerIndexes[size] = providerIndex(node.getOsmProvider());
+    ++size;
+  }
+
+  private short providerIndex(OsmProvider provider) {
+    // There are only a few providers, and nodes from the same provider come in sequence
+    for (int i = providers.size() - 1; i >= 0; --i) {
+      if (providers.get(i) == provider) {
+        return (short) i;
+      }
+    }
+    if (providers.size() == Short.MAX_VALUE) {
+      throw new IllegalStateException("Too many OSM providers: " + providers.size());
+    }
+    providers.add(provider);
+    return (short) (providers.size() - 1);
+  }
+
+  private int indexOf(long id) {
+    sortIfNeeded();
+    return Arrays.binarySearch(ids, 0, size, id);
+  }
+
+  private OsmNode materialize(int index) {
+    var node = new OsmNode();
+    node.setId(ids[index]);
+    node.lat = lats[index];
+    node.lon = lons[index];
+    node.setOsmProvider(providers.get(providerIndexes[index]));
+    return node;
+  }
+
+  /**
+   * Sort the arrays by id and remove duplicates, keeping the first node added. The sort must be
+   * stable, so the indexes are sorted with a merge sort before the arrays are rearranged.
+   */
+  private void sortIfNeeded() {
+    if (sorted) {
+      return;
+    }
+    int[] order = new int[size];
+    for (int i = 0; i < size; ++i) {
+      order[i] = i;
+    }
+    mergeSort(order, new int[size], 0, size);
+
+    long[] newIds = new long[size];
+    double[] newLats = new double[size];
+    double[] newLons = new double[size];
+    short[] newProviderIndexes = new short[size];
+    int n = 0;
+    for (int i : order) {
+      if (n > 0 && newIds[n - 1] == ids[i]) {
+        continue;
+      }
+      newIds[n] = ids[i];
+      newLats[n] = lats[i];
+      newLons[n] = lons[i];
+      newProviderIndexes[n] = providerIndexes[i];
+      ++n;
+    }
+    ids = newIds;
+    lats = newLats;
+    lons = newLons;
+    providerIndexes = newProviderIndexes;
+    size = n;
+    sorted = true;
+  }
+
+  private void mergeSort(int[] order, int[] tmp, int from, int to) {
+    if (to - from < 2) {
+      return;
+    }
+    int mid = (from + to) >>> 1;
+    mergeSort(order, tmp, from, mid);
+    mergeSort(order, tmp, mid, to);
+    if (ids[order[mid - 1]] <= ids[order[mid]]) {
+      return;
+    }
+    System.arraycopy(order, from, tmp, from, to - from);
+    int i = from;
+    int j = mid;
+    for (int k = from; k < to; ++k) {
+      if (j >= to || (i < mid && ids[tmp[i]] <= ids[tmp[j]])) {
+        order[k] = tmp[i++];
+      } else {
+        order[k] = tmp[j++];
+      }
+    }
+  }
+}
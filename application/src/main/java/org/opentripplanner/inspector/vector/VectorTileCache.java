@@ -0,0 +1,79 @@
+package org.opentripplanner.inspector.vector;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import edu.colorado.cires.cmg.mvt.VectorTile;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+/**
+ * Cache the serialized layers of vector tiles. Most tile requests are for the same few tiles,
+ * the ones covering the city centres at the default zoom levels, so building the layers again for
+ * each request is wasted work.
+ * <p>
+ * Each layer is cached as a tile with only this layer. Protobuf messages can be concatenated, so
+ * the response for a request with several layers is the cached layers written one after another.
+ * <p>
+ * A layer is cached for at most the {@code cacheMaxSeconds} of the layer, which is also the time
+ * the clients are allowed to cache the tile. A cached layer is also out of date if the data the
+ * layer is built from has changed, for example by a rental or parking updater, since the layer was
+ * built. The caller gives the version of this data with each request.
+ */
+public class VectorTileCache {
+
+  private final Cache<CacheKey, Entry> cache;
+  private final Ticker ticker;
+
+  public VectorTileCache(int maximumSize) {
+    this(maximumSize, Ticker.systemTicker());
+  }
+
+  VectorTileCache(int maximumSize, Ticker ticker) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+    this.ticker = ticker;
+  }
+
+  /**
+   * Return the cached layer, or build it with the {@code layerBuilder} and cache it.
+   *
+   * @param dataVersion the version of the data the layer is built from, a cached layer with
+   *                    another version is not used.
+   */
+  public byte[] layer(
+    String layerName,
+    int x,
+    int y,
+    int z,
+    Locale locale,
+    long dataVersion,
+    Duration maxAge,
+    Supplier<VectorTile.Tile.Layer> layerBuilder
+  ) {
+    var key = new CacheKey(layerName, x, y, z, locale);
+    long now = ticker.read();
+    var entry = cache.getIfPresent(key);
+    if (entry != null && entry.dataVersion() == dataVersion && now < entry.expires()) {
+      return entry.tile();
+    }
+    var tile = toTile(layerBuilder.get());
+    cache.put(key, new Entry(dataVersion, now + maxAge.toNanos(), tile));
+    return tile;
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  /**
+   * Serialize a tile with only the given layer.
+   */
+  static byte[] toTile(VectorTile.Tile.Layer layer) {
+    return VectorTile.Tile.newBuilder().addLayers(layer).build().toByteArray();
+  }
+
+  private record CacheKey(String layerName, int x, int y, int z, Locale locale) {}
+
+  private record Entry(long dataVersion, long expires, byte[] tile) {}
+}
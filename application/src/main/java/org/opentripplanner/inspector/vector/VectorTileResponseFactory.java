@@ -4,9 +4,14 @@ import edu.colorado.cires.cmg.mvt.VectorTile;
 import jakarta.ws.rs.core.CacheControl;
 import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.Response;
+import java.io.ByteArrayOutputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.Locale;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 import java.util.stream.Collectors;
+import javax.annotation.Nullable;
 import org.apache.hc.core5.http.ContentType;
 import org.locationtech.jts.geom.Envelope;
 import org.opentripplanner.api.resource.WebMercatorTile;
@@ -28,7 +33,41 @@ public class VectorTileResponseFactory {
     LayerBuilderFactory<LayerType> layerBuilderFactory,
     OtpServerRequestContext context
   ) {
-    VectorTile.Tile.Builder mvtBuilder = VectorTile.Tile.newBuilder();
+    return create(
+      x,
+      y,
+      z,
+      locale,
+      requestedLayers,
+      availableLayers,
+      layerBuilderFactory,
+      context,
+      null,
+      type -> 0
+    );
+  }
+
+  /**
+   * Create the response, and use the {@code cache} for the layers with a positive
+   * {@link LayerParameters#cacheMaxSeconds()}.
+   *
+   * @param dataVersion the version of the data each type of layer is built from, see
+   *                    {@link VectorTileCache}.
+   */
+  public static <LayerType extends Enum<LayerType>> Response create(
+    int x,
+    int y,
+    int z,
+    Locale locale,
+    List<String> requestedLayers,
+    List<LayerParameters<LayerType>> availableLayers,
+    LayerBuilderFactory<LayerType> layerBuilderFactory,
+    OtpServerRequestContext context,
+    @Nullable VectorTileCache cache,
+    ToLongFunction<LayerType> dataVersion
+  ) {
+    // Concatenated protobuf messages are merged when parsed, so each layer is written as a tile
+    var tile = new ByteArrayOutputStream();
     Envelope envelope = WebMercatorTile.tile2Envelope(x, y, z);
 
     int cacheMaxSeconds = Integer.MAX_VALUE;
@@ -57,10 +96,24 @@ public class VectorTileResponseFactory {
         z <= layerParameters.maxZoom()
       ) {
         cacheMaxSeconds = Math.min(cacheMaxSeconds, layerParameters.cacheMaxSeconds());
-        VectorTile.Tile.Layer layer = layerBuilderFactory
-          .createLayerBuilder(layerParameters, locale, context)
-          .build(envelope);
-        mvtBuilder.addLayers(layer);
+        Supplier<VectorTile.Tile.Layer> layerBuilder = () ->
+          layerBuilderFactory.createLayerBuilder(layerParameters, locale, context).build(envelope);
+        if (cache != null && layerParameters.cacheMaxSeconds() > 0) {
+          tile.writeBytes(
+            cache.layer(
+              layerParameters.name(),
+              x,
+              y,
+              z,
+              locale,
+              dataVersion.applyAsLong(layerParameters.type()),
+              Duration.ofSeconds(layerParameters.cacheMaxSeconds()),
+              layerBuilder
+            )
+          );
+        } else {
+          tile.writeBytes(VectorTileCache.toTile(layerBuilder.get()));
+        }
       }
     }
 
@@ -71,7 +124,7 @@ public class VectorTileResponseFactory {
     return Response
       .status(Response.Status.OK)
       .cacheControl(cacheControl)
-      .entity(mvtBuilder.build().toByteArray())
+      .entity(tile.toByteArray())
       .build();
   }
 
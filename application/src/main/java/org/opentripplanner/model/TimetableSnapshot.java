@@ -2,11 +2,8 @@ package org.opentripplanner.model;
 
 import static org.opentripplanner.utils.collection.CollectionUtils.getByNullableKey;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
-import com.google.common.collect.Multimap;
-import com.google.common.collect.SetMultimap;
 import java.time.LocalDate;
 import java.util.Collection;
 import java.util.Collections;
@@ -16,6 +13,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import javax.annotation.Nullable;
@@ -31,6 +29,7 @@ import org.opentripplanner.transit.model.timetable.TripOnServiceDate;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.opentripplanner.updater.spi.UpdateError;
 import org.opentripplanner.updater.spi.UpdateSuccess;
+import org.opentripplanner.utils.collection.PersistentMapBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -74,6 +73,12 @@ import org.slf4j.LoggerFactory;
  * in final fields and completely initialized in the constructor. This provides an additional
  * guarantee of safe-publication without synchronization.
  * (see <a href="https://docs.oracle.com/javase/specs/jls/se7/html/jls-17.html#jls-17.5">final Field Semantics</a>)
+ * <p>
+ * Implementation note: the buffer keeps its indexes in {@link PersistentMapBuffer}s. These are
+ * backed by persistent hash array mapped tries, so a commit does not copy the indexes; the
+ * committed snapshot shares all unchanged parts with the buffer and with older snapshots. The
+ * cost of a commit is proportional to the number of changes, not to the total amount of realtime
+ * data.
  */
 public class TimetableSnapshot {
 
@@ -123,11 +128,11 @@ public class TimetableSnapshot {
    * This is an index of TripPatterns, not the primary collection. It tracks which TripPatterns
    * that were updated or newly created by realtime messages contain which stops. This allows them
    * to be readily found and included in API responses containing stop times at a specific stop.
-   * This is a SetMultimap, so that each pattern is only retained once per stop even if it's added
-   * more than once.
+   * Each stop maps to a set of patterns, so that each pattern is only retained once per stop even
+   * if it's added more than once.
    * TODO RT_AB: More general handling of all realtime indexes outside primary data structures.
    */
-  private final SetMultimap<StopLocation, TripPattern> patternsForStop;
+  private final Map<StopLocation, Set<TripPattern>> patternsForStop;
 
   /**
    * The realTimeAdded* maps are indexes on the trips created at runtime (extra-journey), and the
@@ -137,7 +142,7 @@ public class TimetableSnapshot {
   private final Map<FeedScopedId, Route> realtimeAddedRoutes;
   private final Map<FeedScopedId, Trip> realTimeAddedTrips;
   private final Map<Trip, TripPattern> realTimeAddedPatternForTrip;
-  private final Multimap<Route, TripPattern> realTimeAddedPatternsForRoute;
+  private final Map<Route, Set<TripPattern>> realTimeAddedPatternsForRoute;
   private final Map<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById;
   private final Map<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay;
 
@@ -155,15 +160,15 @@ public class TimetableSnapshot {
 
   public TimetableSnapshot() {
     this(
-      new HashMap<>(),
-      new HashMap<>(),
-      new HashMap<>(),
-      new HashMap<>(),
-      new HashMap<>(),
-      HashMultimap.create(),
-      new HashMap<>(),
-      new HashMap<>(),
-      HashMultimap.create(),
+      new PersistentMapBuffer<>(),
+      new PersistentMapBuffer<>(),
+      new PersistentMapBuffer<>(),
+      new PersistentMapBuffer<>(),
+      new PersistentMapBuffer<>(),
+      new PersistentMapBuffer<>(),
+      new PersistentMapBuffer<>(),
+      new PersistentMapBuffer<>(),
+      new PersistentMapBuffer<>(),
       false
     );
   }
@@ -174,10 +179,10 @@ public class TimetableSnapshot {
     Map<FeedScopedId, Route> realtimeAddedRoutes,
     Map<FeedScopedId, Trip> realtimeAddedTrips,
     Map<Trip, TripPattern> realTimeAddedPatternForTrip,
-    Multimap<Route, TripPattern> realTimeAddedPatternsForRoute,
+    Map<Route, Set<TripPattern>> realTimeAddedPatternsForRoute,
     Map<FeedScopedId, TripOnServiceDate> realTimeAddedTripOnServiceDateById,
     Map<TripIdAndServiceDate, TripOnServiceDate> realTimeAddedTripOnServiceDateForTripAndDay,
-    SetMultimap<StopLocation, TripPattern> patternsForStop,
+    Map<StopLocation, Set<TripPattern>> patternsForStop,
     boolean readOnly
   ) {
     this.timetables = timetables;
@@ -265,7 +270,7 @@ public class TimetableSnapshot {
    * Return the trip patterns created by the updater for the given route.
    */
   public Collection<TripPattern> getRealTimeAddedPatternForRoute(Route route) {
-    return realTimeAddedPatternsForRoute.get(route);
+    return realTimeAddedPatternsForRoute.getOrDefault(route, Set.of());
   }
 
   /**
@@ -334,7 +339,7 @@ public class TimetableSnapshot {
       FeedScopedId tripId = trip.getId();
       realTimeAddedTrips.put(tripId, trip);
       realTimeAddedPatternForTrip.put(trip, pattern);
-      realTimeAddedPatternsForRoute.put(route, pattern);
+      addToSetIndex(realTimeAddedPatternsForRoute, route, pattern);
       TripOnServiceDate tripOnServiceDate = realTimeTripUpdate.addedTripOnServiceDate();
 
       if (tripOnServiceDate != null) {
@@ -351,12 +356,11 @@ public class TimetableSnapshot {
   }
 
   /**
-   * This produces a small delay of typically around 50ms, which is almost entirely due to the
-   * indexing step. Cloning the map is much faster (2ms). It is perhaps better to index timetables
-   * as they are changed to avoid experiencing all this lag at once, but we want to avoid
-   * re-indexing when receiving multiple updates for the same timetable in rapid succession. This
-   * compromise is expressed by the maxSnapshotFrequency property of StoptimeUpdater. The indexing
-   * could be made much more efficient as well.
+   * Committing does not copy the indexes, the new snapshot takes an immutable version of each
+   * persistent map in constant time. The only remaining delay is the update of the transit layer,
+   * which is proportional to the number of dirty timetables. Re-indexing when receiving multiple
+   * updates for the same timetable in rapid succession is avoided by the maxSnapshotFrequency
+   * property of StoptimeUpdater.
    *
    * @return an immutable copy of this TimetableSnapshot with all updates applied
    */
@@ -371,15 +375,15 @@ public class TimetableSnapshot {
       return null;
     }
     TimetableSnapshot ret = new TimetableSnapshot(
-      Map.copyOf(timetables),
-      Map.copyOf(realTimeNewTripPatternsForModifiedTrips),
-      Map.copyOf(realtimeAddedRoutes),
-      Map.copyOf(realTimeAddedTrips),
-      Map.copyOf(realTimeAddedPatternForTrip),
-      ImmutableSetMultimap.copyOf(realTimeAddedPatternsForRoute),
-      Map.copyOf(realTimeAddedTripOnServiceDateById),
-      Map.copyOf(realTimeAddedTripOnServiceDateForTripAndDay),
-      ImmutableSetMultimap.copyOf(patternsForStop),
+      snapshotOf(timetables),
+      snapshotOf(realTimeNewTripPatternsForModifiedTrips),
+      snapshotOf(realtimeAddedRoutes),
+      snapshotOf(realTimeAddedTrips),
+      snapshotOf(realTimeAddedPatternForTrip),
+      snapshotOf(realTimeAddedPatternsForRoute),
+      snapshotOf(realTimeAddedTripOnServiceDateById),
+      snapshotOf(realTimeAddedTripOnServiceDateForTripAndDay),
+      snapshotOf(patternsForStop),
       true
     );
 
@@ -531,7 +535,7 @@ public class TimetableSnapshot {
   }
 
   public Collection<TripPattern> getPatternsForStop(StopLocation stop) {
-    return patternsForStop.get(stop);
+    return patternsForStop.getOrDefault(stop, Set.of());
   }
 
   /**
@@ -597,11 +601,34 @@ public class TimetableSnapshot {
       //TODO - SIRI: Add pattern to index?
 
       for (var stop : tripPattern.getStops()) {
-        patternsForStop.put(stop, tripPattern);
+        addToSetIndex(patternsForStop, stop, tripPattern);
       }
     }
   }
 
+  /**
+   * Add a value to an index of immutable sets. The set is replaced, not modified, since it may be
+   * shared with a previously committed snapshot. The sets are small, so the copy is cheap.
+   */
+  private static <K, V> void addToSetIndex(Map<K, Set<V>> index, K key, V value) {
+    Set<V> values = index.get(key);
+    if (values == null) {
+      index.put(key, ImmutableSet.of(value));
+    } else if (!values.contains(value)) {
+      index.put(
+        key,
+        ImmutableSet.<V>builderWithExpectedSize(values.size() + 1).addAll(values).add(value).build()
+      );
+    }
+  }
+
+  /**
+   * Take an immutable snapshot of one of the buffer indexes. This does not copy the map.
+   */
+  private static <K, V> Map<K, V> snapshotOf(Map<K, V> map) {
+    return ((PersistentMapBuffer<K, V>) map).snapshot();
+  }
+
   /**
    * Replace the original Timetable by the updated one in the timetable index.
    * The SortedSet that holds the collection of Timetables for that pattern
@@ -1,10 +1,8 @@
 package org.opentripplanner.netex;
 
-import jakarta.xml.bind.JAXBException;
 import java.io.Closeable;
 import java.io.IOException;
 import java.util.Collection;
-import java.util.List;
 import java.util.Set;
 import org.opentripplanner.datastore.api.CompositeDataSource;
 import org.opentripplanner.datastore.api.DataSource;
@@ -15,13 +13,13 @@ import org.opentripplanner.netex.config.NetexFeedParameters;
 import org.opentripplanner.netex.index.NetexEntityIndex;
 import org.opentripplanner.netex.loader.GroupEntries;
 import org.opentripplanner.netex.loader.NetexDataSourceHierarchy;
-import org.opentripplanner.netex.loader.NetexXmlParser;
+import org.opentripplanner.netex.loader.ParallelNetexXmlParser;
+import org.opentripplanner.netex.loader.ParallelNetexXmlParser.ParsedDocument;
 import org.opentripplanner.netex.loader.parser.NetexDocumentParser;
 import org.opentripplanner.netex.mapping.NetexMapper;
 import org.opentripplanner.netex.validation.Validator;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
-import org.rutebanken.netex.model.PublicationDeliveryStructure;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -50,13 +48,14 @@ public class NetexBundle implements Closeable {
   private final double maxStopToShapeSnapDistance;
   private final boolean noTransfersOnIsolatedStops;
   private final Set<IgnorableFeature> ignoredFeatures;
+  private final int xmlParserThreads;
   /** The NeTEx entities loaded from the input files and passed on to the mapper. */
   private NetexEntityIndex index = new NetexEntityIndex();
   /** Report errors to issue store */
   private DataImportIssueStore issueStore;
   /** maps the NeTEx XML document to OTP transit model. */
   private NetexMapper mapper;
-  private NetexXmlParser xmlParser;
+  private ParallelNetexXmlParser xmlParser;
 
   public NetexBundle(
     String feedId,
@@ -67,7 +66,8 @@ public class NetexBundle implements Closeable {
     Collection<FeedScopedId> routeToCentroidStopPlaceIds,
     double maxStopToShapeSnapDistance,
     boolean noTransfersOnIsolatedStops,
-    Set<IgnorableFeature> ignorableFeatures
+    Set<IgnorableFeature> ignorableFeatures,
+    int xmlParserThreads
   ) {
     this.feedId = feedId;
     this.source = source;
@@ -78,6 +78,7 @@ public class NetexBundle implements Closeable {
     this.maxStopToShapeSnapDistance = maxStopToShapeSnapDistance;
     this.noTransfersOnIsolatedStops = noTransfersOnIsolatedStops;
     this.ignoredFeatures = Set.copyOf(ignorableFeatures);
+    this.xmlParserThreads = xmlParserThreads;
   }
 
   /** load the bundle, map it to the OTP transit model and return */
@@ -89,8 +90,7 @@ public class NetexBundle implements Closeable {
 
     this.issueStore = issueStore;
 
-    // init parser and mapper
-    xmlParser = new NetexXmlParser();
+    // init mapper
     mapper =
       new NetexMapper(
         transitBuilder,
@@ -104,7 +104,10 @@ public class NetexBundle implements Closeable {
       );
 
     // Load data
-    loadFileEntries();
+    try (var parser = new ParallelNetexXmlParser(xmlParserThreads)) {
+      xmlParser = parser;
+      loadFileEntries();
+    }
 
     return transitBuilder;
   }
@@ -134,12 +137,15 @@ public class NetexBundle implements Closeable {
         // Load shared group files
         loadFilesThenMapToTimetableRepository("shared group file", group.sharedEntries());
 
-        for (DataSource entry : group.independentEntries()) {
-          scopeInputData(() -> {
-            // Load each independent file in group
-            loadFilesThenMapToTimetableRepository("group file", List.of(entry));
-          });
-        }
+        // Load each independent file in group, the files are parsed ahead in parallel
+        xmlParser.parse(
+          group.independentEntries(),
+          doc ->
+            scopeInputData(() -> {
+              loadSingleFileEntry("group file", doc);
+              mapToTimetableRepository();
+            })
+        );
       });
     }
     mapper.finishUp();
@@ -168,11 +174,12 @@ public class NetexBundle implements Closeable {
     String fileDescription,
     Iterable<DataSource> entries
   ) {
-    for (DataSource entry : entries) {
-      // Load entry and store it in the index
-      loadSingeFileEntry(fileDescription, entry);
-    }
+    // Load entries and store them in the index
+    xmlParser.parse(entries, doc -> loadSingleFileEntry(fileDescription, doc));
+    mapToTimetableRepository();
+  }
 
+  private void mapToTimetableRepository() {
     // Validate input data, and remove invalid data
     Validator.validate(index, issueStore);
 
@@ -180,15 +187,19 @@ public class NetexBundle implements Closeable {
     mapper.mapNetexToOtp(index.readOnlyView());
   }
 
-  /** Load a single entry and store it in the index for later */
-  private void loadSingeFileEntry(String fileDescription, DataSource entry) {
+  /** Store the entities of a single parsed entry in the index for later */
+  private void loadSingleFileEntry(String fileDescription, ParsedDocument doc) {
+    var entry = doc.entry();
     try {
-      LOG.info("reading entity {}: {}", fileDescription, entry.name());
       issueStore.startProcessingSource(entry.name());
-      PublicationDeliveryStructure doc = xmlParser.parseXmlDoc(entry.asInputStream());
-      NetexDocumentParser.parseAndPopulateIndex(index, doc, ignoredFeatures);
-    } catch (JAXBException e) {
-      throw new RuntimeException(e.getMessage(), e);
+      var document = doc.document(NetexDocumentParser.journeyConsumer(index));
+      LOG.info(
+        "reading entity {}: {} (parsed in {} ms)",
+        fileDescription,
+        entry.name(),
+        doc.parseTime().toMillis()
+      );
+      NetexDocumentParser.parseAndPopulateIndex(index, document, ignoredFeatures);
     } finally {
       issueStore.stopProcessingSource();
     }
@@ -31,6 +31,7 @@ public class NetexFeedParameters implements DataSourceConfig {
   private static final String SHARED_GROUP_FILE_PATTERN = "(\\w{3})-.*-shared\\.xml";
   private static final String GROUP_FILE_PATTERN = "(\\w{3})-.*\\.xml";
   private static final boolean NO_TRANSFERS_ON_ISOLATED_STOPS = false;
+  private static final int XML_PARSER_THREADS = 1;
   private static final Set<IgnorableFeature> IGNORED_FEATURES = Set.of(PARKING);
 
   private static final Set<String> FERRY_IDS_NOT_ALLOWED_FOR_BICYCLE = Collections.emptySet();
@@ -52,6 +53,7 @@ public class NetexFeedParameters implements DataSourceConfig {
   private final Set<String> ferryIdsNotAllowedForBicycle;
   private final boolean noTransfersOnIsolatedStops;
   private final Set<IgnorableFeature> ignoredFeatures;
+  private final int xmlParserThreads;
 
   private NetexFeedParameters() {
     this.source = null;
@@ -67,6 +69,7 @@ public class NetexFeedParameters implements DataSourceConfig {
     this.ferryIdsNotAllowedForBicycle = FERRY_IDS_NOT_ALLOWED_FOR_BICYCLE;
     this.noTransfersOnIsolatedStops = NO_TRANSFERS_ON_ISOLATED_STOPS;
     this.ignoredFeatures = IGNORED_FEATURES;
+    this.xmlParserThreads = XML_PARSER_THREADS;
   }
 
   private NetexFeedParameters(Builder builder) {
@@ -79,6 +82,12 @@ public class NetexFeedParameters implements DataSourceConfig {
     this.ferryIdsNotAllowedForBicycle = Set.copyOf(builder.ferryIdsNotAllowedForBicycle);
     this.noTransfersOnIsolatedStops = builder.noTransfersOnIsolatedStops;
     this.ignoredFeatures = Set.copyOf(builder.ignoredFeatures);
+    this.xmlParserThreads = builder.xmlParserThreads;
+    if (xmlParserThreads < 1) {
+      throw new IllegalArgumentException(
+        "xmlParserThreads must be at least 1: " + xmlParserThreads
+      );
+    }
   }
 
   public static Builder of() {
@@ -137,6 +146,11 @@ public class NetexFeedParameters implements DataSourceConfig {
     return ignoredFeatures.contains(PARKING);
   }
 
+  /** See {@link org.opentripplanner.standalone.config.buildconfig.NetexConfig}. */
+  public int xmlParserThreads() {
+    return xmlParserThreads;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -150,7 +164,8 @@ public class NetexFeedParameters implements DataSourceConfig {
       sharedGroupFilePattern.equals(that.sharedGroupFilePattern) &&
       groupFilePattern.equals(that.groupFilePattern) &&
       ignoredFeatures.equals(that.ignoredFeatures) &&
-      ferryIdsNotAllowedForBicycle.equals(that.ferryIdsNotAllowedForBicycle)
+      ferryIdsNotAllowedForBicycle.equals(that.ferryIdsNotAllowedForBicycle) &&
+      xmlParserThreads == that.xmlParserThreads
     );
   }
 
@@ -164,7 +179,8 @@ public class NetexFeedParameters implements DataSourceConfig {
       sharedGroupFilePattern,
       groupFilePattern,
       ignoredFeatures,
-      ferryIdsNotAllowedForBicycle
+      ferryIdsNotAllowedForBicycle,
+      xmlParserThreads
     );
   }
 
@@ -180,6 +196,7 @@ public class NetexFeedParameters implements DataSourceConfig {
       .addStr("ignoreFilePattern", ignoreFilePattern, DEFAULT.ignoreFilePattern)
       .addCol("ignoredFeatures", ignoredFeatures)
       .addCol("ferryIdsNotAllowedForBicycle", ferryIdsNotAllowedForBicycle, Set.of())
+      .addNum("xmlParserThreads", xmlParserThreads, DEFAULT.xmlParserThreads)
       .toString();
   }
 
@@ -200,6 +217,7 @@ public class NetexFeedParameters implements DataSourceConfig {
     private final Set<String> routeToCentroidStopPlaceIds = new HashSet<>();
     private boolean noTransfersOnIsolatedStops;
     private final Set<IgnorableFeature> ignoredFeatures;
+    private int xmlParserThreads;
 
     private Builder(NetexFeedParameters original) {
       this.original = original;
@@ -212,6 +230,7 @@ public class NetexFeedParameters implements DataSourceConfig {
       this.ferryIdsNotAllowedForBicycle.addAll(original.ferryIdsNotAllowedForBicycle);
       this.noTransfersOnIsolatedStops = original.noTransfersOnIsolatedStops;
       this.ignoredFeatures = new HashSet<>(original.ignoredFeatures);
+      this.xmlParserThreads = original.xmlParserThreads;
     }
 
     public URI source() {
@@ -271,6 +290,11 @@ public class NetexFeedParameters implements DataSourceConfig {
       return applyIgnore(ignoreParking, PARKING);
     }
 
+    public Builder withXmlParserThreads(int xmlParserThreads) {
+      this.xmlParserThreads = xmlParserThreads;
+      return this;
+    }
+
     private Builder applyIgnore(boolean ignore, IgnorableFeature feature) {
       if (ignore) {
         ignoredFeatures.add(feature);
@@ -79,7 +79,8 @@ public class NetexConfigure {
       buildParams.transitRouteToStationCentroid(),
       buildParams.maxStopToShapeSnapDistance,
       config.noTransfersOnIsolatedStops(),
-      config.ignoredFeatures()
+      config.ignoredFeatures(),
+      config.xmlParserThreads()
     );
   }
 
@@ -5,34 +5,83 @@ import jakarta.xml.bind.JAXBElement;
 import jakarta.xml.bind.JAXBException;
 import jakarta.xml.bind.Unmarshaller;
 import java.io.InputStream;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.rutebanken.netex.model.Journey_VersionStructure;
 import org.rutebanken.netex.model.PublicationDeliveryStructure;
 
-/** Simple wrapper to perform typesafe xml parsing and simple error handling. */
+/**
+ * Simple wrapper to perform typesafe xml parsing and simple error handling. The parser is not
+ * thread-safe, create one parser for each thread.
+ * <p>
+ * The document is read with a StAX stream reader, which streams the service journeys and dated
+ * service journeys of the timetable frames to a consumer one at a time, see
+ * {@link VehicleJourneyStreamReader}.
+ */
 public class NetexXmlParser {
 
+  /** The JAXB context is thread-safe and expensive to create, so it is shared by all parsers. */
+  private static final JAXBContext CONTEXT = createContext();
+
   /** used to parse the XML. */
   private final Unmarshaller unmarshaller;
 
+  /** used to parse the streamed journeys, while the unmarshaller above parses the document. */
+  private final Unmarshaller journeyUnmarshaller;
+
+  private final XMLInputFactory xmlInputFactory;
+
   public NetexXmlParser() {
     this.unmarshaller = createUnmarshaller();
+    this.journeyUnmarshaller = createUnmarshaller();
+    this.xmlInputFactory = createXmlInputFactory();
   }
 
   /**
-   * Parse an input stream and return the root document type for the given xml file (stream).
+   * Parse an input stream and return the root document type for the given xml file (stream). The
+   * service journeys and dated service journeys of the timetable frames are passed to the
+   * {@code journeyConsumer} while the document is parsed, and are not part of the returned
+   * document.
    */
-  public PublicationDeliveryStructure parseXmlDoc(InputStream stream) throws JAXBException {
+  public PublicationDeliveryStructure parseXmlDoc(
+    InputStream stream,
+    Consumer<Journey_VersionStructure> journeyConsumer
+  ) throws JAXBException {
     JAXBElement<PublicationDeliveryStructure> root;
+    XMLStreamReader reader = null;
 
-    //noinspection unchecked
-    root = (JAXBElement<PublicationDeliveryStructure>) unmarshaller.unmarshal(stream);
-
+    try {
+      reader = new VehicleJourneyStreamReader(
+        xmlInputFactory.createXMLStreamReader(stream),
+        journeyUnmarshaller,
+        journeyConsumer
+      );
+      //noinspection unchecked
+      root = (JAXBElement<PublicationDeliveryStructure>) unmarshaller.unmarshal(reader);
+    } catch (XMLStreamException e) {
+      throw new JAXBException(e.getMessage(), e);
+    } finally {
+      close(reader);
+    }
     return root.getValue();
   }
 
+  private static void close(XMLStreamReader reader) {
+    if (reader != null) {
+      try {
+        reader.close();
+      } catch (XMLStreamException ignore) {
+        // The parsing is done, nothing to do
+      }
+    }
+  }
+
   /** factory method for unmarshaller */
   private static Unmarshaller createUnmarshaller() {
     try {
-      return JAXBContext.newInstance(PublicationDeliveryStructure.class).createUnmarshaller();
+      return CONTEXT.createUnmarshaller();
     } catch (JAXBException e) {
       // This is a programming error - not expected!
       // We abort early and also allow for this to happen in the constructor;
@@ -40,4 +89,21 @@ public class NetexXmlParser {
       throw new RuntimeException(e);
     }
   }
+
+  private static XMLInputFactory createXmlInputFactory() {
+    var factory = XMLInputFactory.newFactory();
+    // NeTEx documents do not use DTDs, do not resolve external entities
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    return factory;
+  }
+
+  private static JAXBContext createContext() {
+    try {
+      return JAXBContext.newInstance(PublicationDeliveryStructure.class);
+    } catch (JAXBException e) {
+      // This is a programming error - not expected!
+      throw new RuntimeException(e);
+    }
+  }
 }
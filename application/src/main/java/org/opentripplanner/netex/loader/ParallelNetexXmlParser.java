@@ -0,0 +1,171 @@
+package org.opentripplanner.netex.loader;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import jakarta.xml.bind.JAXBException;
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import javax.annotation.Nullable;
+import org.opentripplanner.datastore.api.DataSource;
+import org.rutebanken.netex.model.Journey_VersionStructure;
+import org.rutebanken.netex.model.PublicationDeliveryStructure;
+
+/**
+ * Parse the XML files of a NeTEx bundle on a thread pool. Parsing the XML is the most time
+ * consuming part of loading a large bundle, and the files can be parsed independently of each
+ * other.
+ * <p>
+ * The parsed documents are passed on to the consumer on the calling thread, in the same order as
+ * the entries. Hence, the NeTEx index and the mapper do not need to be thread-safe, and the result
+ * is the same as when the files are parsed on one thread. Each thread has its own
+ * {@link NetexXmlParser}, since the JAXB unmarshaller is not thread-safe. The number of files in
+ * progress is limited to keep the memory use down.
+ * <p>
+ * With one thread, each file is parsed on the calling thread when the consumer asks for the
+ * document. The journeys streamed out of the document then go straight to the consumer, instead of
+ * being collected in a list first.
+ */
+public class ParallelNetexXmlParser implements Closeable {
+
+  @Nullable
+  private final ExecutorService executor;
+
+  private final int maxFilesInProgress;
+  private final ThreadLocal<NetexXmlParser> parsers = ThreadLocal.withInitial(NetexXmlParser::new);
+
+  public ParallelNetexXmlParser(int nThreads) {
+    this.executor = nThreads > 1 ? createExecutor(nThreads) : null;
+    this.maxFilesInProgress = 2 * nThreads;
+  }
+
+  /**
+   * Parse the entries and pass the parsed documents to the {@code consumer}, in the same order as
+   * the entries.
+   */
+  public void parse(Iterable<DataSource> entries, Consumer<ParsedDocument> consumer) {
+    if (executor == null) {
+      entries.forEach(entry -> consumer.accept(new ParsedDocument(entry, parsers.get())));
+      return;
+    }
+    Deque<Future<ParsedDocument>> inProgress = new ArrayDeque<>();
+    try {
+      for (DataSource entry : entries) {
+        inProgress.add(executor.submit(() -> ParsedDocument.parseAhead(entry, parsers.get())));
+        if (inProgress.size() >= maxFilesInProgress) {
+          consumer.accept(get(inProgress.poll()));
+        }
+      }
+      while (!inProgress.isEmpty()) {
+        consumer.accept(get(inProgress.poll()));
+      }
+    } finally {
+      inProgress.forEach(it -> it.cancel(true));
+    }
+  }
+
+  /** The maximum number of files submitted to the thread pool, and not yet consumed. */
+  int maxFilesInProgress() {
+    return maxFilesInProgress;
+  }
+
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+    }
+  }
+
+  private static ParsedDocument get(Future<ParsedDocument> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Parsing NeTEx files interrupted.", e);
+    } catch (ExecutionException e) {
+      throw (e.getCause() instanceof RuntimeException re) ? re : new RuntimeException(e);
+    }
+  }
+
+  private static ExecutorService createExecutor(int nThreads) {
+    return Executors.newFixedThreadPool(
+      nThreads,
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("netex-parser-%d").build()
+    );
+  }
+
+  /**
+   * A NeTEx file, parsed ahead on a worker thread or parsed on the calling thread when the document
+   * is requested. The service journeys and dated service journeys of the timetable frames are
+   * streamed out of the document, see {@link NetexXmlParser}. A file parsed ahead keeps these
+   * journeys in a list until the document is requested, a file parsed on the calling thread passes
+   * them straight to the journey consumer.
+   */
+  public static final class ParsedDocument {
+
+    private final DataSource entry;
+
+    /** The parser to use on the calling thread, {@code null} if the file is parsed ahead. */
+    @Nullable
+    private final NetexXmlParser parser;
+
+    private PublicationDeliveryStructure document;
+    private List<Journey_VersionStructure> journeys = List.of();
+    private Duration parseTime;
+
+    private ParsedDocument(DataSource entry, @Nullable NetexXmlParser parser) {
+      this.entry = entry;
+      this.parser = parser;
+    }
+
+    private static ParsedDocument parseAhead(DataSource entry, NetexXmlParser parser) {
+      var doc = new ParsedDocument(entry, null);
+      var journeys = new ArrayList<Journey_VersionStructure>();
+      doc.parse(parser, journeys::add);
+      doc.journeys = journeys;
+      return doc;
+    }
+
+    public DataSource entry() {
+      return entry;
+    }
+
+    /**
+     * Return the document, and pass the journeys streamed out of it to the
+     * {@code journeyConsumer}. Call this once.
+     */
+    public PublicationDeliveryStructure document(
+      Consumer<Journey_VersionStructure> journeyConsumer
+    ) {
+      if (document == null) {
+        parse(parser, journeyConsumer);
+      } else {
+        journeys.forEach(journeyConsumer);
+        journeys = List.of();
+      }
+      return document;
+    }
+
+    /** The time it took to parse the file, set when the document is parsed. */
+    public Duration parseTime() {
+      return parseTime;
+    }
+
+    private void parse(NetexXmlParser parser, Consumer<Journey_VersionStructure> journeyConsumer) {
+      long start = System.nanoTime();
+      try {
+        this.document = parser.parseXmlDoc(entry.asInputStream(), journeyConsumer);
+      } catch (JAXBException e) {
+        throw new RuntimeException(e.getMessage(), e);
+      }
+      this.parseTime = Duration.ofNanos(System.nanoTime() - start);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package org.opentripplanner.netex.loader;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.Unmarshaller;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.function.Consumer;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import org.rutebanken.netex.model.DatedServiceJourney;
+import org.rutebanken.netex.model.Journey_VersionStructure;
+import org.rutebanken.netex.model.ServiceJourney;
+
+/**
+ * Stream the {@code ServiceJourney} and {@code DatedServiceJourney} elements of the timetable
+ * frames out of a NeTEx document. When one of these elements is reached, it is unmarshalled on its
+ * own and passed to the consumer, and the element is skipped in the stream. The document
+ * unmarshalled from this reader is the same as the original, except that the vehicle journeys of
+ * the timetable frames only contain the journey types not streamed.
+ * <p>
+ * The journeys are most of the data in a line file, so the journeys do not need to be kept in the
+ * document tree until the whole file is read.
+ */
+class VehicleJourneyStreamReader extends StreamReaderDelegate {
+
+  private static final String NETEX_NAMESPACE = "http://www.netex.org.uk/netex";
+  private static final String TIMETABLE_FRAME = "TimetableFrame";
+  private static final String VEHICLE_JOURNEYS = "vehicleJourneys";
+
+  private static final Map<String, Class<? extends Journey_VersionStructure>> STREAMED_TYPES =
+    Map.of(
+      "ServiceJourney",
+      ServiceJourney.class,
+      "DatedServiceJourney",
+      DatedServiceJourney.class
+    );
+
+  /** Used to unmarshal the journeys, while the document unmarshaller reads from this reader. */
+  private final Unmarshaller journeyUnmarshaller;
+  private final Consumer<Journey_VersionStructure> journeyConsumer;
+
+  /** The local names of the elements from the root to the current element. */
+  private final Deque<String> path = new ArrayDeque<>();
+
+  VehicleJourneyStreamReader(
+    XMLStreamReader reader,
+    Unmarshaller journeyUnmarshaller,
+    Consumer<Journey_VersionStructure> journeyConsumer
+  ) {
+    super(reader);
+    this.journeyUnmarshaller = journeyUnmarshaller;
+    this.journeyConsumer = journeyConsumer;
+  }
+
+  @Override
+  public int next() throws XMLStreamException {
+    int event = super.next();
+    while (event == START_ELEMENT && isStreamedJourney()) {
+      journeyConsumer.accept(unmarshalJourney());
+      // The journey unmarshaller leaves the reader at the event after the end of the journey
+      event = getEventType();
+    }
+    if (event == START_ELEMENT) {
+      path.push(getLocalName());
+    } else if (event == END_ELEMENT) {
+      path.pop();
+    }
+    return event;
+  }
+
+  /**
+   * The parent implementation would skip the streamed journeys, so this is implemented using
+   * {@link #next()}, as described in {@link XMLStreamReader#nextTag()}.
+   */
+  @Override
+  public int nextTag() throws XMLStreamException {
+    int event = next();
+    while (isWhiteSpaceOrIgnorable(event)) {
+      event = next();
+    }
+    if (event != START_ELEMENT && event != END_ELEMENT) {
+      throw new XMLStreamException("Expected start or end tag", getLocation());
+    }
+    return event;
+  }
+
+  private boolean isWhiteSpaceOrIgnorable(int event) {
+    return switch (event) {
+      case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA -> isWhiteSpace();
+      case XMLStreamConstants.SPACE,
+        XMLStreamConstants.PROCESSING_INSTRUCTION,
+        XMLStreamConstants.COMMENT -> true;
+      default -> false;
+    };
+  }
+
+  private boolean isStreamedJourney() {
+    if (
+      !NETEX_NAMESPACE.equals(getNamespaceURI()) ||
+      !STREAMED_TYPES.containsKey(getLocalName()) ||
+      !VEHICLE_JOURNEYS.equals(path.peek())
+    ) {
+      return false;
+    }
+    var it = path.iterator();
+    it.next();
+    return it.hasNext() && TIMETABLE_FRAME.equals(it.next());
+  }
+
+  private Journey_VersionStructure unmarshalJourney() throws XMLStreamException {
+    var type = STREAMED_TYPES.get(getLocalName());
+    try {
+      return journeyUnmarshaller.unmarshal(getParent(), type).getValue();
+    } catch (JAXBException e) {
+      throw new XMLStreamException(e.getMessage(), getLocation(), e);
+    }
+  }
+}
@@ -6,6 +6,7 @@ import jakarta.xml.bind.JAXBElement;
 import java.util.Collection;
 import java.util.List;
 import java.util.Set;
+import java.util.function.Consumer;
 import org.opentripplanner.netex.config.IgnorableFeature;
 import org.opentripplanner.netex.index.NetexEntityIndex;
 import org.rutebanken.netex.model.Common_VersionFrameStructure;
@@ -13,6 +14,7 @@ import org.rutebanken.netex.model.CompositeFrame;
 import org.rutebanken.netex.model.FareFrame;
 import org.rutebanken.netex.model.GeneralFrame;
 import org.rutebanken.netex.model.InfrastructureFrame;
+import org.rutebanken.netex.model.Journey_VersionStructure;
 import org.rutebanken.netex.model.PublicationDeliveryStructure;
 import org.rutebanken.netex.model.ResourceFrame;
 import org.rutebanken.netex.model.ServiceCalendarFrame;
@@ -53,6 +55,14 @@ public class NetexDocumentParser {
     new NetexDocumentParser(index, ignoredFeatures).parse(doc);
   }
 
+  /**
+   * Return a consumer which adds the vehicle journeys streamed out of the timetable frames of a
+   * document to the given index.
+   */
+  public static Consumer<Journey_VersionStructure> journeyConsumer(NetexEntityIndex index) {
+    return journey -> TimeTableFrameParser.addJourneyToIndex(index, journey);
+  }
+
   public static void finishUp() {
     ServiceFrameParser.logSummary();
   }
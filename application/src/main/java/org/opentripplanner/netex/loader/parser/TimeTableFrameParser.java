@@ -69,6 +69,19 @@ class TimeTableFrameParser extends NetexParser<Timetable_VersionFrameStructure>
     noticeParser.setResultOnIndex(netexIndex);
   }
 
+  /**
+   * Add a journey streamed out of a timetable frame to the index, see {@code NetexXmlParser}.
+   */
+  static void addJourneyToIndex(NetexEntityIndex netexIndex, Journey_VersionStructure journey) {
+    if (journey instanceof ServiceJourney serviceJourney) {
+      netexIndex.serviceJourneyById.add(serviceJourney);
+    } else if (journey instanceof DatedServiceJourney datedServiceJourney) {
+      netexIndex.datedServiceJourneys.add(datedServiceJourney);
+    } else {
+      warnOnMissingMapping(LOG, journey);
+    }
+  }
+
   private void parseJourneys(JourneysInFrame_RelStructure element) {
     if (element == null) {
       return;
@@ -1,10 +1,13 @@
 package org.opentripplanner.osm;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import org.openstreetmap.osmosis.osmbinary.file.BlockInputStream;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.datastore.api.FileType;
@@ -28,8 +31,18 @@ public class OsmProvider {
 
   private static final Logger LOG = LoggerFactory.getLogger(OsmProvider.class);
 
+  /**
+   * The blocks are read and passed on to the database on the calling thread, so leave one
+   * processor for it.
+   */
+  private static final int N_PARSER_THREADS = Math.max(
+    1,
+    Runtime.getRuntime().availableProcessors() - 1
+  );
+
   private final DataSource source;
   private final boolean cacheDataInMem;
+  private final boolean multiThreadParsing;
 
   private final ZoneId zoneId;
 
@@ -47,6 +60,7 @@ public class OsmProvider {
       OsmTagMapperSource.DEFAULT,
       null,
       cacheDataInMem,
+      false,
       DataImportIssueStore.NOOP
     );
   }
@@ -56,6 +70,7 @@ public class OsmProvider {
     OsmTagMapperSource tagMapperSource,
     ZoneId zoneId,
     boolean cacheDataInMem,
+    boolean multiThreadParsing,
     DataImportIssueStore issueStore
   ) {
     this.source = dataSource;
@@ -64,22 +79,28 @@ public class OsmProvider {
     this.wayPropertySet = new WayPropertySet(issueStore);
     osmTagMapper.populateProperties(wayPropertySet);
     this.cacheDataInMem = cacheDataInMem;
+    this.multiThreadParsing = multiThreadParsing;
   }
 
   public void readOsm(OsmDatabase osmdb) {
+    ExecutorService executor = multiThreadParsing ? createExecutor() : null;
     try {
       OsmParser parser = new OsmParser(osmdb, this);
 
-      parsePhase(parser, OsmParserPhase.Relations);
+      parsePhase(parser, OsmParserPhase.Relations, executor);
       osmdb.doneFirstPhaseRelations();
 
-      parsePhase(parser, OsmParserPhase.Ways);
+      parsePhase(parser, OsmParserPhase.Ways, executor);
       osmdb.doneSecondPhaseWays();
 
-      parsePhase(parser, OsmParserPhase.Nodes);
+      parsePhase(parser, OsmParserPhase.Nodes, executor);
       osmdb.doneThirdPhaseNodes();
     } catch (Exception ex) {
       throw new IllegalStateException("error loading OSM from path " + source.path(), ex);
+    } finally {
+      if (executor != null) {
+        executor.shutdownNow();
+      }
     }
   }
 
@@ -89,6 +110,7 @@ public class OsmProvider {
       .of(OsmProvider.class)
       .addObj("source", source)
       .addBool("cacheDataInMem", cacheDataInMem)
+      .addBool("multiThreadParsing", multiThreadParsing)
       .toString();
   }
 
@@ -105,8 +127,22 @@ public class OsmProvider {
     return ProgressTracker.track("Parse OSM " + phase, 1000, size, inputStream, m -> LOG.info(m));
   }
 
-  private void parsePhase(OsmParser parser, OsmParserPhase phase) throws IOException {
+  private static ExecutorService createExecutor() {
+    return Executors.newFixedThreadPool(
+      N_PARSER_THREADS,
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("osm-parser-%d").build()
+    );
+  }
+
+  private void parsePhase(OsmParser parser, OsmParserPhase phase, ExecutorService executor)
+    throws IOException {
     parser.setPhase(phase);
+    if (executor != null) {
+      try (InputStream in = createInputStream(phase)) {
+        new ParallelBlockReader(executor, 2 * N_PARSER_THREADS).process(in, parser);
+      }
+      return;
+    }
     BlockInputStream in = null;
     try {
       in = new BlockInputStream(createInputStream(phase), parser);
@@ -0,0 +1,149 @@
+package org.opentripplanner.osm;
+
+import com.google.protobuf.MessageLite;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import org.openstreetmap.osmosis.osmbinary.Fileformat;
+import org.openstreetmap.osmosis.osmbinary.Osmformat;
+
+/**
+ * Read the blocks of a PBF file and decompress and decode them on a thread pool. This replaces the
+ * osmosis {@code BlockInputStream}, which does all the work on the calling thread.
+ * <p>
+ * The file is read on the calling thread, and the decoded blocks are passed on to the
+ * {@link OsmParser} on the calling thread in the same order as in the file. Hence, the parser and
+ * the {@code OsmDatabase} do not need to be thread-safe, and the result is the same as when the
+ * file is read on one thread. The number of blocks in progress is limited to keep the memory use
+ * down.
+ */
+class ParallelBlockReader {
+
+  private static final String OSM_HEADER = "OSMHeader";
+  private static final String OSM_DATA = "OSMData";
+
+  /** Limits from the PBF specification */
+  private static final int MAX_BLOB_HEADER_SIZE = 64 * 1024;
+  private static final int MAX_BLOB_SIZE = 32 * 1024 * 1024;
+
+  private final ExecutorService executor;
+  private final int maxBlocksInProgress;
+
+  ParallelBlockReader(ExecutorService executor, int maxBlocksInProgress) {
+    this.executor = executor;
+    this.maxBlocksInProgress = maxBlocksInProgress;
+  }
+
+  void process(InputStream input, OsmParser parser) throws IOException {
+    var in = new DataInputStream(input);
+    Deque<Future<MessageLite>> inProgress = new ArrayDeque<>();
+    try {
+      RawBlock block;
+      while ((block = readBlock(in)) != null) {
+        if (!OSM_HEADER.equals(block.type()) && !OSM_DATA.equals(block.type())) {
+          // Unknown blocks are skipped, as in the osmosis BinaryParser
+          continue;
+        }
+        final RawBlock b = block;
+        inProgress.add(executor.submit(() -> decode(b)));
+        if (inProgress.size() >= maxBlocksInProgress) {
+          handle(inProgress.poll(), parser);
+        }
+      }
+      while (!inProgress.isEmpty()) {
+        handle(inProgress.poll(), parser);
+      }
+    } finally {
+      inProgress.forEach(it -> it.cancel(true));
+    }
+  }
+
+  /**
+   * Read the next block, or return {@code null} at the end of the file.
+   */
+  private static RawBlock readBlock(DataInputStream in) throws IOException {
+    int headerSize;
+    try {
+      headerSize = in.readInt();
+    } catch (EOFException e) {
+      return null;
+    }
+    if (headerSize < 0 || headerSize > MAX_BLOB_HEADER_SIZE) {
+      throw new IOException("Invalid PBF blob header size: " + headerSize);
+    }
+    var header = Fileformat.BlobHeader.parseFrom(readBytes(in, headerSize));
+
+    int blobSize = header.getDatasize();
+    if (blobSize < 0 || blobSize > MAX_BLOB_SIZE) {
+      throw new IOException("Invalid PBF blob size: " + blobSize);
+    }
+    return new RawBlock(header.getType(), readBytes(in, blobSize));
+  }
+
+  private static byte[] readBytes(DataInputStream in, int size) throws IOException {
+    byte[] buf = new byte[size];
+    in.readFully(buf);
+    return buf;
+  }
+
+  private static MessageLite decode(RawBlock block) throws IOException {
+    var data = uncompress(Fileformat.Blob.parseFrom(block.blob()));
+    return OSM_HEADER.equals(block.type())
+      ? Osmformat.HeaderBlock.parseFrom(data)
+      : Osmformat.PrimitiveBlock.parseFrom(data);
+  }
+
+  private static byte[] uncompress(Fileformat.Blob blob) throws IOException {
+    if (blob.hasRaw()) {
+      return blob.getRaw().toByteArray();
+    }
+    if (!blob.hasZlibData()) {
+      throw new IOException("Unsupported PBF blob compression, only raw and zlib is supported.");
+    }
+    byte[] buf = new byte[blob.getRawSize()];
+    var inflater = new Inflater();
+    try {
+      inflater.setInput(blob.getZlibData().toByteArray());
+      int size = inflater.inflate(buf);
+      if (size != buf.length || !inflater.finished()) {
+        throw new IOException("Unexpected size of zlib compressed PBF blob.");
+      }
+      return buf;
+    } catch (DataFormatException e) {
+      throw new IOException("Invalid zlib compressed PBF blob.", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static void handle(Future<MessageLite> future, OsmParser parser) throws IOException {
+    MessageLite block;
+    try {
+      block = future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new InterruptedIOException("Parsing OSM data interrupted.");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException ioe) {
+        throw ioe;
+      }
+      throw (e.getCause() instanceof RuntimeException re) ? re : new RuntimeException(e);
+    }
+    if (block instanceof Osmformat.HeaderBlock header) {
+      parser.parse(header);
+    } else {
+      parser.parse((Osmformat.PrimitiveBlock) block);
+    }
+  }
+
+  private record RawBlock(String type, byte[] blob) {}
+}
@@ -79,4 +79,18 @@ public class OsmNode extends OsmWithTags {
   public String url() {
     return String.format("https://www.openstreetmap.org/node/%d", getId());
   }
+
+  /**
+   * Nodes are equal if they have the same id. The OSM database keeps one node for each id, but
+   * creates a new instance of an untagged node each time it is looked up.
+   */
+  @Override
+  public boolean equals(Object o) {
+    return this == o || (o instanceof OsmNode other && id == other.id);
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(id);
+  }
 }
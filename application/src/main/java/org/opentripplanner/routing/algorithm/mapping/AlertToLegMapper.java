@@ -2,7 +2,6 @@ package org.opentripplanner.routing.algorithm.mapping;
 
 import java.time.LocalDate;
 import java.time.ZonedDateTime;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
@@ -171,13 +170,15 @@ public class AlertToLegMapper {
     RegularStop stop,
     Function<FeedScopedId, Collection<TransitAlert>> getAlertsForStop
   ) {
+    // The alert service may return unmodifiable collections, so collect into a new set
+    Collection<TransitAlert> alertsForStop = new HashSet<>();
     if (stop == null) {
-      return new ArrayList<>();
+      return alertsForStop;
     }
 
-    Collection<TransitAlert> alertsForStop = getAlertsForStop.apply(stop.getId());
-    if (alertsForStop == null) {
-      alertsForStop = new HashSet<>();
+    Collection<TransitAlert> stopAlerts = getAlertsForStop.apply(stop.getId());
+    if (stopAlerts != null) {
+      alertsForStop.addAll(stopAlerts);
     }
 
     if (stop.isPartOfStation()) {
@@ -9,12 +9,12 @@ import java.time.ZonedDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import javax.annotation.Nullable;
 import org.opentripplanner.ext.ridehailing.RideHailingAccessShifter;
 import org.opentripplanner.framework.application.OTPFeature;
+import org.opentripplanner.framework.concurrent.OtpRequestTasks;
 import org.opentripplanner.model.plan.Itinerary;
 import org.opentripplanner.raptor.RaptorService;
 import org.opentripplanner.raptor.api.path.RaptorPath;
@@ -42,6 +42,7 @@ import org.opentripplanner.routing.api.response.RoutingError;
 import org.opentripplanner.routing.api.response.RoutingErrorCode;
 import org.opentripplanner.routing.error.RoutingValidationException;
 import org.opentripplanner.routing.framework.DebugTimingAggregator;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
 import org.opentripplanner.standalone.api.OtpServerRequestContext;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
 import org.opentripplanner.transit.model.framework.EntityNotFoundException;
@@ -191,18 +192,11 @@ public class TransitRouter {
     final var egressList = new ArrayList<RoutingAccessEgress>();
 
     if (OTPFeature.ParallelRouting.isOn()) {
-      try {
-        // TODO: This is not using {@link OtpRequestThreadFactory} which mean we do not get
-        //       log-trace-parameters-propagation and graceful timeout handling here.
-        CompletableFuture
-          .allOf(
-            CompletableFuture.runAsync(() -> accessList.addAll(fetchAccess())),
-            CompletableFuture.runAsync(() -> egressList.addAll(fetchEgress()))
-          )
-          .join();
-      } catch (CompletionException e) {
-        RoutingValidationException.unwrapAndRethrowCompletionException(e);
-      }
+      OtpRequestTasks.runAll(
+        "access-egress-",
+        () -> accessList.addAll(fetchAccess()),
+        () -> egressList.addAll(fetchEgress())
+      );
     } else {
       accessList.addAll(fetchAccess());
       egressList.addAll(fetchEgress());
@@ -260,15 +254,29 @@ public class TransitRouter {
       .valueOf(streetRequest.mode());
     int stopCountLimit = accessRequest.preferences().street().accessEgress().maxStopCount();
 
-    var nearbyStops = AccessEgressRouter.findAccessEgresses(
-      accessRequest,
-      temporaryVerticesContainer,
-      streetRequest,
-      serverContext.dataOverlayContext(accessRequest),
-      type,
-      durationLimit,
-      stopCountLimit
-    );
+    var dataOverlayContext = serverContext.dataOverlayContext(accessRequest);
+    Supplier<Collection<NearbyStop>> streetSearch = () ->
+      AccessEgressRouter.findAccessEgresses(
+        accessRequest,
+        temporaryVerticesContainer,
+        streetRequest,
+        dataOverlayContext,
+        type,
+        durationLimit,
+        stopCountLimit
+      );
+    var accessEgressCache = serverContext.accessEgressCache();
+    var nearbyStops = accessEgressCache == null || dataOverlayContext != null
+      ? streetSearch.get()
+      : accessEgressCache.findAccessEgresses(
+        accessRequest,
+        streetRequest,
+        type,
+        durationLimit,
+        stopCountLimit,
+        serverContext.graph().realtimeStreetVersion(),
+        streetSearch
+      );
     var accessEgresses = AccessEgressMapper.mapNearbyStops(nearbyStops, type);
     accessEgresses = timeshiftRideHailing(streetRequest, type, accessEgresses);
 
@@ -0,0 +1,133 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.BikePreferences;
+import org.opentripplanner.routing.api.request.preference.CarPreferences;
+import org.opentripplanner.routing.api.request.preference.StreetPreferences;
+import org.opentripplanner.routing.api.request.preference.WalkPreferences;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * Cache the access and egress stops found for an origin or destination. A few thousand popular
+ * locations, like stations and addresses picked from the autocomplete, make up most of the
+ * requests, so the street search can often be skipped.
+ * <p>
+ * The key is the location as given in the request, not the vertices it is linked to. The
+ * temporary vertices are created for each request, and the paths in the cached result start at
+ * the vertices of the first request, which have the label of that location. The same location
+ * is always linked to the same place in the street graph, so this is the same thing.
+ * <p>
+ * Only the walk, bike and car modes are cached. The result of these does not depend on the time
+ * of the request, or on the availability of rental vehicles and parking spaces. A cached result
+ * is only used if the street graph is not changed by a real-time updater since it was found, see
+ * {@link Graph#realtimeStreetVersion()}.
+ */
+public class AccessEgressCache {
+
+  private static final Set<StreetMode> CACHED_MODES = Set.of(
+    StreetMode.WALK,
+    StreetMode.BIKE,
+    StreetMode.CAR
+  );
+
+  private final Cache<CacheKey, Entry> cache;
+
+  public AccessEgressCache(int maximumSize) {
+    this.cache = CacheBuilder.newBuilder().maximumSize(maximumSize).build();
+  }
+
+  /**
+   * Return the cached access or egress stops for the request, or run the {@code search} and cache
+   * the result. Requests which can not be cached always run the search.
+   */
+  public Collection<NearbyStop> findAccessEgresses(
+    RouteRequest request,
+    StreetRequest streetRequest,
+    AccessEgressType accessOrEgress,
+    Duration durationLimit,
+    int maxStopCount,
+    long streetVersion,
+    Supplier<Collection<NearbyStop>> search
+  ) {
+    if (!CACHED_MODES.contains(streetRequest.mode())) {
+      return search.get();
+    }
+    var key = CacheKey.of(request, streetRequest, accessOrEgress, durationLimit, maxStopCount);
+    var entry = cache.getIfPresent(key);
+    if (entry != null && entry.streetVersion() == streetVersion) {
+      return entry.stops();
+    }
+    var stops = List.copyOf(search.get());
+    cache.put(key, new Entry(streetVersion, stops));
+    return stops;
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private record Entry(long streetVersion, List<NearbyStop> stops) {}
+
+  /**
+   * The location and the parameters which may influence the access and egress street search.
+   */
+  private record CacheKey(
+    Location location,
+    AccessEgressType accessOrEgress,
+    StreetMode mode,
+    Duration durationLimit,
+    int maxStopCount,
+    boolean wheelchair,
+    WalkPreferences walk,
+    BikePreferences bike,
+    CarPreferences car,
+    StreetPreferences street,
+    WheelchairPreferences wheelchairPreferences
+  ) {
+    private static CacheKey of(
+      RouteRequest request,
+      StreetRequest streetRequest,
+      AccessEgressType accessOrEgress,
+      Duration durationLimit,
+      int maxStopCount
+    ) {
+      var mode = streetRequest.mode();
+      var preferences = request.preferences();
+      return new CacheKey(
+        Location.of(accessOrEgress.isAccess() ? request.from() : request.to()),
+        accessOrEgress,
+        mode,
+        durationLimit,
+        maxStopCount,
+        request.wheelchair(),
+        preferences.walk(),
+        mode.includesBiking() ? preferences.bike() : BikePreferences.DEFAULT,
+        mode.includesDriving() ? preferences.car() : CarPreferences.DEFAULT,
+        preferences.street(),
+        request.wheelchair() ? preferences.wheelchair() : WheelchairPreferences.DEFAULT
+      );
+    }
+  }
+
+  /**
+   * {@link GenericLocation} does not implement equals and hashCode.
+   */
+  private record Location(String label, FeedScopedId stopId, Double lat, Double lng) {
+    private static Location of(GenericLocation location) {
+      return new Location(location.label, location.stopId, location.lat, location.lng);
+    }
+  }
+}
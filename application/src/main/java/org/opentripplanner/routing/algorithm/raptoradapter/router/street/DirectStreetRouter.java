@@ -51,7 +51,8 @@ public class DirectStreetRouter {
       GraphPathFinder gpFinder = new GraphPathFinder(
         serverContext.traverseVisitor(),
         serverContext.dataOverlayContext(request),
-        maxCarSpeed
+        maxCarSpeed,
+        serverContext.graph().getStreetContractionHierarchies()
       );
       List<GraphPath<State, Edge, Vertex>> paths = gpFinder.graphPathFinderEntryPoint(
         directRequest,
@@ -1,69 +1,183 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 
-import static java.util.stream.Collectors.toMap;
-
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.function.Function;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.street.search.request.StreetSearchRequest;
 
+/**
+ * The transfers for a given street search request, indexed by stop in both directions.
+ * <p>
+ * The {@link RaptorTransfer} instances of all stops are kept in one flat array, and the transfers
+ * of a stop are the range {@code [offsets[stop], offsets[stop + 1])} of this array. The transfer
+ * instances and the list view of each stop are created when the index is built, so the Raptor
+ * search does not allocate when it iterates the transfers.
+ * <p>
+ * The to-stop, duration and cost are not stored in separate int arrays. Raptor keeps a reference
+ * to the {@link RaptorTransfer} in the stop arrivals to create the paths, so an instance is
+ * needed for each transfer anyway.
+ */
 public class RaptorTransferIndex {
 
-  private final List<RaptorTransfer>[] forwardTransfers;
+  private final TransferArrays forwardTransfers;
+
+  private final TransferArrays reversedTransfers;
 
-  private final List<RaptorTransfer>[] reversedTransfers;
+  private RaptorTransferIndex(TransferArrays forwardTransfers, TransferArrays reversedTransfers) {
+    this.forwardTransfers = forwardTransfers;
+    this.reversedTransfers = reversedTransfers;
+  }
 
   public RaptorTransferIndex(
     List<List<RaptorTransfer>> forwardTransfers,
     List<List<RaptorTransfer>> reversedTransfers
   ) {
-    // Create immutable copies of the lists for each stop to make them immutable and faster to iterate
-    this.forwardTransfers = forwardTransfers.stream().map(List::copyOf).toArray(List[]::new);
-    this.reversedTransfers = reversedTransfers.stream().map(List::copyOf).toArray(List[]::new);
+    this(TransferArrays.of(forwardTransfers), TransferArrays.of(reversedTransfers));
   }
 
+  /**
+   * Calculate the transfers for each stop using the given request. The street search is done in
+   * parallel for the stops, the transfers are traversed once for each request.
+   */
   public static RaptorTransferIndex create(
     List<List<Transfer>> transfersByStopIndex,
     StreetSearchRequest request
   ) {
-    var forwardTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
-    var reversedTransfers = new ArrayList<List<RaptorTransfer>>(transfersByStopIndex.size());
+    int nStops = transfersByStopIndex.size();
 
-    for (int i = 0; i < transfersByStopIndex.size(); i++) {
-      forwardTransfers.add(new ArrayList<>());
-      reversedTransfers.add(new ArrayList<>());
-    }
+    // The transfers are filtered so that there is only one possible directional transfer
+    // for a stop pair.
+    List<List<RaptorTransfer>> forward = IntStream
+      .range(0, nStops)
+      .parallel()
+      .mapToObj(fromStop -> filterTransfers(transfersByStopIndex.get(fromStop), request))
+      .toList();
 
-    for (int fromStop = 0; fromStop < transfersByStopIndex.size(); fromStop++) {
-      // The transfers are filtered so that there is only one possible directional transfer
-      // for a stop pair.
-      var transfers = transfersByStopIndex
-        .get(fromStop)
-        .stream()
-        .flatMap(s -> s.asRaptorTransfer(request).stream())
-        .collect(
-          toMap(RaptorTransfer::stop, Function.identity(), (a, b) -> a.c1() < b.c1() ? a : b)
-        )
-        .values();
-
-      forwardTransfers.get(fromStop).addAll(transfers);
-
-      for (RaptorTransfer forwardTransfer : transfers) {
-        reversedTransfers
-          .get(forwardTransfer.stop())
-          .add(DefaultRaptorTransfer.reverseOf(fromStop, forwardTransfer));
-      }
-    }
+    var forwardTransfers = TransferArrays.of(forward);
+    var reversedTransfers = forwardTransfers.reverse();
 
     return new RaptorTransferIndex(forwardTransfers, reversedTransfers);
   }
 
   public List<RaptorTransfer> getForwardTransfers(int stopIndex) {
-    return forwardTransfers[stopIndex];
+    return forwardTransfers.transfers(stopIndex);
   }
 
   public List<RaptorTransfer> getReversedTransfers(int stopIndex) {
-    return reversedTransfers[stopIndex];
+    return reversedTransfers.transfers(stopIndex);
+  }
+
+  /**
+   * Keep the transfer with the lowest cost for each to-stop, in the order of the first transfer to
+   * each stop.
+   */
+  private static List<RaptorTransfer> filterTransfers(
+    List<Transfer> transfers,
+    StreetSearchRequest request
+  ) {
+    var result = new LinkedHashMap<Integer, RaptorTransfer>();
+    for (Transfer transfer : transfers) {
+      transfer
+        .asRaptorTransfer(request)
+        .ifPresent(it -> result.merge(it.stop(), it, (a, b) -> a.c1() < b.c1() ? a : b));
+    }
+    return List.copyOf(result.values());
+  }
+
+  /**
+   * A flat array with the transfers of all stops, the transfers of a stop are stored in the range
+   * {@code [offsets[stop], offsets[stop + 1])}. The list view of each stop is created once.
+   */
+  private static final class TransferArrays {
+
+    private final int[] offsets;
+    private final RaptorTransfer[] transfers;
+    private final List<RaptorTransfer>[] transfersByStop;
+
+    @SuppressWarnings("unchecked")
+    private TransferArrays(int[] offsets, RaptorTransfer[] transfers) {
+      int nStops = offsets.length - 1;
+      this.offsets = offsets;
+      this.transfers = transfers;
+      this.transfersByStop = new List[nStops];
+      for (int stop = 0; stop < nStops; ++stop) {
+        int start = offsets[stop];
+        int size = offsets[stop + 1] - start;
+        transfersByStop[stop] = size == 0 ? List.of() : new StopTransfers(start, size);
+      }
+    }
+
+    private static TransferArrays of(List<? extends List<RaptorTransfer>> transfersByStop) {
+      int[] offsets = new int[transfersByStop.size() + 1];
+      for (int i = 0; i < transfersByStop.size(); ++i) {
+        offsets[i + 1] = offsets[i] + transfersByStop.get(i).size();
+      }
+      var transfers = new RaptorTransfer[offsets[offsets.length - 1]];
+      int index = 0;
+      for (List<RaptorTransfer> it : transfersByStop) {
+        for (RaptorTransfer transfer : it) {
+          transfers[index++] = transfer;
+        }
+      }
+      return new TransferArrays(offsets, transfers);
+    }
+
+    /**
+     * Create the index of transfers to each stop. The transfers to a stop are ordered by the
+     * stop they are from.
+     */
+    private TransferArrays reverse() {
+      int nStops = offsets.length - 1;
+      int[] reversedOffsets = new int[nStops + 1];
+      for (RaptorTransfer it : transfers) {
+        ++reversedOffsets[it.stop() + 1];
+      }
+      for (int i = 0; i < nStops; ++i) {
+        reversedOffsets[i + 1] += reversedOffsets[i];
+      }
+      var reversed = new RaptorTransfer[transfers.length];
+      int[] next = reversedOffsets.clone();
+      for (int fromStop = 0; fromStop < nStops; ++fromStop) {
+        for (int i = offsets[fromStop]; i < offsets[fromStop + 1]; ++i) {
+          reversed[next[transfers[i].stop()]++] =
+            DefaultRaptorTransfer.reverseOf(fromStop, transfers[i]);
+        }
+      }
+      return new TransferArrays(reversedOffsets, reversed);
+    }
+
+    private List<RaptorTransfer> transfers(int stop) {
+      return transfersByStop[stop];
+    }
+
+    /**
+     * An unmodifiable view of the transfers of one stop.
+     */
+    private final class StopTransfers extends AbstractList<RaptorTransfer> implements RandomAccess {
+
+      private final int start;
+      private final int size;
+
+      private StopTransfers(int start, int size) {
+        this.start = start;
+        this.size = size;
+      }
+
+      @Override
+      public RaptorTransfer get(int index) {
+        if (index < 0 || index >= size) {
+          throw new IndexOutOfBoundsException(index);
+        }
+        return transfers[start + index];
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    }
   }
 }
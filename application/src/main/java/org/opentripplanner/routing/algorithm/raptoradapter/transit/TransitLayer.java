@@ -3,15 +3,16 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import org.opentripplanner.model.transfer.TransferService;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransitDataCache;
 import org.opentripplanner.routing.api.request.RouteRequest;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.service.SiteRepository;
@@ -29,13 +30,23 @@ import org.opentripplanner.transit.service.SiteRepository;
  */
 public class TransitLayer {
 
+  private static final AtomicLong NEXT_VERSION = new AtomicLong();
+
+  /**
+   * Identifies this instance. The TransitLayerUpdater applies realtime updates to a copy of the
+   * transit layer, so each published snapshot has its own version.
+   */
+  private final long version = NEXT_VERSION.incrementAndGet();
+
   /**
    * Transit data required for routing, indexed by each local date(Graph TimeZone) it runs through.
    * A Trip "runs through" a date if any of its arrivals or departures is happening on that date.
    * The same trip pattern can therefore have multiple running dates and trip pattern is not
    * required to "run" on its service date.
+   * <p>
+   * The index is immutable, the TransitLayerUpdater replaces it in a copy of this instance.
    */
-  private final HashMap<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate;
+  private TripPatternsByRunningDate tripPatternsRunningOnDate;
 
   /**
    * Index of outer list is from stop index, inner list index has no specific meaning. To stop index
@@ -52,6 +63,12 @@ public class TransitLayer {
 
   private final RaptorRequestTransferCache transferCache;
 
+  /**
+   * Request scoped pattern indexes shared between requests. This is bound to this instance, a copy
+   * of the transit layer gets a new empty cache.
+   */
+  private final RaptorRequestTransitDataCache requestTransitDataCache;
+
   private ConstrainedTransfersForPatterns constrainedTransfers;
 
   private final TransferIndexGenerator transferIndexGenerator;
@@ -60,9 +77,9 @@ public class TransitLayer {
   private final int[] stopBoardAlightTransferCosts;
 
   /**
-   * Makes a shallow copy of the TransitLayer, except for the tripPatternsForDate, where a shallow
-   * copy of the HashMap is made. This is sufficient, as the TransitLayerUpdater will replace entire
-   * keys and their values in the map.
+   * Makes a shallow copy of the TransitLayer. This is sufficient, as the trip patterns running on
+   * each date are immutable and the TransitLayerUpdater replaces them with a new version. The
+   * request transit data cache is not copied, the copy starts with an empty cache.
    */
   public TransitLayer(TransitLayer transitLayer) {
     this(
@@ -71,6 +88,7 @@ public class TransitLayer {
       transitLayer.transferService,
       transitLayer.siteRepository,
       transitLayer.transferCache,
+      transitLayer.requestTransitDataCache.emptyCopy(),
       transitLayer.constrainedTransfers,
       transitLayer.transferIndexGenerator,
       transitLayer.stopBoardAlightTransferCosts
@@ -87,11 +105,60 @@ public class TransitLayer {
     TransferIndexGenerator transferIndexGenerator,
     @Nullable int[] stopBoardAlightTransferCosts
   ) {
-    this.tripPatternsRunningOnDate = new HashMap<>(tripPatternsRunningOnDate);
+    this(
+      tripPatternsRunningOnDate,
+      transfersByStopIndex,
+      transferService,
+      siteRepository,
+      transferCache,
+      new RaptorRequestTransitDataCache(0),
+      constrainedTransfers,
+      transferIndexGenerator,
+      stopBoardAlightTransferCosts
+    );
+  }
+
+  public TransitLayer(
+    Map<LocalDate, List<TripPatternForDate>> tripPatternsRunningOnDate,
+    List<List<Transfer>> transfersByStopIndex,
+    TransferService transferService,
+    SiteRepository siteRepository,
+    RaptorRequestTransferCache transferCache,
+    RaptorRequestTransitDataCache requestTransitDataCache,
+    ConstrainedTransfersForPatterns constrainedTransfers,
+    TransferIndexGenerator transferIndexGenerator,
+    @Nullable int[] stopBoardAlightTransferCosts
+  ) {
+    this(
+      TripPatternsByRunningDate.of(tripPatternsRunningOnDate),
+      transfersByStopIndex,
+      transferService,
+      siteRepository,
+      transferCache,
+      requestTransitDataCache,
+      constrainedTransfers,
+      transferIndexGenerator,
+      stopBoardAlightTransferCosts
+    );
+  }
+
+  private TransitLayer(
+    TripPatternsByRunningDate tripPatternsRunningOnDate,
+    List<List<Transfer>> transfersByStopIndex,
+    TransferService transferService,
+    SiteRepository siteRepository,
+    RaptorRequestTransferCache transferCache,
+    RaptorRequestTransitDataCache requestTransitDataCache,
+    ConstrainedTransfersForPatterns constrainedTransfers,
+    TransferIndexGenerator transferIndexGenerator,
+    @Nullable int[] stopBoardAlightTransferCosts
+  ) {
+    this.tripPatternsRunningOnDate = tripPatternsRunningOnDate;
     this.transfersByStopIndex = transfersByStopIndex;
     this.transferService = transferService;
     this.siteRepository = siteRepository;
     this.transferCache = transferCache;
+    this.requestTransitDataCache = requestTransitDataCache;
     this.constrainedTransfers = constrainedTransfers;
     this.transferIndexGenerator = transferIndexGenerator;
     this.stopBoardAlightTransferCosts = stopBoardAlightTransferCosts;
@@ -108,7 +175,11 @@ public class TransitLayer {
    * happening on that date. Trip pattern can have multiple running dates.
    */
   public Collection<TripPatternForDate> getTripPatternsForRunningDate(LocalDate date) {
-    return tripPatternsRunningOnDate.getOrDefault(date, List.of());
+    return tripPatternsRunningOnDate.get(date);
+  }
+
+  public long getVersion() {
+    return version;
   }
 
   public int getStopCount() {
@@ -121,8 +192,7 @@ public class TransitLayer {
    * or departures is happening on that date. Trip pattern can have multiple running dates.
    */
   public List<TripPatternForDate> getTripPatternsRunningOnDateCopy(LocalDate runningPeriodDate) {
-    List<TripPatternForDate> tripPatternForDate = tripPatternsRunningOnDate.get(runningPeriodDate);
-    return tripPatternForDate != null ? new ArrayList<>(tripPatternForDate) : new ArrayList<>();
+    return new ArrayList<>(tripPatternsRunningOnDate.get(runningPeriodDate));
   }
 
   /**
@@ -157,6 +227,10 @@ public class TransitLayer {
     return transferCache;
   }
 
+  public RaptorRequestTransitDataCache getRequestTransitDataCache() {
+    return requestTransitDataCache;
+  }
+
   @Nullable
   public ConstrainedTransfersForPatterns getConstrainedTransfers() {
     return constrainedTransfers;
@@ -176,14 +250,21 @@ public class TransitLayer {
   }
 
   /**
-   * Replaces all the TripPatternForDates for a single date. This is an atomic operation according
-   * to the HashMap implementation.
+   * The trip patterns running on each date. The returned index is immutable, use
+   * {@link TripPatternsByRunningDate#toBuilder()} to create an updated version.
+   */
+  public TripPatternsByRunningDate getTripPatternsByRunningDate() {
+    return tripPatternsRunningOnDate;
+  }
+
+  /**
+   * Replaces the trip patterns running on each date. This should only be done on a copy of the
+   * TransitLayer that is not yet published to the routing threads.
    */
-  public void replaceTripPatternsForDate(
-    LocalDate date,
-    List<TripPatternForDate> tripPatternForDates
+  public void replaceTripPatternsByRunningDate(
+    TripPatternsByRunningDate tripPatternsRunningOnDate
   ) {
-    this.tripPatternsRunningOnDate.replace(date, tripPatternForDates);
+    this.tripPatternsRunningOnDate = tripPatternsRunningOnDate;
   }
 
   public void setConstrainedTransfers(ConstrainedTransfersForPatterns constrainedTransfers) {
@@ -47,6 +47,21 @@ public interface TransitTuningParameters {
       return 5;
     }
 
+    @Override
+    public boolean transferCacheLoadAsync() {
+      return false;
+    }
+
+    @Override
+    public int transitDataCacheMaxSize() {
+      return 0;
+    }
+
+    @Override
+    public int accessEgressCacheMaxSize() {
+      return 0;
+    }
+
     @Override
     public Duration maxSearchWindow() {
       return Duration.ofHours(24);
@@ -83,6 +98,28 @@ public interface TransitTuningParameters {
    */
   int transferCacheMaxSize();
 
+  /**
+   * If true, a request with new transfer parameters is served the cached transfers with the
+   * nearest parameters, while the transfers for the exact parameters are calculated in the
+   * background. If false, the request waits for the transfers to be calculated.
+   */
+  boolean transferCacheLoadAsync();
+
+  /**
+   * The maximum number of distinct date window and transit filter combinations for which the
+   * request scoped pattern index should be cached. The cache is bound to the transit layer, and
+   * is thrown away when a new transit layer is published. Zero disables the cache.
+   */
+  int transitDataCacheMaxSize();
+
+  /**
+   * The maximum number of origins and destinations for which the access and egress stops should
+   * be cached, see
+   * {@link org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache}.
+   * Zero disables the cache.
+   */
+  int accessEgressCacheMaxSize();
+
   /**
    * The maximum search window that can be set through the searchWindow API parameter. Due to the
    * way timetable data are collected before a Raptor trip search, using a search window larger than
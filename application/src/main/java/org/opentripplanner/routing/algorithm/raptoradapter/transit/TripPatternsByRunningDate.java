@@ -0,0 +1,277 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import java.time.LocalDate;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+
+/**
+ * An immutable index of the {@link TripPatternForDate}s running on each date. For each date the
+ * trip patterns are stored in slots indexed by {@link RoutingTripPattern#patternIndex()}. A slot
+ * may hold more than one element, because trips with different service dates can run through the
+ * same date.
+ * <p>
+ * The slots are grouped in pages. A new version is created with a {@link Builder}, which copies a
+ * page the first time one of its slots is changed. Everything else is shared with the previous
+ * version, so a real-time update touching a few patterns only copies the pages of those patterns.
+ * Routing threads can keep using the previous version while the next is built.
+ * <p>
+ * The elements of a slot are unique according to {@link TripPatternForDate#equals(Object)}. The
+ * iteration order is by pattern index.
+ */
+public final class TripPatternsByRunningDate {
+
+  private static final int PAGE_BITS = 6;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private static final TripPatternsByRunningDate EMPTY = new TripPatternsByRunningDate(Map.of());
+
+  private final Map<LocalDate, PatternSlots> slotsByDate;
+
+  private TripPatternsByRunningDate(Map<LocalDate, PatternSlots> slotsByDate) {
+    this.slotsByDate = slotsByDate;
+  }
+
+  public static TripPatternsByRunningDate empty() {
+    return EMPTY;
+  }
+
+  public static TripPatternsByRunningDate of(
+    Map<LocalDate, ? extends Collection<TripPatternForDate>> tripPatternsRunningOnDate
+  ) {
+    var builder = EMPTY.toBuilder();
+    for (var e : tripPatternsRunningOnDate.entrySet()) {
+      builder.addDate(e.getKey());
+      for (TripPatternForDate it : e.getValue()) {
+        builder.add(e.getKey(), it);
+      }
+    }
+    return builder.build();
+  }
+
+  /**
+   * Return the trip patterns running on the given date, or an empty collection if the date is not
+   * part of this index. The returned collection is immutable.
+   */
+  public Collection<TripPatternForDate> get(LocalDate date) {
+    var slots = slotsByDate.get(date);
+    return slots == null ? List.of() : slots;
+  }
+
+  public boolean containsDate(LocalDate date) {
+    return slotsByDate.containsKey(date);
+  }
+
+  public Set<LocalDate> dates() {
+    return slotsByDate.keySet();
+  }
+
+  /**
+   * Create a builder for the next version. This version is not changed by the builder.
+   */
+  public Builder toBuilder() {
+    return new Builder(this);
+  }
+
+  /**
+   * The trip patterns for one date. The pages are never changed after the instance is created,
+   * a page is shared by all versions until one of its slots is changed.
+   */
+  private static final class PatternSlots extends AbstractCollection<TripPatternForDate> {
+
+    private static final PatternSlots EMPTY = new PatternSlots(new TripPatternForDate[0][][], 0);
+
+    private final TripPatternForDate[][][] pages;
+    private final int size;
+
+    private PatternSlots(TripPatternForDate[][][] pages, int size) {
+      this.pages = pages;
+      this.size = size;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<TripPatternForDate> iterator() {
+      return new Iterator<>() {
+        private int slotIndex = 0;
+        private int elementIndex = 0;
+        private TripPatternForDate[] slot = null;
+
+        @Override
+        public boolean hasNext() {
+          while (slot == null || elementIndex == slot.length) {
+            if (slotIndex >= pages.length * PAGE_SIZE) {
+              return false;
+            }
+            var page = pages[slotIndex >> PAGE_BITS];
+            if (page == null) {
+              slotIndex += PAGE_SIZE;
+            } else {
+              slot = page[slotIndex & PAGE_MASK];
+              elementIndex = 0;
+              ++slotIndex;
+            }
+          }
+          return true;
+        }
+
+        @Override
+        public TripPatternForDate next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          return slot[elementIndex++];
+        }
+      };
+    }
+  }
+
+  /**
+   * Build the next version of the index. The builder copies the pages it changes, the original
+   * version is never modified. The builder is not thread-safe.
+   */
+  public static final class Builder {
+
+    private final TripPatternsByRunningDate original;
+    private final Map<LocalDate, SlotsBuilder> changedDates = new HashMap<>();
+
+    private Builder(TripPatternsByRunningDate original) {
+      this.original = original;
+    }
+
+    /**
+     * Add the given date to the index, with no trip patterns, if it does not exist.
+     */
+    public Builder addDate(LocalDate date) {
+      slots(date);
+      return this;
+    }
+
+    /**
+     * Add a trip pattern to the given date. Nothing is changed if an equal trip pattern for date
+     * exists for the same pattern.
+     */
+    public Builder add(LocalDate date, TripPatternForDate tripPatternForDate) {
+      slots(date).add(tripPatternForDate);
+      return this;
+    }
+
+    /**
+     * Remove a trip pattern from the given date, if it exists.
+     */
+    public Builder remove(LocalDate date, TripPatternForDate tripPatternForDate) {
+      if (original.containsDate(date) || changedDates.containsKey(date)) {
+        slots(date).remove(tripPatternForDate);
+      }
+      return this;
+    }
+
+    public TripPatternsByRunningDate build() {
+      if (changedDates.isEmpty()) {
+        return original;
+      }
+      var slotsByDate = new HashMap<>(original.slotsByDate);
+      changedDates.forEach((date, builder) -> slotsByDate.put(date, builder.build()));
+      return new TripPatternsByRunningDate(Map.copyOf(slotsByDate));
+    }
+
+    private SlotsBuilder slots(LocalDate date) {
+      return changedDates.computeIfAbsent(date, d ->
+        new SlotsBuilder(original.slotsByDate.getOrDefault(d, PatternSlots.EMPTY))
+      );
+    }
+  }
+
+  /**
+   * Copy-on-write builder for the slots of one date.
+   */
+  private static final class SlotsBuilder {
+
+    private TripPatternForDate[][][] pages;
+    private boolean[] copied;
+    private int size;
+
+    private SlotsBuilder(PatternSlots original) {
+      // Only the array of page references is copied, not the pages
+      this.pages = original.pages.clone();
+      this.copied = new boolean[pages.length];
+      this.size = original.size;
+    }
+
+    void add(TripPatternForDate value) {
+      int index = value.getTripPattern().patternIndex();
+      var slot = slot(index);
+      if (slot != null) {
+        for (TripPatternForDate it : slot) {
+          if (it.equals(value)) {
+            return;
+          }
+        }
+      }
+      var newSlot = slot == null ? new TripPatternForDate[1] : Arrays.copyOf(slot, slot.length + 1);
+      newSlot[newSlot.length - 1] = value;
+      setSlot(index, newSlot);
+      ++size;
+    }
+
+    void remove(TripPatternForDate value) {
+      int index = value.getTripPattern().patternIndex();
+      var slot = slot(index);
+      if (slot == null) {
+        return;
+      }
+      for (int i = 0; i < slot.length; ++i) {
+        if (slot[i].equals(value)) {
+          TripPatternForDate[] newSlot = null;
+          if (slot.length > 1) {
+            newSlot = new TripPatternForDate[slot.length - 1];
+            System.arraycopy(slot, 0, newSlot, 0, i);
+            System.arraycopy(slot, i + 1, newSlot, i, slot.length - i - 1);
+          }
+          setSlot(index, newSlot);
+          --size;
+          return;
+        }
+      }
+    }
+
+    /**
+     * The pages are handed over to the new instance, so any later change must copy them again.
+     */
+    PatternSlots build() {
+      Arrays.fill(copied, false);
+      return new PatternSlots(pages.clone(), size);
+    }
+
+    private TripPatternForDate[] slot(int index) {
+      int p = index >> PAGE_BITS;
+      return p < pages.length && pages[p] != null ? pages[p][index & PAGE_MASK] : null;
+    }
+
+    private void setSlot(int index, TripPatternForDate[] slot) {
+      int p = index >> PAGE_BITS;
+      if (p >= pages.length) {
+        int newLength = Math.max(p + 1, pages.length + (pages.length >> 1));
+        pages = Arrays.copyOf(pages, newLength);
+        copied = Arrays.copyOf(copied, newLength);
+      }
+      if (!copied[p]) {
+        pages[p] = pages[p] == null ? new TripPatternForDate[PAGE_SIZE][] : pages[p].clone();
+        copied[p] = true;
+      }
+      pages[p][index & PAGE_MASK] = slot;
+    }
+  }
+}
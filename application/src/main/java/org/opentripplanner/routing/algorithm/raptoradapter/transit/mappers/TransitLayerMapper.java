@@ -21,6 +21,7 @@ import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternFo
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.ConstrainedTransfersForPatterns;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransferCache;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransitDataCache;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.site.StopTransferPriority;
 import org.opentripplanner.transit.service.DefaultTransitService;
@@ -80,7 +81,13 @@ public class TransitLayerMapper {
       constrainedTransfers = transferIndexGenerator.generateTransfers();
     }
 
-    var transferCache = new RaptorRequestTransferCache(tuningParameters.transferCacheMaxSize());
+    var transferCache = new RaptorRequestTransferCache(
+      tuningParameters.transferCacheMaxSize(),
+      tuningParameters.transferCacheLoadAsync()
+    );
+    var requestTransitDataCache = new RaptorRequestTransitDataCache(
+      tuningParameters.transitDataCacheMaxSize()
+    );
 
     LOG.info("Mapping complete.");
 
@@ -90,6 +97,7 @@ public class TransitLayerMapper {
       transitService.getTransferService(),
       siteRepository,
       transferCache,
+      requestTransitDataCache,
       constrainedTransfers,
       transferIndexGenerator,
       createStopBoardAlightTransferCosts(siteRepository, tuningParameters)
@@ -3,7 +3,6 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.mappers;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.SetMultimap;
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -15,6 +14,7 @@ import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.model.Timetable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternsByRunningDate;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.constrainedtransfer.TransferIndexGenerator;
 import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
@@ -24,11 +24,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Update the TransitLayer from a set of TimeTables. A shallow copy is made of the TransitLayer
- * (this also includes a shallow copy of the TripPatternsForDate map). TripPatterns are matched on
- * id and replaced by their updated versions. The realtime TransitLayer is then switched out with
- * the updated copy in an atomic operation. This ensures that any TransitLayer that is referenced
- * from the Graph is never changed.
+ * Update the TransitLayer from a set of TimeTables. A shallow copy is made of the TransitLayer.
+ * TripPatterns are matched on id and replaced by their updated versions in a new version of the
+ * immutable {@link TripPatternsByRunningDate}, sharing everything not touched by the update with
+ * the previous version. The realtime TransitLayer is then switched out with the updated copy in an
+ * atomic operation. This ensures that any TransitLayer that is referenced from the Graph is never
+ * changed.
  *
  * This is a way of keeping the TransitLayer up to date (in sync with the TimetableRepository plus its most
  * recent TimetableSnapshot) without repeatedly deriving it from scratch every few seconds. The same
@@ -53,8 +54,6 @@ public class TransitLayerUpdater {
    */
   private final Map<TripIdAndServiceDate, TripPatternForDate> tripPatternsForTripIdAndServiceDateCache = new HashMap<>();
 
-  private final Map<LocalDate, Set<TripPatternForDate>> tripPatternsRunningOnDateMapCache = new HashMap<>();
-
   public TransitLayerUpdater(TransitEditorService transitService) {
     this.transitService = transitService;
   }
@@ -152,70 +151,62 @@ public class TransitLayerUpdater {
       }
     }
 
-    // Now loop through all running period dates of old and new TripPatternsForDate and update
-    // the tripPatternsByRunningPeriodDate accordingly
-    for (LocalDate date : datesToBeUpdated) {
-      tripPatternsRunningOnDateMapCache.computeIfAbsent(
-        date,
-        p -> new HashSet<>(realtimeTransitLayer.getTripPatternsRunningOnDateCopy(date))
-      );
-
-      // Remove old cached tripPatterns where tripTimes are no longer running
-      Set<TripPatternForDate> patternsForDate = tripPatternsRunningOnDateMapCache.get(date);
-
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : oldTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate oldTripPatternForDate : entry.getValue()) {
-          // Remove old TripPatternForDate for this date if it was valid on this date
-          if (oldTripPatternForDate != null) {
-            if (oldTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.remove(oldTripPatternForDate);
-            }
-          }
+    // Now update the trip patterns for all running period dates of the old and new
+    // TripPatternsForDate. Only the pages of the patterns touched are copied, the rest of the
+    // index is shared with the previous version.
+    TripPatternsByRunningDate tripPatterns = realtimeTransitLayer.getTripPatternsByRunningDate();
+    TripPatternsByRunningDate.Builder builder = tripPatterns.toBuilder();
+
+    // Dates outside the transit layer are not added
+    datesToBeUpdated.removeIf(date -> !tripPatterns.containsDate(date));
+
+    // Remove old TripPatternForDate for each date it was valid on
+    for (TripPatternForDate oldTripPatternForDate : oldTripPatternsForDate.values()) {
+      for (LocalDate date : oldTripPatternForDate.getRunningPeriodDates()) {
+        if (datesToBeUpdated.contains(date)) {
+          builder.remove(date, oldTripPatternForDate);
         }
       }
+    }
 
-      for (TripPatternForDate tripPatternForDate : previouslyUsedPatterns) {
-        if (tripPatternForDate.getServiceDate().equals(date)) {
-          TripPattern pattern = tripPatternForDate.getTripPattern().getPattern();
-          if (!pattern.isCreatedByRealtimeUpdater()) {
-            continue;
-          }
-          var oldTimeTable = timetables.get(pattern);
-          if (oldTimeTable != null) {
-            var toRemove = oldTimeTable
-              .stream()
-              .filter(tt -> tt.getServiceDate().equals(date))
-              .findFirst()
-              .map(tt -> tt.getTripTimes().isEmpty())
-              .orElse(false);
-
-            if (toRemove) {
-              patternsForDate.remove(tripPatternForDate);
-            }
-          } else {
-            LOG.warn("Could not fetch timetable for {}", pattern);
-          }
-        }
+    // Remove previously used patterns created by the realtime updater with no trips left
+    for (TripPatternForDate tripPatternForDate : previouslyUsedPatterns) {
+      LocalDate date = tripPatternForDate.getServiceDate();
+      if (!datesToBeUpdated.contains(date)) {
+        continue;
+      }
+      TripPattern pattern = tripPatternForDate.getTripPattern().getPattern();
+      if (!pattern.isCreatedByRealtimeUpdater()) {
+        continue;
       }
+      var oldTimeTable = timetables.get(pattern);
+      if (oldTimeTable != null) {
+        var toRemove = oldTimeTable
+          .stream()
+          .filter(tt -> tt.getServiceDate().equals(date))
+          .findFirst()
+          .map(tt -> tt.getTripTimes().isEmpty())
+          .orElse(false);
 
-      for (Map.Entry<TripPattern, Collection<TripPatternForDate>> entry : newTripPatternsForDate
-        .asMap()
-        .entrySet()) {
-        for (TripPatternForDate newTripPatternForDate : entry.getValue()) {
-          // Add new TripPatternForDate for this date if it mapped correctly and is valid on this date
-          if (newTripPatternForDate != null) {
-            if (newTripPatternForDate.getRunningPeriodDates().contains(date)) {
-              patternsForDate.add(newTripPatternForDate);
-            }
-          }
+        if (toRemove) {
+          builder.remove(date, tripPatternForDate);
         }
+      } else {
+        LOG.warn("Could not fetch timetable for {}", pattern);
       }
+    }
 
-      realtimeTransitLayer.replaceTripPatternsForDate(date, new ArrayList<>(patternsForDate));
+    // Add new TripPatternForDate for each date it is valid on
+    for (TripPatternForDate newTripPatternForDate : newTripPatternsForDate.values()) {
+      for (LocalDate date : newTripPatternForDate.getRunningPeriodDates()) {
+        if (datesToBeUpdated.contains(date)) {
+          builder.add(date, newTripPatternForDate);
+        }
+      }
     }
 
+    realtimeTransitLayer.replaceTripPatternsByRunningDate(builder.build());
+
     if (transferIndexGenerator != null) {
       realtimeTransitLayer.setConstrainedTransfers(transferIndexGenerator.generateTransfers());
     }
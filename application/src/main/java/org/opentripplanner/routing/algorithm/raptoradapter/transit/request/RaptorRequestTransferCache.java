@@ -3,9 +3,16 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import javax.annotation.Nullable;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.RaptorTransferIndex;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.Transfer;
 import org.opentripplanner.routing.api.request.RouteRequest;
@@ -20,14 +27,34 @@ import org.opentripplanner.utils.tostring.ToStringBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+/**
+ * Cache the transfers calculated for each distinct set of transfer relevant request parameters.
+ * <p>
+ * Calculating the transfers for a new set of parameters may take several seconds for a large
+ * network. By default, the request waits for it. If {@code loadAsync} is enabled, a request
+ * with new parameters is served the cached transfers with the nearest parameters, while the
+ * transfers for the exact parameters are calculated in the background. The nearest parameters
+ * must have the same transfer mode, wheelchair and street parameters, only the walk and bike
+ * speed and reluctance may differ. If no such entry exist, the request waits.
+ */
 public class RaptorRequestTransferCache {
 
   private static final Logger LOG = LoggerFactory.getLogger(RaptorRequestTransferCache.class);
 
   private final LoadingCache<CacheKey, RaptorTransferIndex> transferCache;
 
+  @Nullable
+  private final ExecutorService asyncLoader;
+
+  private final Set<CacheKey> loadingInBackground = ConcurrentHashMap.newKeySet();
+
   public RaptorRequestTransferCache(int maximumSize) {
+    this(maximumSize, false);
+  }
+
+  public RaptorRequestTransferCache(int maximumSize, boolean loadAsync) {
     transferCache = CacheBuilder.newBuilder().maximumSize(maximumSize).build(cacheLoader());
+    asyncLoader = loadAsync ? createAsyncLoader() : null;
   }
 
   public LoadingCache<CacheKey, RaptorTransferIndex> getTransferCache() {
@@ -46,13 +73,66 @@ public class RaptorRequestTransferCache {
   }
 
   public RaptorTransferIndex get(List<List<Transfer>> transfersByStopIndex, RouteRequest request) {
+    var cacheKey = new CacheKey(transfersByStopIndex, request);
+
+    if (asyncLoader != null) {
+      var index = transferCache.getIfPresent(cacheKey);
+      if (index != null) {
+        return index;
+      }
+      var nearest = findNearest(cacheKey);
+      if (nearest != null) {
+        loadInBackground(cacheKey);
+        return nearest;
+      }
+    }
     try {
-      return transferCache.get(new CacheKey(transfersByStopIndex, request));
+      return transferCache.get(cacheKey);
     } catch (ExecutionException e) {
       throw new RuntimeException("Failed to get item from transfer cache", e);
     }
   }
 
+  private static ExecutorService createAsyncLoader() {
+    // The transfers are calculated in parallel, so one thread is enough
+    return Executors.newSingleThreadExecutor(
+      new ThreadFactoryBuilder().setDaemon(true).setNameFormat("transfer-cache-%d").build()
+    );
+  }
+
+  @Nullable
+  private RaptorTransferIndex findNearest(CacheKey cacheKey) {
+    RaptorTransferIndex nearest = null;
+    double minDistance = Double.POSITIVE_INFINITY;
+
+    for (Map.Entry<CacheKey, RaptorTransferIndex> e : transferCache.asMap().entrySet()) {
+      if (e.getKey().transfersByStopIndex != cacheKey.transfersByStopIndex) {
+        continue;
+      }
+      double distance = cacheKey.options.distance(e.getKey().options);
+      if (distance < minDistance) {
+        minDistance = distance;
+        nearest = e.getValue();
+      }
+    }
+    return nearest;
+  }
+
+  private void loadInBackground(CacheKey cacheKey) {
+    if (!loadingInBackground.add(cacheKey)) {
+      return;
+    }
+    asyncLoader.execute(() -> {
+      try {
+        transferCache.get(cacheKey);
+      } catch (Exception e) {
+        LOG.error("Failed to load transfers for request: {}", cacheKey.options, e);
+      } finally {
+        loadingInBackground.remove(cacheKey);
+      }
+    });
+  }
+
   private CacheLoader<CacheKey, RaptorTransferIndex> cacheLoader() {
     return new CacheLoader<>() {
       @Override
@@ -124,6 +204,33 @@ public class RaptorRequestTransferCache {
         this.wheelchair ? preferences.wheelchair() : WheelchairPreferences.DEFAULT;
     }
 
+    /**
+     * Return the sum of the relative difference of the walk and bike speed and reluctance, or
+     * infinity if any of the other parameters are different. This is used to find the nearest
+     * cached transfers.
+     */
+    double distance(StreetRelevantOptions other) {
+      if (
+        transferMode != other.transferMode ||
+        wheelchair != other.wheelchair ||
+        !Objects.equals(street, other.street) ||
+        !Objects.equals(wheelchairPreferences, other.wheelchairPreferences)
+      ) {
+        return Double.POSITIVE_INFINITY;
+      }
+      return (
+        relativeDifference(walk.speed(), other.walk.speed()) +
+        relativeDifference(walk.reluctance(), other.walk.reluctance()) +
+        relativeDifference(bike.speed(), other.bike.speed()) +
+        relativeDifference(bike.reluctance(), other.bike.reluctance())
+      );
+    }
+
+    private static double relativeDifference(double a, double b) {
+      double max = Math.max(Math.abs(a), Math.abs(b));
+      return max == 0.0 ? 0.0 : Math.abs(a - b) / max;
+    }
+
     @Override
     public String toString() {
       return ToStringBuilder
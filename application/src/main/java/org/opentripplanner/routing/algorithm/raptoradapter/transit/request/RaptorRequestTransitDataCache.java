@@ -0,0 +1,106 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+import javax.annotation.Nullable;
+import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
+
+/**
+ * Cache the pattern index of {@link RaptorRoutingRequestTransitData}. Merging the
+ * {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate}s into
+ * {@link TripPatternForDates} and indexing them by stop is the most expensive part of preparing
+ * the transit data for a request. Requests with the same date window and filter get the same
+ * result, so these are shared.
+ * <p>
+ * Each {@link org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitLayer} instance
+ * has its own cache. The transit layer is replaced, not modified, when realtime updates are
+ * applied, so the cached data can never get out of date - the cache is thrown away with the
+ * layer.
+ * <p>
+ * Requests using transit group priority are not cached, because the
+ * {@link TransitGroupPriorityService} assigns group ids dynamically while the data is created.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class RaptorRequestTransitDataCache {
+
+  private final int maximumSize;
+
+  @Nullable
+  private final Cache<CacheKey, RequestPatternIndex> cache;
+
+  /**
+   * @param maximumSize The maximum number of entries to keep, use zero to disable the cache.
+   */
+  public RaptorRequestTransitDataCache(int maximumSize) {
+    this.maximumSize = maximumSize;
+    this.cache =
+      maximumSize > 0 ? CacheBuilder.newBuilder().maximumSize(maximumSize).build() : null;
+  }
+
+  /**
+   * Create a new empty cache with the same configuration as this one. Use this when a new
+   * transit layer is created.
+   */
+  public RaptorRequestTransitDataCache emptyCopy() {
+    return new RaptorRequestTransitDataCache(maximumSize);
+  }
+
+  public boolean isEnabled() {
+    return cache != null;
+  }
+
+  /**
+   * Return the cached pattern index for the given parameters, or create it using the given
+   * factory. Concurrent requests for the same key wait for the first one to create the index.
+   */
+  RequestPatternIndex get(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    TransitGroupPriorityService transitGroupPriorityService,
+    Supplier<RequestPatternIndex> factory
+  ) {
+    if (cache == null || transitGroupPriorityService.isEnabled()) {
+      return factory.get();
+    }
+    var key = new CacheKey(
+      transitSearchTimeZero,
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter
+    );
+    try {
+      return cache.get(key, factory::get);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Failed to get item from transit data cache", e);
+    }
+  }
+
+  /**
+   * The request scoped pattern data shared between requests.
+   *
+   * @param patternIndex Trip patterns by route index
+   * @param activeTripPatternsPerStop Active route indices by stop index
+   */
+  record RequestPatternIndex(
+    List<TripPatternForDates> patternIndex,
+    List<int[]> activeTripPatternsPerStop
+  ) {}
+
+  /**
+   * The filter is part of the key, so it must implement {@code equals()} and {@code hashCode()},
+   * see {@link RouteRequestTransitDataProviderFilter}.
+   */
+  private record CacheKey(
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter
+  ) {}
+}
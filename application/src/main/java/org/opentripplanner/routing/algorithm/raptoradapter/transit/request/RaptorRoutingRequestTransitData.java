@@ -69,6 +69,8 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
   private final int validTransitDataEndTime;
 
+  private final TransitDataCacheKey transitDataCacheKey;
+
   public RaptorRoutingRequestTransitData(
     TransitLayer transitLayer,
     TransitGroupPriorityService transitGroupPriorityService,
@@ -84,19 +86,30 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
 
     // Delegate to the creator to construct the needed data structures. The code is messy so
     // it is nice to NOT have it in the class. It isolates this code to only be available at
-    // the time of construction
+    // the time of construction. The result is shared between requests with the same date
+    // window and filter, if the transit layer cache is enabled.
     var transitDataCreator = new RaptorRoutingRequestTransitDataCreator(
       transitLayer,
       transitSearchTimeZero
     );
-    List<TripPatternForDates> tripPatterns = transitDataCreator.createTripPatterns(
-      additionalPastSearchDays,
-      additionalFutureSearchDays,
-      filter,
-      transitGroupPriorityService
-    );
-    this.patternIndex = transitDataCreator.createPatternIndex(tripPatterns);
-    this.activeTripPatternsPerStop = transitDataCreator.createTripPatternsPerStop(tripPatterns);
+    var requestPatternIndex = transitLayer
+      .getRequestTransitDataCache()
+      .get(
+        transitSearchTimeZero,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        transitGroupPriorityService,
+        () ->
+          transitDataCreator.createRequestPatternIndex(
+            additionalPastSearchDays,
+            additionalFutureSearchDays,
+            filter,
+            transitGroupPriorityService
+          )
+      );
+    this.patternIndex = requestPatternIndex.patternIndex();
+    this.activeTripPatternsPerStop = requestPatternIndex.activeTripPatternsPerStop();
     this.transferIndex = transitLayer.getRaptorTransfersForRequest(request);
     this.constrainedTransfers = transitLayer.getConstrainedTransfers();
 
@@ -126,6 +139,16 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
         this.transitSearchTimeZero,
         this.transitSearchTimeZero.plusDays(additionalFutureSearchDays + 1).toInstant()
       );
+    this.transitDataCacheKey =
+      new TransitDataCacheKey(
+        transitLayer.getVersion(),
+        transitSearchTimeZero,
+        additionalPastSearchDays,
+        additionalFutureSearchDays,
+        filter,
+        transferIndex,
+        slackProvider
+      );
   }
 
   public RaptorRoutingRequestTransitData(
@@ -143,6 +166,7 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     this.validTransitDataEndTime = original.validTransitDataEndTime;
     this.generalizedCostCalculator = newCostCalculator;
     this.slackProvider = original.slackProvider();
+    this.transitDataCacheKey = original.transitDataCacheKey;
   }
 
   @Override
@@ -189,6 +213,11 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     return slackProvider;
   }
 
+  @Override
+  public Object transitDataCacheKey() {
+    return transitDataCacheKey;
+  }
+
   @Override
   public RaptorPathConstrainedTransferSearch<TripSchedule> transferConstraintsSearch() {
     if (OTPFeature.TransferConstraints.isOff() || transferService == null) {
@@ -259,4 +288,20 @@ public class RaptorRoutingRequestTransitData implements RaptorTransitDataProvide
     }
     return new ConstrainedBoardingSearch(false, toStopTransfers, fromStopTransfers);
   }
+
+  /**
+   * Identifies the trips, transfers and slack of this transit data. The filter is compared by
+   * value, see {@link RouteRequestTransitDataProviderFilter}. The transfer index is compared by
+   * identity, requests with the same transfer parameters get the same instance from the
+   * {@link RaptorRequestTransferCache}.
+   */
+  private record TransitDataCacheKey(
+    long transitLayerVersion,
+    ZonedDateTime transitSearchTimeZero,
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    RaptorTransferIndex transferIndex,
+    RaptorSlackProvider slackProvider
+  ) {}
 }
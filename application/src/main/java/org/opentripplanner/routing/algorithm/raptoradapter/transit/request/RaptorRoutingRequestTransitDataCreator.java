@@ -156,6 +156,27 @@ class RaptorRoutingRequestTransitDataCreator {
     return combinedList;
   }
 
+  /**
+   * Create the trip patterns for the date window and index them by pattern and by stop.
+   */
+  RaptorRequestTransitDataCache.RequestPatternIndex createRequestPatternIndex(
+    int additionalPastSearchDays,
+    int additionalFutureSearchDays,
+    TransitDataProviderFilter filter,
+    TransitGroupPriorityService transitGroupPriorityService
+  ) {
+    List<TripPatternForDates> tripPatterns = createTripPatterns(
+      additionalPastSearchDays,
+      additionalFutureSearchDays,
+      filter,
+      transitGroupPriorityService
+    );
+    return new RaptorRequestTransitDataCache.RequestPatternIndex(
+      createPatternIndex(tripPatterns),
+      createTripPatternsPerStop(tripPatterns)
+    );
+  }
+
   List<TripPatternForDates> createTripPatterns(
     int additionalPastSearchDays,
     int additionalFutureSearchDays,
@@ -1,7 +1,9 @@
 package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.Set;
 import org.opentripplanner.model.PickDrop;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripPatternForDate;
@@ -17,6 +19,11 @@ import org.opentripplanner.transit.model.network.RoutingTripPattern;
 import org.opentripplanner.transit.model.timetable.Trip;
 import org.opentripplanner.transit.model.timetable.TripTimes;
 
+/**
+ * This filter implements {@code equals()} and {@code hashCode()}, two filters are equal if they
+ * filter the transit data in the same way. This is used to share request scoped transit data
+ * between requests, see {@link RaptorRequestTransitDataCache}.
+ */
 public class RouteRequestTransitDataProviderFilter implements TransitDataProviderFilter {
 
   private final boolean requireBikesAllowed;
@@ -151,6 +158,37 @@ public class RouteRequestTransitDataProviderFilter implements TransitDataProvide
     return true;
   }
 
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (o == null || getClass() != o.getClass()) return false;
+    RouteRequestTransitDataProviderFilter that = (RouteRequestTransitDataProviderFilter) o;
+    return (
+      requireBikesAllowed == that.requireBikesAllowed &&
+      requireCarsAllowed == that.requireCarsAllowed &&
+      wheelchairEnabled == that.wheelchairEnabled &&
+      includePlannedCancellations == that.includePlannedCancellations &&
+      includeRealtimeCancellations == that.includeRealtimeCancellations &&
+      Objects.equals(wheelchairPreferences, that.wheelchairPreferences) &&
+      Arrays.equals(filters, that.filters) &&
+      Objects.equals(bannedTrips, that.bannedTrips)
+    );
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(
+      requireBikesAllowed,
+      requireCarsAllowed,
+      wheelchairEnabled,
+      includePlannedCancellations,
+      includeRealtimeCancellations,
+      wheelchairPreferences,
+      Arrays.hashCode(filters),
+      bannedTrips
+    );
+  }
+
   @Override
   public BitSet filterAvailableStops(
     RoutingTripPattern tripPattern,
@@ -41,19 +41,11 @@ public class TripPatternForDates
   private final boolean isFrequencyBased;
 
   /**
-   * The arrival times in a nStops * numberOfTripSchedules sized array. The trips are stored first
-   * by the stop position and then by trip index, so with stops 1 and 2, and trips A and B, the
-   * order is [1A, 1B, 2A, 2B]
+   * The stop times and accessibility of the trips. This is created the first time it is used, most
+   * patterns are not visited in a search. Creating it more than once, if two threads use the
+   * pattern at the same time, is harmless.
    */
-  private final int[] arrivalTimes;
-
-  /**
-   * The arrival times in a nStops * numberOfTripSchedules sized array. The order is the same as in
-   * arrivalTimes.
-   */
-  private final int[] departureTimes;
-
-  private final Accessibility[] wheelchairBoardings;
+  private volatile StopTimes stopTimes;
 
   // bit arrays with boarding/alighting information for all stops on trip pattern,
   // potentially filtered by wheelchair accessibility
@@ -87,24 +79,6 @@ public class TripPatternForDates
     }
     this.numberOfTripSchedules = numberOfTripSchedules;
     this.isFrequencyBased = hasFrequencies;
-
-    wheelchairBoardings = new Accessibility[numberOfTripSchedules];
-
-    final int nStops = tripPattern.numberOfStopsInPattern();
-    this.arrivalTimes = new int[nStops * numberOfTripSchedules];
-    this.departureTimes = new int[nStops * numberOfTripSchedules];
-    int i = 0;
-    for (int d = 0; d < this.tripPatternForDates.length; d++) {
-      int offset = this.offsets[d];
-      for (var trip : this.tripPatternForDates[d].tripTimes()) {
-        wheelchairBoardings[i] = trip.getWheelchairAccessibility();
-        for (int s = 0; s < nStops; s++) {
-          this.arrivalTimes[s * numberOfTripSchedules + i] = trip.getArrivalTime(s) + offset;
-          this.departureTimes[s * numberOfTripSchedules + i] = trip.getDepartureTime(s) + offset;
-        }
-        i++;
-      }
-    }
   }
 
   public RoutingTripPattern getTripPattern() {
@@ -206,22 +180,26 @@ public class TripPatternForDates
 
   @Override
   public IntUnaryOperator getArrivalTimes(int stopPositionInPattern) {
+    final int[] arrivalTimes = stopTimes().arrivalTimes();
     final int base = stopPositionInPattern * numberOfTripSchedules;
     return (int index) -> arrivalTimes[base + index];
   }
 
   @Override
   public IntUnaryOperator getDepartureTimes(int stopPositionInPattern) {
+    final int[] departureTimes = stopTimes().departureTimes();
     final int base = stopPositionInPattern * numberOfTripSchedules;
     return (int index) -> departureTimes[base + index];
   }
 
   public IntUnaryOperator getArrivalTimesForTrip(int index) {
+    final int[] arrivalTimes = stopTimes().arrivalTimes();
     return (int stopPositionInPattern) ->
       arrivalTimes[stopPositionInPattern * numberOfTripSchedules + index];
   }
 
   public IntUnaryOperator getDepartureTimesForTrip(int index) {
+    final int[] departureTimes = stopTimes().departureTimes();
     return (int stopPositionInPattern) ->
       departureTimes[stopPositionInPattern * numberOfTripSchedules + index];
   }
@@ -272,6 +250,51 @@ public class TripPatternForDates
   }
 
   public Accessibility wheelchairBoardingForTrip(int index) {
-    return wheelchairBoardings[index];
+    return stopTimes().wheelchairBoardings()[index];
+  }
+
+  private StopTimes stopTimes() {
+    var result = stopTimes;
+    if (result == null) {
+      result = createStopTimes();
+      stopTimes = result;
+    }
+    return result;
+  }
+
+  /**
+   * Copy the arrival and departure times of all trips into arrays, with the offset of each day
+   * added to the times of the trips on that day.
+   */
+  private StopTimes createStopTimes() {
+    final int nStops = tripPattern.numberOfStopsInPattern();
+    var arrivalTimes = new int[nStops * numberOfTripSchedules];
+    var departureTimes = new int[nStops * numberOfTripSchedules];
+    var wheelchairBoardings = new Accessibility[numberOfTripSchedules];
+    int i = 0;
+    for (int d = 0; d < tripPatternForDates.length; d++) {
+      int offset = offsets[d];
+      for (var trip : tripPatternForDates[d].tripTimes()) {
+        wheelchairBoardings[i] = trip.getWheelchairAccessibility();
+        for (int s = 0; s < nStops; s++) {
+          arrivalTimes[s * numberOfTripSchedules + i] = trip.getArrivalTime(s) + offset;
+          departureTimes[s * numberOfTripSchedules + i] = trip.getDepartureTime(s) + offset;
+        }
+        i++;
+      }
+    }
+    return new StopTimes(arrivalTimes, departureTimes, wheelchairBoardings);
   }
+
+  /**
+   * @param arrivalTimes The arrival times in a nStops * numberOfTripSchedules sized array. The
+   *                     trips are stored first by the stop position and then by trip index, so
+   *                     with stops 1 and 2, and trips A and B, the order is [1A, 1B, 2A, 2B]
+   * @param departureTimes The departure times in the same order as the arrival times.
+   */
+  private record StopTimes(
+    int[] arrivalTimes,
+    int[] departureTimes,
+    Accessibility[] wheelchairBoardings
+  ) {}
 }
@@ -10,6 +10,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.prefs.Preferences;
 import java.util.stream.Collectors;
 import javax.annotation.Nullable;
@@ -27,6 +28,7 @@ import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.TransitStopVertex;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.model.vertex.VertexLabel;
+import org.opentripplanner.street.search.ch.StreetContractionHierarchies;
 import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.service.SiteRepository;
@@ -68,6 +70,12 @@ public class Graph implements Serializable {
   // Ideally we could just get rid of vertex labels, but they're used in tests and graph building.
   private final Map<VertexLabel, Vertex> vertices = new ConcurrentHashMap<>();
 
+  /**
+   * The next dense vertex index, see {@link Vertex#getIndex()}. Indexes of removed vertices are
+   * not reused, so this is an upper bound, not the number of vertices.
+   */
+  private final AtomicInteger nextVertexIndex = new AtomicInteger();
+
   /** Conserve memory by reusing immutable instances of Strings, integer arrays, etc. */
   public final transient Deduplicator deduplicator;
 
@@ -112,6 +120,16 @@ public class Graph implements Serializable {
 
   private FareService fareService;
 
+  /**
+   * Incremented each time a real-time updater changes the street graph, see
+   * {@link #realtimeStreetVersion()}. Only the graph writer thread changes this.
+   */
+  private transient volatile long realtimeStreetVersion = 0;
+
+  /** Contraction hierarchies for direct street routing, if they are built. */
+  @Nullable
+  private StreetContractionHierarchies streetContractionHierarchies;
+
   /**
    * Hack. I've tried three different ways of generating unique labels. Previously we were just
    * tolerating edge label collisions. For some reason we're repeatedly generating splits on the
@@ -148,6 +166,9 @@ public class Graph implements Serializable {
   /** Add the given vertex to the graph. */
   public void addVertex(Vertex v) {
     Vertex old = vertices.put(v.getLabel(), v);
+    if (old != v && v.getIndex() == Vertex.NO_INDEX) {
+      v.initIndex(nextVertexIndex.getAndIncrement());
+    }
     if (old != null) {
       if (old == v) {
         LOG.error("repeatedly added the same vertex: {}", v);
@@ -259,6 +280,14 @@ public class Graph implements Serializable {
     return vertices.size();
   }
 
+  /**
+   * All vertices in the graph have an index in the range {@code [0, vertexIndexSize())}. Use this
+   * to size arrays indexed by {@link Vertex#getIndex()}.
+   */
+  public int vertexIndexSize() {
+    return nextVertexIndex.get();
+  }
+
   /**
    * Find the total number of edges in this Graph. There are assumed to be no Edges in an incoming
    * edge list that are not in an outgoing edge list.
@@ -368,6 +397,34 @@ public class Graph implements Serializable {
     this.fareService = fareService;
   }
 
+  /**
+   * The version of the real-time parts of the street graph. Results of street searches can be
+   * cached for a version, and are out of date when the version changes.
+   */
+  public long realtimeStreetVersion() {
+    return realtimeStreetVersion;
+  }
+
+  /**
+   * Called by real-time updaters, on the graph writer thread, after they add or remove street
+   * vertices and edges, or change the restrictions on street edges.
+   */
+  @SuppressWarnings("NonAtomicOperationOnVolatileField")
+  public void realtimeStreetsChanged() {
+    ++realtimeStreetVersion;
+  }
+
+  @Nullable
+  public StreetContractionHierarchies getStreetContractionHierarchies() {
+    return streetContractionHierarchies;
+  }
+
+  public void setStreetContractionHierarchies(
+    @Nullable StreetContractionHierarchies streetContractionHierarchies
+  ) {
+    this.streetContractionHierarchies = streetContractionHierarchies;
+  }
+
   private void indexIfNotIndexed(SiteRepository siteRepository) {
     if (streetIndex == null) {
       index(siteRepository);
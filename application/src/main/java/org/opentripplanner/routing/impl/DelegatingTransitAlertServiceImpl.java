@@ -3,9 +3,10 @@ package org.opentripplanner.routing.impl;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 import org.opentripplanner.routing.alertpatch.StopCondition;
 import org.opentripplanner.routing.alertpatch.TransitAlert;
 import org.opentripplanner.routing.services.TransitAlertService;
@@ -57,11 +58,7 @@ public class DelegatingTransitAlertServiceImpl implements TransitAlertService {
 
   @Override
   public Collection<TransitAlert> getAllAlerts() {
-    return transitAlertServices
-      .stream()
-      .map(TransitAlertService::getAllAlerts)
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(TransitAlertService::getAllAlerts);
   }
 
   @Override
@@ -79,38 +76,22 @@ public class DelegatingTransitAlertServiceImpl implements TransitAlertService {
     FeedScopedId stop,
     Set<StopCondition> stopConditions
   ) {
-    return transitAlertServices
-      .stream()
-      .map(transitAlertService -> transitAlertService.getStopAlerts(stop, stopConditions))
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(it -> it.getStopAlerts(stop, stopConditions));
   }
 
   @Override
   public Collection<TransitAlert> getRouteAlerts(FeedScopedId route) {
-    return transitAlertServices
-      .stream()
-      .map(transitAlertService -> transitAlertService.getRouteAlerts(route))
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(it -> it.getRouteAlerts(route));
   }
 
   @Override
   public Collection<TransitAlert> getTripAlerts(FeedScopedId trip, LocalDate serviceDate) {
-    return transitAlertServices
-      .stream()
-      .map(transitAlertService -> transitAlertService.getTripAlerts(trip, serviceDate))
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(it -> it.getTripAlerts(trip, serviceDate));
   }
 
   @Override
   public Collection<TransitAlert> getAgencyAlerts(FeedScopedId agency) {
-    return transitAlertServices
-      .stream()
-      .map(transitAlertService -> transitAlertService.getAgencyAlerts(agency))
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(it -> it.getAgencyAlerts(agency));
   }
 
   @Override
@@ -119,13 +100,7 @@ public class DelegatingTransitAlertServiceImpl implements TransitAlertService {
     FeedScopedId route,
     Set<StopCondition> stopConditions
   ) {
-    return transitAlertServices
-      .stream()
-      .map(transitAlertService ->
-        transitAlertService.getStopAndRouteAlerts(stop, route, stopConditions)
-      )
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(it -> it.getStopAndRouteAlerts(stop, route, stopConditions));
   }
 
   @Override
@@ -135,32 +110,17 @@ public class DelegatingTransitAlertServiceImpl implements TransitAlertService {
     LocalDate serviceDate,
     Set<StopCondition> stopConditions
   ) {
-    return transitAlertServices
-      .stream()
-      .map(transitAlertService ->
-        transitAlertService.getStopAndTripAlerts(stop, trip, serviceDate, stopConditions)
-      )
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(it -> it.getStopAndTripAlerts(stop, trip, serviceDate, stopConditions));
   }
 
   @Override
   public Collection<TransitAlert> getRouteTypeAndAgencyAlerts(int routeType, FeedScopedId agency) {
-    return transitAlertServices
-      .stream()
-      .map(transitAlertService -> transitAlertService.getRouteTypeAndAgencyAlerts(routeType, agency)
-      )
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(it -> it.getRouteTypeAndAgencyAlerts(routeType, agency));
   }
 
   @Override
   public Collection<TransitAlert> getRouteTypeAlerts(int routeType, String feedId) {
-    return transitAlertServices
-      .stream()
-      .map(transitAlertService -> transitAlertService.getRouteTypeAlerts(routeType, feedId))
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(it -> it.getRouteTypeAlerts(routeType, feedId));
   }
 
   @Override
@@ -168,10 +128,35 @@ public class DelegatingTransitAlertServiceImpl implements TransitAlertService {
     Direction direction,
     FeedScopedId route
   ) {
-    return transitAlertServices
-      .stream()
-      .map(transitAlertService -> transitAlertService.getDirectionAndRouteAlerts(direction, route))
-      .flatMap(Collection::stream)
-      .collect(Collectors.toList());
+    return collect(it -> it.getDirectionAndRouteAlerts(direction, route));
+  }
+
+  /**
+   * Combine the result of the given lookup for all services. Most lookups return no alerts, so
+   * a new collection is only created if more than one service return alerts.
+   */
+  private Collection<TransitAlert> collect(
+    Function<TransitAlertService, Collection<TransitAlert>> lookup
+  ) {
+    Collection<TransitAlert> first = null;
+    List<TransitAlert> result = null;
+    for (TransitAlertService service : transitAlertServices) {
+      var alerts = lookup.apply(service);
+      if (alerts.isEmpty()) {
+        continue;
+      }
+      if (first == null) {
+        first = alerts;
+      } else {
+        if (result == null) {
+          result = new ArrayList<>(first);
+        }
+        result.addAll(alerts);
+      }
+    }
+    if (result != null) {
+      return result;
+    }
+    return first == null ? List.of() : first;
   }
 }
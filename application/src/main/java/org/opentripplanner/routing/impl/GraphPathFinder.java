@@ -20,6 +20,7 @@ import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.vertex.Vertex;
 import org.opentripplanner.street.search.StreetSearchBuilder;
 import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.ch.StreetContractionHierarchies;
 import org.opentripplanner.street.search.state.State;
 import org.opentripplanner.street.search.strategy.DominanceFunctions;
 import org.opentripplanner.street.search.strategy.EuclideanRemainingWeightHeuristic;
@@ -59,6 +60,9 @@ public class GraphPathFinder {
 
   private final float maxCarSpeed;
 
+  @Nullable
+  private final StreetContractionHierarchies contractionHierarchies;
+
   public GraphPathFinder(@Nullable TraverseVisitor<State, Edge> traverseVisitor) {
     this(traverseVisitor, null, StreetConstants.DEFAULT_MAX_CAR_SPEED);
   }
@@ -67,10 +71,20 @@ public class GraphPathFinder {
     @Nullable TraverseVisitor<State, Edge> traverseVisitor,
     @Nullable DataOverlayContext dataOverlayContext,
     float maxCarSpeed
+  ) {
+    this(traverseVisitor, dataOverlayContext, maxCarSpeed, null);
+  }
+
+  public GraphPathFinder(
+    @Nullable TraverseVisitor<State, Edge> traverseVisitor,
+    @Nullable DataOverlayContext dataOverlayContext,
+    float maxCarSpeed,
+    @Nullable StreetContractionHierarchies contractionHierarchies
   ) {
     this.traverseVisitor = traverseVisitor;
     this.dataOverlayContext = dataOverlayContext;
     this.maxCarSpeed = maxCarSpeed;
+    this.contractionHierarchies = contractionHierarchies;
   }
 
   /**
@@ -82,6 +96,15 @@ public class GraphPathFinder {
     Set<Vertex> from,
     Set<Vertex> to
   ) {
+    // The contraction hierarchies do not support the visitor or the data overlay, and fall back
+    // to the A* search if no valid path is found
+    if (contractionHierarchies != null && traverseVisitor == null && dataOverlayContext == null) {
+      var path = contractionHierarchies.findPath(request, from, to);
+      if (path.isPresent()) {
+        return List.of(path.get());
+      }
+    }
+
     StreetPreferences preferences = request.preferences().street();
 
     StreetSearchBuilder aStar = StreetSearchBuilder
@@ -0,0 +1,113 @@
+package org.opentripplanner.routing.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.opentripplanner.routing.alertpatch.EntityKey;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+
+/**
+ * An immutable index of a set of alerts, by id and by the key of the entities they apply to.
+ * A new index is created for every update, and replaces the previous index in one assignment.
+ * Hence, a lookup always see a consistent set of alerts.
+ * <p>
+ * Most entities have no alerts, so a lookup for an entity without alerts returns an empty
+ * immutable list without allocating anything.
+ */
+final class TransitAlertIndex {
+
+  static final TransitAlertIndex EMPTY = new TransitAlertIndex(List.of());
+
+  private final List<TransitAlert> alerts;
+  private final Map<FeedScopedId, TransitAlert> alertsById;
+  private final Map<EntityKey, List<TransitAlert>> alertsByKey;
+  private final Map<EntityKey, List<SelectorAndAlert>> selectorsByKey;
+
+  private TransitAlertIndex(Collection<TransitAlert> alerts) {
+    var alertsById = new HashMap<FeedScopedId, TransitAlert>();
+    var alertsByKey = new HashMap<EntityKey, Set<TransitAlert>>();
+    var selectorsByKey = new HashMap<EntityKey, List<SelectorAndAlert>>();
+    var indexedAlerts = new LinkedHashSet<TransitAlert>();
+
+    for (TransitAlert alert : alerts) {
+      for (EntitySelector entity : alert.entities()) {
+        var key = entity.key();
+        alertsByKey.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(alert);
+        selectorsByKey
+          .computeIfAbsent(key, k -> new ArrayList<>())
+          .add(new SelectorAndAlert(entity, alert));
+        indexedAlerts.add(alert);
+        alertsById.putIfAbsent(alert.getId(), alert);
+      }
+    }
+
+    this.alerts = List.copyOf(indexedAlerts);
+    this.alertsById = Map.copyOf(alertsById);
+    this.alertsByKey = copyOf(alertsByKey);
+    this.selectorsByKey = copyOf(selectorsByKey);
+  }
+
+  /**
+   * Index the alerts. Alerts without any entities are not indexed, since they do not apply to
+   * anything.
+   */
+  static TransitAlertIndex of(Collection<TransitAlert> alerts) {
+    return alerts.isEmpty() ? EMPTY : new TransitAlertIndex(alerts);
+  }
+
+  /**
+   * All indexed alerts, each alert is included once.
+   */
+  List<TransitAlert> alerts() {
+    return alerts;
+  }
+
+  TransitAlert alertById(FeedScopedId id) {
+    return alertsById.get(id);
+  }
+
+  /**
+   * Return the alerts with at least one entity with the given key.
+   */
+  List<TransitAlert> alertsByKey(EntityKey key) {
+    return alertsByKey.getOrDefault(key, List.of());
+  }
+
+  /**
+   * Return the alerts with at least one entity matching the given selector, see
+   * {@link EntitySelector#matches(EntitySelector)}.
+   */
+  List<TransitAlert> alertsMatching(EntitySelector selector) {
+    var candidates = selectorsByKey.get(selector.key());
+    if (candidates == null) {
+      return List.of();
+    }
+    List<TransitAlert> result = null;
+    for (SelectorAndAlert it : candidates) {
+      if (it.selector().matches(selector)) {
+        if (result == null) {
+          result = new ArrayList<>(2);
+        }
+        // An alert may have more than one entity with the same key
+        if (!result.contains(it.alert())) {
+          result.add(it.alert());
+        }
+      }
+    }
+    return result == null ? List.of() : result;
+  }
+
+  private static <T> Map<EntityKey, List<T>> copyOf(Map<EntityKey, ? extends Collection<T>> map) {
+    var result = new HashMap<EntityKey, List<T>>();
+    map.forEach((key, values) -> result.put(key, List.copyOf(values)));
+    return Map.copyOf(result);
+  }
+
+  private record SelectorAndAlert(EntitySelector selector, TransitAlert alert) {}
+}
@@ -1,10 +1,8 @@
 package org.opentripplanner.routing.impl;
 
-import com.google.common.collect.HashMultimap;
-import com.google.common.collect.Multimap;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
 import org.opentripplanner.routing.alertpatch.EntityKey;
 import org.opentripplanner.routing.alertpatch.EntitySelector;
@@ -29,12 +27,16 @@ import org.opentripplanner.transit.service.TimetableRepository;
  * When an alert is added with more than one transit entity, e.g. a Stop and a Trip, both conditions
  * must be met for the alert to be displayed. This is the case in both the Norwegian interpretation
  * of SIRI, and the GTFS-RT alerts specification.
+ *
+ * The alerts are indexed in an immutable {@link TransitAlertIndex} by the updater thread calling
+ * {@link #setAlerts(Collection)}. The new index is published with a single volatile write, so
+ * each lookup sees either the previous or the new set of alerts, never a mix.
  */
 public class TransitAlertServiceImpl implements TransitAlertService {
 
   private final TimetableRepository timetableRepository;
 
-  private Multimap<EntityKey, TransitAlert> alerts = HashMultimap.create();
+  private volatile TransitAlertIndex index = TransitAlertIndex.EMPTY;
 
   public TransitAlertServiceImpl(TimetableRepository timetableRepository) {
     this.timetableRepository = timetableRepository;
@@ -42,33 +44,20 @@ public class TransitAlertServiceImpl implements TransitAlertService {
 
   @Override
   public void setAlerts(Collection<TransitAlert> alerts) {
-    // FIXME RT_AB: this is patched live by updaters while in use (being read) by other threads
-    //   performing trip planning. The single-action assignment helps a bit, but the map can be
-    //   swapped out while the delegating service is in the middle of multiple calls that read from
-    //   it. The consistent approach would be to duplicate the entire service, update it
-    //   copy-on-write, and swap in the entire service after the update.
-    Multimap<EntityKey, TransitAlert> newAlerts = HashMultimap.create();
-    for (TransitAlert alert : alerts) {
-      for (EntitySelector entity : alert.entities()) {
-        newAlerts.put(entity.key(), alert);
-      }
-    }
-    this.alerts = newAlerts;
+    // FIXME RT_AB: Each lookup is consistent, but a caller doing several lookups (e.g. the
+    //   delegating service) may still see the index swapped out between two of them.
+    this.index = TransitAlertIndex.of(alerts);
   }
 
   @Override
   public Collection<TransitAlert> getAllAlerts() {
-    return new HashSet<>(alerts.values());
+    // Return a copy, the callers are allowed to modify the result
+    return new ArrayList<>(index.alerts());
   }
 
   @Override
   public TransitAlert getAlertById(FeedScopedId id) {
-    return alerts
-      .values()
-      .stream()
-      .filter(transitAlert -> transitAlert.getId().equals(id))
-      .findAny()
-      .orElse(null);
+    return index.alertById(id);
   }
 
   @Override
@@ -76,13 +65,7 @@ public class TransitAlertServiceImpl implements TransitAlertService {
     FeedScopedId stopId,
     Set<StopCondition> stopConditions
   ) {
-    Set<TransitAlert> result = new HashSet<>();
-    EntitySelector.Stop entitySelector = new EntitySelector.Stop(stopId, stopConditions);
-    for (TransitAlert alert : alerts.get(entitySelector.key())) {
-      if (alert.entities().stream().anyMatch(selector -> selector.matches(entitySelector))) {
-        result.add(alert);
-      }
-    }
+    var result = index.alertsMatching(new EntitySelector.Stop(stopId, stopConditions));
     if (result.isEmpty()) {
       // Search for alerts on parent-stop
       if (timetableRepository != null) {
@@ -107,24 +90,17 @@ public class TransitAlertServiceImpl implements TransitAlertService {
 
   @Override
   public Collection<TransitAlert> getRouteAlerts(FeedScopedId route) {
-    return alerts.get(new EntityKey.Route(route));
+    return index.alertsByKey(new EntityKey.Route(route));
   }
 
   @Override
   public Collection<TransitAlert> getTripAlerts(FeedScopedId trip, LocalDate serviceDate) {
-    Set<TransitAlert> result = new HashSet<>();
-    EntitySelector.Trip entitySelector = new EntitySelector.Trip(trip, serviceDate);
-    for (TransitAlert alert : alerts.get(entitySelector.key())) {
-      if (alert.entities().stream().anyMatch(selector -> selector.matches(entitySelector))) {
-        result.add(alert);
-      }
-    }
-    return result;
+    return index.alertsMatching(new EntitySelector.Trip(trip, serviceDate));
   }
 
   @Override
   public Collection<TransitAlert> getAgencyAlerts(FeedScopedId agency) {
-    return alerts.get(new EntityKey.Agency(agency));
+    return index.alertsByKey(new EntityKey.Agency(agency));
   }
 
   @Override
@@ -133,18 +109,7 @@ public class TransitAlertServiceImpl implements TransitAlertService {
     FeedScopedId route,
     Set<StopCondition> stopConditions
   ) {
-    Set<TransitAlert> result = new HashSet<>();
-    EntitySelector.StopAndRoute entitySelector = new EntitySelector.StopAndRoute(
-      stop,
-      route,
-      stopConditions
-    );
-    for (TransitAlert alert : alerts.get(entitySelector.key())) {
-      if (alert.entities().stream().anyMatch(selector -> selector.matches(entitySelector))) {
-        result.add(alert);
-      }
-    }
-    return result;
+    return index.alertsMatching(new EntitySelector.StopAndRoute(stop, route, stopConditions));
   }
 
   @Override
@@ -154,29 +119,19 @@ public class TransitAlertServiceImpl implements TransitAlertService {
     LocalDate serviceDate,
     Set<StopCondition> stopConditions
   ) {
-    Set<TransitAlert> result = new HashSet<>();
-    EntitySelector.StopAndTrip entitySelector = new EntitySelector.StopAndTrip(
-      stop,
-      trip,
-      serviceDate,
-      stopConditions
+    return index.alertsMatching(
+      new EntitySelector.StopAndTrip(stop, trip, serviceDate, stopConditions)
     );
-    for (TransitAlert alert : alerts.get(entitySelector.key())) {
-      if (alert.entities().stream().anyMatch(selector -> selector.matches(entitySelector))) {
-        result.add(alert);
-      }
-    }
-    return result;
   }
 
   @Override
   public Collection<TransitAlert> getRouteTypeAndAgencyAlerts(int routeType, FeedScopedId agency) {
-    return alerts.get(new EntityKey.RouteTypeAndAgency(agency, routeType));
+    return index.alertsByKey(new EntityKey.RouteTypeAndAgency(agency, routeType));
   }
 
   @Override
   public Collection<TransitAlert> getRouteTypeAlerts(int routeType, String feedId) {
-    return alerts.get(new EntityKey.RouteType(feedId, routeType));
+    return index.alertsByKey(new EntityKey.RouteType(feedId, routeType));
   }
 
   @Override
@@ -184,6 +139,6 @@ public class TransitAlertServiceImpl implements TransitAlertService {
     Direction direction,
     FeedScopedId route
   ) {
-    return alerts.get(new EntityKey.DirectionAndRoute(route, direction));
+    return index.alertsByKey(new EntityKey.DirectionAndRoute(route, direction));
   }
 }
@@ -25,6 +25,9 @@ import org.opentripplanner.transit.model.timetable.Direction;
  * mean storing large amounts of null or empty list references. Instead, alerts are looked up in
  * maps allowing them to be attached to any object with minimal space overhead, but requiring some
  * careful indexing to ensure their presence or absence on each object can be determined quickly.
+ *
+ * The collections returned by the lookup methods are unmodifiable, callers must copy them before
+ * adding alerts of their own.
  */
 public interface TransitAlertService {
   void setAlerts(Collection<TransitAlert> alerts);
@@ -13,16 +13,15 @@ package org.opentripplanner.routing.util;
  * atomic.
  * <p>
  * This class encapsulates the simple mechanism giving us the desired effect, revealing its
- * semantics through the type name, and providing an object to lock on (to avoid cluttering compound
- * types with lock fields, or locking on the entire compound type instance just to publish one of
- * its fields). Using private fields, it also prevents the containing object from bypassing the
- * synchronized block and accessing the reference directly, and prevents other code from interfering
- * with (locking on) the lock object.
+ * semantics through the type name. The reference is volatile: a write to a volatile field
+ * happens-before every subsequent read of that field, so readers see all writes made before the
+ * value was published. Unlike a lock, this does not make the reader threads contend with each
+ * other or with the publishing thread. Using a private field, it also prevents the containing
+ * object from accessing the reference directly.
  */
 public class ConcurrentPublished<T> {
 
-  private final Object lock = new Object();
-  private T value;
+  private volatile T value;
 
   /**
    * The published value should be effectively immutable, i.e. all writes to its fields and
@@ -30,14 +29,10 @@ public class ConcurrentPublished<T> {
    * modify its fields or referenced objects.
    */
   public void publish(T value) {
-    synchronized (lock) {
-      this.value = value;
-    }
+    this.value = value;
   }
 
   public T get() {
-    synchronized (lock) {
-      return value;
-    }
+    return value;
   }
 }
@@ -13,6 +13,19 @@ public interface VehicleParkingRepository {
     Collection<VehicleParking> parkingToAdd,
     Collection<VehicleParking> parkingToRemove
   );
+
+  /**
+   * Called after the availability of the existing parking facilities is updated in place, see
+   * {@link VehicleParking#updateAvailability}.
+   */
+  void availabilityUpdated();
+
+  /**
+   * The version of the parking data, incremented each time the parking facilities or their
+   * availability are updated.
+   */
+  long version();
+
   Collection<VehicleParking> listVehicleParkings();
 
   ListMultimap<VehicleParkingGroup, VehicleParking> getVehicleParkingGroups();
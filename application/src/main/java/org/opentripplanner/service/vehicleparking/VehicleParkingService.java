@@ -22,4 +22,9 @@ public interface VehicleParkingService {
   boolean hasBikeParking();
 
   boolean hasCarParking();
+
+  /**
+   * The version of the parking data, see {@link VehicleParkingRepository#version()}.
+   */
+  long version();
 }
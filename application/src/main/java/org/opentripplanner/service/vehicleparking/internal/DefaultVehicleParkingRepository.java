@@ -9,6 +9,7 @@ import jakarta.inject.Singleton;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import org.opentripplanner.service.vehicleparking.VehicleParkingRepository;
 import org.opentripplanner.service.vehicleparking.model.VehicleParking;
 import org.opentripplanner.service.vehicleparking.model.VehicleParkingGroup;
@@ -33,6 +34,8 @@ public class DefaultVehicleParkingRepository implements VehicleParkingRepository
    */
   private volatile ImmutableListMultimap<VehicleParkingGroup, VehicleParking> vehicleParkingGroups = ImmutableListMultimap.of();
 
+  private final AtomicLong version = new AtomicLong();
+
   /**
    * Does atomic update of {@link VehicleParking} and index of {@link VehicleParkingGroup} in this
    * service by replacing the existing with a new copy that includes old ones that were not removed
@@ -64,6 +67,17 @@ public class DefaultVehicleParkingRepository implements VehicleParkingRepository
     updatedVehicleParkings.removeAll(parkingToRemove);
     updatedVehicleParkings.addAll(parkingToAdd);
     vehicleParkings = Set.copyOf(updatedVehicleParkings);
+    version.incrementAndGet();
+  }
+
+  @Override
+  public void availabilityUpdated() {
+    version.incrementAndGet();
+  }
+
+  @Override
+  public long version() {
+    return version.get();
   }
 
   @Override
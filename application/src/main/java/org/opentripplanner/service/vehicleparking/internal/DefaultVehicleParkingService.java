@@ -65,4 +65,9 @@ public class DefaultVehicleParkingService implements Serializable, VehicleParkin
   public boolean hasCarParking() {
     return repository.listVehicleParkings().stream().anyMatch(VehicleParking::hasAnyCarPlaces);
   }
+
+  @Override
+  public long version() {
+    return repository.version();
+  }
 }
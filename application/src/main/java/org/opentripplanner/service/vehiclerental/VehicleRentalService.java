@@ -27,6 +27,12 @@ public interface VehicleRentalService {
 
   boolean hasRentalBikes();
 
+  /**
+   * The version of the rental data. It is incremented each time a rental place is added, updated
+   * or removed, so anything derived from the rental places is out of date when it changes.
+   */
+  long version();
+
   /**
    * Gets all the vehicle rental stations inside the envelope. This is currently done by iterating
    * over a set, but we could use a spatial index if the number of vehicle rental stations is high
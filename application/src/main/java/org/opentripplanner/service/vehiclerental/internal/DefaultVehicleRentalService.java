@@ -6,6 +6,7 @@ import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 import org.locationtech.jts.geom.Coordinate;
 import org.locationtech.jts.geom.Envelope;
@@ -25,6 +26,8 @@ public class DefaultVehicleRentalService implements VehicleRentalService, Vehicl
 
   private final Map<FeedScopedId, VehicleRentalPlace> rentalPlaces = new ConcurrentHashMap<>();
 
+  private final AtomicLong version = new AtomicLong();
+
   @Override
   public Collection<VehicleRentalPlace> getVehicleRentalPlaces() {
     return rentalPlaces.values();
@@ -69,11 +72,18 @@ public class DefaultVehicleRentalService implements VehicleRentalService, Vehicl
   @Override
   public void addVehicleRentalStation(VehicleRentalPlace vehicleRentalStation) {
     rentalPlaces.put(vehicleRentalStation.getId(), vehicleRentalStation);
+    version.incrementAndGet();
   }
 
   @Override
   public void removeVehicleRentalStation(FeedScopedId vehicleRentalStationId) {
     rentalPlaces.remove(vehicleRentalStationId);
+    version.incrementAndGet();
+  }
+
+  @Override
+  public long version() {
+    return version.get();
   }
 
   @Override
@@ -14,8 +14,10 @@ import org.opentripplanner.ext.sorlandsbanen.SorlandsbanenNorwayService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.framework.application.OTPFeature;
 import org.opentripplanner.inspector.raster.TileRendererManager;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -108,6 +110,20 @@ public interface OtpServerRequestContext {
 
   StreetLimitationParametersService streetLimitationParametersService();
 
+  /**
+   * The cache of access and egress stops shared by all requests, or {@code null} if the cache is
+   * disabled.
+   */
+  @Nullable
+  AccessEgressCache accessEgressCache();
+
+  /**
+   * The cache of vector tile layers shared by all requests, or {@code null} if the cache is
+   * disabled.
+   */
+  @Nullable
+  VectorTileCache vectorTileCache();
+
   MeterRegistry meterRegistry();
 
   /** Inspector/debug services */
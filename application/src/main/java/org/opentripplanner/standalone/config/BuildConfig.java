@@ -43,6 +43,7 @@ import org.opentripplanner.standalone.config.buildconfig.TransferRequestConfig;
 import org.opentripplanner.standalone.config.buildconfig.TransitFeedConfig;
 import org.opentripplanner.standalone.config.buildconfig.TransitFeeds;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
+import org.opentripplanner.standalone.config.routerequest.RouteRequestConfig;
 import org.opentripplanner.standalone.config.sandbox.DataOverlayConfigMapper;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.utils.lang.ObjectUtils;
@@ -147,6 +148,8 @@ public class BuildConfig implements OtpDataStoreConfig {
 
   public final boolean osmCacheDataInMem;
 
+  public final boolean multiThreadOsmParsing;
+
   /** See {@link IslandPruningConfig}. */
   public final IslandPruningConfig islandPruning;
 
@@ -170,6 +173,8 @@ public class BuildConfig implements OtpDataStoreConfig {
   public final TransitFeeds transitFeeds;
   public final boolean staticParkAndRide;
   public final boolean staticBikeParkAndRide;
+  public final boolean streetContractionHierarchies;
+  public final RouteRequest streetContractionHierarchiesRequest;
   public final double distanceBetweenElevationSamples;
   public final double maxElevationPropagationMeters;
   public final boolean readCachedElevations;
@@ -329,6 +334,21 @@ all of the elevation values in the street edges.
       """
         )
         .asBoolean(false);
+    multiThreadOsmParsing =
+      root
+        .of("multiThreadOsmParsing")
+        .since(V2_7)
+        .summary("Decompress and decode the OSM data on all available processors.")
+        .description(
+          """
+          Most of the time spent reading a PBF file goes into decompressing and decoding the
+          blocks. If multi-threading is activated, the blocks are decoded on a thread pool while
+          the file is read. The blocks are still added to the graph in the same order as in the
+          file, so the result is the same. The memory use increases slightly, since a few blocks
+          per processor are kept in memory while they are decoded.
+          """
+        )
+        .asBoolean(false);
     platformEntriesLinking =
       root
         .of("platformEntriesLinking")
@@ -360,6 +380,34 @@ all of the elevation values in the street edges.
         .since(V1_5)
         .summary("Whether we should create car P+R stations from OSM data.")
         .asBoolean(true);
+    streetContractionHierarchies =
+      root
+        .of("streetContractionHierarchies")
+        .since(V2_7)
+        .summary("Build contraction hierarchies for direct car and bicycle routing.")
+        .description(
+          """
+          A contraction hierarchy adds shortcuts to the street graph, so that the direct car and
+          bicycle searches only need to visit a small part of the graph. The hierarchies are built
+          for the cost preferences of `streetContractionHierarchiesRequest`, including turn costs,
+          and are only used for requests with the same cost preferences. Other requests use the
+          normal street search. So do paths which can not be traversed with the request, or have a
+          different cost than in the hierarchy, like paths through no-through-traffic areas. Set
+          `streetContractionHierarchiesRequest` to the `routingDefaults` of the router config, or
+          the hierarchies are not used for requests with the default preferences. The server logs
+          a warning at startup if they do not match. Building the hierarchies increases the graph
+          build time and the size of the graph.
+          """
+        )
+        .asBoolean(false);
+    streetContractionHierarchiesRequest =
+      RouteRequestConfig.mapRouteRequest(
+        root
+          .of("streetContractionHierarchiesRequest")
+          .since(V2_7)
+          .summary("The routing request with the cost preferences of the contraction hierarchies.")
+          .asObject()
+      );
     subwayAccessTime =
       root
         .of("subwayAccessTime")
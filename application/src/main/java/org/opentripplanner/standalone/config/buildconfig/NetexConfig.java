@@ -4,6 +4,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import org.opentripplanner.netex.config.NetexFeedParameters;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
@@ -173,6 +174,22 @@ public class NetexConfig {
           .summary("Ignore Parking elements.")
           .docDefaultValue(base.ignoreParking())
           .asBoolean(base.ignoreParking())
+      )
+      .withXmlParserThreads(
+        config
+          .of("xmlParserThreads")
+          .since(V2_7)
+          .summary("The number of threads used to parse the XML files of the NeTEx bundle.")
+          .description(
+            """
+            The files in a group are parsed ahead in parallel, while the parsed files are still
+            added to the index and mapped one at a time, in the same order as with one thread.
+            Each parsed file is kept in memory until it is mapped, so using more threads also uses
+            more memory.
+            """
+          )
+          .docDefaultValue(dft.xmlParserThreads())
+          .asInt(base.xmlParserThreads())
       );
   }
 
@@ -1,9 +1,11 @@
 package org.opentripplanner.standalone.config.routerconfig;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import java.util.List;
+import org.opentripplanner.apis.support.graphql.GraphQLDocumentCache;
 import org.opentripplanner.framework.application.OtpAppException;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 import org.opentripplanner.standalone.server.OTPWebApplicationParameters;
@@ -13,6 +15,7 @@ public class ServerConfig implements OTPWebApplicationParameters {
 
   private final Duration apiProcessingTimeout;
   private final List<RequestTraceParameter> traceParameters;
+  private final int graphQLDocumentCacheSize;
 
   public ServerConfig(String parameterName, NodeAdapter root) {
     NodeAdapter c = root
@@ -99,12 +102,30 @@ Only log4j and logback support this.
               .asBoolean(false)
           )
         );
+
+    this.graphQLDocumentCacheSize =
+      c
+        .of("graphQLDocumentCacheSize")
+        .since(V2_7)
+        .summary("The maximum number of parsed queries to cache in each GraphQL API.")
+        .description(
+          """
+The GTFS and the Transmodel GraphQL APIs cache the parsed and validated queries, and the queries
+of persisted query requests. Each API has its own cache with room for this many queries. When the
+cache is full, the least recently used query is dropped.
+"""
+        )
+        .asInt(GraphQLDocumentCache.DEFAULT_MAXIMUM_SIZE);
   }
 
   public Duration apiProcessingTimeout() {
     return apiProcessingTimeout;
   }
 
+  public int graphQLDocumentCacheSize() {
+    return graphQLDocumentCacheSize;
+  }
+
   public void validate(Duration streetRoutingTimeout) {
     if (
       !apiProcessingTimeout.isNegative() &&
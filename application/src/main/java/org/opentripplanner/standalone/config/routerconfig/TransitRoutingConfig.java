@@ -6,6 +6,7 @@ import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_2;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_3;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_4;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import java.util.List;
@@ -27,7 +28,12 @@ public final class TransitRoutingConfig implements RaptorTuningParameters, Trans
   private final int scheduledTripBinarySearchThreshold;
   private final int iterationDepartureStepInSeconds;
   private final int searchThreadPoolSize;
+  private final Duration searchWindowSliceMinLength;
   private final int transferCacheMaxSize;
+  private final boolean transferCacheLoadAsync;
+  private final int transitDataCacheMaxSize;
+  private final int accessEgressCacheMaxSize;
+  private final int heuristicsCacheMaxSize;
   private final List<RouteRequest> transferCacheRequests;
   private final List<Duration> pagingSearchWindowAdjustments;
 
@@ -113,6 +119,24 @@ no extra threads are started and the search is done in one thread.
 """
         )
         .asInt(0);
+    this.searchWindowSliceMinLength =
+      c
+        .of("searchWindowSliceMinLength")
+        .since(V2_7)
+        .summary(
+          "Split the search-window of a multi-criteria search into slices routed in parallel."
+        )
+        .description(
+          """
+This is a performance optimization parameter for searches with a wide search-window, like
+long-distance rail searches. If the search-window is at least twice this long, it is split into
+slices of at least this length and the slices are routed in parallel using the search thread pool.
+The paths found in each slice are merged into one result. The total amount of work increases a
+bit, but the response time for a single search is reduced. This is only done if the
+`searchThreadPoolSize` is set and the request allows running in parallel. Zero disables the split.
+"""
+        )
+        .asDuration(Duration.ofSeconds(dft.searchWindowSliceMinLengthInSeconds()));
     // Dynamic Search Window
     this.stopBoardAlightDuringTransferCost =
       c
@@ -159,6 +183,81 @@ Use values in a range from `0` to `100 000`. **All key/value pairs are required
         )
         .asInt(25);
 
+    this.transferCacheLoadAsync =
+      c
+        .of("transferCacheLoadAsync")
+        .since(V2_7)
+        .summary(
+          "Serve the nearest cached transfers while the transfers for a new request are calculated."
+        )
+        .description(
+          """
+Calculating the transfers for a request with new walk or bike parameters may take several seconds
+for a large network. By default, the request waits for the calculation. If enabled, the request
+is served the cached transfers for the request with the nearest walk and bike speed and
+reluctance instead, while the transfers for the exact request are calculated in the background.
+The transfer mode, wheelchair and street parameters must be the same. If no such transfers are
+cached, the request waits. The result of the first requests with new parameters are then
+approximate.
+"""
+        )
+        .asBoolean(false);
+
+    this.transitDataCacheMaxSize =
+      c
+        .of("transitDataCacheMaxSize")
+        .since(V2_7)
+        .summary(
+          "The maximum number of date window and filter combinations to cache transit data for."
+        )
+        .description(
+          """
+Preparing the transit data for a search merges the trip patterns for all days in the search period
+and indexes them by stop. Requests with the same search date, number of search days and transit
+filters share this data when the cache is enabled. The cache is cleared every time realtime
+updates are applied. Requests using transit group priority are not cached. Set to `0` to disable
+the cache.
+"""
+        )
+        .asInt(0);
+
+    this.accessEgressCacheMaxSize =
+      c
+        .of("accessEgressCacheMaxSize")
+        .since(V2_7)
+        .summary(
+          "The maximum number of origins and destinations to cache access and egress stops for."
+        )
+        .description(
+          """
+Most requests are made from and to a limited set of popular locations, like stations and addresses
+from the autocomplete. When the cache is enabled, the stops found by the access and egress street
+search are cached for each location, street mode and street preferences, so that repeated requests
+skip the street search. Only walk, bike and car access and egress are cached. The cached results are
+not used after a real-time updater changes the street graph, for example when vehicle rental
+stations are added or removed. Set to `0` to disable the cache.
+"""
+        )
+        .asInt(0);
+
+    this.heuristicsCacheMaxSize =
+      c
+        .of("heuristicsCacheMaxSize")
+        .since(V2_7)
+        .summary("The maximum number of heuristic search results to cache.")
+        .description(
+          """
+Before the main Raptor search, a one-iteration heuristic search is performed to find the search
+window and the lower bounds used for destination pruning. When the cache is enabled, the result of
+the heuristic search is shared between requests with the same origin, destination, search time and
+transit filters, so that repeated requests skip it. The search time of the heuristic search is
+widened to whole 5 minutes, so requests made a few minutes apart share the result. The cached
+results are not used after a real-time update of the transit data. Set to `0` to disable the
+cache.
+"""
+        )
+        .asInt(dft.heuristicsCacheMaxSize());
+
     this.transferCacheRequests =
       c
         .of("transferCacheRequests")
@@ -248,6 +347,11 @@ for more info."
     return searchThreadPoolSize;
   }
 
+  @Override
+  public int searchWindowSliceMinLengthInSeconds() {
+    return (int) searchWindowSliceMinLength.toSeconds();
+  }
+
   @Override
   public DynamicSearchWindowCoefficients dynamicSearchWindowCoefficients() {
     return dynamicSearchWindowCoefficients;
@@ -268,6 +372,26 @@ for more info."
     return transferCacheMaxSize;
   }
 
+  @Override
+  public boolean transferCacheLoadAsync() {
+    return transferCacheLoadAsync;
+  }
+
+  @Override
+  public int transitDataCacheMaxSize() {
+    return transitDataCacheMaxSize;
+  }
+
+  @Override
+  public int accessEgressCacheMaxSize() {
+    return accessEgressCacheMaxSize;
+  }
+
+  @Override
+  public int heuristicsCacheMaxSize() {
+    return heuristicsCacheMaxSize;
+  }
+
   @Override
   public List<RouteRequest> transferCacheRequests() {
     return transferCacheRequests;
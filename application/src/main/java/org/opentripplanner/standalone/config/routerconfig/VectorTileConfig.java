@@ -7,6 +7,7 @@ import static org.opentripplanner.inspector.vector.LayerParameters.MIN_ZOOM;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_0;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_5;
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_6;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.util.Collection;
 import java.util.List;
@@ -20,7 +21,7 @@ import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
 
 public class VectorTileConfig implements VectorTilesResource.LayersParameters<LayerType> {
 
-  public static final VectorTileConfig DEFAULT = new VectorTileConfig(List.of(), null, null);
+  public static final VectorTileConfig DEFAULT = new VectorTileConfig(List.of(), null, null, 0);
   private final List<LayerParameters<LayerType>> layers;
 
   @Nullable
@@ -29,14 +30,18 @@ public class VectorTileConfig implements VectorTilesResource.LayersParameters<La
   @Nullable
   private final String attribution;
 
+  private final int cacheMaxSize;
+
   VectorTileConfig(
     Collection<? extends LayerParameters<LayerType>> layers,
     @Nullable String basePath,
-    @Nullable String attribution
+    @Nullable String attribution,
+    int cacheMaxSize
   ) {
     this.layers = List.copyOf(layers);
     this.basePath = basePath;
     this.attribution = attribution;
+    this.cacheMaxSize = cacheMaxSize;
   }
 
   @Override
@@ -52,6 +57,14 @@ public class VectorTileConfig implements VectorTilesResource.LayersParameters<La
     return Optional.ofNullable(attribution);
   }
 
+  /**
+   * The max number of layer tiles in the server side cache, see
+   * {@link org.opentripplanner.inspector.vector.VectorTileCache}. Zero disables the cache.
+   */
+  public int cacheMaxSize() {
+    return cacheMaxSize;
+  }
+
   public static VectorTileConfig mapVectorTilesParameters(NodeAdapter node, String paramName) {
     var root = node.of(paramName).summary("Vector tile configuration").asObject();
     return new VectorTileConfig(
@@ -98,7 +111,22 @@ public class VectorTileConfig implements VectorTilesResource.LayersParameters<La
           for example `<a href='https://trimet.org/mod'>Regional Partners</a>`.
           """
         )
-        .asString(DEFAULT.attribution)
+        .asString(DEFAULT.attribution),
+      root
+        .of("cacheMaxSize")
+        .since(V2_7)
+        .summary("The max number of layer tiles kept in the server side tile cache.")
+        .description(
+          """
+          Layers with a positive `cacheMaxSeconds` are cached on the server, and the cached layer is
+          returned for later requests for the same tile until `cacheMaxSeconds` has passed. The
+          rental and parking layers are also built again when their data is changed by an updater.
+          Each layer of a tile is one entry in the cache, for each locale requested.
+          
+          The default value `0` disables the cache.
+          """
+        )
+        .asInt(DEFAULT.cacheMaxSize)
     );
   }
 
@@ -1,6 +1,7 @@
 package org.opentripplanner.standalone.config.routerconfig.updaters;
 
 import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V1_5;
+import static org.opentripplanner.standalone.config.framework.json.OtpVersion.V2_7;
 
 import java.time.Duration;
 import org.opentripplanner.standalone.config.framework.json.NodeAdapter;
@@ -23,7 +24,21 @@ public class VehicleRentalUpdaterConfig {
         .since(V1_5)
         .summary("How often the data should be updated.")
         .asDuration(Duration.ofMinutes(1)),
-      VehicleRentalSourceFactory.create(sourceType, c)
+      VehicleRentalSourceFactory.create(sourceType, c),
+      c
+        .of("incrementalGeofencingZones")
+        .since(V2_7)
+        .summary("Only apply the geofencing zones which are changed when the zones are updated.")
+        .description(
+          """
+          By default all the geofencing zones of the network are removed from the street edges and
+          applied again when any of the zones are changed. If this is enabled, only the zones
+          which are added, removed or changed are applied to the street edges, while the others
+          are kept as they are. This makes it possible to update networks with a large number of
+          zones often, without blocking the other real-time updates for a long time.
+          """
+        )
+        .asBoolean(false)
     );
   }
 }
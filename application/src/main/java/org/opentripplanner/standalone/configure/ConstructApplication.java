@@ -2,6 +2,7 @@ package org.opentripplanner.standalone.configure;
 
 import jakarta.ws.rs.core.Application;
 import javax.annotation.Nullable;
+import org.opentripplanner.apis.gtfs.GtfsGraphQLAPI;
 import org.opentripplanner.apis.transmodel.TransmodelAPI;
 import org.opentripplanner.datastore.api.DataSource;
 import org.opentripplanner.ext.emissions.EmissionsDataModel;
@@ -176,6 +177,8 @@ public class ConstructApplication {
 
     initEllipsoidToGeoidDifference();
 
+    checkStreetContractionHierarchies();
+
     initializeTransferCache(routerConfig().transitTuningConfig(), timetableRepository());
 
     if (OTPFeature.TransmodelGraphQlApi.isOn()) {
@@ -183,10 +186,15 @@ public class ConstructApplication {
         routerConfig().transmodelApi(),
         timetableRepository(),
         routerConfig().routingRequestDefaults(),
-        routerConfig().transitTuningConfig()
+        routerConfig().transitTuningConfig(),
+        routerConfig().server().graphQLDocumentCacheSize()
       );
     }
 
+    if (OTPFeature.GtfsGraphQlApi.isOn()) {
+      GtfsGraphQLAPI.setUp(routerConfig().server().graphQLDocumentCacheSize());
+    }
+
     if (OTPFeature.SandboxAPIGeocoder.isOn()) {
       LOG.info("Initializing geocoder");
       // eagerly initialize the geocoder
@@ -194,6 +202,26 @@ public class ConstructApplication {
     }
   }
 
+  /**
+   * The street contraction hierarchies are built with the preferences of the build config. Warn if
+   * they are not used for requests with the routing defaults of the router config.
+   */
+  private void checkStreetContractionHierarchies() {
+    var hierarchies = graph().getStreetContractionHierarchies();
+    if (hierarchies == null) {
+      return;
+    }
+    var modes = hierarchies.modesNotUsedFor(routerConfig().routingRequestDefaults());
+    if (!modes.isEmpty()) {
+      LOG.warn(
+        "The street contraction hierarchies for {} are built with other cost preferences than " +
+        "the routingDefaults, so they are not used for requests with the default preferences. " +
+        "Set streetContractionHierarchiesRequest in build-config.json and rebuild the graph.",
+        modes
+      );
+    }
+  }
+
   private void initEllipsoidToGeoidDifference() {
     try {
       var c = factory.worldEnvelopeService().envelope().orElseThrow().center();
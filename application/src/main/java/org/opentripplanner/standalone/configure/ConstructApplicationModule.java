@@ -3,6 +3,7 @@ package org.opentripplanner.standalone.configure;
 import dagger.Module;
 import dagger.Provides;
 import io.micrometer.core.instrument.Metrics;
+import jakarta.inject.Singleton;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.astar.spi.TraverseVisitor;
@@ -12,7 +13,9 @@ import org.opentripplanner.ext.interactivelauncher.api.LauncherRequestDecorator;
 import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.sorlandsbanen.SorlandsbanenNorwayService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.graph.Graph;
 import org.opentripplanner.service.realtimevehicles.RealtimeVehicleService;
@@ -48,7 +51,9 @@ public class ConstructApplicationModule {
     EmissionsService emissionsService,
     @Nullable SorlandsbanenNorwayService sorlandsbanenService,
     LauncherRequestDecorator launcherRequestDecorator,
-    @Nullable LuceneIndex luceneIndex
+    @Nullable LuceneIndex luceneIndex,
+    @Nullable AccessEgressCache accessEgressCache,
+    @Nullable VectorTileCache vectorTileCache
   ) {
     var defaultRequest = launcherRequestDecorator.intercept(routerConfig.routingRequestDefaults());
 
@@ -72,10 +77,28 @@ public class ConstructApplicationModule {
       streetLimitationParametersService,
       traverseVisitor,
       luceneIndex,
+      accessEgressCache,
+      vectorTileCache,
       debugUiConfig
     );
   }
 
+  @Provides
+  @Singleton
+  @Nullable
+  AccessEgressCache accessEgressCache(RouterConfig routerConfig) {
+    int maximumSize = routerConfig.transitTuningConfig().accessEgressCacheMaxSize();
+    return maximumSize > 0 ? new AccessEgressCache(maximumSize) : null;
+  }
+
+  @Provides
+  @Singleton
+  @Nullable
+  VectorTileCache vectorTileCache(RouterConfig routerConfig) {
+    int maximumSize = routerConfig.vectorTileConfig().cacheMaxSize();
+    return maximumSize > 0 ? new VectorTileCache(maximumSize) : null;
+  }
+
   @Provides
   @Nullable
   TraverseVisitor<?, ?> traverseVisitor(@Nullable GraphVisualizer graphVisualizer) {
@@ -12,8 +12,10 @@ import org.opentripplanner.ext.ridehailing.RideHailingService;
 import org.opentripplanner.ext.sorlandsbanen.SorlandsbanenNorwayService;
 import org.opentripplanner.ext.stopconsolidation.StopConsolidationService;
 import org.opentripplanner.inspector.raster.TileRendererManager;
+import org.opentripplanner.inspector.vector.VectorTileCache;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.routing.algorithm.raptoradapter.router.street.AccessEgressCache;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TransitTuningParameters;
 import org.opentripplanner.routing.algorithm.raptoradapter.transit.TripSchedule;
 import org.opentripplanner.routing.api.RoutingService;
@@ -58,6 +60,13 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
   private final StopConsolidationService stopConsolidationService;
   private final StreetLimitationParametersService streetLimitationParametersService;
   private final LuceneIndex luceneIndex;
+
+  @Nullable
+  private final AccessEgressCache accessEgressCache;
+
+  @Nullable
+  private final VectorTileCache vectorTileCache;
+
   private final DebugUiConfig debugUiConfig;
 
   private RouteRequest defaultRouteRequestWithTimeSet = null;
@@ -86,6 +95,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     FlexParameters flexParameters,
     @Nullable TraverseVisitor traverseVisitor,
     @Nullable LuceneIndex luceneIndex,
+    @Nullable AccessEgressCache accessEgressCache,
+    @Nullable VectorTileCache vectorTileCache,
     DebugUiConfig debugUiConfig
   ) {
     this.graph = graph;
@@ -108,6 +119,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     this.stopConsolidationService = stopConsolidationService;
     this.streetLimitationParametersService = streetLimitationParametersService;
     this.luceneIndex = luceneIndex;
+    this.accessEgressCache = accessEgressCache;
+    this.vectorTileCache = vectorTileCache;
     this.debugUiConfig = debugUiConfig;
   }
 
@@ -134,6 +147,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     StreetLimitationParametersService streetLimitationParametersService,
     @Nullable TraverseVisitor traverseVisitor,
     @Nullable LuceneIndex luceneIndex,
+    @Nullable AccessEgressCache accessEgressCache,
+    @Nullable VectorTileCache vectorTileCache,
     DebugUiConfig debugUiConfig
   ) {
     return new DefaultServerRequestContext(
@@ -157,6 +172,8 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
       flexParameters,
       traverseVisitor,
       luceneIndex,
+      accessEgressCache,
+      vectorTileCache,
       debugUiConfig
     );
   }
@@ -243,6 +260,18 @@ public class DefaultServerRequestContext implements OtpServerRequestContext {
     return streetLimitationParametersService;
   }
 
+  @Nullable
+  @Override
+  public AccessEgressCache accessEgressCache() {
+    return accessEgressCache;
+  }
+
+  @Nullable
+  @Override
+  public VectorTileCache vectorTileCache() {
+    return vectorTileCache;
+  }
+
   @Override
   public MeterRegistry meterRegistry() {
     return meterRegistry;
@@ -38,10 +38,11 @@ public interface RentalRestrictionExtension {
   }
 
   /**
-   * Remove the extension from this one
+   * Remove the extension from this one. If this is not the extension to remove, this is returned
+   * unchanged.
    */
   default RentalRestrictionExtension remove(RentalRestrictionExtension toRemove) {
-    return NO_RESTRICTION;
+    return equals(toRemove) ? NO_RESTRICTION : this;
   }
 
   /**
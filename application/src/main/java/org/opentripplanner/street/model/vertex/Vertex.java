@@ -36,6 +36,9 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
   private transient Edge[] outgoing = new Edge[0];
   private RentalRestrictionExtension rentalRestrictions = RentalRestrictionExtension.NO_RESTRICTION;
 
+  /** Dense index assigned when the vertex is added to the graph, see {@link #getIndex()}. */
+  private int index = NO_INDEX;
+
   /* CONSTRUCTORS */
 
   protected Vertex(double x, double y) {
@@ -152,6 +155,23 @@ public abstract class Vertex implements AStarVertex<State, Edge, Vertex>, Serial
    */
   public abstract VertexLabel getLabel();
 
+  @Override
+  public final int getIndex() {
+    return index;
+  }
+
+  /**
+   * Assign the dense index of this vertex. This is done by the
+   * {@link org.opentripplanner.routing.graph.Graph} when the vertex is added, the index is
+   * serialized with the graph and does not change after that.
+   */
+  public final void initIndex(int index) {
+    if (this.index != NO_INDEX) {
+      throw new IllegalStateException("The vertex index is already set: " + this);
+    }
+    this.index = index;
+  }
+
   /**
    * Return the label of the vertex converted to a string.
    *
@@ -0,0 +1,271 @@
+package org.opentripplanner.street.search.ch;
+
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TIntDoubleMap;
+import gnu.trove.map.hash.TIntDoubleHashMap;
+import gnu.trove.map.hash.TIntIntHashMap;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.street.model.edge.Edge;
+
+/**
+ * A contraction hierarchy for one time-independent cost model of the street graph. The nodes are
+ * numbered by the caller, see {@link StreetContractionHierarchies}. Each node has a rank, and the
+ * shortest path between two nodes is found with a bidirectional Dijkstra search which only follows
+ * arcs to nodes with a higher rank. This settles a few hundred nodes, where a plain search on the
+ * street graph may settle millions.
+ * <p>
+ * An arc is either an arc of the original graph, which adds one edge to the path, or a shortcut
+ * for two other arcs via a node with a lower rank. The arcs are kept in flat arrays, and the arcs
+ * of each node are stored in the range {@code [offsets[node], offsets[node + 1])} of the upward
+ * and downward arc lists.
+ * <p>
+ * This is built by the {@link ContractionHierarchyBuilder}, and is immutable after that.
+ */
+public final class ContractionHierarchy implements Serializable {
+
+  static final int NO_ARC = -1;
+
+  private final int[] rank;
+
+  private final int[] arcFrom;
+  private final int[] arcTo;
+  private final double[] arcWeight;
+  private final int[] arcFirst;
+  private final int[] arcSecond;
+  private final Edge[] arcEdge;
+
+  /** The arcs from each node to a node with a higher rank. */
+  private final int[] upOffsets;
+  private final int[] upArcs;
+
+  /** The arcs to each node from a node with a higher rank. */
+  private final int[] downOffsets;
+  private final int[] downArcs;
+
+  ContractionHierarchy(
+    int[] rank,
+    int[] arcFrom,
+    int[] arcTo,
+    double[] arcWeight,
+    int[] arcFirst,
+    int[] arcSecond,
+    Edge[] arcEdge
+  ) {
+    this.rank = rank;
+    this.arcFrom = arcFrom;
+    this.arcTo = arcTo;
+    this.arcWeight = arcWeight;
+    this.arcFirst = arcFirst;
+    this.arcSecond = arcSecond;
+    this.arcEdge = arcEdge;
+
+    int nNodes = rank.length;
+    this.upOffsets = new int[nNodes + 1];
+    this.downOffsets = new int[nNodes + 1];
+    for (int arc = 0; arc < arcFrom.length; ++arc) {
+      if (isUpward(arc)) {
+        ++upOffsets[arcFrom[arc] + 1];
+      } else {
+        ++downOffsets[arcTo[arc] + 1];
+      }
+    }
+    for (int i = 0; i < nNodes; ++i) {
+      upOffsets[i + 1] += upOffsets[i];
+      downOffsets[i + 1] += downOffsets[i];
+    }
+    this.upArcs = new int[upOffsets[nNodes]];
+    this.downArcs = new int[downOffsets[nNodes]];
+    int[] nextUp = upOffsets.clone();
+    int[] nextDown = downOffsets.clone();
+    for (int arc = 0; arc < arcFrom.length; ++arc) {
+      if (isUpward(arc)) {
+        upArcs[nextUp[arcFrom[arc]]++] = arc;
+      } else {
+        downArcs[nextDown[arcTo[arc]]++] = arc;
+      }
+    }
+  }
+
+  /**
+   * Return {@code true} if the node is in this hierarchy, nodes without any arcs are not.
+   */
+  public boolean contains(int node) {
+    return node >= 0 && node < rank.length && rank[node] >= 0;
+  }
+
+  public int numberOfNodes() {
+    int n = 0;
+    for (int it : rank) {
+      if (it >= 0) {
+        ++n;
+      }
+    }
+    return n;
+  }
+
+  public int numberOfArcs() {
+    return arcFrom.length;
+  }
+
+  /**
+   * Find the shortest path from one of the source nodes to one of the target nodes. The weight of
+   * starting at each source node and of ending at each target node are given in the maps. Returns
+   * {@code null} if no path exists.
+   */
+  @Nullable
+  Path findPath(TIntDoubleMap sources, TIntDoubleMap targets) {
+    var forward = new Search(true, sources);
+    var backward = new Search(false, targets);
+
+    double best = Double.POSITIVE_INFINITY;
+    int meetingNode = -1;
+
+    for (int node : sources.keys()) {
+      if (targets.containsKey(node)) {
+        double weight = sources.get(node) + targets.get(node);
+        if (weight < best) {
+          best = weight;
+          meetingNode = node;
+        }
+      }
+    }
+
+    while (true) {
+      double forwardMin = forward.minWeight();
+      double backwardMin = backward.minWeight();
+      if (Math.min(forwardMin, backwardMin) >= best) {
+        break;
+      }
+      var search = forwardMin <= backwardMin ? forward : backward;
+      var other = search == forward ? backward : forward;
+      int node = search.settleNext();
+      if (node < 0) {
+        continue;
+      }
+      if (other.weights.containsKey(node)) {
+        double weight = search.weights.get(node) + other.weights.get(node);
+        if (weight < best) {
+          best = weight;
+          meetingNode = node;
+        }
+      }
+    }
+
+    if (meetingNode < 0) {
+      return null;
+    }
+
+    var arcs = new TIntArrayList();
+    forward.addArcsTo(meetingNode, arcs);
+    arcs.reverse();
+    backward.addArcsTo(meetingNode, arcs);
+
+    var edges = new ArrayList<Edge>();
+    for (int i = 0; i < arcs.size(); ++i) {
+      unpack(arcs.get(i), edges);
+    }
+    return new Path(forward.startNode(meetingNode), backward.startNode(meetingNode), edges, best);
+  }
+
+  /**
+   * Add the edges of the arc to the list, shortcuts are replaced by the arcs they shortcut.
+   */
+  private void unpack(int arc, List<Edge> edges) {
+    var stack = new TIntArrayList();
+    stack.add(arc);
+    while (!stack.isEmpty()) {
+      int it = stack.removeAt(stack.size() - 1);
+      if (arcFirst[it] == NO_ARC) {
+        edges.add(arcEdge[it]);
+      } else {
+        stack.add(arcSecond[it]);
+        stack.add(arcFirst[it]);
+      }
+    }
+  }
+
+  private boolean isUpward(int arc) {
+    return rank[arcFrom[arc]] < rank[arcTo[arc]];
+  }
+
+  /**
+   * The edges of the arcs of a path from the {@code source} to the {@code target} node.
+   */
+  record Path(int source, int target, List<Edge> edges, double weight) {}
+
+  /**
+   * One direction of the bidirectional search. The forward search follows the upward arcs from the
+   * sources, and the backward search follows the downward arcs in reverse from the targets.
+   */
+  private final class Search {
+
+    private final boolean forward;
+    private final TIntDoubleHashMap weights = new TIntDoubleHashMap();
+    private final TIntIntHashMap parentArcs = new TIntIntHashMap();
+    private final BinHeap<Integer> queue = new BinHeap<>();
+
+    private Search(boolean forward, TIntDoubleMap initialWeights) {
+      this.forward = forward;
+      initialWeights.forEachEntry((node, weight) -> {
+        weights.put(node, weight);
+        parentArcs.put(node, NO_ARC);
+        queue.insert(node, weight);
+        return true;
+      });
+    }
+
+    private double minWeight() {
+      return queue.empty() ? Double.POSITIVE_INFINITY : queue.peek_min_key();
+    }
+
+    /**
+     * Settle the next node in the queue and relax its arcs. Returns -1 if the next entry in the
+     * queue is outdated.
+     */
+    private int settleNext() {
+      double weight = queue.peek_min_key();
+      int node = queue.extract_min();
+      if (weight > weights.get(node)) {
+        return -1;
+      }
+      int[] offsets = forward ? upOffsets : downOffsets;
+      int[] arcs = forward ? upArcs : downArcs;
+      for (int i = offsets[node]; i < offsets[node + 1]; ++i) {
+        int arc = arcs[i];
+        int next = forward ? arcTo[arc] : arcFrom[arc];
+        double nextWeight = weight + arcWeight[arc];
+        if (!weights.containsKey(next) || nextWeight < weights.get(next)) {
+          weights.put(next, nextWeight);
+          parentArcs.put(next, arc);
+          queue.insert(next, nextWeight);
+        }
+      }
+      return node;
+    }
+
+    /**
+     * Add the arcs from the node back to the start of the search, in the order they are followed.
+     */
+    private void addArcsTo(int node, TIntArrayList result) {
+      int arc = parentArcs.get(node);
+      while (arc != NO_ARC) {
+        result.add(arc);
+        node = forward ? arcFrom[arc] : arcTo[arc];
+        arc = parentArcs.get(node);
+      }
+    }
+
+    private int startNode(int node) {
+      int arc = parentArcs.get(node);
+      while (arc != NO_ARC) {
+        node = forward ? arcFrom[arc] : arcTo[arc];
+        arc = parentArcs.get(node);
+      }
+      return node;
+    }
+  }
+}
@@ -0,0 +1,294 @@
+package org.opentripplanner.street.search.ch;
+
+import static org.opentripplanner.street.search.ch.ContractionHierarchy.NO_ARC;
+
+import gnu.trove.list.array.TDoubleArrayList;
+import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.hash.TIntIntHashMap;
+import gnu.trove.set.hash.TIntHashSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.utils.logging.ProgressTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Build a {@link ContractionHierarchy} by contracting the nodes one by one. When a node is
+ * contracted, a shortcut is added between each pair of its neighbours, unless a witness search
+ * finds a path between them which is as short without the node. The next node to contract is the
+ * one which adds the fewest shortcuts compared to the number of arcs it removes. The priorities
+ * are updated lazily, when a node is taken from the queue.
+ * <p>
+ * The witness searches are limited, so some unnecessary shortcuts may be added. This makes the
+ * hierarchy a bit larger, but the shortest paths are still correct.
+ */
+public class ContractionHierarchyBuilder {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ContractionHierarchyBuilder.class);
+
+  /** The maximum number of nodes settled in each witness search. */
+  private static final int WITNESS_SEARCH_LIMIT = 500;
+
+  private final int nNodes;
+
+  private final TIntArrayList arcFrom = new TIntArrayList();
+  private final TIntArrayList arcTo = new TIntArrayList();
+  private final TDoubleArrayList arcWeight = new TDoubleArrayList();
+  private final TIntArrayList arcFirst = new TIntArrayList();
+  private final TIntArrayList arcSecond = new TIntArrayList();
+  private final List<Edge> arcEdge = new ArrayList<>();
+
+  private final TIntArrayList[] outArcs;
+  private final TIntArrayList[] inArcs;
+
+  private final int[] rank;
+  private final int[] contractedNeighbours;
+
+  /** Reused by the witness searches, reset after each search. */
+  private final double[] witnessWeights;
+  private final TIntArrayList witnessVisited = new TIntArrayList();
+
+  private ContractionHierarchyBuilder(int nNodes) {
+    this.nNodes = nNodes;
+    this.outArcs = new TIntArrayList[nNodes];
+    this.inArcs = new TIntArrayList[nNodes];
+    this.rank = new int[nNodes];
+    this.contractedNeighbours = new int[nNodes];
+    this.witnessWeights = new double[nNodes];
+    Arrays.fill(rank, -1);
+    Arrays.fill(witnessWeights, Double.POSITIVE_INFINITY);
+  }
+
+  /**
+   * Build the hierarchy for the nodes {@code [0, nNodes)}. The arcs from each node are given by the
+   * {@code arcsFrom} function, which is called in parallel, so it must be thread-safe.
+   */
+  public static ContractionHierarchy build(int nNodes, IntFunction<List<Arc>> arcsFrom) {
+    var builder = new ContractionHierarchyBuilder(nNodes);
+    builder.addArcs(arcsFrom);
+    builder.contract();
+    return builder.createHierarchy();
+  }
+
+  private void addArcs(IntFunction<List<Arc>> arcsFrom) {
+    List<List<Arc>> arcsByNode = IntStream.range(0, nNodes).parallel().mapToObj(arcsFrom).toList();
+
+    for (int from = 0; from < nNodes; ++from) {
+      // Only the arc with the lowest weight is kept between two nodes
+      var arcsByTo = new TIntIntHashMap();
+      for (Arc it : arcsByNode.get(from)) {
+        int to = it.to();
+        if (to == from || !Double.isFinite(it.weight())) {
+          continue;
+        }
+        if (arcsByTo.containsKey(to)) {
+          int arc = arcsByTo.get(to);
+          if (it.weight() < arcWeight.get(arc)) {
+            arcWeight.set(arc, it.weight());
+            arcEdge.set(arc, it.edge());
+          }
+        } else {
+          arcsByTo.put(to, addArc(from, to, it.weight(), it.edge(), NO_ARC, NO_ARC));
+        }
+      }
+    }
+    LOG.info("Added {} arcs to the contraction hierarchy.", arcFrom.size());
+  }
+
+  private void contract() {
+    var queue = new BinHeap<Integer>();
+    for (int node = 0; node < nNodes; ++node) {
+      if (outArcs[node] != null || inArcs[node] != null) {
+        queue.insert(node, contract(node, false));
+      }
+    }
+
+    var progress = ProgressTracker.track("Contract street graph", 100_000, queue.size());
+    LOG.info(progress.startMessage());
+    int nextRank = 0;
+    while (!queue.empty()) {
+      int node = queue.extract_min();
+      // The priorities change as the neighbours are contracted, so they are updated lazily
+      double priority = contract(node, false);
+      if (!queue.empty() && priority > queue.peek_min_key()) {
+        queue.insert(node, priority);
+        continue;
+      }
+      var neighbours = neighbours(node);
+      contract(node, true);
+      rank[node] = nextRank++;
+      neighbours.forEach(neighbour -> {
+        ++contractedNeighbours[neighbour];
+        return true;
+      });
+      //noinspection Convert2MethodRef
+      progress.step(m -> LOG.info(m));
+    }
+    LOG.info(progress.completeMessage());
+  }
+
+  /**
+   * Contract the node, or if {@code addShortcuts} is false only count the shortcuts which would be
+   * added. Returns the priority of the node, a lower value is contracted first.
+   */
+  private double contract(int node, boolean addShortcuts) {
+    var in = arcsByNeighbour(node, inArcs[node], false);
+    var out = arcsByNeighbour(node, outArcs[node], true);
+
+    double maxOutWeight = 0;
+    for (int arc : out.values()) {
+      maxOutWeight = Math.max(maxOutWeight, arcWeight.get(arc));
+    }
+
+    int nShortcuts = 0;
+    for (int inArc : in.values()) {
+      int from = arcFrom.get(inArc);
+      double inWeight = arcWeight.get(inArc);
+      witnessSearch(from, node, inWeight + maxOutWeight);
+      for (int outArc : out.values()) {
+        int to = arcTo.get(outArc);
+        if (to == from) {
+          continue;
+        }
+        double weight = inWeight + arcWeight.get(outArc);
+        if (witnessWeights[to] > weight) {
+          ++nShortcuts;
+          if (addShortcuts) {
+            addArc(from, to, weight, null, inArc, outArc);
+          }
+        }
+      }
+      resetWitnessSearch();
+    }
+    return nShortcuts - in.size() - out.size() + contractedNeighbours[node];
+  }
+
+  /**
+   * Return the arc with the lowest weight to or from each neighbour which is not contracted yet.
+   */
+  private TIntIntHashMap arcsByNeighbour(int node, TIntArrayList arcs, boolean outgoing) {
+    var result = new TIntIntHashMap();
+    if (arcs == null) {
+      return result;
+    }
+    for (int i = 0; i < arcs.size(); ++i) {
+      int arc = arcs.get(i);
+      int neighbour = outgoing ? arcTo.get(arc) : arcFrom.get(arc);
+      if (neighbour == node || rank[neighbour] >= 0) {
+        continue;
+      }
+      if (
+        !result.containsKey(neighbour) ||
+        arcWeight.get(arc) < arcWeight.get(result.get(neighbour))
+      ) {
+        result.put(neighbour, arc);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Find the weight of the shortest paths from the source which do not pass the node being
+   * contracted, and have a weight of at most {@code maxWeight}. The weights are set in the
+   * {@code witnessWeights} array.
+   */
+  private void witnessSearch(int source, int contractedNode, double maxWeight) {
+    var queue = new BinHeap<Integer>();
+    setWitnessWeight(source, 0);
+    queue.insert(source, 0);
+    int nSettled = 0;
+    while (!queue.empty() && nSettled < WITNESS_SEARCH_LIMIT) {
+      double weight = queue.peek_min_key();
+      if (weight > maxWeight) {
+        break;
+      }
+      int node = queue.extract_min();
+      if (weight > witnessWeights[node]) {
+        continue;
+      }
+      ++nSettled;
+      var arcs = outArcs[node];
+      if (arcs == null) {
+        continue;
+      }
+      for (int i = 0; i < arcs.size(); ++i) {
+        int arc = arcs.get(i);
+        int next = arcTo.get(arc);
+        if (next == contractedNode || rank[next] >= 0) {
+          continue;
+        }
+        double nextWeight = weight + arcWeight.get(arc);
+        if (nextWeight < witnessWeights[next]) {
+          setWitnessWeight(next, nextWeight);
+          queue.insert(next, nextWeight);
+        }
+      }
+    }
+  }
+
+  private void setWitnessWeight(int node, double weight) {
+    if (witnessWeights[node] == Double.POSITIVE_INFINITY) {
+      witnessVisited.add(node);
+    }
+    witnessWeights[node] = weight;
+  }
+
+  private void resetWitnessSearch() {
+    for (int i = 0; i < witnessVisited.size(); ++i) {
+      witnessWeights[witnessVisited.get(i)] = Double.POSITIVE_INFINITY;
+    }
+    witnessVisited.resetQuick();
+  }
+
+  /**
+   * Return the neighbours of the node which are not contracted yet.
+   */
+  private TIntHashSet neighbours(int node) {
+    var result = new TIntHashSet(arcsByNeighbour(node, inArcs[node], false).keySet());
+    result.addAll(arcsByNeighbour(node, outArcs[node], true).keySet());
+    return result;
+  }
+
+  private int addArc(int from, int to, double weight, Edge edge, int first, int second) {
+    int arc = arcFrom.size();
+    arcFrom.add(from);
+    arcTo.add(to);
+    arcWeight.add(weight);
+    arcFirst.add(first);
+    arcSecond.add(second);
+    arcEdge.add(edge);
+    if (outArcs[from] == null) {
+      outArcs[from] = new TIntArrayList(4);
+    }
+    outArcs[from].add(arc);
+    if (inArcs[to] == null) {
+      inArcs[to] = new TIntArrayList(4);
+    }
+    inArcs[to].add(arc);
+    return arc;
+  }
+
+  private ContractionHierarchy createHierarchy() {
+    LOG.info("Contraction hierarchy has {} arcs, including shortcuts.", arcFrom.size());
+    return new ContractionHierarchy(
+      rank,
+      arcFrom.toArray(),
+      arcTo.toArray(),
+      arcWeight.toArray(),
+      arcFirst.toArray(),
+      arcSecond.toArray(),
+      arcEdge.toArray(Edge[]::new)
+    );
+  }
+
+  /**
+   * An arc to the node {@code to} with the given weight. The edge is added to the path when the
+   * arc is followed, see {@link ContractionHierarchy}.
+   */
+  public record Arc(int to, double weight, Edge edge) {}
+}
@@ -0,0 +1,517 @@
+package org.opentripplanner.street.search.ch;
+
+import gnu.trove.map.hash.TIntDoubleHashMap;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.astar.model.BinHeap;
+import org.opentripplanner.astar.model.GraphPath;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.preference.RoutingPreferences;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.intersection_model.IntersectionTraversalCalculator;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.request.StreetSearchRequestMapper;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.utils.tostring.ToStringBuilder;
+
+/**
+ * Contraction hierarchies of the street graph for direct car and bicycle routing. The hierarchies
+ * are built by the graph builder for the time-independent cost of traversing the street graph with
+ * the routing preferences of the build config, and are serialized with the graph.
+ * <p>
+ * The hierarchies are edge-based: the nodes are the edges of the street graph, and there is an arc
+ * for each turn from one edge to the next. The weight of an arc is the cost of traversing the next
+ * edge after the previous one, so turn costs and turn restrictions are part of the cost. Rules
+ * which depend on more of the path, like no-through-traffic areas, are not. To make sure the result
+ * is a valid path with the expected cost, the edges of the path found in the hierarchy are
+ * traversed again with the actual request. If this fails, or the cost is not the same as in the
+ * hierarchy, no path is returned and the caller should fall back to a normal street search.
+ */
+public class StreetContractionHierarchies implements Serializable {
+
+  /** Modes which have a time-independent cost model, and a hierarchy can be built for. */
+  public static final Set<StreetMode> SUPPORTED_MODES = Set.of(StreetMode.CAR, StreetMode.BIKE);
+
+  /** The max number of states visited to find the closest nodes in the hierarchy. */
+  private static final int MAX_ACCESS_STATES = 100;
+
+  /** The relative difference allowed between the weight in the hierarchy and the actual weight. */
+  private static final double WEIGHT_TOLERANCE = 1e-6;
+
+  private final RoutingPreferences preferences;
+
+  /** The edges between the vertices of the graph, these are the nodes of the hierarchies. */
+  private final Edge[] edges;
+
+  /**
+   * The edges from the vertex with index {@code v} are the nodes in the range
+   * {@code [vertexOffsets[v], vertexOffsets[v + 1])}.
+   */
+  private final int[] vertexOffsets;
+
+  private final Map<StreetMode, ContractionHierarchy> hierarchies = new EnumMap<>(StreetMode.class);
+
+  private StreetContractionHierarchies(
+    RoutingPreferences preferences,
+    Edge[] edges,
+    int[] vertexOffsets
+  ) {
+    this.preferences = preferences;
+    this.edges = edges;
+    this.vertexOffsets = vertexOffsets;
+  }
+
+  /**
+   * Build the hierarchy of each mode, using the given preferences to compute the cost of each
+   * turn.
+   */
+  public static StreetContractionHierarchies build(
+    Collection<Vertex> vertices,
+    int nVertices,
+    RoutingPreferences preferences,
+    Collection<StreetMode> modes
+  ) {
+    var vertexByIndex = new Vertex[nVertices];
+    for (Vertex vertex : vertices) {
+      if (isIndexed(vertex, nVertices)) {
+        vertexByIndex[vertex.getIndex()] = vertex;
+      }
+    }
+    var edges = new ArrayList<Edge>();
+    var vertexOffsets = new int[nVertices + 1];
+    for (int i = 0; i < nVertices; ++i) {
+      vertexOffsets[i] = edges.size();
+      if (vertexByIndex[i] != null) {
+        for (Edge edge : vertexByIndex[i].getOutgoing()) {
+          if (isIndexed(edge.getToVertex(), nVertices)) {
+            edges.add(edge);
+          }
+        }
+      }
+    }
+    vertexOffsets[nVertices] = edges.size();
+
+    var result = new StreetContractionHierarchies(
+      preferences,
+      edges.toArray(Edge[]::new),
+      vertexOffsets
+    );
+    for (StreetMode mode : modes) {
+      if (!SUPPORTED_MODES.contains(mode)) {
+        throw new IllegalArgumentException("Contraction hierarchies is not supported for " + mode);
+      }
+      var request = metricRequest(preferences, mode);
+      result.hierarchies.put(
+        mode,
+        ContractionHierarchyBuilder.build(edges.size(), node -> result.arcsFrom(node, request))
+      );
+    }
+    return result;
+  }
+
+  /**
+   * Find the path with the lowest cost in the hierarchy for the direct street mode of the request.
+   * Returns an empty result if there is no hierarchy for the request, or the path found is not
+   * valid for the request.
+   */
+  public Optional<GraphPath<State, Edge, Vertex>> findPath(
+    RouteRequest request,
+    Set<Vertex> from,
+    Set<Vertex> to
+  ) {
+    var mode = request.journey().direct().mode();
+    var hierarchy = hierarchies.get(mode);
+    if (hierarchy == null || !hasSameCostModel(request, mode)) {
+      return Optional.empty();
+    }
+
+    var metricRequest = metricRequest(preferences, mode);
+    var access = findAccess(hierarchy, metricRequest, from, to);
+    var egress = findEgress(hierarchy, metricRequest, to);
+
+    List<Edge> edges = access.direct == null ? null : access.direct.edges();
+    double weight = access.direct == null ? Double.POSITIVE_INFINITY : access.direct.weight();
+
+    var path = hierarchy.findPath(access.weights(), egress.weights());
+    if (path != null && path.weight() < weight) {
+      edges = new ArrayList<>(access.nodes.get(path.source()).edges());
+      edges.addAll(path.edges());
+      edges.addAll(egress.nodes.get(path.target()).edges());
+      weight = path.weight();
+    }
+    if (edges == null || edges.isEmpty()) {
+      return Optional.empty();
+    }
+    var state = traverse(request, edges);
+    if (state == null || !isSameWeight(state.getWeight(), weight)) {
+      return Optional.empty();
+    }
+    // The street search does not return paths longer than the max direct duration
+    long maxDuration = request
+      .preferences()
+      .street()
+      .maxDirectDuration()
+      .valueOf(mode)
+      .toSeconds();
+    return Optional
+      .of(state)
+      .filter(it -> it.getElapsedTimeSeconds() <= maxDuration)
+      .map(GraphPath::new);
+  }
+
+  /**
+   * Return the modes which have a hierarchy, but the hierarchy is not used for requests with the
+   * cost preferences of the given request.
+   */
+  public Set<StreetMode> modesNotUsedFor(RouteRequest request) {
+    var modes = EnumSet.noneOf(StreetMode.class);
+    for (StreetMode mode : hierarchies.keySet()) {
+      if (!hasSameCostModel(request, mode)) {
+        modes.add(mode);
+      }
+    }
+    return modes;
+  }
+
+  @Override
+  public String toString() {
+    return ToStringBuilder
+      .of(StreetContractionHierarchies.class)
+      .addCol("modes", hierarchies.keySet())
+      .toString();
+  }
+
+  /**
+   * The hierarchy is only valid if the request has the same preferences for the street cost as the
+   * hierarchy is built with.
+   */
+  private boolean hasSameCostModel(RouteRequest request, StreetMode mode) {
+    if (request.wheelchair()) {
+      return false;
+    }
+    var other = request.preferences();
+    var street = preferences.street();
+    var otherStreet = other.street();
+    if (
+      street.turnReluctance() != otherStreet.turnReluctance() ||
+      street.drivingDirection() != otherStreet.drivingDirection() ||
+      street.intersectionTraversalModel() != otherStreet.intersectionTraversalModel() ||
+      !street.elevator().equals(otherStreet.elevator())
+    ) {
+      return false;
+    }
+    return switch (mode) {
+      case CAR -> (
+        preferences.car().reluctance() == other.car().reluctance() &&
+        preferences.car().accelerationSpeed() == other.car().accelerationSpeed() &&
+        preferences.car().decelerationSpeed() == other.car().decelerationSpeed()
+      );
+      case BIKE -> (
+        preferences.bike().speed() == other.bike().speed() &&
+        preferences.bike().reluctance() == other.bike().reluctance() &&
+        preferences.bike().optimizeType() == other.bike().optimizeType() &&
+        preferences.bike().optimizeTriangle().equals(other.bike().optimizeTriangle()) &&
+        preferences.bike().walking().equals(other.bike().walking()) &&
+        preferences.walk().equals(other.walk())
+      );
+      default -> false;
+    };
+  }
+
+  /**
+   * Return the node of the edge, or -1 if the edge is not a node. Temporary edges, and edges added
+   * to the graph after this was built, are not nodes.
+   */
+  private int node(Edge edge) {
+    int vertex = edge.getFromVertex().getIndex();
+    if (vertex < 0 || vertex + 1 >= vertexOffsets.length) {
+      return -1;
+    }
+    for (int node = vertexOffsets[vertex]; node < vertexOffsets[vertex + 1]; ++node) {
+      if (edges[node] == edge) {
+        return node;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Return an arc for each turn from the edge of the node to the next edge. The weight of the arc
+   * is the cost of traversing the next edge, including the cost of the turn.
+   */
+  private List<ContractionHierarchyBuilder.Arc> arcsFrom(int node, StreetSearchRequest request) {
+    var edge = edges[node];
+    var state = traverse(edge, new State(edge.getFromVertex(), request));
+    if (state == null) {
+      return List.of();
+    }
+    var arcs = new ArrayList<ContractionHierarchyBuilder.Arc>();
+    for (Edge next : edge.getToVertex().getOutgoing()) {
+      int nextNode = node(next);
+      var nextState = nextNode < 0 ? null : traverse(next, state);
+      if (nextState != null) {
+        arcs.add(
+          new ContractionHierarchyBuilder.Arc(
+            nextNode,
+            nextState.getWeight() - state.getWeight(),
+            next
+          )
+        );
+      }
+    }
+    return arcs;
+  }
+
+  /**
+   * Find the nodes in the hierarchy closest to the origins. The vertices of the request are usually
+   * temporary vertices, so the edges are traversed until an edge in the hierarchy is found. The
+   * weight of each node is the weight of the path from the origin, including the edge of the node.
+   * A path directly to one of the {@code destinations}, which does not pass a node in the
+   * hierarchy, is also kept.
+   */
+  private Access findAccess(
+    ContractionHierarchy hierarchy,
+    StreetSearchRequest request,
+    Set<Vertex> origins,
+    Set<Vertex> destinations
+  ) {
+    var access = new Access();
+    // The lowest weight of a state which has traversed each edge
+    var weights = new HashMap<Edge, Double>();
+    var queue = new BinHeap<State>();
+    for (Vertex origin : origins) {
+      queue.insert(new State(origin, request), 0);
+    }
+
+    int nVisited = 0;
+    while (!queue.empty() && nVisited < MAX_ACCESS_STATES) {
+      var state = queue.extract_min();
+      var backEdge = state.getBackEdge();
+      if (backEdge != null && state.getWeight() > weights.get(backEdge)) {
+        continue;
+      }
+      ++nVisited;
+      if (destinations.contains(state.getVertex())) {
+        if (access.direct == null || state.getWeight() < access.direct.weight()) {
+          access.direct = new AccessPath(edges(state), state.getWeight());
+        }
+        continue;
+      }
+      for (Edge edge : state.getVertex().getOutgoing()) {
+        var next = traverse(edge, state);
+        if (next == null) {
+          continue;
+        }
+        int node = node(edge);
+        if (hierarchy.contains(node)) {
+          access.add(node, edges(next), next.getWeight());
+        } else if (next.getWeight() < weights.getOrDefault(edge, Double.POSITIVE_INFINITY)) {
+          weights.put(edge, next.getWeight());
+          queue.insert(next, next.getWeight());
+        }
+      }
+    }
+    return access;
+  }
+
+  /**
+   * Find the nodes in the hierarchy closest to the destinations, searching backwards along the
+   * edges which are not in the hierarchy. The weight of each node is the weight of the path from
+   * the end of the edge of the node to the destination, when the edge of the node is the previous
+   * edge. This is the same cost as the arcs in the hierarchy.
+   */
+  private Access findEgress(
+    ContractionHierarchy hierarchy,
+    StreetSearchRequest request,
+    Set<Vertex> destinations
+  ) {
+    var egress = new Access();
+    var paths = new HashMap<Vertex, AccessPath>();
+    var queue = new BinHeap<Vertex>();
+    for (Vertex destination : destinations) {
+      paths.put(destination, new AccessPath(List.of(), 0));
+      queue.insert(destination, 0);
+    }
+
+    int nVisited = 0;
+    while (!queue.empty() && nVisited < MAX_ACCESS_STATES) {
+      double weight = queue.peek_min_key();
+      var vertex = queue.extract_min();
+      var path = paths.get(vertex);
+      if (weight > path.weight()) {
+        continue;
+      }
+      ++nVisited;
+      for (Edge edge : vertex.getIncoming()) {
+        int node = node(edge);
+        if (hierarchy.contains(node)) {
+          egress.add(node, path.edges(), egressWeight(edge, path.edges(), request));
+          continue;
+        }
+        var next = edge.getFromVertex();
+        double nextWeight = weight + edgeWeight(edge, request);
+        var nextPath = paths.get(next);
+        if (nextPath == null || nextWeight < nextPath.weight()) {
+          var edges = new ArrayList<Edge>();
+          edges.add(edge);
+          edges.addAll(path.edges());
+          paths.put(next, new AccessPath(edges, nextWeight));
+          queue.insert(next, nextWeight);
+        }
+      }
+    }
+    return egress;
+  }
+
+  /**
+   * Traverse the edges with the request, and return the last state. Returns {@code null} if any of
+   * the edges can not be traversed.
+   */
+  @Nullable
+  private static State traverse(RouteRequest request, List<Edge> edges) {
+    var streetRequest = StreetSearchRequestMapper
+      .map(request)
+      .withMode(request.journey().direct().mode())
+      .withArriveBy(request.arriveBy())
+      .build();
+    var street = request.preferences().street();
+    streetRequest.setIntersectionTraversalCalculator(
+      IntersectionTraversalCalculator.create(
+        street.intersectionTraversalModel(),
+        street.drivingDirection()
+      )
+    );
+
+    var start = request.arriveBy()
+      ? edges.getLast().getToVertex()
+      : edges.getFirst().getFromVertex();
+    var path = request.arriveBy() ? edges.reversed() : edges;
+
+    State best = null;
+    for (State state : State.getInitialStates(Set.of(start), streetRequest)) {
+      for (Edge edge : path) {
+        state = traverse(edge, state);
+        if (state == null) {
+          break;
+        }
+      }
+      if (state != null && (best == null || state.getWeight() < best.getWeight())) {
+        best = state;
+      }
+    }
+    return best;
+  }
+
+  @Nullable
+  private static State traverse(Edge edge, State state) {
+    State best = null;
+    for (State it : edge.traverse(state)) {
+      if (best == null || it.getWeight() < best.getWeight()) {
+        best = it;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * The cost of traversing the edge forward, without any previous edge.
+   */
+  private static double edgeWeight(Edge edge, StreetSearchRequest request) {
+    var state = traverse(edge, new State(edge.getFromVertex(), request));
+    return state == null ? Double.POSITIVE_INFINITY : state.getWeight();
+  }
+
+  /**
+   * The cost of traversing the path after the edge, when the edge is the previous edge.
+   */
+  private static double egressWeight(Edge edge, List<Edge> path, StreetSearchRequest request) {
+    var state = traverse(edge, new State(edge.getFromVertex(), request));
+    if (state == null) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double start = state.getWeight();
+    for (Edge it : path) {
+      state = traverse(it, state);
+      if (state == null) {
+        return Double.POSITIVE_INFINITY;
+      }
+    }
+    return state.getWeight() - start;
+  }
+
+  /**
+   * The edges traversed to reach the state.
+   */
+  private static List<Edge> edges(State state) {
+    var result = new ArrayList<Edge>();
+    for (State it = state; it.getBackEdge() != null; it = it.getBackState()) {
+      result.add(it.getBackEdge());
+    }
+    Collections.reverse(result);
+    return result;
+  }
+
+  private static boolean isSameWeight(double actual, double expected) {
+    return Math.abs(actual - expected) <= WEIGHT_TOLERANCE * Math.max(1, expected);
+  }
+
+  private static boolean isIndexed(Vertex vertex, int nVertices) {
+    int index = vertex.getIndex();
+    return index >= 0 && index < nVertices;
+  }
+
+  private static StreetSearchRequest metricRequest(
+    RoutingPreferences preferences,
+    StreetMode mode
+  ) {
+    var request = StreetSearchRequest
+      .of()
+      .withStartTime(Instant.EPOCH)
+      .withPreferences(preferences)
+      .withMode(mode)
+      .build();
+    request.setIntersectionTraversalCalculator(
+      IntersectionTraversalCalculator.create(
+        preferences.street().intersectionTraversalModel(),
+        preferences.street().drivingDirection()
+      )
+    );
+    return request;
+  }
+
+  private record AccessPath(List<Edge> edges, double weight) {}
+
+  private static class Access {
+
+    private final Map<Integer, AccessPath> nodes = new HashMap<>();
+
+    @Nullable
+    private AccessPath direct;
+
+    private void add(int node, List<Edge> edges, double weight) {
+      var path = nodes.get(node);
+      if (Double.isFinite(weight) && (path == null || weight < path.weight())) {
+        nodes.put(node, new AccessPath(edges, weight));
+      }
+    }
+
+    private TIntDoubleHashMap weights() {
+      var result = new TIntDoubleHashMap();
+      nodes.forEach((node, path) -> result.put(node, path.weight()));
+      return result;
+    }
+  }
+}
@@ -1,11 +1,13 @@
 package org.opentripplanner.transit.model.timetable;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.List;
 import javax.annotation.Nullable;
 import org.opentripplanner.framework.i18n.I18NString;
 import org.opentripplanner.transit.model.framework.DeduplicatorService;
 import org.opentripplanner.transit.model.timetable.booking.BookingInfo;
+import org.opentripplanner.utils.lang.IntUtils;
 import org.opentripplanner.utils.time.TimeUtils;
 
 public class ScheduledTripTimesBuilder {
@@ -89,8 +91,12 @@ public class ScheduledTripTimesBuilder {
     return arrivalTimes;
   }
 
+  /**
+   * The times are normalized and deduplicated when the trip times are built, the given array is
+   * not changed.
+   */
   public ScheduledTripTimesBuilder withArrivalTimes(int[] arrivalTimes) {
-    this.arrivalTimes = deduplicator.deduplicateIntArray(arrivalTimes);
+    this.arrivalTimes = arrivalTimes;
     return this;
   }
 
@@ -103,8 +109,12 @@ public class ScheduledTripTimesBuilder {
     return departureTimes;
   }
 
+  /**
+   * The times are normalized and deduplicated when the trip times are built, the given array is
+   * not changed.
+   */
   public ScheduledTripTimesBuilder withDepartureTimes(int[] departureTimes) {
-    this.departureTimes = deduplicator.deduplicateIntArray(departureTimes);
+    this.departureTimes = departureTimes;
     return this;
   }
 
@@ -180,12 +190,14 @@ public class ScheduledTripTimesBuilder {
 
   public ScheduledTripTimes build() {
     normalizeTimes();
+    deduplicateTimes();
     return new ScheduledTripTimes(this);
   }
 
   /**
    * Times are always shifted to zero based on the first departure time. This is essential for
-   * frequencies and deduplication.
+   * frequencies and deduplication. The times are shifted into new arrays, the arrays passed in
+   * might be shared with other trips.
    */
   private void normalizeTimes() {
     if (departureTimes == null) {
@@ -199,20 +211,22 @@ public class ScheduledTripTimesBuilder {
     if (shift == 0) {
       return;
     }
-    this.departureTimes = timeShift(departureTimes, shift);
-    if (arrivalTimes != departureTimes) {
-      this.arrivalTimes = timeShift(arrivalTimes, shift);
-    }
+    boolean sameArray = arrivalTimes == departureTimes;
+    this.departureTimes = IntUtils.shiftArray(-shift, departureTimes);
+    this.arrivalTimes = sameArray ? departureTimes : IntUtils.shiftArray(-shift, arrivalTimes);
     this.timeShift += shift;
   }
 
-  int[] timeShift(int[] a, int shift) {
-    if (shift == 0) {
-      return a;
-    }
-    for (int i = 0; i < a.length; i++) {
-      a[i] -= shift;
-    }
-    return a;
+  /**
+   * The times are deduplicated after they are normalized. All trips with the same hop and dwell
+   * times, usually most of the trips in a pattern, then share the same arrays, and each trip only
+   * keeps its own {@code timeShift}. The arrival times are the same as the departure times for
+   * many trips, then only one array is kept.
+   */
+  private void deduplicateTimes() {
+    this.departureTimes = deduplicator.deduplicateIntArray(departureTimes);
+    this.arrivalTimes = Arrays.equals(arrivalTimes, departureTimes)
+      ? departureTimes
+      : deduplicator.deduplicateIntArray(arrivalTimes);
   }
 }
@@ -8,6 +8,7 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
@@ -56,9 +57,11 @@ import org.opentripplanner.transit.model.site.RegularStop;
 import org.opentripplanner.transit.model.site.Station;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.model.site.StopLocationsGroup;
+import org.opentripplanner.transit.model.timetable.Direction;
 import org.opentripplanner.transit.model.timetable.Trip;
 import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
 import org.opentripplanner.transit.model.timetable.TripOnServiceDate;
+import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.opentripplanner.updater.GraphUpdaterStatus;
 import org.opentripplanner.utils.collection.CollectionsView;
 
@@ -336,6 +339,39 @@ public class DefaultTransitService implements TransitEditorService {
     return tripPatterns;
   }
 
+  @Override
+  public Collection<TripTimes> findScheduledTripTimes(
+    Route route,
+    Direction direction,
+    int startTime
+  ) {
+    Collection<TripTimes> tripTimes = timetableRepositoryIndex.getScheduledTripTimes(
+      route,
+      direction,
+      startTime
+    );
+    TimetableSnapshot currentSnapshot = lazyGetTimeTableSnapShot();
+    if (currentSnapshot == null) {
+      return tripTimes;
+    }
+    // The patterns added by real-time updates are few, and are not indexed
+    List<TripTimes> result = null;
+    for (TripPattern pattern : currentSnapshot.getRealTimeAddedPatternForRoute(route)) {
+      if (pattern.getDirection() != direction) {
+        continue;
+      }
+      for (TripTimes it : pattern.getScheduledTimetable().getTripTimes()) {
+        if (it.getScheduledDepartureTime(0) == startTime) {
+          if (result == null) {
+            result = new ArrayList<>(tripTimes);
+          }
+          result.add(it);
+        }
+      }
+    }
+    return result == null ? tripTimes : result;
+  }
+
   @Override
   public MultiModalStation findMultiModalStation(Station station) {
     return this.timetableRepository.getSiteRepository().getMultiModalStationForStation(station);
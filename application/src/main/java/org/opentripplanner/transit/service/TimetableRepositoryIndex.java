@@ -24,9 +24,11 @@ import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.organization.Agency;
 import org.opentripplanner.transit.model.organization.Operator;
 import org.opentripplanner.transit.model.site.StopLocation;
+import org.opentripplanner.transit.model.timetable.Direction;
 import org.opentripplanner.transit.model.timetable.Trip;
 import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
 import org.opentripplanner.transit.model.timetable.TripOnServiceDate;
+import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -49,6 +51,7 @@ class TimetableRepositoryIndex {
   private final Map<Trip, TripPattern> patternForTrip = new HashMap<>();
   private final Multimap<Route, TripPattern> patternsForRoute = ArrayListMultimap.create();
   private final Multimap<StopLocation, TripPattern> patternsForStop = ArrayListMultimap.create();
+  private final Multimap<RouteDirectionAndStartTime, TripTimes> scheduledTripTimesByStart = ArrayListMultimap.create();
 
   private final Map<LocalDate, TIntSet> serviceCodesRunningForDate = new HashMap<>();
   private final Map<TripIdAndServiceDate, TripOnServiceDate> tripOnServiceDateForTripAndDay = new HashMap<>();
@@ -80,6 +83,16 @@ class TimetableRepositoryIndex {
       for (StopLocation stop : pattern.getStops()) {
         patternsForStop.put(stop, pattern);
       }
+      for (TripTimes tripTimes : pattern.getScheduledTimetable().getTripTimes()) {
+        scheduledTripTimesByStart.put(
+          new RouteDirectionAndStartTime(
+            pattern.getRoute(),
+            pattern.getDirection(),
+            tripTimes.getScheduledDepartureTime(0)
+          ),
+          tripTimes
+        );
+      }
     }
     for (Route route : patternsForRoute.asMap().keySet()) {
       routeForId.put(route.getId(), route);
@@ -187,6 +200,17 @@ class TimetableRepositoryIndex {
     return Collections.unmodifiableCollection(patternsForRoute.get(route));
   }
 
+  /**
+   * Return the scheduled trip times on the given route and direction, which depart from the first
+   * stop at the given time. This is used to match realtime updates without a trip id, so the
+   * lookup is done without iterating over all trips of the route.
+   */
+  Collection<TripTimes> getScheduledTripTimes(Route route, Direction direction, int startTime) {
+    return Collections.unmodifiableCollection(
+      scheduledTripTimesByStart.get(new RouteDirectionAndStartTime(route, direction, startTime))
+    );
+  }
+
   Map<LocalDate, TIntSet> getServiceCodesRunningForDate() {
     return serviceCodesRunningForDate;
   }
@@ -243,4 +267,6 @@ class TimetableRepositoryIndex {
   GroupOfRoutes getGroupOfRoutesForId(FeedScopedId id) {
     return groupOfRoutesForId.get(id);
   }
+
+  private record RouteDirectionAndStartTime(Route route, Direction direction, int startTime) {}
 }
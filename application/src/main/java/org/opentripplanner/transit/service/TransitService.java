@@ -43,9 +43,11 @@ import org.opentripplanner.transit.model.site.RegularStop;
 import org.opentripplanner.transit.model.site.Station;
 import org.opentripplanner.transit.model.site.StopLocation;
 import org.opentripplanner.transit.model.site.StopLocationsGroup;
+import org.opentripplanner.transit.model.timetable.Direction;
 import org.opentripplanner.transit.model.timetable.Trip;
 import org.opentripplanner.transit.model.timetable.TripIdAndServiceDate;
 import org.opentripplanner.transit.model.timetable.TripOnServiceDate;
+import org.opentripplanner.transit.model.timetable.TripTimes;
 import org.opentripplanner.updater.GraphUpdaterStatus;
 
 /**
@@ -178,6 +180,13 @@ public interface TransitService {
    */
   Collection<TripPattern> findPatterns(Route route);
 
+  /**
+   * Return the scheduled trip times of the trips on the given route and direction, which depart
+   * from the first stop at the given time. This includes the patterns added by real-time updates.
+   * The lookup is indexed, and does not iterate over all the trips of the route.
+   */
+  Collection<TripTimes> findScheduledTripTimes(Route route, Direction direction, int startTime);
+
   MultiModalStation findMultiModalStation(Station station);
 
   List<StopTimesInPattern> findStopTimesInPattern(
@@ -8,7 +8,6 @@ import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.gtfs.mapping.DirectionMapper;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.transit.model.network.Route;
-import org.opentripplanner.transit.model.network.TripPattern;
 import org.opentripplanner.transit.model.timetable.Direction;
 import org.opentripplanner.transit.model.timetable.Trip;
 import org.opentripplanner.transit.model.timetable.TripTimes;
@@ -80,22 +79,20 @@ public class GtfsRealtimeFuzzyTripMatcher {
     return trip.toBuilder().setTripId(matchedTrip.getId().getId()).build();
   }
 
-  public synchronized Trip getTrip(
-    Route route,
-    Direction direction,
-    int startTime,
-    LocalDate date
-  ) {
+  /**
+   * Find the scheduled trip on the given route and direction, which departs from the first stop at
+   * the given time and runs on the given service date. The candidates are looked up in an index,
+   * so this does not iterate over all the trips of the route.
+   */
+  public Trip getTrip(Route route, Direction direction, int startTime, LocalDate date) {
+    var candidates = transitService.findScheduledTripTimes(route, direction, startTime);
+    if (candidates.isEmpty()) {
+      return null;
+    }
     TIntSet servicesRunningForDate = transitService.getServiceCodesRunningForDate(date);
-    for (TripPattern pattern : transitService.findPatterns(route)) {
-      if (pattern.getDirection() != direction) continue;
-      for (TripTimes times : pattern.getScheduledTimetable().getTripTimes()) {
-        if (
-          times.getScheduledDepartureTime(0) == startTime &&
-          servicesRunningForDate.contains(times.getServiceCode())
-        ) {
-          return times.getTrip();
-        }
+    for (TripTimes times : candidates) {
+      if (servicesRunningForDate.contains(times.getServiceCode())) {
+        return times.getTrip();
       }
     }
     return null;
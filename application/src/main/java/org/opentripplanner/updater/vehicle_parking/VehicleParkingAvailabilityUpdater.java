@@ -75,6 +75,7 @@ public class VehicleParkingAvailabilityUpdater extends PollingGraphUpdater {
     @Override
     public void run(RealTimeUpdateContext context) {
       updates.forEach(this::handleUpdate);
+      repository.availabilityUpdated();
     }
 
     private void handleUpdate(AvailabiltyUpdate update) {
@@ -157,6 +157,10 @@ public class VehicleParkingUpdater extends PollingGraphUpdater {
 
       parkingRepository.updateVehicleParking(toAdd, toRemove);
 
+      if (!toLink.isEmpty() || !toRemove.isEmpty()) {
+        context.graph().realtimeStreetsChanged();
+      }
+
       oldVehicleParkings.removeAll(toRemove);
       oldVehicleParkings.addAll(toAdd);
     }
@@ -0,0 +1,92 @@
+package org.opentripplanner.updater.vehicle_rental;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.annotation.Nullable;
+import org.opentripplanner.service.vehiclerental.model.GeofencingZone;
+import org.opentripplanner.street.model.RentalRestrictionExtension;
+import org.opentripplanner.street.model.edge.StreetEdge;
+
+/**
+ * The rental restrictions which are added to the street edges for a set of geofencing zones. The
+ * updater keeps this, so that the restrictions can be removed again. Either all of them, or only
+ * the restrictions of the zones which are changed in an update.
+ */
+final class AppliedGeofencingZones {
+
+  static final AppliedGeofencingZones EMPTY = new AppliedGeofencingZones(Map.of(), Set.of(), null);
+
+  private final Map<GeofencingZone, AppliedExtension> restrictedZones;
+  private final Set<GeofencingZone> businessAreas;
+
+  @Nullable
+  private final AppliedExtension businessAreaBorder;
+
+  AppliedGeofencingZones(
+    Map<GeofencingZone, AppliedExtension> restrictedZones,
+    Set<GeofencingZone> businessAreas,
+    @Nullable AppliedExtension businessAreaBorder
+  ) {
+    this.restrictedZones = Map.copyOf(restrictedZones);
+    this.businessAreas = Set.copyOf(businessAreas);
+    this.businessAreaBorder = businessAreaBorder;
+  }
+
+  /**
+   * The restriction added for each zone with restrictions.
+   */
+  Map<GeofencingZone, AppliedExtension> restrictedZones() {
+    return restrictedZones;
+  }
+
+  /**
+   * The zones which together describe the business area. The border of the union of these zones
+   * is the {@link #businessAreaBorder()}.
+   */
+  Set<GeofencingZone> businessAreas() {
+    return businessAreas;
+  }
+
+  @Nullable
+  AppliedExtension businessAreaBorder() {
+    return businessAreaBorder;
+  }
+
+  /**
+   * Return the edges with a restriction and the restriction added to them. If more than one
+   * restriction is added to an edge, only one of them is returned for the edge.
+   */
+  Map<StreetEdge, RentalRestrictionExtension> modifiedEdges() {
+    var result = new HashMap<StreetEdge, RentalRestrictionExtension>();
+    restrictedZones.values().forEach(it -> it.addTo(result));
+    if (businessAreaBorder != null) {
+      businessAreaBorder.addTo(result);
+    }
+    return Map.copyOf(result);
+  }
+
+  /**
+   * Remove all the restrictions from the edges.
+   */
+  void removeAll() {
+    restrictedZones.values().forEach(AppliedExtension::remove);
+    if (businessAreaBorder != null) {
+      businessAreaBorder.remove();
+    }
+  }
+
+  /**
+   * A restriction and the edges it is added to.
+   */
+  record AppliedExtension(RentalRestrictionExtension extension, List<StreetEdge> edges) {
+    void remove() {
+      edges.forEach(edge -> edge.removeRentalExtension(extension));
+    }
+
+    private void addTo(Map<StreetEdge, RentalRestrictionExtension> result) {
+      edges.forEach(edge -> result.put(edge, extension));
+    }
+  }
+}
@@ -11,6 +11,7 @@ import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.Geometry;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.MultiLineString;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
 import org.opentripplanner.framework.geometry.GeometryUtils;
 import org.opentripplanner.service.vehiclerental.model.GeofencingZone;
 import org.opentripplanner.service.vehiclerental.street.BusinessAreaBorder;
@@ -18,6 +19,7 @@ import org.opentripplanner.service.vehiclerental.street.GeofencingZoneExtension;
 import org.opentripplanner.street.model.RentalRestrictionExtension;
 import org.opentripplanner.street.model.edge.Edge;
 import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.updater.vehicle_rental.AppliedGeofencingZones.AppliedExtension;
 
 /**
  * Even though the data is kept on the vertex this updater operates mostly on edges which then
@@ -45,68 +47,85 @@ class GeofencingVertexUpdater {
   Map<StreetEdge, RentalRestrictionExtension> applyGeofencingZones(
     Collection<GeofencingZone> geofencingZones
   ) {
-    var restrictedZones = geofencingZones.stream().filter(GeofencingZone::hasRestriction).toList();
+    return updateGeofencingZones(AppliedGeofencingZones.EMPTY, geofencingZones).modifiedEdges();
+  }
+
+  /**
+   * Update the restrictions on the edges from the previously applied zones to the given zones.
+   * Only the zones which are removed or added are removed from or applied to the edges, the
+   * restrictions of the zones which are unchanged are kept as they are. The border of the business
+   * area is only computed again if any of the business area zones are changed.
+   */
+  AppliedGeofencingZones updateGeofencingZones(
+    AppliedGeofencingZones previous,
+    Collection<GeofencingZone> geofencingZones
+  ) {
+    var zones = Set.copyOf(geofencingZones);
+
+    previous
+      .restrictedZones()
+      .forEach((zone, applied) -> {
+        if (!zones.contains(zone)) {
+          applied.remove();
+        }
+      });
 
     // these are the edges inside business area where exceptions like "no pass through"
     // or "no drop-off" are added
-    var restrictedEdges = addExtensionToIntersectingStreetEdges(
-      restrictedZones,
-      GeofencingZoneExtension::new
-    );
-
-    var updates = new HashMap<>(restrictedEdges);
+    var restrictedZones = new HashMap<GeofencingZone, AppliedExtension>();
+    for (GeofencingZone zone : zones) {
+      if (zone.hasRestriction()) {
+        var applied = previous.restrictedZones().get(zone);
+        if (applied == null) {
+          applied = applyExtension(zone.geometry(), new GeofencingZoneExtension(zone));
+        }
+        restrictedZones.put(zone, applied);
+      }
+    }
 
     var generalBusinessAreas = geofencingZones
       .stream()
       .filter(GeofencingZone::isBusinessArea)
       .toList();
 
-    if (!generalBusinessAreas.isEmpty()) {
-      // if the geofencing zones don't have any restrictions then they describe a general business
-      // area which you can traverse freely but are not allowed to leave
-      // here we just take the boundary of the geometry since we want to add a "no pass through"
-      // restriction to any edge intersecting it
-
-      var network = generalBusinessAreas.get(0).id().getFeedId();
-      var polygons = generalBusinessAreas
-        .stream()
-        .map(GeofencingZone::geometry)
-        .toArray(Geometry[]::new);
-
-      var unionOfBusinessAreas = GeometryUtils
-        .getGeometryFactory()
-        .createGeometryCollection(polygons)
-        .union();
-
-      var updated = applyExtension(
-        unionOfBusinessAreas.getBoundary(),
-        new BusinessAreaBorder(network)
-      );
-
-      updates.putAll(updated);
+    var businessAreaBorder = previous.businessAreaBorder();
+    if (!Set.copyOf(generalBusinessAreas).equals(previous.businessAreas())) {
+      if (businessAreaBorder != null) {
+        businessAreaBorder.remove();
+      }
+      businessAreaBorder =
+        generalBusinessAreas.isEmpty() ? null : applyBusinessAreaBorder(generalBusinessAreas);
     }
 
-    return Map.copyOf(updates);
+    return new AppliedGeofencingZones(
+      restrictedZones,
+      Set.copyOf(generalBusinessAreas),
+      businessAreaBorder
+    );
   }
 
-  private Map<StreetEdge, RentalRestrictionExtension> addExtensionToIntersectingStreetEdges(
-    List<GeofencingZone> zones,
-    Function<GeofencingZone, RentalRestrictionExtension> createExtension
-  ) {
-    var edgesUpdated = new HashMap<StreetEdge, RentalRestrictionExtension>();
-    for (GeofencingZone zone : zones) {
-      var geom = zone.geometry();
-      var ext = createExtension.apply(zone);
-      edgesUpdated.putAll(applyExtension(geom, ext));
-    }
-    return edgesUpdated;
+  /**
+   * If the geofencing zones don't have any restrictions then they describe a general business
+   * area which you can traverse freely but are not allowed to leave.
+   */
+  private AppliedExtension applyBusinessAreaBorder(List<GeofencingZone> generalBusinessAreas) {
+    // here we just take the boundary of the geometry since we want to add a "no pass through"
+    // restriction to any edge intersecting it
+    var network = generalBusinessAreas.get(0).id().getFeedId();
+    var polygons = generalBusinessAreas
+      .stream()
+      .map(GeofencingZone::geometry)
+      .toArray(Geometry[]::new);
+
+    var unionOfBusinessAreas = GeometryUtils
+      .getGeometryFactory()
+      .createGeometryCollection(polygons)
+      .union();
+
+    return applyExtension(unionOfBusinessAreas.getBoundary(), new BusinessAreaBorder(network));
   }
 
-  private Map<StreetEdge, RentalRestrictionExtension> applyExtension(
-    Geometry geom,
-    RentalRestrictionExtension ext
-  ) {
-    var edgesUpdated = new HashMap<StreetEdge, RentalRestrictionExtension>();
+  private AppliedExtension applyExtension(Geometry geom, RentalRestrictionExtension ext) {
     Set<Edge> candidates;
     // for business areas we only care about the borders so we compute the boundary of the
     // (multi) polygon. this can either be a MultiLineString or a LineString
@@ -118,13 +137,20 @@ class GeofencingVertexUpdater {
     } else {
       candidates = Set.copyOf(getEdgesForEnvelope.apply(geom.getEnvelopeInternal()));
     }
-    for (var e : candidates) {
-      if (e instanceof StreetEdge streetEdge && streetEdge.getGeometry().intersects(geom)) {
-        streetEdge.addRentalRestriction(ext);
-        edgesUpdated.put(streetEdge, ext);
-      }
-    }
-    return edgesUpdated;
+
+    // the prepared geometry indexes the segments of the zone, so that each intersection test
+    // does not need to check every segment. The tests are independent of each other and are
+    // done in parallel, but the extension is added to the edges on the calling thread.
+    var preparedGeom = PreparedGeometryFactory.prepare(geom);
+    var edges = candidates
+      .parallelStream()
+      .filter(StreetEdge.class::isInstance)
+      .map(StreetEdge.class::cast)
+      .filter(streetEdge -> preparedGeom.intersects(streetEdge.getGeometry()))
+      .toList();
+
+    edges.forEach(streetEdge -> streetEdge.addRentalRestriction(ext));
+    return new AppliedExtension(ext, edges);
   }
 
   /**
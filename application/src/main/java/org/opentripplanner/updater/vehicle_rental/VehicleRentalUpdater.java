@@ -20,8 +20,6 @@ import org.opentripplanner.service.vehiclerental.street.StreetVehicleRentalLink;
 import org.opentripplanner.service.vehiclerental.street.VehicleRentalEdge;
 import org.opentripplanner.service.vehiclerental.street.VehicleRentalPlaceVertex;
 import org.opentripplanner.street.model.RentalFormFactor;
-import org.opentripplanner.street.model.RentalRestrictionExtension;
-import org.opentripplanner.street.model.edge.StreetEdge;
 import org.opentripplanner.street.model.vertex.VertexFactory;
 import org.opentripplanner.street.search.TraverseMode;
 import org.opentripplanner.street.search.TraverseModeSet;
@@ -55,7 +53,8 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
 
   private WriteToGraphCallback saveResultOnGraph;
 
-  private Map<StreetEdge, RentalRestrictionExtension> latestModifiedEdges = Map.of();
+  private final boolean incrementalGeofencingZones;
+  private AppliedGeofencingZones latestAppliedZoneRestrictions = AppliedGeofencingZones.EMPTY;
   private Set<GeofencingZone> latestAppliedGeofencingZones = Set.of();
   private final Map<FeedScopedId, VehicleRentalPlaceVertex> verticesByStation = new HashMap<>();
   private final Map<FeedScopedId, DisposableEdgeCollection> tempEdgesByStation = new HashMap<>();
@@ -80,6 +79,7 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         parameters.sourceParameters().url()
       );
     this.unlinkedPlaceThrottle = Throttle.ofOneSecond();
+    this.incrementalGeofencingZones = parameters.incrementalGeofencingZones();
 
     // Creation of network linker library will not modify the graph
     this.linker = vertexLinker;
@@ -159,6 +159,7 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
       // Apply stations to graph
       Set<FeedScopedId> stationSet = new HashSet<>();
       var vertexFactory = new VertexFactory(context.graph());
+      boolean streetsChanged = false;
 
       /* add any new stations and update vehicle counts for existing stations */
       for (VehicleRentalPlace station : stations) {
@@ -210,6 +211,7 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
           }
           verticesByStation.put(station.getId(), vehicleRentalVertex);
           tempEdgesByStation.put(station.getId(), tempEdges);
+          streetsChanged = true;
         } else {
           vehicleRentalVertex.setStation(station);
         }
@@ -228,6 +230,7 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         verticesByStation.remove(station);
         tempEdgesByStation.get(station).disposeEdges();
         tempEdgesByStation.remove(station);
+        streetsChanged = true;
       }
 
       // this check relies on the generated equals for the record which also recursively checks that
@@ -236,23 +239,32 @@ public class VehicleRentalUpdater extends PollingGraphUpdater {
         LOG.info("Computing geofencing zones for {}", nameForLogging);
         var start = System.currentTimeMillis();
 
-        latestModifiedEdges.forEach(StreetEdge::removeRentalExtension);
+        if (!incrementalGeofencingZones) {
+          latestAppliedZoneRestrictions.removeAll();
+          latestAppliedZoneRestrictions = AppliedGeofencingZones.EMPTY;
+        }
 
         var updater = new GeofencingVertexUpdater(
           context.graph().getStreetIndex()::getEdgesForEnvelope
         );
-        latestModifiedEdges = updater.applyGeofencingZones(geofencingZones);
+        latestAppliedZoneRestrictions =
+          updater.updateGeofencingZones(latestAppliedZoneRestrictions, geofencingZones);
         latestAppliedGeofencingZones = geofencingZones;
+        streetsChanged = true;
 
         var end = System.currentTimeMillis();
         var millis = Duration.ofMillis(end - start);
         LOG.info(
           "Geofencing zones computation took {}. Added extension to {} edges. For {}",
           TimeUtils.durationToStrCompact(millis),
-          latestModifiedEdges.size(),
+          latestAppliedZoneRestrictions.modifiedEdges().size(),
           nameForLogging
         );
       }
+
+      if (streetsChanged) {
+        context.graph().realtimeStreetsChanged();
+      }
     }
   }
 }
@@ -9,15 +9,18 @@ public class VehicleRentalUpdaterParameters implements PollingGraphUpdaterParame
   private final String configRef;
   private final Duration frequency;
   private final VehicleRentalDataSourceParameters source;
+  private final boolean incrementalGeofencingZones;
 
   public VehicleRentalUpdaterParameters(
     String configRef,
     Duration frequency,
-    VehicleRentalDataSourceParameters source
+    VehicleRentalDataSourceParameters source,
+    boolean incrementalGeofencingZones
   ) {
     this.configRef = configRef;
     this.frequency = frequency;
     this.source = source;
+    this.incrementalGeofencingZones = incrementalGeofencingZones;
   }
 
   @Override
@@ -36,4 +39,12 @@ public class VehicleRentalUpdaterParameters implements PollingGraphUpdaterParame
   public VehicleRentalDataSourceParameters sourceParameters() {
     return source;
   }
+
+  /**
+   * If set, only the geofencing zones which are changed are applied to the street edges when the
+   * zones are updated. Otherwise, all the zones are applied again.
+   */
+  public boolean incrementalGeofencingZones() {
+    return incrementalGeofencingZones;
+  }
 }
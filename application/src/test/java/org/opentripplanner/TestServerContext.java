@@ -67,6 +67,8 @@ public class TestServerContext {
       createStreetLimitationParametersService(),
       null,
       null,
+      null,
+      null,
       DebugUiConfig.DEFAULT
     );
     creatTransitLayerForRaptor(timetableRepository, routerConfig.transitTuningConfig());
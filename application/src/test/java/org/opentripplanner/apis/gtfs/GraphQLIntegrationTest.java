@@ -368,6 +368,7 @@ class GraphQLIntegrationTest {
       query,
       null,
       null,
+      null,
       2000,
       2000,
       Locale.ENGLISH,
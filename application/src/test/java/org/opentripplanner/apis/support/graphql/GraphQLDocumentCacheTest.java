@@ -0,0 +1,106 @@
+package org.opentripplanner.apis.support.graphql;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import graphql.ExecutionInput;
+import graphql.GraphQLError;
+import graphql.execution.preparsed.PreparsedDocumentEntry;
+import graphql.parser.Parser;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class GraphQLDocumentCacheTest {
+
+  private static final String QUERY = "{ feeds { feedId } }";
+  private static final String HASH = GraphQLDocumentCache.sha256(QUERY);
+
+  private final GraphQLDocumentCache subject = new GraphQLDocumentCache(10);
+
+  private int nParsed = 0;
+
+  @Test
+  void repeatedQueryIsParsedOnce() {
+    var first = getDocument(QUERY, Map.of());
+    var second = getDocument(QUERY, Map.of());
+
+    assertEquals(1, nParsed);
+    assertEquals(1, subject.size());
+    assertSame(first.getDocument(), second.getDocument());
+  }
+
+  @Test
+  void invalidQueryIsNotCached() {
+    getDocument("{ invalid", Map.of());
+    getDocument("{ invalid", Map.of());
+
+    assertEquals(2, nParsed);
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void unknownPersistedQuery() {
+    var entry = getDocument("", persistedQuery(HASH));
+
+    assertTrue(entry.hasErrors());
+    assertEquals(
+      GraphQLDocumentCache.PERSISTED_QUERY_NOT_FOUND,
+      entry.getErrors().getFirst().getMessage()
+    );
+    assertEquals(0, nParsed);
+  }
+
+  @Test
+  void persistedQueryIsFoundByHash() {
+    var first = getDocument(QUERY, persistedQuery(HASH));
+    var second = getDocument("", persistedQuery(HASH));
+
+    assertFalse(second.hasErrors());
+    assertSame(first.getDocument(), second.getDocument());
+    assertEquals(1, nParsed);
+  }
+
+  @Test
+  void persistedQueryWithWrongHash() {
+    var entry = getDocument(QUERY, persistedQuery(GraphQLDocumentCache.sha256("{ other }")));
+
+    assertTrue(entry.hasErrors());
+    assertEquals(
+      GraphQLDocumentCache.PERSISTED_QUERY_ID_INVALID,
+      entry.getErrors().getFirst().getMessage()
+    );
+    assertEquals(0, nParsed);
+  }
+
+  @Test
+  void hasPersistedQuery() {
+    assertTrue(GraphQLDocumentCache.hasPersistedQuery(persistedQuery(HASH)));
+    assertFalse(GraphQLDocumentCache.hasPersistedQuery(Map.of()));
+    assertFalse(GraphQLDocumentCache.hasPersistedQuery(null));
+  }
+
+  private PreparsedDocumentEntry getDocument(String query, Map<String, Object> extensions) {
+    var input = ExecutionInput.newExecutionInput().query(query).extensions(extensions).build();
+    return subject
+      .getDocumentAsync(
+        input,
+        it -> {
+          ++nParsed;
+          try {
+            return new PreparsedDocumentEntry(Parser.parse(it.getQuery()));
+          } catch (Exception e) {
+            return new PreparsedDocumentEntry(
+              GraphQLError.newError().message(e.getMessage()).build()
+            );
+          }
+        }
+      )
+      .join();
+  }
+
+  private static Map<String, Object> persistedQuery(String hash) {
+    return Map.of("persistedQuery", Map.of("version", 1, "sha256Hash", hash));
+  }
+}
@@ -156,6 +156,8 @@ public class TripRequestMapperTest implements PlanTestConstants {
           new DefaultStreetLimitationParametersService(new StreetLimitationParameters()),
           null,
           null,
+          null,
+          null,
           DebugUiConfig.DEFAULT
         ),
         null,
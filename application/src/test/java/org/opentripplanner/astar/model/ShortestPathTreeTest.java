@@ -0,0 +1,77 @@
+package org.opentripplanner.astar.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+import org.opentripplanner.street.search.state.State;
+import org.opentripplanner.street.search.strategy.DominanceFunctions;
+
+class ShortestPathTreeTest {
+
+  private static final StreetSearchRequest REQUEST = StreetSearchRequest.of().build();
+
+  @Test
+  void indexedAndUnindexedVertices() {
+    var indexed = intersectionVertex("A", 60.0, 10.0);
+    // Use an index far beyond the initial pages to force the page table to grow
+    indexed.initIndex(1_000_000);
+    var unindexed = intersectionVertex("B", 60.001, 10.0);
+    var edge = streetEdge(indexed, unindexed);
+
+    var subject = new ShortestPathTree<State, Edge, Vertex>(new DominanceFunctions.MinimumWeight());
+    var s0 = new State(indexed, REQUEST);
+    var s1 = edge.traverse(s0)[0];
+
+    assertNull(subject.getState(indexed));
+    assertTrue(subject.add(s0));
+    assertTrue(subject.add(s1));
+
+    // A state with the same weight does not dominate the existing one
+    assertFalse(subject.add(new State(indexed, REQUEST)));
+
+    assertSame(s0, subject.getState(indexed));
+    assertSame(s1, subject.getState(unindexed));
+    assertEquals(List.of(s1), subject.getStates(unindexed));
+    assertTrue(subject.visit(s0));
+    assertTrue(subject.visit(s1));
+
+    assertEquals(2, subject.getVertexCount());
+    assertEquals(Set.of(indexed, unindexed), subject.getVertices());
+    assertSame(subject.getVertices(), subject.getVertices());
+    assertEquals(2, subject.getAllStates().size());
+  }
+
+  @Test
+  void dominatedStatesAreRemoved() {
+    var a = intersectionVertex("A", 60.0, 10.0);
+    var b = intersectionVertex("B", 60.001, 10.0);
+    a.initIndex(0);
+    b.initIndex(1);
+    var longEdge = streetEdge(a, b, 1000, StreetTraversalPermission.ALL);
+    var shortEdge = streetEdge(a, b, 10, StreetTraversalPermission.ALL);
+
+    var subject = new ShortestPathTree<State, Edge, Vertex>(new DominanceFunctions.MinimumWeight());
+    var start = new State(a, REQUEST);
+    var slow = longEdge.traverse(start)[0];
+    var fast = shortEdge.traverse(start)[0];
+
+    assertTrue(subject.add(start));
+    assertTrue(subject.add(slow));
+    assertTrue(subject.add(fast));
+
+    assertEquals(List.of(fast), subject.getStates(b));
+    assertFalse(subject.visit(slow));
+  }
+}
@@ -0,0 +1,74 @@
+package org.opentripplanner.framework.concurrent;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.framework.application.OTPRequestTimeoutException;
+
+class OtpRequestTasksTest {
+
+  @Test
+  void runAllTasks() {
+    var counter = new AtomicInteger();
+
+    OtpRequestTasks.runAll("test-", counter::incrementAndGet, counter::incrementAndGet);
+
+    assertEquals(2, counter.get());
+  }
+
+  @Test
+  void rethrowExceptionAndInterruptOtherTasks() {
+    var started = new CountDownLatch(1);
+    var interrupted = new AtomicBoolean(false);
+
+    var e = assertThrows(
+      IllegalStateException.class,
+      () ->
+        OtpRequestTasks.runAll(
+          "test-",
+          () -> {
+            started.countDown();
+            try {
+              Thread.sleep(60_000);
+            } catch (InterruptedException ie) {
+              interrupted.set(true);
+            }
+          },
+          () -> {
+            await(started);
+            throw new IllegalStateException("Failed");
+          }
+        )
+    );
+
+    assertEquals("Failed", e.getMessage());
+    assertTrue(interrupted.get());
+  }
+
+  @Test
+  void interruptedCallerThrowsTimeout() {
+    Thread.currentThread().interrupt();
+    try {
+      assertThrows(
+        OTPRequestTimeoutException.class,
+        () -> OtpRequestTasks.runAll("test-", () -> await(new CountDownLatch(1)))
+      );
+    } finally {
+      // Clear the interrupt flag so it does not leak into other tests
+      Thread.interrupted();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
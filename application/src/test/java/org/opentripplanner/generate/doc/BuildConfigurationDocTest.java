@@ -33,6 +33,7 @@ public class BuildConfigurationDocTest {
     .of()
     .skip("dataOverlay", "sandbox/DataOverlay.md")
     .skip("fares", "sandbox/Fares.md")
+    .skip("streetContractionHierarchiesRequest", "RouteRequest.md")
     .skip("transferRequests", "RouteRequest.md")
     .skip("emissions", "sandbox/Emissions.md")
     .build();
@@ -0,0 +1,88 @@
+package org.opentripplanner.graph_builder.module.islandpruning;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdgeBuilder;
+
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.StreetVertex;
+import org.opentripplanner.street.model.vertex.Vertex;
+import org.opentripplanner.street.search.TraverseMode;
+
+class IslandFinderTest {
+
+  private final Graph graph = new Graph();
+
+  private final StreetVertex a = vertex("A", 0);
+  private final StreetVertex b = vertex("B", 1);
+  private final StreetVertex c = vertex("C", 2);
+  private final StreetVertex d = vertex("D", 3);
+  private final StreetVertex e = vertex("E", 4);
+  private final StreetVertex f = vertex("F", 5);
+  private final StreetVertex g = vertex("G", 6);
+
+  // A - B ~ C and D - E are connected by through traffic, F ~ G only by no-thru-traffic
+  private final StreetEdge ab = streetEdge(a, b);
+  private final StreetEdge bc = noThruTrafficEdge(b, c);
+  private final StreetEdge de = streetEdge(d, e);
+  private final StreetEdge fg = noThruTrafficEdge(f, g);
+
+  @Test
+  void connectedSubgraphsWithoutNoThruTraffic() {
+    var islands = finder(Set.of()).connectedSubgraphs(false);
+
+    assertEquals(List.of(2, 2), streetSizes(islands.subgraphs));
+  }
+
+  @Test
+  void connectedSubgraphsWithNoThruTraffic() {
+    var islands = finder(Set.of()).connectedSubgraphs(true);
+
+    assertEquals(List.of(2, 2, 3), streetSizes(islands.subgraphs));
+  }
+
+  @Test
+  void expand() {
+    var finder = finder(Set.of());
+    var expanded = finder.expand(finder.connectedSubgraphs(false));
+
+    assertEquals(List.of(2, 3), streetSizes(expanded.anchored()));
+    assertEquals(List.of(2), streetSizes(expanded.noThruTraffic()));
+  }
+
+  @Test
+  void removedEdgesAreIgnored() {
+    var islands = finder(Set.of(ab, de)).connectedSubgraphs(true);
+
+    assertEquals(List.of(2, 2), streetSizes(islands.subgraphs));
+  }
+
+  private IslandFinder finder(Set<Edge> removedEdges) {
+    List<Vertex> vertices = List.copyOf(graph.getVertices());
+    var connections = StreetConnections.collect(vertices, TraverseMode.WALK);
+    return new IslandFinder(vertices, graph.vertexIndexSize(), connections, removedEdges);
+  }
+
+  private StreetVertex vertex(String label, double lon) {
+    var vertex = intersectionVertex(label, 0, lon);
+    graph.addVertex(vertex);
+    return vertex;
+  }
+
+  private static StreetEdge noThruTrafficEdge(StreetVertex from, StreetVertex to) {
+    return streetEdgeBuilder(from, to, 100, StreetTraversalPermission.ALL)
+      .withWalkNoThruTraffic(true)
+      .buildAndConnect();
+  }
+
+  private static List<Integer> streetSizes(List<Subgraph> subgraphs) {
+    return subgraphs.stream().map(Subgraph::streetSize).sorted().toList();
+  }
+}
@@ -4,8 +4,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 
 import org.junit.jupiter.api.Test;
+import org.opentripplanner.datastore.api.FileType;
+import org.opentripplanner.datastore.file.FileDataSource;
 import org.opentripplanner.graph_builder.issue.api.DataImportIssueStore;
 import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.osm.model.OsmWay;
+import org.opentripplanner.osm.tagmapping.OsmTagMapperSource;
 import org.opentripplanner.test.support.ResourceLoader;
 
 public class OsmDatabaseTest {
@@ -48,4 +52,36 @@ public class OsmDatabaseTest {
     assertNotNull(way);
     assertEquals("platform", way.getTag("public_transport"));
   }
+
+  @Test
+  void multiThreadParsing() {
+    var file = RESOURCE_LOADER.file("ehningen-minimal.osm.pbf");
+    var expected = read(new OsmProvider(file, false));
+    var osmdb = read(
+      new OsmProvider(
+        new FileDataSource(file, FileType.OSM),
+        OsmTagMapperSource.DEFAULT,
+        null,
+        false,
+        true,
+        DataImportIssueStore.NOOP
+      )
+    );
+
+    assertEquals(expected.nodeCount(), osmdb.nodeCount());
+    assertEquals(expected.wayCount(), osmdb.wayCount());
+    for (OsmWay way : expected.getWays()) {
+      var other = osmdb.getWay(way.getId());
+      assertNotNull(other);
+      assertEquals(way.getTags(), other.getTags());
+      assertEquals(way.getNodeRefs(), other.getNodeRefs());
+    }
+  }
+
+  private static OsmDatabase read(OsmProvider provider) {
+    var osmdb = new OsmDatabase(DataImportIssueStore.NOOP);
+    provider.readOsm(osmdb);
+    osmdb.postLoad();
+    return osmdb;
+  }
 }
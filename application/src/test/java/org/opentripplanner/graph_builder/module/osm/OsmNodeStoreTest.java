@@ -0,0 +1,84 @@
+package org.opentripplanner.graph_builder.module.osm;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.osm.OsmProvider;
+import org.opentripplanner.osm.model.OsmNode;
+
+class OsmNodeStoreTest {
+
+  private static final OsmProvider PROVIDER = new OsmProvider(new File("a.osm.pbf"), false);
+  private static final OsmProvider OTHER_PROVIDER = new OsmProvider(new File("b.osm.pbf"), false);
+
+  @Test
+  void untaggedNode() {
+    var subject = new OsmNodeStore();
+    subject.add(node(7, 59.9, 10.7, PROVIDER));
+
+    var node = subject.get(7);
+    assertEquals(7, node.getId());
+    assertEquals(59.9, node.lat);
+    assertEquals(10.7, node.lon);
+    assertSame(PROVIDER, node.getOsmProvider());
+    assertTrue(node.getTags().isEmpty());
+
+    // A new, equal instance is returned for each lookup
+    assertEquals(node, subject.get(7));
+    assertEquals(node.hashCode(), subject.get(7).hashCode());
+  }
+
+  @Test
+  void taggedNodeIsKept() {
+    var subject = new OsmNodeStore();
+    var node = node(3, 1.0, 2.0, PROVIDER);
+    node.addTag("highway", "traffic_signals");
+    subject.add(node);
+
+    assertSame(node, subject.get(3));
+  }
+
+  @Test
+  void missingNode() {
+    var subject = new OsmNodeStore();
+    subject.add(node(1, 1.0, 1.0, PROVIDER));
+
+    assertFalse(subject.contains(2));
+    assertNull(subject.get(2));
+  }
+
+  @Test
+  void unsortedNodesFromManyProviders() {
+    var subject = new OsmNodeStore();
+    for (int i = 2_000; i > 0; i -= 2) {
+      subject.add(node(i, i, -i, PROVIDER));
+    }
+    for (int i = 1; i < 2_000; i += 2) {
+      subject.add(node(i, i, -i, OTHER_PROVIDER));
+    }
+    // The first node added is kept
+    subject.add(node(10, 0.0, 0.0, OTHER_PROVIDER));
+
+    assertEquals(2_000, subject.size());
+    for (int i = 1; i <= 2_000; ++i) {
+      var node = subject.get(i);
+      assertEquals(i, node.lat);
+      assertEquals(-i, node.lon);
+      assertSame(i % 2 == 0 ? PROVIDER : OTHER_PROVIDER, node.getOsmProvider());
+    }
+  }
+
+  private static OsmNode node(long id, double lat, double lon, OsmProvider provider) {
+    var node = new OsmNode();
+    node.setId(id);
+    node.lat = lat;
+    node.lon = lon;
+    node.setOsmProvider(provider);
+    return node;
+  }
+}
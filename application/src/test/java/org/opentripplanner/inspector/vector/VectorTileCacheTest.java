@@ -0,0 +1,100 @@
+package org.opentripplanner.inspector.vector;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.google.common.base.Ticker;
+import edu.colorado.cires.cmg.mvt.VectorTile;
+import java.time.Duration;
+import java.util.Locale;
+import org.junit.jupiter.api.Test;
+
+class VectorTileCacheTest {
+
+  private static final Duration MAX_AGE = Duration.ofSeconds(60);
+
+  private long now = 0;
+  private int nBuilds = 0;
+
+  private final VectorTileCache subject = new VectorTileCache(
+    10,
+    new Ticker() {
+      @Override
+      public long read() {
+        return now;
+      }
+    }
+  );
+
+  @Test
+  void repeatedRequestIsCached() {
+    var first = layer("stops", 1, Locale.ENGLISH, 0);
+    var second = layer("stops", 1, Locale.ENGLISH, 0);
+
+    assertEquals(1, nBuilds);
+    assertEquals(1, subject.size());
+    assertArrayEquals(first, second);
+  }
+
+  @Test
+  void differentLayerTileOrLocaleIsNotCached() {
+    layer("stops", 1, Locale.ENGLISH, 0);
+    layer("stations", 1, Locale.ENGLISH, 0);
+    layer("stops", 2, Locale.ENGLISH, 0);
+    layer("stops", 1, Locale.GERMAN, 0);
+
+    assertEquals(4, nBuilds);
+  }
+
+  @Test
+  void newDataVersionInvalidatesTheLayer() {
+    layer("rental", 1, Locale.ENGLISH, 0);
+    layer("rental", 1, Locale.ENGLISH, 1);
+    layer("rental", 1, Locale.ENGLISH, 1);
+
+    assertEquals(2, nBuilds);
+  }
+
+  @Test
+  void layerExpiresAfterMaxAge() {
+    layer("stops", 1, Locale.ENGLISH, 0);
+    now += MAX_AGE.minusSeconds(1).toNanos();
+    layer("stops", 1, Locale.ENGLISH, 0);
+    assertEquals(1, nBuilds);
+
+    now += Duration.ofSeconds(1).toNanos();
+    layer("stops", 1, Locale.ENGLISH, 0);
+    assertEquals(2, nBuilds);
+  }
+
+  @Test
+  void concatenatedLayersAreOneTile() throws Exception {
+    var stops = layer("stops", 1, Locale.ENGLISH, 0);
+    var stations = layer("stations", 1, Locale.ENGLISH, 0);
+
+    var bytes = new byte[stops.length + stations.length];
+    System.arraycopy(stops, 0, bytes, 0, stops.length);
+    System.arraycopy(stations, 0, bytes, stops.length, stations.length);
+    var tile = VectorTile.Tile.parseFrom(bytes);
+
+    assertEquals(2, tile.getLayersCount());
+    assertEquals("stops", tile.getLayers(0).getName());
+    assertEquals("stations", tile.getLayers(1).getName());
+  }
+
+  private byte[] layer(String name, int x, Locale locale, long dataVersion) {
+    return subject.layer(
+      name,
+      x,
+      1,
+      10,
+      locale,
+      dataVersion,
+      MAX_AGE,
+      () -> {
+        ++nBuilds;
+        return VectorTile.Tile.Layer.newBuilder().setName(name).setVersion(2).build();
+      }
+    );
+  }
+}
@@ -3,6 +3,7 @@ package org.opentripplanner.netex.config;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.opentripplanner.netex.config.NetexFeedParameters.DEFAULT;
 
 import java.net.URI;
@@ -63,6 +64,15 @@ class NetexFeedParametersTest {
     assertEquals(FERRY_IDS, subject.ferryIdsNotAllowedForBicycle());
   }
 
+  @Test
+  void xmlParserThreads() {
+    assertEquals(1, DEFAULT.xmlParserThreads());
+    assertEquals(4, subject.copyOf().withXmlParserThreads(4).build().xmlParserThreads());
+    assertThrows(IllegalArgumentException.class, () ->
+      subject.copyOf().withXmlParserThreads(0).build()
+    );
+  }
+
   @Test
   void source() {
     assertEquals(SOURCE_URI, subject.source().toASCIIString());
@@ -0,0 +1,79 @@
+package org.opentripplanner.netex.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.rutebanken.netex.model.CompositeFrame;
+import org.rutebanken.netex.model.DatedServiceJourney;
+import org.rutebanken.netex.model.Journey_VersionStructure;
+import org.rutebanken.netex.model.ServiceFrame;
+import org.rutebanken.netex.model.ServiceJourney;
+import org.rutebanken.netex.model.TimetableFrame;
+
+class NetexXmlParserTest {
+
+  private static final String DOCUMENT =
+    """
+    <?xml version="1.0" encoding="UTF-8"?>
+    <PublicationDelivery xmlns="http://www.netex.org.uk/netex" version="1.0">
+      <PublicationTimestamp>2024-01-01T00:00:00</PublicationTimestamp>
+      <ParticipantRef>RB</ParticipantRef>
+      <dataObjects>
+        <CompositeFrame id="F:CompositeFrame:1" version="1">
+          <frames>
+            <ServiceFrame id="F:ServiceFrame:1" version="1"/>
+            <TimetableFrame id="F:TimetableFrame:1" version="1">
+              <vehicleJourneys>
+                <ServiceJourney id="F:ServiceJourney:1" version="1"/>
+                <!-- A comment -->
+                <DatedServiceJourney id="F:DatedServiceJourney:1" version="1"/>
+                <ServiceJourney id="F:ServiceJourney:2" version="1"/>
+              </vehicleJourneys>
+            </TimetableFrame>
+          </frames>
+        </CompositeFrame>
+      </dataObjects>
+    </PublicationDelivery>
+    """;
+
+  @Test
+  void journeysAreStreamedOutOfTheTimetableFrame() throws Exception {
+    var journeys = new ArrayList<Journey_VersionStructure>();
+
+    var document = new NetexXmlParser()
+      .parseXmlDoc(
+        new ByteArrayInputStream(DOCUMENT.strip().getBytes(StandardCharsets.UTF_8)),
+        journeys::add
+      );
+
+    assertEquals(
+      List.of("F:ServiceJourney:1", "F:DatedServiceJourney:1", "F:ServiceJourney:2"),
+      journeys.stream().map(Journey_VersionStructure::getId).toList()
+    );
+    assertInstanceOf(ServiceJourney.class, journeys.get(0));
+    assertInstanceOf(DatedServiceJourney.class, journeys.get(1));
+
+    var compositeFrame = (CompositeFrame) document
+      .getDataObjects()
+      .getCompositeFrameOrCommonFrame()
+      .getFirst()
+      .getValue();
+    var frames = compositeFrame.getFrames().getCommonFrame();
+
+    assertEquals(2, frames.size());
+    assertInstanceOf(ServiceFrame.class, frames.get(0).getValue());
+    var timetableFrame = assertInstanceOf(TimetableFrame.class, frames.get(1).getValue());
+    assertTrue(
+      timetableFrame
+        .getVehicleJourneys()
+        .getVehicleJourneyOrDatedVehicleJourneyOrNormalDatedVehicleJourney()
+        .isEmpty()
+    );
+  }
+}
@@ -0,0 +1,151 @@
+package org.opentripplanner.netex.loader;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.datastore.api.DataSource;
+import org.opentripplanner.datastore.api.FileType;
+
+class ParallelNetexXmlParserTest {
+
+  private static final int N_THREADS = 3;
+  private static final int N_ENTRIES = 12;
+
+  private final AtomicInteger started = new AtomicInteger();
+  private final AtomicInteger consumed = new AtomicInteger();
+  private final AtomicInteger maxInProgress = new AtomicInteger();
+  private final AtomicInteger interrupted = new AtomicInteger();
+
+  @Test
+  void documentsAreConsumedInEntryOrder() {
+    // The first entries are the slowest to parse, so they complete last
+    var entries = entries(i -> sleep(5 * (N_ENTRIES - i)));
+    var result = new ArrayList<String>();
+
+    try (var subject = new ParallelNetexXmlParser(N_THREADS)) {
+      subject.parse(
+        entries,
+        doc -> {
+          consumed.incrementAndGet();
+          var document = doc.document(ignore -> {});
+          assertEquals(doc.entry().name(), document.getParticipantRef());
+          result.add(doc.entry().name());
+        }
+      );
+      assertEquals(entries.stream().map(DataSource::name).toList(), result);
+      assertTrue(maxInProgress.get() <= subject.maxFilesInProgress(), maxInProgress::toString);
+    }
+  }
+
+  @Test
+  void parseFailureIsRethrownAndRemainingFilesAreCancelled() throws InterruptedException {
+    var failure = new RuntimeException("Parse failure");
+    var othersStarted = new CountDownLatch(N_THREADS - 1);
+    var entries = entries(i -> {
+      if (i == 0) {
+        // Fail when the other threads are busy parsing
+        await(othersStarted);
+        throw failure;
+      }
+      othersStarted.countDown();
+      await(new CountDownLatch(1));
+    });
+
+    try (var subject = new ParallelNetexXmlParser(N_THREADS)) {
+      var ex = assertThrows(RuntimeException.class, () -> subject.parse(entries, doc -> {}));
+      assertSame(failure, ex);
+
+      // All files in progress, except the failing one, are interrupted
+      long deadline = System.currentTimeMillis() + 10_000;
+      while (interrupted.get() < started.get() - 1 && System.currentTimeMillis() < deadline) {
+        Thread.sleep(10);
+      }
+      assertEquals(started.get() - 1, interrupted.get());
+      assertTrue(started.get() <= subject.maxFilesInProgress());
+    }
+  }
+
+  private List<DataSource> entries(Consumer<Integer> onParse) {
+    return IntStream
+      .range(0, N_ENTRIES)
+      .mapToObj(i -> (DataSource) new TestEntry(i, onParse))
+      .toList();
+  }
+
+  private void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      interrupted.incrementAndGet();
+      throw new RuntimeException(e);
+    }
+  }
+
+  private class TestEntry implements DataSource {
+
+    private final int index;
+    private final Consumer<Integer> onParse;
+
+    private TestEntry(int index, Consumer<Integer> onParse) {
+      this.index = index;
+      this.onParse = onParse;
+    }
+
+    @Override
+    public String name() {
+      return "file-" + index + ".xml";
+    }
+
+    @Override
+    public String path() {
+      return "netex/" + name();
+    }
+
+    @Override
+    public URI uri() {
+      return URI.create(path());
+    }
+
+    @Override
+    public FileType type() {
+      return FileType.NETEX;
+    }
+
+    @Override
+    public InputStream asInputStream() {
+      int inProgress = started.incrementAndGet() - consumed.get();
+      maxInProgress.accumulateAndGet(inProgress, Math::max);
+      onParse.accept(index);
+      var document =
+        """
+        <PublicationDelivery xmlns="http://www.netex.org.uk/netex" version="1.0">
+          <PublicationTimestamp>2024-01-01T00:00:00</PublicationTimestamp>
+          <ParticipantRef>%s</ParticipantRef>
+        </PublicationDelivery>
+        """.formatted(name());
+      return new ByteArrayInputStream(document.getBytes(StandardCharsets.UTF_8));
+    }
+  }
+}
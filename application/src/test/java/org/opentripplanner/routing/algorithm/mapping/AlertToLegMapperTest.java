@@ -0,0 +1,66 @@
+package org.opentripplanner.routing.algorithm.mapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.model.plan.TestItineraryBuilder.BUS_ROUTE;
+import static org.opentripplanner.model.plan.TestItineraryBuilder.newItinerary;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.plan.Leg;
+import org.opentripplanner.model.plan.PlanTestConstants;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.TimePeriod;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.routing.impl.TransitAlertServiceImpl;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.service.TimetableRepository;
+
+class AlertToLegMapperTest implements PlanTestConstants {
+
+  private static final FeedScopedId STOP_ALERT_ID = new FeedScopedId("F", "STOP");
+  private static final FeedScopedId ROUTE_ALERT_ID = new FeedScopedId("F", "ROUTE");
+
+  @Test
+  void emptyService() {
+    var service = new TransitAlertServiceImpl(new TimetableRepository());
+    var leg = busLeg();
+
+    new AlertToLegMapper(service, ignore -> null).addTransitAlertsToLeg(leg, true);
+
+    assertTrue(leg.getTransitAlerts().isEmpty());
+  }
+
+  @Test
+  void populatedService() {
+    var service = new TransitAlertServiceImpl(new TimetableRepository());
+    service.setAlerts(
+      List.of(
+        alert(STOP_ALERT_ID, new EntitySelector.Stop(A.stop.getId())),
+        alert(ROUTE_ALERT_ID, new EntitySelector.Route(BUS_ROUTE.getId()))
+      )
+    );
+    var leg = busLeg();
+
+    new AlertToLegMapper(service, ignore -> null).addTransitAlertsToLeg(leg, true);
+
+    assertEquals(
+      Set.of(STOP_ALERT_ID, ROUTE_ALERT_ID),
+      leg.getTransitAlerts().stream().map(TransitAlert::getId).collect(Collectors.toSet())
+    );
+  }
+
+  private static Leg busLeg() {
+    return newItinerary(A).bus(31, 0, 30, E).build().getLegs().getFirst();
+  }
+
+  private static TransitAlert alert(FeedScopedId id, EntitySelector entity) {
+    return TransitAlert
+      .of(id)
+      .addEntity(entity)
+      .addTimePeriod(new TimePeriod(0, TimePeriod.OPEN_ENDED))
+      .build();
+  }
+}
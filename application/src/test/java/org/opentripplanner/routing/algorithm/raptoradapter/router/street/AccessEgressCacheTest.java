@@ -0,0 +1,108 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.router.street;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.api.request.request.StreetRequest;
+import org.opentripplanner.routing.graphfinder.NearbyStop;
+
+class AccessEgressCacheTest {
+
+  private static final Duration DURATION_LIMIT = Duration.ofMinutes(45);
+  private static final int MAX_STOP_COUNT = 100;
+  private static final StreetRequest WALK = new StreetRequest(StreetMode.WALK);
+
+  private final AccessEgressCache subject = new AccessEgressCache(10);
+
+  private int nSearches = 0;
+
+  @Test
+  void repeatedRequestIsCached() {
+    var request = request(60.0, 10.0);
+
+    find(request, WALK, AccessEgressType.ACCESS, 0);
+    find(request(60.0, 10.0), WALK, AccessEgressType.ACCESS, 0);
+
+    assertEquals(1, nSearches);
+    assertEquals(1, subject.size());
+  }
+
+  @Test
+  void differentLocationOrDirectionIsNotCached() {
+    var request = request(60.0, 10.0);
+
+    find(request, WALK, AccessEgressType.ACCESS, 0);
+    find(request, WALK, AccessEgressType.EGRESS, 0);
+    find(request(60.1, 10.0), WALK, AccessEgressType.ACCESS, 0);
+
+    assertEquals(3, nSearches);
+  }
+
+  @Test
+  void differentPreferencesAreNotCached() {
+    var request = request(60.0, 10.0);
+    var faster = request(60.0, 10.0);
+    faster.withPreferences(p -> p.withWalk(w -> w.withSpeed(2.0)));
+
+    find(request, WALK, AccessEgressType.ACCESS, 0);
+    find(faster, WALK, AccessEgressType.ACCESS, 0);
+
+    assertEquals(2, nSearches);
+  }
+
+  @Test
+  void realtimeStreetChangesInvalidateTheCache() {
+    var request = request(60.0, 10.0);
+
+    find(request, WALK, AccessEgressType.ACCESS, 0);
+    find(request, WALK, AccessEgressType.ACCESS, 1);
+    find(request, WALK, AccessEgressType.ACCESS, 1);
+
+    assertEquals(2, nSearches);
+  }
+
+  @Test
+  void rentalIsNotCached() {
+    var request = request(60.0, 10.0);
+    var rental = new StreetRequest(StreetMode.BIKE_RENTAL);
+
+    find(request, rental, AccessEgressType.ACCESS, 0);
+    find(request, rental, AccessEgressType.ACCESS, 0);
+
+    assertEquals(2, nSearches);
+    assertEquals(0, subject.size());
+  }
+
+  private Collection<NearbyStop> find(
+    RouteRequest request,
+    StreetRequest streetRequest,
+    AccessEgressType type,
+    long streetVersion
+  ) {
+    return subject.findAccessEgresses(
+      request,
+      streetRequest,
+      type,
+      DURATION_LIMIT,
+      MAX_STOP_COUNT,
+      streetVersion,
+      () -> {
+        ++nSearches;
+        return List.of();
+      }
+    );
+  }
+
+  private static RouteRequest request(double lat, double lng) {
+    var request = new RouteRequest();
+    request.setFrom(new GenericLocation(lat, lng));
+    request.setTo(new GenericLocation(lat + 0.5, lng));
+    return request;
+  }
+}
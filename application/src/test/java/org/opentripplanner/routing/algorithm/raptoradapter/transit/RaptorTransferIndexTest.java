@@ -0,0 +1,69 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor.api.model.RaptorTransfer;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+
+class RaptorTransferIndexTest {
+
+  private static final StreetSearchRequest REQUEST = StreetSearchRequest.of().build();
+
+  private static final Transfer T_0_1 = new Transfer(1, 100);
+  private static final Transfer T_0_2 = new Transfer(2, 300);
+  private static final Transfer T_0_2_SHORT = new Transfer(2, 200);
+  private static final Transfer T_2_1 = new Transfer(1, 150);
+
+  private final RaptorTransferIndex subject = RaptorTransferIndex.create(
+    List.of(List.of(T_0_1, T_0_2, T_0_2_SHORT), List.of(), List.of(T_2_1)),
+    REQUEST
+  );
+
+  @Test
+  void forwardTransfers() {
+    var transfers = subject.getForwardTransfers(0);
+    assertEquals(2, transfers.size());
+    assertTransfer(transfers.get(0), 1, T_0_1);
+    // Only the transfer with the lowest cost to stop 2 is kept
+    assertTransfer(transfers.get(1), 2, T_0_2_SHORT);
+
+    assertTrue(subject.getForwardTransfers(1).isEmpty());
+
+    transfers = subject.getForwardTransfers(2);
+    assertEquals(1, transfers.size());
+    assertTransfer(transfers.get(0), 1, T_2_1);
+  }
+
+  @Test
+  void reversedTransfers() {
+    assertTrue(subject.getReversedTransfers(0).isEmpty());
+
+    var transfers = subject.getReversedTransfers(1);
+    assertEquals(2, transfers.size());
+    assertTransfer(transfers.get(0), 0, T_0_1);
+    assertTransfer(transfers.get(1), 2, T_2_1);
+
+    transfers = subject.getReversedTransfers(2);
+    assertEquals(1, transfers.size());
+    assertTransfer(transfers.get(0), 0, T_0_2_SHORT);
+  }
+
+  @Test
+  void transfersAreNotCreatedPerLookup() {
+    assertSame(subject.getForwardTransfers(0), subject.getForwardTransfers(0));
+    assertSame(subject.getForwardTransfers(0).get(1), subject.getForwardTransfers(0).get(1));
+    assertSame(subject.getReversedTransfers(1).get(0), subject.getReversedTransfers(1).get(0));
+  }
+
+  private static void assertTransfer(RaptorTransfer transfer, int stop, Transfer expected) {
+    var expectedTransfer = expected.asRaptorTransfer(REQUEST).orElseThrow();
+    assertEquals(stop, transfer.stop());
+    assertEquals(expectedTransfer.durationInSeconds(), transfer.durationInSeconds());
+    assertEquals(expectedTransfer.c1(), transfer.c1());
+    assertSame(expected, ((DefaultRaptorTransfer) transfer).transfer());
+  }
+}
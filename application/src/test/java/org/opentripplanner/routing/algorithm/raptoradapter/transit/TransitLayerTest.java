@@ -3,7 +3,7 @@ package org.opentripplanner.routing.algorithm.raptoradapter.transit;
 import static java.util.Map.entry;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -98,8 +98,9 @@ class TransitLayerTest {
     );
     var runningOnDate = transitLayer.getTripPatternsForRunningDate(date);
     assertEquals(1, runningOnDate.size());
-    assertEquals(tripPatterns, runningOnDate);
-    assertTrue(tripPatterns == runningOnDate);
+    assertEquals(tripPatterns, List.copyOf(runningOnDate));
+    // No copy is made, the same immutable collection is returned each time
+    assertSame(runningOnDate, transitLayer.getTripPatternsForRunningDate(date));
     assertEquals(0, transitLayer.getTripPatternsForRunningDate(date.minusDays(1)).size());
     assertEquals(0, transitLayer.getTripPatternsForRunningDate(date.plusDays(1)).size());
   }
@@ -0,0 +1,162 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.model.StopTime;
+import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
+import org.opentripplanner.transit.model.framework.Deduplicator;
+import org.opentripplanner.transit.model.network.Route;
+import org.opentripplanner.transit.model.network.RoutingTripPattern;
+import org.opentripplanner.transit.model.network.StopPattern;
+import org.opentripplanner.transit.model.network.TripPattern;
+import org.opentripplanner.transit.model.timetable.TripTimes;
+import org.opentripplanner.transit.model.timetable.TripTimesFactory;
+
+class TripPatternsByRunningDateTest {
+
+  private static final TimetableRepositoryForTest TEST_MODEL = TimetableRepositoryForTest.of();
+  private static final Route ROUTE = TimetableRepositoryForTest.route("1").build();
+  private static final LocalDate D1 = LocalDate.of(2024, 1, 1);
+  private static final LocalDate D2 = LocalDate.of(2024, 1, 2);
+
+  /** More patterns than fit in one page */
+  private static final List<RoutingTripPattern> PATTERNS = IntStream
+    .range(0, 100)
+    .mapToObj(i -> pattern("P" + i))
+    .toList();
+  private static final TripTimes TRIP_TIMES = TripTimesFactory.tripTimes(
+    TimetableRepositoryForTest.trip("1").withRoute(ROUTE).build(),
+    List.of(new StopTime()),
+    new Deduplicator()
+  );
+
+  @Test
+  void emptyIndex() {
+    var subject = TripPatternsByRunningDate.empty();
+    assertTrue(subject.get(D1).isEmpty());
+    assertFalse(subject.containsDate(D1));
+    assertSame(subject, subject.toBuilder().build());
+  }
+
+  @Test
+  void createFromMap() {
+    var a = tripPatternForDate(0, D1);
+    var b = tripPatternForDate(99, D1);
+    var c = tripPatternForDate(1, D2);
+
+    var subject = TripPatternsByRunningDate.of(Map.of(D1, List.of(b, a), D2, List.of(c)));
+
+    // Sorted by pattern index
+    assertEquals(List.of(a, b), List.copyOf(subject.get(D1)));
+    assertEquals(List.of(c), List.copyOf(subject.get(D2)));
+    assertEquals(2, subject.get(D1).size());
+    assertTrue(subject.get(D2.plusDays(1)).isEmpty());
+  }
+
+  @Test
+  void dateWithNoTripPatterns() {
+    var subject = TripPatternsByRunningDate.of(Map.of(D1, List.of()));
+    assertTrue(subject.containsDate(D1));
+    assertTrue(subject.get(D1).isEmpty());
+  }
+
+  @Test
+  void updateDoesNotChangePreviousVersion() {
+    var all = new ArrayList<TripPatternForDate>();
+    for (int i = 0; i < PATTERNS.size(); ++i) {
+      all.add(tripPatternForDate(i, D1));
+    }
+    var original = TripPatternsByRunningDate.of(Map.of(D1, all, D2, List.of()));
+
+    var removed = all.get(70);
+    var added = tripPatternForDate(70, D1.minusDays(1));
+    var updated = original.toBuilder().remove(D1, removed).add(D1, added).build();
+
+    assertEquals(all, List.copyOf(original.get(D1)));
+    assertEquals(100, updated.get(D1).size());
+    assertFalse(updated.get(D1).contains(removed));
+    assertTrue(updated.get(D1).contains(added));
+    // Dates not changed are shared
+    assertSame(original.get(D2), updated.get(D2));
+  }
+
+  @Test
+  void slotWithManyTripPatternsForDate() {
+    var yesterday = tripPatternForDate(3, D1.minusDays(1));
+    var today = tripPatternForDate(3, D1);
+
+    var subject = TripPatternsByRunningDate
+      .empty()
+      .toBuilder()
+      .add(D1, yesterday)
+      .add(D1, today)
+      // Equal elements are only added once
+      .add(D1, tripPatternForDate(3, D1))
+      .build();
+
+    assertEquals(List.of(yesterday, today), List.copyOf(subject.get(D1)));
+
+    subject = subject.toBuilder().remove(D1, yesterday).build();
+    assertEquals(List.of(today), List.copyOf(subject.get(D1)));
+
+    subject = subject.toBuilder().remove(D1, today).build();
+    assertTrue(subject.get(D1).isEmpty());
+    assertTrue(subject.containsDate(D1));
+  }
+
+  @Test
+  void removeFromMissingDateDoesNotAddDate() {
+    var subject = TripPatternsByRunningDate
+      .empty()
+      .toBuilder()
+      .remove(D1, tripPatternForDate(0, D1))
+      .build();
+    assertFalse(subject.containsDate(D1));
+  }
+
+  @Test
+  void builderCanBeUsedAfterBuild() {
+    var builder = TripPatternsByRunningDate.empty().toBuilder().add(D1, tripPatternForDate(0, D1));
+    var first = builder.build();
+    var second = builder.add(D1, tripPatternForDate(1, D1)).build();
+
+    assertEquals(1, first.get(D1).size());
+    assertEquals(2, second.get(D1).size());
+  }
+
+  @Test
+  void collectionIsImmutable() {
+    var subject = TripPatternsByRunningDate.of(Map.of(D1, List.of(tripPatternForDate(0, D1))));
+    assertThrows(UnsupportedOperationException.class, () -> subject.get(D1).clear());
+  }
+
+  private static TripPatternForDate tripPatternForDate(int patternIndex, LocalDate serviceDate) {
+    return new TripPatternForDate(
+      PATTERNS.get(patternIndex),
+      List.of(TRIP_TIMES),
+      List.of(),
+      serviceDate
+    );
+  }
+
+  private static RoutingTripPattern pattern(String id) {
+    var stopTime = new StopTime();
+    stopTime.setStop(TEST_MODEL.stop("TEST:STOP", 0, 0).build());
+    return TripPattern
+      .of(TimetableRepositoryForTest.id(id))
+      .withRoute(ROUTE)
+      .withStopPattern(new StopPattern(List.of(stopTime)))
+      .build()
+      .getRoutingTripPattern();
+  }
+}
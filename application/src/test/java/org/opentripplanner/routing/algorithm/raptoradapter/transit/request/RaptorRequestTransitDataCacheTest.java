@@ -0,0 +1,121 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner._support.time.ZoneIds;
+import org.opentripplanner.routing.algorithm.raptoradapter.transit.request.RaptorRequestTransitDataCache.RequestPatternIndex;
+import org.opentripplanner.routing.api.request.preference.WheelchairPreferences;
+import org.opentripplanner.routing.api.request.request.filter.AllowAllTransitFilter;
+import org.opentripplanner.routing.api.request.request.filter.TransitGroupSelect;
+import org.opentripplanner.transit.model.basic.TransitMode;
+import org.opentripplanner.transit.model.network.grouppriority.TransitGroupPriorityService;
+import org.opentripplanner.utils.time.ServiceDateUtils;
+
+class RaptorRequestTransitDataCacheTest {
+
+  private static final ZonedDateTime TIME_ZERO = ServiceDateUtils.asStartOfService(
+    LocalDate.of(2024, 2, 1),
+    ZoneIds.OSLO
+  );
+  private static final TransitGroupPriorityService NO_PRIORITY =
+    TransitGroupPriorityService.empty();
+
+  private final AtomicInteger factoryCalls = new AtomicInteger();
+
+  @Test
+  void sharePatternIndexForEqualRequests() {
+    var subject = new RaptorRequestTransitDataCache(10);
+
+    var first = subject.get(TIME_ZERO, 1, 1, filter(false), NO_PRIORITY, this::createIndex);
+    var second = subject.get(TIME_ZERO, 1, 1, filter(false), NO_PRIORITY, this::createIndex);
+
+    assertTrue(subject.isEnabled());
+    assertSame(first, second);
+    assertEquals(1, factoryCalls.get());
+  }
+
+  @Test
+  void doNotShareIndexIfRequestIsDifferent() {
+    var subject = new RaptorRequestTransitDataCache(10);
+
+    var first = subject.get(TIME_ZERO, 1, 1, filter(false), NO_PRIORITY, this::createIndex);
+
+    assertNotSame(
+      first,
+      subject.get(TIME_ZERO, 1, 1, filter(true), NO_PRIORITY, this::createIndex)
+    );
+    assertNotSame(
+      first,
+      subject.get(TIME_ZERO, 0, 1, filter(false), NO_PRIORITY, this::createIndex)
+    );
+    assertNotSame(
+      first,
+      subject.get(TIME_ZERO.plusDays(1), 1, 1, filter(false), NO_PRIORITY, this::createIndex)
+    );
+    assertEquals(4, factoryCalls.get());
+  }
+
+  @Test
+  void doNotCacheRequestsWithTransitGroupPriority() {
+    var subject = new RaptorRequestTransitDataCache(10);
+    var priority = new TransitGroupPriorityService(
+      List.of(),
+      List.of(TransitGroupSelect.of().addModes(List.of(TransitMode.BUS)).build())
+    );
+
+    subject.get(TIME_ZERO, 1, 1, filter(false), priority, this::createIndex);
+    subject.get(TIME_ZERO, 1, 1, filter(false), priority, this::createIndex);
+
+    assertEquals(2, factoryCalls.get());
+  }
+
+  @Test
+  void disabledCache() {
+    var subject = new RaptorRequestTransitDataCache(0);
+
+    subject.get(TIME_ZERO, 1, 1, filter(false), NO_PRIORITY, this::createIndex);
+    subject.get(TIME_ZERO, 1, 1, filter(false), NO_PRIORITY, this::createIndex);
+
+    assertFalse(subject.isEnabled());
+    assertEquals(2, factoryCalls.get());
+  }
+
+  @Test
+  void emptyCopy() {
+    var subject = new RaptorRequestTransitDataCache(10);
+    var first = subject.get(TIME_ZERO, 1, 1, filter(false), NO_PRIORITY, this::createIndex);
+
+    var copy = subject.emptyCopy();
+
+    assertTrue(copy.isEnabled());
+    assertNotSame(first, copy.get(TIME_ZERO, 1, 1, filter(false), NO_PRIORITY, this::createIndex));
+  }
+
+  private RequestPatternIndex createIndex() {
+    factoryCalls.incrementAndGet();
+    return new RequestPatternIndex(List.of(), List.of());
+  }
+
+  private static TransitDataProviderFilter filter(boolean requireBikesAllowed) {
+    return new RouteRequestTransitDataProviderFilter(
+      requireBikesAllowed,
+      false,
+      false,
+      WheelchairPreferences.DEFAULT,
+      true,
+      false,
+      Set.of(),
+      List.of(AllowAllTransitFilter.of())
+    );
+  }
+}
@@ -45,6 +45,24 @@ public class GraphTest {
     assertEquals(a, b);
   }
 
+  @Test
+  public void testVertexIndex() {
+    var g = new Graph();
+    Vertex a = StreetModelForTest.intersectionVertex("A", 5, 5);
+    Vertex b = StreetModelForTest.intersectionVertex("B", 6, 6);
+    assertEquals(Vertex.NO_INDEX, a.getIndex());
+
+    g.addVertex(a);
+    g.addVertex(b);
+    g.remove(a);
+    g.addVertex(a);
+
+    // The index does not change when a vertex is removed and added again
+    assertEquals(0, a.getIndex());
+    assertEquals(1, b.getIndex());
+    assertEquals(2, g.vertexIndexSize());
+  }
+
   @Test
   public void testAddEdge() {
     Vertex a = StreetModelForTest.intersectionVertex("A", 5, 5);
@@ -0,0 +1,89 @@
+package org.opentripplanner.routing.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.alertpatch.EntitySelector;
+import org.opentripplanner.routing.alertpatch.StopCondition;
+import org.opentripplanner.routing.alertpatch.TransitAlert;
+import org.opentripplanner.transit.model.framework.FeedScopedId;
+import org.opentripplanner.transit.service.TimetableRepository;
+
+class TransitAlertServiceImplTest {
+
+  private static final FeedScopedId STOP = new FeedScopedId("F", "S1");
+  private static final FeedScopedId ROUTE = new FeedScopedId("F", "R1");
+  private static final FeedScopedId TRIP = new FeedScopedId("F", "T1");
+  private static final LocalDate DATE = LocalDate.of(2024, 2, 1);
+
+  private static final TransitAlert STOP_ALERT = TransitAlert
+    .of(new FeedScopedId("F", "A1"))
+    .addEntity(new EntitySelector.Stop(STOP, Set.of(StopCondition.START_POINT)))
+    .addEntity(new EntitySelector.Stop(STOP, Set.of(StopCondition.DESTINATION)))
+    .build();
+
+  private static final TransitAlert ROUTE_AND_TRIP_ALERT = TransitAlert
+    .of(new FeedScopedId("F", "A2"))
+    .addEntity(new EntitySelector.Route(ROUTE))
+    .addEntity(new EntitySelector.Trip(TRIP, DATE))
+    .build();
+
+  private final TransitAlertServiceImpl subject = new TransitAlertServiceImpl(
+    new TimetableRepository()
+  );
+
+  @Test
+  void getAlertById() {
+    subject.setAlerts(List.of(STOP_ALERT, ROUTE_AND_TRIP_ALERT));
+
+    assertSame(STOP_ALERT, subject.getAlertById(STOP_ALERT.getId()));
+    assertSame(ROUTE_AND_TRIP_ALERT, subject.getAlertById(ROUTE_AND_TRIP_ALERT.getId()));
+    assertNull(subject.getAlertById(new FeedScopedId("F", "X")));
+  }
+
+  @Test
+  void getAllAlerts() {
+    subject.setAlerts(List.of(STOP_ALERT, ROUTE_AND_TRIP_ALERT));
+    assertEquals(Set.of(STOP_ALERT, ROUTE_AND_TRIP_ALERT), Set.copyOf(subject.getAllAlerts()));
+  }
+
+  @Test
+  void getStopAlerts() {
+    subject.setAlerts(List.of(STOP_ALERT, ROUTE_AND_TRIP_ALERT));
+
+    // The alert matches both stop conditions, but is only returned once
+    assertEquals(List.of(STOP_ALERT), List.copyOf(subject.getStopAlerts(STOP)));
+    assertEquals(
+      List.of(STOP_ALERT),
+      List.copyOf(subject.getStopAlerts(STOP, Set.of(StopCondition.DESTINATION)))
+    );
+    assertTrue(subject.getStopAlerts(STOP, Set.of(StopCondition.NOT_STOPPING)).isEmpty());
+    assertTrue(subject.getStopAlerts(new FeedScopedId("F", "S2")).isEmpty());
+  }
+
+  @Test
+  void getRouteAndTripAlerts() {
+    subject.setAlerts(List.of(STOP_ALERT, ROUTE_AND_TRIP_ALERT));
+
+    assertEquals(List.of(ROUTE_AND_TRIP_ALERT), List.copyOf(subject.getRouteAlerts(ROUTE)));
+    assertEquals(List.of(ROUTE_AND_TRIP_ALERT), List.copyOf(subject.getTripAlerts(TRIP, DATE)));
+    assertEquals(List.of(ROUTE_AND_TRIP_ALERT), List.copyOf(subject.getTripAlerts(TRIP, null)));
+    assertTrue(subject.getTripAlerts(TRIP, DATE.plusDays(1)).isEmpty());
+  }
+
+  @Test
+  void setAlertsReplacesAllAlerts() {
+    subject.setAlerts(List.of(STOP_ALERT, ROUTE_AND_TRIP_ALERT));
+    subject.setAlerts(List.of(ROUTE_AND_TRIP_ALERT));
+
+    assertTrue(subject.getStopAlerts(STOP).isEmpty());
+    assertNull(subject.getAlertById(STOP_ALERT.getId()));
+    assertEquals(List.of(ROUTE_AND_TRIP_ALERT), List.copyOf(subject.getAllAlerts()));
+  }
+}
@@ -0,0 +1,141 @@
+package org.opentripplanner.street.integration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model.StreetConstants.DEFAULT_MAX_CAR_SPEED;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.opentripplanner.ConstantsForTests;
+import org.opentripplanner.model.GenericLocation;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.routing.impl.GraphPathFinder;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.search.TemporaryVerticesContainer;
+import org.opentripplanner.street.search.ch.StreetContractionHierarchies;
+import org.opentripplanner.test.support.ResourceLoader;
+
+/**
+ * Compare the paths found in the street contraction hierarchies with the A* street search, on a
+ * street graph with turn costs and turn restrictions.
+ */
+class ContractionHierarchyRoutingTest {
+
+  private static final ResourceLoader RESOURCE_LOADER = ResourceLoader.of(
+    ContractionHierarchyRoutingTest.class
+  );
+
+  private static Graph graph;
+  private static StreetContractionHierarchies hierarchies;
+
+  @BeforeAll
+  static void setup() {
+    graph = ConstantsForTests
+      .buildOsmGraph(RESOURCE_LOADER.file("herrenberg-minimal.osm.pbf"))
+      .index()
+      .graph();
+    hierarchies = StreetContractionHierarchies.build(
+      graph.getVertices(),
+      graph.vertexIndexSize(),
+      new RouteRequest().preferences(),
+      StreetContractionHierarchies.SUPPORTED_MODES
+    );
+  }
+
+  static Stream<Arguments> testCases() {
+    var mozartStr = new GenericLocation(48.59521, 8.88391);
+    var fritzLeharStr = new GenericLocation(48.59460, 8.88291);
+    var schiessmauer = new GenericLocation(48.59737, 8.86350);
+    var zeppelinStr = new GenericLocation(48.59972, 8.86239);
+    var gueltsteinerStr = new GenericLocation(48.59386, 8.87088);
+    var aufDemGraben = new GenericLocation(48.59487, 8.87133);
+
+    return Stream
+      .of(StreetMode.CAR, StreetMode.BIKE)
+      .flatMap(mode ->
+        Stream.of(
+          Arguments.of(mode, mozartStr, schiessmauer),
+          Arguments.of(mode, schiessmauer, mozartStr),
+          Arguments.of(mode, fritzLeharStr, zeppelinStr),
+          Arguments.of(mode, zeppelinStr, gueltsteinerStr),
+          Arguments.of(mode, gueltsteinerStr, aufDemGraben),
+          Arguments.of(mode, aufDemGraben, fritzLeharStr)
+        )
+      );
+  }
+
+  @ParameterizedTest
+  @MethodSource("testCases")
+  void findsPathWithTheSameWeightAsAStar(
+    StreetMode mode,
+    GenericLocation from,
+    GenericLocation to
+  ) {
+    var request = request(mode, from, to);
+
+    try (var vertices = new TemporaryVerticesContainer(graph, from, to, mode, mode)) {
+      var aStar = new GraphPathFinder(null)
+        .getPaths(request, vertices.getFromVertices(), vertices.getToVertices())
+        .getFirst();
+      var path = hierarchies
+        .findPath(request, vertices.getFromVertices(), vertices.getToVertices())
+        .orElseThrow();
+
+      // The paths should have turns, or the turn costs are not tested
+      assertTrue(countStreetEdges(path.edges) > 2);
+      assertEquals(aStar.getWeight(), path.getWeight(), 0.001);
+      assertEquals(aStar.getDuration(), path.getDuration());
+    }
+  }
+
+  /**
+   * The path in the hierarchy passes through a no-through-traffic area, which is not part of the
+   * cost in the hierarchy. The path is rejected, and the A* search is used instead.
+   */
+  @Test
+  void fallsBackToAStarWhenPathIsNotValid() {
+    var mozartStr = new GenericLocation(48.59521, 8.88391);
+    var fritzLeharStr = new GenericLocation(48.59460, 8.88291);
+    var request = request(StreetMode.CAR, mozartStr, fritzLeharStr);
+
+    try (
+      var vertices = new TemporaryVerticesContainer(
+        graph,
+        mozartStr,
+        fritzLeharStr,
+        StreetMode.CAR,
+        StreetMode.CAR
+      )
+    ) {
+      var from = vertices.getFromVertices();
+      var to = vertices.getToVertices();
+      assertTrue(hierarchies.findPath(request, from, to).isEmpty());
+
+      var aStar = new GraphPathFinder(null).getPaths(request, from, to).getFirst();
+      var paths = new GraphPathFinder(null, null, DEFAULT_MAX_CAR_SPEED, hierarchies)
+        .getPaths(request, from, to);
+      assertEquals(aStar.getWeight(), paths.getFirst().getWeight(), 0.001);
+    }
+  }
+
+  private static RouteRequest request(StreetMode mode, GenericLocation from, GenericLocation to) {
+    var request = new RouteRequest();
+    request.setDateTime(Instant.parse("2024-01-01T10:00:00Z"));
+    request.setFrom(from);
+    request.setTo(to);
+    request.journey().direct().setMode(mode);
+    return request;
+  }
+
+  private static long countStreetEdges(List<?> edges) {
+    return edges.stream().filter(StreetEdge.class::isInstance).count();
+  }
+}
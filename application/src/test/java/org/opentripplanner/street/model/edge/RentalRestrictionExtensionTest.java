@@ -149,6 +149,18 @@ class RentalRestrictionExtensionTest {
     assertTrue(edge.fromv.rentalRestrictions().traversalBanned(state("c")));
   }
 
+  @Test
+  public void removeOtherExtension() {
+    var edge = streetEdge(V1, V2);
+    var a = new BusinessAreaBorder("a");
+    var b = new BusinessAreaBorder("b");
+
+    edge.addRentalRestriction(a);
+    edge.removeRentalExtension(b);
+
+    assertTrue(edge.fromv.rentalRestrictions().traversalBanned(state("a")));
+  }
+
   @Test
   public void checkNetwork() {
     var edge = streetEdge(V1, V2);
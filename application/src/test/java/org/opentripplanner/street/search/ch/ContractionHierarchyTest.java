@@ -0,0 +1,153 @@
+package org.opentripplanner.street.search.ch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import gnu.trove.map.hash.TIntDoubleHashMap;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.routing.api.request.RouteRequest;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.routing.graph.Graph;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.model.edge.Edge;
+import org.opentripplanner.street.model.edge.StreetEdge;
+import org.opentripplanner.street.model.vertex.IntersectionVertex;
+
+class ContractionHierarchyTest {
+
+  private final Graph graph = new Graph();
+
+  private final IntersectionVertex a = vertex("A", 0);
+  private final IntersectionVertex b = vertex("B", 1);
+  private final IntersectionVertex c = vertex("C", 2);
+  private final IntersectionVertex d = vertex("D", 3);
+  private final IntersectionVertex e = vertex("E", 4);
+  private final IntersectionVertex f = vertex("F", 5);
+
+  private final StreetEdge ab = edge(a, b, 10);
+  private final StreetEdge ba = edge(b, a, 10);
+  private final StreetEdge bc = edge(b, c, 10);
+  private final StreetEdge cb = edge(c, b, 10);
+  private final StreetEdge cd = edge(c, d, 10);
+  private final StreetEdge dc = edge(d, c, 10);
+  private final StreetEdge de = edge(d, e, 10);
+  private final StreetEdge ed = edge(e, d, 10);
+
+  // A longer direct edge, and a vertex which can only be left
+  private final StreetEdge ae = edge(a, e, 100);
+  private final StreetEdge fa = edge(f, a, 10);
+
+  // The nodes are the vertices, and the arcs are the edges weighted by their length
+  private final ContractionHierarchy subject = ContractionHierarchyBuilder.build(
+    graph.vertexIndexSize(),
+    node ->
+      graph
+        .getVertices()
+        .stream()
+        .filter(vertex -> vertex.getIndex() == node)
+        .flatMap(vertex -> vertex.getOutgoing().stream())
+        .map(edge ->
+          new ContractionHierarchyBuilder.Arc(
+            edge.getToVertex().getIndex(),
+            ((StreetEdge) edge).getDistanceMeters(),
+            edge
+          )
+        )
+        .toList()
+  );
+
+  @Test
+  void containsAllNodesWithArcs() {
+    assertEquals(6, subject.numberOfNodes());
+    assertTrue(subject.contains(a.getIndex()));
+    assertFalse(subject.contains(intersectionVertex("X", 1, 1).getIndex()));
+    // All the edges are kept, and the contraction may add shortcuts
+    assertTrue(subject.numberOfArcs() >= 10);
+  }
+
+  @Test
+  void findShortestPath() {
+    var path = subject.findPath(weights(a, 0), weights(e, 0));
+
+    assertNotNull(path);
+    assertEquals(a.getIndex(), path.source());
+    assertEquals(e.getIndex(), path.target());
+    assertEquals(List.<Edge>of(ab, bc, cd, de), path.edges());
+    assertEquals(40, path.weight(), 0.01);
+  }
+
+  @Test
+  void findShortestPathInReverse() {
+    var path = subject.findPath(weights(e, 0), weights(a, 0));
+
+    assertNotNull(path);
+    assertEquals(List.<Edge>of(ed, dc, cb, ba), path.edges());
+    assertEquals(40, path.weight(), 0.01);
+  }
+
+  @Test
+  void findPathToClosestTarget() {
+    var targets = weights(e, 0);
+    targets.put(c.getIndex(), 5);
+
+    var path = subject.findPath(weights(a, 0), targets);
+
+    assertNotNull(path);
+    assertEquals(c.getIndex(), path.target());
+    assertEquals(List.<Edge>of(ab, bc), path.edges());
+    assertEquals(25, path.weight(), 0.01);
+  }
+
+  @Test
+  void sourceIsTarget() {
+    var path = subject.findPath(weights(c, 3), weights(c, 4));
+
+    assertNotNull(path);
+    assertEquals(List.of(), path.edges());
+    assertEquals(7, path.weight(), 0.01);
+  }
+
+  @Test
+  void noPath() {
+    assertNotNull(subject.findPath(weights(f, 0), weights(e, 0)));
+    assertNull(subject.findPath(weights(e, 0), weights(f, 0)));
+  }
+
+  @Test
+  void modesNotUsedFor() {
+    var request = new RouteRequest();
+    request.withPreferences(p -> p.withCar(c -> c.withReluctance(5.0)));
+    var hierarchies = StreetContractionHierarchies.build(
+      graph.getVertices(),
+      graph.vertexIndexSize(),
+      request.preferences(),
+      StreetContractionHierarchies.SUPPORTED_MODES
+    );
+
+    assertEquals(Set.of(), hierarchies.modesNotUsedFor(request));
+    assertEquals(Set.of(StreetMode.CAR), hierarchies.modesNotUsedFor(new RouteRequest()));
+  }
+
+  private IntersectionVertex vertex(String label, double lon) {
+    var vertex = intersectionVertex(label, 0, lon);
+    graph.addVertex(vertex);
+    return vertex;
+  }
+
+  private static StreetEdge edge(IntersectionVertex from, IntersectionVertex to, double length) {
+    return streetEdge(from, to, length, StreetTraversalPermission.ALL);
+  }
+
+  private static TIntDoubleHashMap weights(IntersectionVertex vertex, double weight) {
+    var result = new TIntDoubleHashMap();
+    result.put(vertex.getIndex(), weight);
+    return result;
+  }
+}
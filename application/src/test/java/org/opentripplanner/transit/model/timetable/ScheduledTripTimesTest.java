@@ -3,6 +3,7 @@ package org.opentripplanner.transit.model.timetable;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.id;
@@ -13,6 +14,7 @@ import org.junit.jupiter.api.Test;
 import org.opentripplanner.transit.model._data.TimetableRepositoryForTest;
 import org.opentripplanner.transit.model.basic.Accessibility;
 import org.opentripplanner.transit.model.framework.DataValidationException;
+import org.opentripplanner.transit.model.framework.Deduplicator;
 import org.opentripplanner.transit.model.framework.FeedScopedId;
 import org.opentripplanner.utils.time.TimeUtils;
 
@@ -177,4 +179,34 @@ class ScheduledTripTimesTest {
   void copyDepartureTimes() {
     assertArrayEquals(new int[] { T10_01, T11_02, T12_03 }, subject.copyDepartureTimes());
   }
+
+  @Test
+  void tripsWithSameHopAndDwellTimesShareTimes() {
+    var deduplicator = new Deduplicator();
+    var departures = TimeUtils.times("10:00 10:05 10:10");
+    var a = ScheduledTripTimes
+      .of(deduplicator)
+      .withTrip(TRIP)
+      .withDepartureTimes(departures)
+      .withArrivalTimes(departures.clone())
+      .build();
+    var b = ScheduledTripTimes
+      .of(deduplicator)
+      .withTrip(TRIP)
+      .withDepartureTimes("11:00 11:05 11:10")
+      .withArrivalTimes("11:00 11:05 11:10")
+      .build();
+
+    // The given times are not changed when the times are normalized
+    assertArrayEquals(TimeUtils.times("10:00 10:05 10:10"), departures);
+
+    var aTimes = a.copyOfNoDuplication();
+    var bTimes = b.copyOfNoDuplication();
+    assertSame(aTimes.departureTimes(), bTimes.departureTimes());
+    assertSame(aTimes.departureTimes(), aTimes.arrivalTimes());
+    assertSame(bTimes.departureTimes(), bTimes.arrivalTimes());
+
+    assertEquals(TimeUtils.time("10:05"), a.getArrivalTime(STOP_POS_1));
+    assertEquals(TimeUtils.time("11:10"), b.getDepartureTime(STOP_POS_2));
+  }
 }
@@ -132,6 +132,8 @@ public class SpeedTest {
         TestServerContext.createStreetLimitationParametersService(),
         null,
         null,
+        null,
+        null,
         DebugUiConfig.DEFAULT
       );
     // Creating transitLayerForRaptor should be integrated into the TimetableRepository, but for now
@@ -117,6 +117,20 @@ public class GtfsRealtimeFuzzyTripMatcherTest {
     assertFalse(matcher.match(FEED_ID, trip).hasTripId());
   }
 
+  @Test
+  void incorrectStartTime() {
+    var matcher = matcher();
+    TripDescriptor trip = matchingTripUpdate().setStartTime("07:31:00").build();
+    assertFalse(matcher.match(FEED_ID, trip).hasTripId());
+  }
+
+  @Test
+  void notRunningOnServiceDate() {
+    var matcher = matcher();
+    TripDescriptor trip = matchingTripUpdate().setStartDate("20241114").build();
+    assertFalse(matcher.match(FEED_ID, trip).hasTripId());
+  }
+
   @Test
   void noMatch() {
     // Test matching with "real time", when schedule uses time greater than 24:00
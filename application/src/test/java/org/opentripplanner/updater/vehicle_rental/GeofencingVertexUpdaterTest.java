@@ -2,6 +2,7 @@ package org.opentripplanner.updater.vehicle_rental;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
 import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
 import static org.opentripplanner.transit.model._data.TimetableRepositoryForTest.id;
@@ -102,4 +103,22 @@ class GeofencingVertexUpdaterTest {
     var ext = (BusinessAreaBorder) businessBorder.getFromVertex().rentalRestrictions();
     assertInstanceOf(BusinessAreaBorder.class, ext);
   }
+
+  @Test
+  void incrementalUpdate() {
+    var applied = updater.updateGeofencingZones(
+      AppliedGeofencingZones.EMPTY,
+      List.of(zone, businessArea)
+    );
+    var zoneExtension = applied.restrictedZones().get(zone);
+    assertInstanceOf(BusinessAreaBorder.class, businessBorder.getFromVertex().rentalRestrictions());
+
+    // only the restriction of the removed business area is removed
+    applied = updater.updateGeofencingZones(applied, List.of(zone));
+
+    assertEquals(2, applied.modifiedEdges().size());
+    assertSame(zoneExtension, applied.restrictedZones().get(zone));
+    assertInstanceOf(NoRestriction.class, businessBorder.getFromVertex().rentalRestrictions());
+    assertSame(zoneExtension.extension(), insideFrognerPark.getFromVertex().rentalRestrictions());
+  }
 }
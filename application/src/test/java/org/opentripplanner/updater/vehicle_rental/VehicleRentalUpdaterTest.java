@@ -29,7 +29,7 @@ class VehicleRentalUpdaterTest {
   void failingDatasourceCountsAsPrimed() {
     var source = new FailingDatasource();
     var updater = new VehicleRentalUpdater(
-      new VehicleRentalUpdaterParameters("A", Duration.ofMinutes(1), new FakeParams()),
+      new VehicleRentalUpdaterParameters("A", Duration.ofMinutes(1), new FakeParams(), false),
       source,
       null,
       new DefaultVehicleRentalService()
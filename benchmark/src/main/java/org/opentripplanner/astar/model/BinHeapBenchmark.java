@@ -0,0 +1,63 @@
+package org.opentripplanner.astar.model;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure the {@link BinHeap} used as priority queue in the A* street search. The access pattern
+ * mimics the search: a few inserts for each extracted element, with keys increasing over time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BinHeapBenchmark {
+
+  private static final int N_ELEMENTS = 10_000;
+  private static final int INSERTS_PER_EXTRACT = 3;
+
+  /** Same as the initial capacity of the heap in the A* search. */
+  @Param({ "1000" })
+  public int initialCapacity;
+
+  private final double[] keyIncrements = new double[N_ELEMENTS];
+  private final Object element = new Object();
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    for (int i = 0; i < N_ELEMENTS; ++i) {
+      keyIncrements[i] = random.nextDouble() * 100.0;
+    }
+  }
+
+  @Benchmark
+  public double insertAndExtract() {
+    var heap = new BinHeap<Object>(initialCapacity);
+    heap.insert(element, 0.0);
+    double sum = 0.0;
+    int i = 0;
+    while (!heap.empty()) {
+      double key = heap.peek_min_key();
+      heap.extract_min();
+      sum += key;
+      for (int j = 0; j < INSERTS_PER_EXTRACT && i < N_ELEMENTS; ++j, ++i) {
+        heap.insert(element, key + keyIncrements[i]);
+      }
+    }
+    return sum;
+  }
+}
@@ -0,0 +1,89 @@
+package org.opentripplanner.framework.geometry;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.LineString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure packing and unpacking of street edge geometries with {@link CompactLineStringUtils} and
+ * the underlying {@link DlugoszVarLenIntPacker}. Geometries are unpacked every time a street edge
+ * geometry is used, for example when a path is mapped to an itinerary.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CompactLineStringBenchmark {
+
+  private static final double X0 = 10.75;
+  private static final double Y0 = 59.91;
+
+  /** Number of coordinates in the line string, including the end points. */
+  @Param({ "2", "10", "50" })
+  public int nCoordinates;
+
+  private LineString lineString;
+  private double xa, ya, xb, yb;
+  private byte[] packedLineString;
+  private int[] deltas;
+  private byte[] packedDeltas;
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    var coordinates = new Coordinate[nCoordinates];
+    double x = X0;
+    double y = Y0;
+    for (int i = 0; i < nCoordinates; ++i) {
+      coordinates[i] = new Coordinate(x, y);
+      x += random.nextDouble() * 0.0005;
+      y += (random.nextDouble() - 0.5) * 0.0005;
+    }
+    lineString = GeometryUtils.getGeometryFactory().createLineString(coordinates);
+    xa = coordinates[0].x;
+    ya = coordinates[0].y;
+    xb = coordinates[nCoordinates - 1].x;
+    yb = coordinates[nCoordinates - 1].y;
+    packedLineString = CompactLineStringUtils.compactLineString(xa, ya, xb, yb, lineString, false);
+
+    deltas = new int[2 * nCoordinates];
+    for (int i = 0; i < deltas.length; ++i) {
+      deltas[i] = random.nextInt(20_000) - 10_000;
+    }
+    packedDeltas = DlugoszVarLenIntPacker.pack(deltas);
+  }
+
+  @Benchmark
+  public byte[] compactLineString() {
+    return CompactLineStringUtils.compactLineString(xa, ya, xb, yb, lineString, false);
+  }
+
+  @Benchmark
+  public LineString uncompactLineString() {
+    return CompactLineStringUtils.uncompactLineString(xa, ya, xb, yb, packedLineString, false);
+  }
+
+  @Benchmark
+  public byte[] packInts() {
+    return DlugoszVarLenIntPacker.pack(deltas);
+  }
+
+  @Benchmark
+  public int[] unpackInts() {
+    return DlugoszVarLenIntPacker.unpack(packedDeltas);
+  }
+}
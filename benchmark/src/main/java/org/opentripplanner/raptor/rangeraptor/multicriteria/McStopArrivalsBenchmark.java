@@ -0,0 +1,122 @@
+package org.opentripplanner.raptor.rangeraptor.multicriteria;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransfer;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.RelaxFunction;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.rangeraptor.debug.DebugHandlerFactory;
+import org.opentripplanner.raptor.rangeraptor.lifecycle.LifeCycleSubscriptions;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.ArrivalParetoSetComparatorFactory;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.McStopArrival;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.arrivals.c1.StopArrivalFactoryC1;
+import org.opentripplanner.raptor.rangeraptor.multicriteria.ride.c1.PatternRideC1;
+import org.opentripplanner.raptor.rangeraptor.transit.EgressPaths;
+
+/**
+ * Measure adding stop arrivals to the {@link McStopArrivals} over a few rounds, and iterating over
+ * the arrivals added in the last round - the main use of the stop arrivals in the multi-criteria
+ * Range Raptor inner loop. The arrivals are created up front, so only the stop arrival state is
+ * measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class McStopArrivalsBenchmark {
+
+  private static final int N_STOPS = 2000;
+  private static final int N_ROUNDS = 4;
+  private static final int N_ARRIVALS_PER_ROUND = 5000;
+  private static final int START_TIME = 8 * 3600;
+
+  private static final StopArrivalFactoryC1<RaptorTripSchedule> STOP_ARRIVAL_FACTORY = new StopArrivalFactoryC1<>();
+  private static final ArrivalParetoSetComparatorFactory<McStopArrival<RaptorTripSchedule>> COMPARATOR_FACTORY = ArrivalParetoSetComparatorFactory.factory(
+    RelaxFunction.NORMAL,
+    null
+  );
+  private static final RaptorTripSchedule ANY_TRIP = TestTripSchedule
+    .schedule("10:00 10:30")
+    .build();
+
+  @SuppressWarnings("unchecked")
+  private final McStopArrival<RaptorTripSchedule>[][] arrivals = new McStopArrival[N_ROUNDS][];
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    var access = STOP_ARRIVAL_FACTORY.createAccessStopArrival(
+      START_TIME,
+      TestAccessEgress.walk(0, 60, 120)
+    );
+    for (int round = 0; round < N_ROUNDS; ++round) {
+      arrivals[round] = new McStopArrival[N_ARRIVALS_PER_ROUND];
+      for (int i = 0; i < N_ARRIVALS_PER_ROUND; ++i) {
+        int stop = random.nextInt(N_STOPS);
+        int time = START_TIME + 600 + random.nextInt(3600);
+        int cost = 1000 + random.nextInt(5000);
+        // Even rounds are transit, odd rounds are transfers - as in Raptor
+        if (round % 2 == 0) {
+          var ride = new PatternRideC1<>(access, 0, 0, START_TIME, 0, 0, 0, ANY_TRIP);
+          arrivals[round][i] =
+            STOP_ARRIVAL_FACTORY.createTransitStopArrival(ride, stop, time, cost);
+        } else {
+          arrivals[round][i] =
+            STOP_ARRIVAL_FACTORY.createTransferStopArrival(
+              access,
+              TestTransfer.transfer(stop, 60, cost),
+              time
+            );
+        }
+      }
+    }
+  }
+
+  @Benchmark
+  public void addAndListArrivals(Blackhole bh) {
+    var subject = new McStopArrivals<>(
+      N_STOPS,
+      EgressPaths.create(List.of(), RaptorProfile.MULTI_CRITERIA),
+      null,
+      null,
+      null,
+      STOP_ARRIVAL_FACTORY,
+      COMPARATOR_FACTORY,
+      new DebugHandlerFactory<>(
+        new RaptorRequestBuilder<RaptorTripSchedule>().debug().build(),
+        new LifeCycleSubscriptions()
+      )
+    );
+
+    for (var round : arrivals) {
+      for (var arrival : round) {
+        subject.addStopArrival(arrival);
+      }
+      var it = subject.stopsTouchedIterator();
+      while (it.hasNext()) {
+        for (var a : subject.listArrivalsAfterMarker(it.next())) {
+          bh.consume(a);
+        }
+      }
+      subject.clearTouchedStopsAndSetStopMarkers();
+    }
+  }
+}
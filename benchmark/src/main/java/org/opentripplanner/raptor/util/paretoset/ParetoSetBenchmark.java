@@ -0,0 +1,68 @@
+package org.opentripplanner.raptor.util.paretoset;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measure {@link ParetoSet#add(Object)} with a time, transfers and cost vector - the same criteria
+ * as the stop arrivals in the multi-criteria Raptor. The set is cleared for each batch, so the
+ * result is the cost of building a set from {@link #N_VECTORS} candidates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ParetoSetBenchmark {
+
+  private static final int N_VECTORS = 1000;
+
+  private static final ParetoComparator<Vector> COMPARATOR = (l, r) ->
+    l.time < r.time || l.transfers < r.transfers || l.cost < r.cost;
+
+  /**
+   * The spread of the cost criteria. A small spread make most vectors dominated, a large spread
+   * produce a large set.
+   */
+  @Param({ "10", "1000" })
+  public int costSpread;
+
+  private final Vector[] vectors = new Vector[N_VECTORS];
+  private final ParetoSet<Vector> set = new ParetoSet<>(COMPARATOR);
+
+  @Setup
+  public void setup() {
+    var random = new Random(42);
+    for (int i = 0; i < N_VECTORS; ++i) {
+      vectors[i] =
+        new Vector(
+          3600 + random.nextInt(1800),
+          random.nextInt(4),
+          10_000 + random.nextInt(costSpread)
+        );
+    }
+  }
+
+  @Benchmark
+  public int add() {
+    set.clear();
+    for (Vector v : vectors) {
+      set.add(v);
+    }
+    return set.size();
+  }
+
+  private record Vector(int time, int transfers, int cost) {}
+}
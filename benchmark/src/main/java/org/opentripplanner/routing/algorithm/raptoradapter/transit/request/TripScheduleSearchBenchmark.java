@@ -0,0 +1,91 @@
+package org.opentripplanner.routing.algorithm.raptoradapter.transit.request;
+
+import static org.opentripplanner.raptorlegacy._data.transit.TestTripSchedule.schedule;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.spi.RaptorTripScheduleSearch;
+import org.opentripplanner.raptorlegacy._data.transit.TestRoute;
+import org.opentripplanner.raptorlegacy._data.transit.TestTripPattern;
+import org.opentripplanner.raptorlegacy._data.transit.TestTripSchedule;
+
+/**
+ * Measure the {@link TripScheduleBoardSearch} and {@link TripScheduleAlightSearch}. The number of
+ * trips is varied to cover both the linear and the binary search, the threshold is 50 trips.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TripScheduleSearchBenchmark {
+
+  private static final int N_STOPS = 20;
+  private static final int N_QUERIES = 1024;
+  private static final int FIRST_DEPARTURE = 5 * 3600;
+  private static final int HEADWAY = 300;
+  private static final int TRAVEL_TIME = 120;
+
+  @Param({ "10", "40", "200", "1000" })
+  public int nTrips;
+
+  private RaptorTripScheduleSearch<TestTripSchedule> boardSearch;
+  private RaptorTripScheduleSearch<TestTripSchedule> alightSearch;
+  private final int[] times = new int[N_QUERIES];
+  private final int[] stopPositions = new int[N_QUERIES];
+
+  @Setup
+  public void setup() {
+    int[] stops = new int[N_STOPS];
+    for (int i = 0; i < N_STOPS; ++i) {
+      stops[i] = i;
+    }
+    var trips = new TestTripSchedule.Builder[nTrips];
+    for (int t = 0; t < nTrips; ++t) {
+      int[] stopTimes = new int[N_STOPS];
+      for (int s = 0; s < N_STOPS; ++s) {
+        stopTimes[s] = FIRST_DEPARTURE + t * HEADWAY + s * TRAVEL_TIME;
+      }
+      trips[t] = schedule().times(stopTimes);
+    }
+    var route = TestRoute.route(TestTripPattern.pattern("R1", stops)).withTimetable(trips);
+    boardSearch = route.tripSearch(SearchDirection.FORWARD);
+    alightSearch = route.tripSearch(SearchDirection.REVERSE);
+
+    // Spread the queries over the whole service period, including before and after it
+    var random = new Random(42);
+    int serviceEnd = FIRST_DEPARTURE + nTrips * HEADWAY + N_STOPS * TRAVEL_TIME;
+    for (int i = 0; i < N_QUERIES; ++i) {
+      times[i] = FIRST_DEPARTURE - 3600 + random.nextInt(serviceEnd - FIRST_DEPARTURE + 7200);
+      stopPositions[i] = random.nextInt(N_STOPS);
+    }
+  }
+
+  @Benchmark
+  public void boardSearch(Blackhole bh) {
+    for (int i = 0; i < N_QUERIES; ++i) {
+      bh.consume(boardSearch.search(times[i], stopPositions[i]).tripIndex());
+    }
+  }
+
+  @Benchmark
+  public void alightSearch(Blackhole bh) {
+    for (int i = 0; i < N_QUERIES; ++i) {
+      bh.consume(alightSearch.search(times[i], stopPositions[i]).tripIndex());
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package org.opentripplanner.street.model.edge;
+
+import static org.opentripplanner.street.model._data.StreetModelForTest.intersectionVertex;
+import static org.opentripplanner.street.model._data.StreetModelForTest.streetEdge;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentripplanner.routing.api.request.StreetMode;
+import org.opentripplanner.street.model.StreetTraversalPermission;
+import org.opentripplanner.street.search.request.StreetSearchRequest;
+
+/**
+ * Measure {@link StreetEdge#traverse(org.opentripplanner.street.search.state.State)} along a
+ * chain of street edges. This is the cost of relaxing an edge in the A* street search, including
+ * creating the new state.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class StreetEdgeTraverseBenchmark {
+
+  private static final int N_EDGES = 1000;
+
+  @Param({ "WALK", "BIKE", "CAR" })
+  public StreetMode mode;
+
+  private final StreetEdge[] edges = new StreetEdge[N_EDGES];
+  private org.opentripplanner.street.search.state.State initialState;
+
+  @Setup
+  public void setup() {
+    var from = intersectionVertex("V0", 59.9, 10.7);
+    for (int i = 0; i < N_EDGES; ++i) {
+      var to = intersectionVertex("V" + (i + 1), 59.9 + (i + 1) * 0.0005, 10.7);
+      edges[i] = streetEdge(from, to, 55.0, StreetTraversalPermission.ALL);
+      from = to;
+    }
+    var request = StreetSearchRequest.of().withMode(mode).build();
+    initialState =
+      new org.opentripplanner.street.search.state.State(edges[0].getFromVertex(), request);
+  }
+
+  @Benchmark
+  public double traverseEdges() {
+    var state = initialState;
+    for (StreetEdge edge : edges) {
+      var result = edge.traverse(state);
+      if (result.length == 0) {
+        break;
+      }
+      state = result[0];
+    }
+    return state.getWeight();
+  }
+}
@@ -20,6 +20,28 @@ public interface RaptorTuningParameters {
     return 60;
   }
 
+  /**
+   * Split the search-window of a multi-criteria search into slices and route the slices in
+   * parallel, if the search-window is at least twice this long. Each slice is at least this
+   * long. The split is only done if Raptor is configured with a thread-pool. Zero disables it.
+   * <p>
+   * see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig}
+   */
+  default int searchWindowSliceMinLengthInSeconds() {
+    return 0;
+  }
+
+  /**
+   * The maximum number of heuristic search results to cache. The heuristics are shared between
+   * requests with the same origin, destination, search parameters and transit data. Zero disables
+   * the cache.
+   * <p>
+   * see {@link org.opentripplanner.standalone.config.routerconfig.TransitRoutingConfig}
+   */
+  default int heuristicsCacheMaxSize() {
+    return 0;
+  }
+
   /**
    * Coefficients used to calculate raptor-search-window parameters dynamically  from heuristics.
    */
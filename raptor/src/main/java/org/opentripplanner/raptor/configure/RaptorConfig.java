@@ -1,13 +1,17 @@
 package org.opentripplanner.raptor.configure;
 
+import java.util.ArrayList;
 import java.util.concurrent.ExecutorService;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.RaptorEnvironment;
 import org.opentripplanner.raptor.api.request.RaptorRequest;
 import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
 import org.opentripplanner.raptor.rangeraptor.ConcurrentCompositeRaptorRouter;
+import org.opentripplanner.raptor.rangeraptor.ConcurrentSplitSearchWindowRaptorRouter;
 import org.opentripplanner.raptor.rangeraptor.DefaultRangeRaptorWorker;
+import org.opentripplanner.raptor.rangeraptor.HeuristicsCache;
 import org.opentripplanner.raptor.rangeraptor.RangeRaptor;
 import org.opentripplanner.raptor.rangeraptor.RangeRaptorWorkerComposite;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
@@ -23,8 +27,10 @@ import org.opentripplanner.raptor.rangeraptor.multicriteria.McStopArrivals;
 import org.opentripplanner.raptor.rangeraptor.multicriteria.configure.McRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.standard.configure.StdRangeRaptorConfig;
 import org.opentripplanner.raptor.rangeraptor.transit.RaptorSearchWindowCalculator;
+import org.opentripplanner.raptor.rangeraptor.transit.SearchWindowSlices;
 import org.opentripplanner.raptor.spi.ExtraMcRouterSearch;
 import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
 
 /**
  * This class is responsible for creating a new search and holding application scoped Raptor state.
@@ -39,12 +45,19 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   private final RaptorEnvironment environment;
   private final RaptorTuningParameters tuningParameters;
 
+  @Nullable
+  private final HeuristicsCache<T> heuristicsCache;
+
   /** The service is not final, because it depends on the request. */
   private PassThroughPointsService passThroughPointsService = null;
 
   public RaptorConfig(RaptorTuningParameters tuningParameters, RaptorEnvironment environment) {
     this.tuningParameters = tuningParameters;
     this.environment = environment;
+    this.heuristicsCache =
+      tuningParameters.heuristicsCacheMaxSize() > 0
+        ? new HeuristicsCache<>(tuningParameters.heuristicsCacheMaxSize())
+        : null;
   }
 
   public static <T extends RaptorTripSchedule> RaptorConfig<T> defaultConfigForTest() {
@@ -76,11 +89,12 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     Heuristics heuristics,
     @Nullable ExtraMcRouterSearch<T> extraMcSearch
   ) {
-    var mainSearch = createRangeRaptorWithMcWorker(transitData, request, heuristics);
-
     if (extraMcSearch == null) {
-      return mainSearch;
+      return isSplitSearchWindowEnabled(request)
+        ? createRangeRaptorWithMcWorkerAndSplitSearchWindow(transitData, request, heuristics)
+        : createRangeRaptorWithMcWorker(transitData, request, heuristics);
     }
+    var mainSearch = createRangeRaptorWithMcWorker(transitData, request, heuristics);
     var alternativeSearch = createRangeRaptorWithMcWorker(
       extraMcSearch.createTransitDataAlternativeSearch(transitData),
       request,
@@ -121,6 +135,47 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return createRangeRaptor(context, worker);
   }
 
+  /**
+   * Split the search-window into slices and route the slices in parallel. Each slice is routed
+   * by an independent multi-criteria Range Raptor search, the paths are merged into one
+   * pareto-set. A plain search is returned if the search-window is too short to be split.
+   */
+  private RaptorRouter<T> createRangeRaptorWithMcWorkerAndSplitSearchWindow(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> request,
+    Heuristics heuristics
+  ) {
+    var slices = SearchWindowSlices.split(
+      request,
+      tuningParameters.searchWindowSliceMinLengthInSeconds(),
+      tuningParameters.iterationDepartureStepInSeconds()
+    );
+    if (slices.size() < 2) {
+      return createRangeRaptorWithMcWorker(transitData, request, heuristics);
+    }
+
+    var routers = new ArrayList<RaptorRouter<T>>(slices.size());
+    ParetoComparator<RaptorPath<T>> pathComparator = null;
+
+    for (int i = 0; i < slices.size(); ++i) {
+      var context = context(transitData, slices.get(i));
+      var leg = context.legs().getFirst();
+      var c = new McRangeRaptorConfig<>(leg, passThroughPointsService).withHeuristics(heuristics);
+      var worker = createWorker(leg, c.state(), c.strategy());
+      // The last slice has the earliest departure times, only this slice should iterate over
+      // the virtual departure times of access with a time-penalty.
+      boolean lastSlice = i == slices.size() - 1;
+      routers.add(createRangeRaptor(context, worker, lastSlice));
+      pathComparator = c.pathParetoComparator();
+    }
+    return new ConcurrentSplitSearchWindowRaptorRouter<>(
+      routers,
+      pathComparator,
+      threadPool(),
+      environment::mapInterruptedException
+    );
+  }
+
   public RaptorRouter<T> createRangeRaptorWithHeuristicSearch(
     RaptorTransitDataProvider<T> transitData,
     RaptorRequest<T> request
@@ -137,6 +192,14 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
     return new StdRangeRaptorConfig<>(context).createHeuristics(results);
   }
 
+  /**
+   * The application scoped cache of heuristic search results, or {@code null} if disabled.
+   */
+  @Nullable
+  public HeuristicsCache<T> heuristicsCache() {
+    return heuristicsCache;
+  }
+
   public boolean isMultiThreaded() {
     return threadPool() != null;
   }
@@ -162,6 +225,21 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
 
   /* private factory methods */
 
+  /**
+   * The search-window is only split when Raptor is multi-threaded. This should not be combined
+   * with the {@link ConcurrentCompositeRaptorRouter}, the composite router runs each search in
+   * the same thread-pool as the slices, and waiting for the slices inside a pool thread may
+   * starve the pool.
+   */
+  private boolean isSplitSearchWindowEnabled(RaptorRequest<T> request) {
+    return (
+      isMultiThreaded() &&
+      request.runInParallel() &&
+      tuningParameters.searchWindowSliceMinLengthInSeconds() > 0 &&
+      !request.searchParams().hasViaLocations()
+    );
+  }
+
   private static PassThroughPointsService createPassThroughPointsService(RaptorRequest<?> request) {
     return McRangeRaptorConfig.passThroughPointsService(request.multiCriteria());
   }
@@ -186,6 +264,14 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
   }
 
   private RaptorRouter<T> createRangeRaptor(SearchContext<T> ctx, RangeRaptorWorker<T> worker) {
+    return createRangeRaptor(ctx, worker, true);
+  }
+
+  private RaptorRouter<T> createRangeRaptor(
+    SearchContext<T> ctx,
+    RangeRaptorWorker<T> worker,
+    boolean iterateOverAccessWithPenalty
+  ) {
     return new RangeRaptor<>(
       worker,
       ctx.transitData(),
@@ -194,7 +280,8 @@ public class RaptorConfig<T extends RaptorTripSchedule> {
       ctx.calculator(),
       ctx.createLifeCyclePublisher(),
       ctx.performanceTimers(),
-      environment.timeoutHook()
+      environment.timeoutHook(),
+      iterateOverAccessWithPenalty
     );
   }
 }
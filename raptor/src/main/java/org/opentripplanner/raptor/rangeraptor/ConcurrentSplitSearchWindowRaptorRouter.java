@@ -0,0 +1,82 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouter;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+
+/**
+ * Run one Raptor router for each slice of the search-window and join the result. The slices are
+ * routed concurrently if an {@link ExecutorService} is provided.
+ * <p>
+ * Each slice is an independent Range Raptor search, so a slice does not benefit from the
+ * arrivals found in the slices departing later. This adds some extra work in total, but the
+ * latency of the search is reduced when more than one thread is available.
+ *
+ * @see ParetoCompositeResult for joining results.
+ * @see org.opentripplanner.raptor.rangeraptor.transit.SearchWindowSlices for creating the slices.
+ */
+public class ConcurrentSplitSearchWindowRaptorRouter<T extends RaptorTripSchedule>
+  implements RaptorRouter<T> {
+
+  private final List<RaptorRouter<T>> slices;
+  private final ParetoComparator<RaptorPath<T>> pathComparator;
+
+  @Nullable
+  private final ExecutorService executorService;
+
+  @Nullable
+  private final Function<InterruptedException, RuntimeException> mapInterruptedException;
+
+  public ConcurrentSplitSearchWindowRaptorRouter(
+    List<RaptorRouter<T>> slices,
+    ParetoComparator<RaptorPath<T>> pathComparator,
+    @Nullable ExecutorService executorService,
+    @Nullable Function<InterruptedException, RuntimeException> mapInterruptedException
+  ) {
+    this.slices = List.copyOf(slices);
+    this.pathComparator = pathComparator;
+    this.executorService = executorService;
+    this.mapInterruptedException = mapInterruptedException;
+  }
+
+  @Override
+  public RaptorRouterResult<T> route() {
+    var results = new ArrayList<RaptorRouterResult<T>>(slices.size());
+
+    if (executorService == null) {
+      for (RaptorRouter<T> slice : slices) {
+        results.add(slice.route());
+      }
+      return new ParetoCompositeResult<>(results, pathComparator);
+    }
+
+    var futures = new ArrayList<Future<RaptorRouterResult<T>>>(slices.size());
+    for (RaptorRouter<T> slice : slices) {
+      futures.add(executorService.submit(slice::route));
+    }
+
+    try {
+      for (Future<RaptorRouterResult<T>> future : futures) {
+        results.add(future.get());
+      }
+      return new ParetoCompositeResult<>(results, pathComparator);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      // propagate interruption to the running tasks.
+      futures.forEach(it -> it.cancel(true));
+      throw mapInterruptedException.apply(e);
+    } catch (ExecutionException e) {
+      futures.forEach(it -> it.cancel(true));
+      throw (e.getCause() instanceof RuntimeException re) ? re : new RuntimeException(e);
+    }
+  }
+}
@@ -0,0 +1,260 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nullable;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArrivals;
+import org.opentripplanner.raptor.spi.RaptorTransitDataProvider;
+
+/**
+ * Cache the result of the heuristic searches, so a request with the same origin, destination and
+ * search parameters as a previous request can skip them. Popular destinations, like an airport or
+ * a central station, are often searched for many times within minutes.
+ * <p>
+ * The heuristic search uses the search parameters as time limits, so the result can only be
+ * shared if all parameters are equal. To let requests made a few minutes apart share a result,
+ * the time limits of the heuristic request are widened to whole {@link #TIME_BUCKET_SECONDS}, see
+ * {@link #widenTimeLimits(RaptorRequest)}. The transit data is identified by the
+ * {@link RaptorTransitDataProvider#transitDataCacheKey()}, transit data without a key is not
+ * cached. Requests with via locations, or with access or egress which have opening hours, are not
+ * cached either.
+ * <p>
+ * The access and egress are part of the key as value tuples and the stop arrivals are copied into
+ * arrays, so the cache does not keep a reference to the state of the search, the street search
+ * or the transit data.
+ * <p>
+ * THIS CLASS IS THREAD-SAFE.
+ */
+public class HeuristicsCache<T extends RaptorTripSchedule> {
+
+  private static final int UNREACHED = Integer.MIN_VALUE;
+
+  /**
+   * The heuristic search time limits are widened to a multiple of this. Five minutes is short
+   * compared with the default search window, so the lower bounds are only relaxed by the trips
+   * departing in the few extra minutes.
+   */
+  static final int TIME_BUCKET_SECONDS = 300;
+
+  private final Map<CacheKey, CachedResult<T>> cache;
+
+  public HeuristicsCache(int maximumSize) {
+    this.cache =
+      Collections.synchronizedMap(
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<CacheKey, CachedResult<T>> eldest) {
+            return size() > maximumSize;
+          }
+        }
+      );
+  }
+
+  /**
+   * Return the heuristic request with the earliest-departure-time rounded down and the
+   * latest-arrival-time rounded up to whole time buckets. The heuristic search with the wider
+   * time limits can use all trips the original search can use, so it finds the same or lower
+   * travel durations and number of transfers, and the heuristics are still lower bounds. The
+   * request must be widened before the search is run, also when the result is not cached, so
+   * the heuristics do not depend on the state of the cache.
+   */
+  public RaptorRequest<T> widenTimeLimits(RaptorRequest<T> heuristicRequest) {
+    var params = heuristicRequest.searchParams();
+    var builder = heuristicRequest.mutate();
+    if (params.isEarliestDepartureTimeSet()) {
+      builder.searchParams().earliestDepartureTime(roundDown(params.earliestDepartureTime()));
+    }
+    if (params.isLatestArrivalTimeSet()) {
+      builder.searchParams().latestArrivalTime(roundUp(params.latestArrivalTime()));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Return the cached result of the heuristic search, or run the {@code search} and cache the
+   * result. Requests which can not be cached always run the search.
+   */
+  public RaptorRouterResult<T> route(
+    RaptorTransitDataProvider<T> transitData,
+    RaptorRequest<T> heuristicRequest,
+    Supplier<RaptorRouterResult<T>> search
+  ) {
+    var key = CacheKey.of(transitData, heuristicRequest);
+    if (key == null) {
+      return search.get();
+    }
+    var cached = cache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    var result = search.get();
+    cache.put(key, CachedResult.of(transitData.numberOfStops(), result));
+    return result;
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  private static int roundDown(int time) {
+    return Math.floorDiv(time, TIME_BUCKET_SECONDS) * TIME_BUCKET_SECONDS;
+  }
+
+  private static int roundUp(int time) {
+    return -roundDown(-time);
+  }
+
+  /**
+   * The parameters which may influence the result of a heuristic search.
+   */
+  private record CacheKey(
+    Object transitDataKey,
+    SearchDirection direction,
+    RaptorProfile profile,
+    int earliestDepartureTime,
+    int latestArrivalTime,
+    int searchWindowInSeconds,
+    boolean preferLateArrival,
+    boolean timetable,
+    int numberOfAdditionalTransfers,
+    int maxNumberOfTransfers,
+    boolean constrainedTransfers,
+    Set<AccessEgressKey> accessPaths,
+    Set<AccessEgressKey> egressPaths
+  ) {
+    @Nullable
+    private static CacheKey of(RaptorTransitDataProvider<?> transitData, RaptorRequest<?> request) {
+      var transitDataKey = transitData.transitDataCacheKey();
+      var params = request.searchParams();
+      if (
+        transitDataKey == null ||
+        params.hasViaLocations() ||
+        !isCacheable(params.accessPaths()) ||
+        !isCacheable(params.egressPaths())
+      ) {
+        return null;
+      }
+      return new CacheKey(
+        transitDataKey,
+        request.searchDirection(),
+        request.profile(),
+        params.earliestDepartureTime(),
+        params.latestArrivalTime(),
+        params.searchWindowInSeconds(),
+        params.preferLateArrival(),
+        params.timetable(),
+        params.numberOfAdditionalTransfers(),
+        params.maxNumberOfTransfers(),
+        params.constrainedTransfers(),
+        AccessEgressKey.of(params.accessPaths()),
+        AccessEgressKey.of(params.egressPaths())
+      );
+    }
+
+    /**
+     * The opening hours of an access or egress are a function of time, they can not be part of
+     * the key.
+     */
+    private static boolean isCacheable(Collection<RaptorAccessEgress> paths) {
+      return paths.stream().noneMatch(RaptorAccessEgress::hasOpeningHours);
+    }
+  }
+
+  /**
+   * The values of an access or egress used by the heuristic search. The key must not reference
+   * the access or egress, since these reference the states of the street search.
+   */
+  private record AccessEgressKey(
+    int stop,
+    int durationInSeconds,
+    int c1,
+    int timePenalty,
+    int numberOfRides,
+    boolean stopReachedOnBoard
+  ) {
+    private static Set<AccessEgressKey> of(Collection<RaptorAccessEgress> paths) {
+      return paths
+        .stream()
+        .map(it ->
+          new AccessEgressKey(
+            it.stop(),
+            it.durationInSeconds(),
+            it.c1(),
+            it.timePenalty(),
+            it.numberOfRides(),
+            it.stopReachedOnBoard()
+          )
+        )
+        .collect(Collectors.toUnmodifiableSet());
+    }
+  }
+
+  /**
+   * An immutable copy of the stop arrivals used to create the heuristics. The paths are not used
+   * by the heuristics, and are not kept.
+   */
+  private record CachedResult<T extends RaptorTripSchedule>(
+    SingleCriteriaStopArrivals bestOverallArrivals,
+    SingleCriteriaStopArrivals bestTransitArrivals,
+    SingleCriteriaStopArrivals bestNumberOfTransfers,
+    boolean isDestinationReached
+  )
+    implements RaptorRouterResult<T> {
+    private static <T extends RaptorTripSchedule> CachedResult<T> of(
+      int nStops,
+      RaptorRouterResult<T> result
+    ) {
+      return new CachedResult<>(
+        copy(nStops, result.extractBestOverallArrivals()),
+        copy(nStops, result.extractBestTransitArrivals()),
+        copy(nStops, result.extractBestNumberOfTransfers()),
+        result.isDestinationReached()
+      );
+    }
+
+    private static SingleCriteriaStopArrivals copy(
+      int nStops,
+      SingleCriteriaStopArrivals arrivals
+    ) {
+      return IntArraySingleCriteriaArrivals.create(
+        nStops,
+        UNREACHED,
+        stop -> arrivals.isReached(stop) ? arrivals.value(stop) : UNREACHED
+      );
+    }
+
+    @Override
+    public Collection<RaptorPath<T>> extractPaths() {
+      return List.of();
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestOverallArrivals() {
+      return bestOverallArrivals;
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestTransitArrivals() {
+      return bestTransitArrivals;
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
+      return bestNumberOfTransfers;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import java.util.Collection;
+import java.util.List;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.util.paretoset.ParetoComparator;
+import org.opentripplanner.raptor.util.paretoset.ParetoSet;
+
+/**
+ * Join the results of many searches using the same request criteria, but different parts of the
+ * search-window, together.
+ * <ul>
+ *   <li>The paths are merged into one pareto-set using the same comparator as the destination
+ *   arrivals of each search. Paths found in one slice may be dominated by paths found in another
+ *   slice, these are dropped.</li>
+ *   <li>Stop arrivals are not merged, see {@link CompositeResult}.</li>
+ * </ul>
+ */
+class ParetoCompositeResult<T extends RaptorTripSchedule> implements RaptorRouterResult<T> {
+
+  private static final String UNSUPPORTED_OPERATION =
+    "Merging stop arrivals for a search-window split into slices is not supported.";
+  private final Collection<RaptorPath<T>> result;
+
+  ParetoCompositeResult(
+    List<RaptorRouterResult<T>> results,
+    ParetoComparator<RaptorPath<T>> comparator
+  ) {
+    var paths = new ParetoSet<>(comparator);
+    for (RaptorRouterResult<T> it : results) {
+      paths.addAll(it.extractPaths());
+    }
+    this.result = List.copyOf(paths);
+  }
+
+  /**
+   * Return the merged result.
+   */
+  @Override
+  public Collection<RaptorPath<T>> extractPaths() {
+    return result;
+  }
+
+  @Override
+  public SingleCriteriaStopArrivals extractBestOverallArrivals() {
+    throw new UnsupportedOperationException(UNSUPPORTED_OPERATION);
+  }
+
+  @Override
+  public SingleCriteriaStopArrivals extractBestTransitArrivals() {
+    throw new UnsupportedOperationException(UNSUPPORTED_OPERATION);
+  }
+
+  @Override
+  public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
+    throw new UnsupportedOperationException(UNSUPPORTED_OPERATION);
+  }
+
+  /**
+   * Return true if at least one of the slices reached the destination.
+   */
+  @Override
+  public boolean isDestinationReached() {
+    return !result.isEmpty();
+  }
+}
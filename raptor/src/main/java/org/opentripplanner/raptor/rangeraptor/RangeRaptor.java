@@ -69,6 +69,13 @@ public final class RangeRaptor<T extends RaptorTripSchedule> implements RaptorRo
 
   private final int minNumberOfRounds;
 
+  /**
+   * The search-window may be split into slices, each routed by its own instance. Only the slice
+   * with the earliest departure times should iterate over the virtual departure times used by
+   * access with a time-penalty, the other slices would repeat iterations of the next slice.
+   */
+  private final boolean iterateOverAccessWithPenalty;
+
   public RangeRaptor(
     RangeRaptorWorker<T> worker,
     RaptorTransitDataProvider<T> transitData,
@@ -78,6 +85,30 @@ public final class RangeRaptor<T extends RaptorTripSchedule> implements RaptorRo
     LifeCycleEventPublisher lifeCyclePublisher,
     RaptorTimers timers,
     Runnable timeoutHook
+  ) {
+    this(
+      worker,
+      transitData,
+      accessPaths,
+      roundTracker,
+      calculator,
+      lifeCyclePublisher,
+      timers,
+      timeoutHook,
+      true
+    );
+  }
+
+  public RangeRaptor(
+    RangeRaptorWorker<T> worker,
+    RaptorTransitDataProvider<T> transitData,
+    AccessPaths accessPaths,
+    RoundTracker roundTracker,
+    RaptorTransitCalculator<T> calculator,
+    LifeCycleEventPublisher lifeCyclePublisher,
+    RaptorTimers timers,
+    Runnable timeoutHook,
+    boolean iterateOverAccessWithPenalty
   ) {
     this.worker = requireNonNull(worker);
     this.transitData = requireNonNull(transitData);
@@ -88,6 +119,7 @@ public final class RangeRaptor<T extends RaptorTripSchedule> implements RaptorRo
     this.roundTracker = requireNonNull(roundTracker);
     this.lifeCycle = requireNonNull(lifeCyclePublisher);
     this.timeoutHook = requireNonNull(timeoutHook);
+    this.iterateOverAccessWithPenalty = iterateOverAccessWithPenalty;
   }
 
   public RaptorRouterResult<T> route() {
@@ -108,7 +140,7 @@ public final class RangeRaptor<T extends RaptorTripSchedule> implements RaptorRo
 
       // Iterate over virtual departure times - this is needed to allow access with a time-penalty
       // which falls outside the search-window due to the added time-penalty.
-      if (!calculator.oneIterationOnly()) {
+      if (iterateOverAccessWithPenalty && !calculator.oneIterationOnly()) {
         final IntIterator as = accessPaths.iterateOverPathsWithPenalty(iterationDepartureTime);
         while (as.hasNext()) {
           iterationDepartureTime = as.next();
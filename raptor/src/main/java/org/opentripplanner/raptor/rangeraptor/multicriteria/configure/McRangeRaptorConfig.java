@@ -4,6 +4,7 @@ import java.util.Objects;
 import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.DominanceFunction;
 import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.path.RaptorPath;
 import org.opentripplanner.raptor.api.request.MultiCriteriaRequest;
 import org.opentripplanner.raptor.api.request.RaptorTransitGroupPriorityCalculator;
 import org.opentripplanner.raptor.rangeraptor.context.SearchContext;
@@ -120,6 +121,14 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
     return arrivals;
   }
 
+  /**
+   * The comparator used by the pareto-set of paths at the destination. This is used to merge the
+   * paths of searches using the same request, but a different part of the search-window.
+   */
+  public ParetoComparator<RaptorPath<T>> pathParetoComparator() {
+    return pathConfig.createPathParetoComparator(resolveCostConfig(), pathDominanceFunctionC2());
+  }
+
   /* private factory methods */
 
   private RoutingStrategy<T> createTransitWorkerStrategy(McRangeRaptorWorkerState<T> state) {
@@ -198,12 +207,16 @@ public class McRangeRaptorConfig<T extends RaptorTripSchedule> {
 
   private DestinationArrivalPaths<T> createDestinationArrivalPaths() {
     if (paths == null) {
-      var c2Comp = includeC2() ? dominanceFunctionC2() : null;
-      paths = pathConfig.createDestArrivalPaths(resolveCostConfig(), c2Comp);
+      paths = pathConfig.createDestArrivalPaths(resolveCostConfig(), pathDominanceFunctionC2());
     }
     return paths;
   }
 
+  @Nullable
+  private DominanceFunction pathDominanceFunctionC2() {
+    return includeC2() ? dominanceFunctionC2() : null;
+  }
+
   private ArrivalParetoSetComparatorFactory<McStopArrival<T>> createFactoryParetoComparator() {
     return ArrivalParetoSetComparatorFactory.factory(mcRequest().relaxC1(), dominanceFunctionC2());
   }
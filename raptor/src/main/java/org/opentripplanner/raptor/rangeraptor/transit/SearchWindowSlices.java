@@ -0,0 +1,81 @@
+package org.opentripplanner.raptor.rangeraptor.transit;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.opentripplanner.raptor.api.model.RaptorTripSchedule;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.SearchParams;
+
+/**
+ * Split the search-window of a forward Range Raptor search into consecutive slices, so each slice
+ * can be routed independently. The slices are returned in Range Raptor iteration order, the
+ * latest slice first.
+ * <p>
+ * The slice length is a whole number of iteration steps, counted from the end of the
+ * search-window. Hence, the union of the slices iterate over exactly the same departure minutes
+ * as the original search.
+ */
+public final class SearchWindowSlices {
+
+  /** Utility class, prevent instantiation. */
+  private SearchWindowSlices() {}
+
+  /**
+   * Return one request for each slice, or a list with the given request only if the
+   * search-window is too short to be split.
+   *
+   * @param minSliceLength The minimum length of a slice in seconds. Zero or less disables the
+   *                       split.
+   * @param iterationStep  The Range Raptor iteration departure step in seconds.
+   */
+  public static <T extends RaptorTripSchedule> List<RaptorRequest<T>> split(
+    RaptorRequest<T> request,
+    int minSliceLength,
+    int iterationStep
+  ) {
+    SearchParams params = request.searchParams();
+
+    if (
+      minSliceLength <= 0 ||
+      request.searchDirection().isInReverse() ||
+      !params.isEarliestDepartureTimeSet() ||
+      !params.isSearchWindowSet()
+    ) {
+      return List.of(request);
+    }
+
+    final int edt = params.earliestDepartureTime();
+    final int searchWindow = params.searchWindowInSeconds();
+    final int nSlices = searchWindow / Math.max(minSliceLength, iterationStep);
+
+    if (nSlices < 2) {
+      return List.of(request);
+    }
+
+    final int sliceLength =
+      Math.ceilDiv(Math.ceilDiv(searchWindow, nSlices), iterationStep) * iterationStep;
+
+    var slices = new ArrayList<RaptorRequest<T>>();
+    int end = edt + searchWindow;
+
+    while (end > edt) {
+      int start = end - sliceLength;
+      // Merge a remainder of one iteration step or less into the current slice. A slice this
+      // short is routed with one iteration only, which does not match the iterations of the
+      // original search.
+      if (start - edt <= iterationStep) {
+        start = edt;
+      }
+      slices.add(
+        request
+          .mutate()
+          .searchParams()
+          .earliestDepartureTime(start)
+          .searchWindowInSeconds(end - start)
+          .build()
+      );
+      end = start;
+    }
+    return List.copyOf(slices);
+  }
+}
@@ -114,7 +114,9 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
     createHeuristicSearchIfNotExist(originalRequest);
 
     LOG.debug("Heuristic search: {}", heuristicRequest);
-    this.result = search.route();
+    var cache = config.heuristicsCache();
+    this.result =
+      cache == null ? search.route() : cache.route(transitData, heuristicRequest, search::route);
     LOG.debug("Heuristic result: {}", result);
 
     if (!result.isDestinationReached()) {
@@ -145,6 +147,9 @@ public class HeuristicSearchTask<T extends RaptorTripSchedule> {
       );
 
       heuristicRequest = builder.build();
+      if (config.heuristicsCache() != null) {
+        heuristicRequest = config.heuristicsCache().widenTimeLimits(heuristicRequest);
+      }
       search = config.createRangeRaptorWithHeuristicSearch(transitData, heuristicRequest);
     }
   }
@@ -2,6 +2,7 @@ package org.opentripplanner.raptor.spi;
 
 import java.util.Iterator;
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import org.opentripplanner.raptor.api.model.RaptorStopNameResolver;
 import org.opentripplanner.raptor.api.model.RaptorTransfer;
 import org.opentripplanner.raptor.api.model.RaptorTransferConstraint;
@@ -103,6 +104,20 @@ public interface RaptorTransitDataProvider<T extends RaptorTripSchedule> {
    */
   RaptorSlackProvider slackProvider();
 
+  /**
+   * Return a key which identifies this transit data, including any request specific filtering of
+   * the trips, the transfers and the slack. Two providers with equal keys must return the same
+   * routes, trips, transfers and slack. Raptor uses this to share the result of the heuristic
+   * searches between requests with the same origin, destination and search parameters.
+   * <p>
+   * The key is kept in a cache after the request is done, so it should not reference any request
+   * scoped data. Return {@code null}, the default, if the transit data can not be shared.
+   */
+  @Nullable
+  default Object transitDataCacheKey() {
+    return null;
+  }
+
   /**
    * Implement this method to provide a service to search for {@link RaptorTransferConstraint}. This
    * is not used during the routing, but after a path is found to attach constraint information to
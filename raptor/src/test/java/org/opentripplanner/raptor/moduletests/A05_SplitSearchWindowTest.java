@@ -0,0 +1,111 @@
+package org.opentripplanner.raptor.moduletests;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.opentripplanner.raptor._data.api.PathUtils.pathsToStringDetailed;
+import static org.opentripplanner.raptor._data.transit.TestAccessEgress.walk;
+import static org.opentripplanner.raptor._data.transit.TestRoute.route;
+import static org.opentripplanner.raptor._data.transit.TestTransfer.transfer;
+import static org.opentripplanner.raptor._data.transit.TestTripSchedule.schedule;
+import static org.opentripplanner.utils.time.TimeUtils.time;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.opentripplanner.raptor.RaptorService;
+import org.opentripplanner.raptor._data.RaptorTestConstants;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.request.Optimization;
+import org.opentripplanner.raptor.api.request.RaptorEnvironment;
+import org.opentripplanner.raptor.api.request.RaptorProfile;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.api.request.RaptorTuningParameters;
+import org.opentripplanner.raptor.configure.RaptorConfig;
+import org.opentripplanner.raptor.moduletests.support.ModuleTestDebugLogging;
+
+/**
+ * FEATURE UNDER TEST
+ * <p>
+ * Raptor should find the same paths when the search-window of a multi-criteria search is split
+ * into slices routed in parallel, as when the whole search-window is routed by one Range Raptor
+ * search. The slices are routed independently and the paths are merged into one pareto-set, so
+ * paths dominated by a path found in another slice must be dropped.
+ * <p>
+ * The test data has a slow direct route and a faster route with a transfer, both with departures
+ * over the whole search-window, and an access with a time-penalty which is only iterated over in
+ * the earliest slice.
+ */
+public class A05_SplitSearchWindowTest implements RaptorTestConstants {
+
+  private static final int EDT = time("0:00");
+  private static final int LAT = time("3:00");
+  private static final Duration SEARCH_WINDOW = Duration.ofHours(2);
+
+  private final TestTransitData data = new TestTransitData();
+  private final RaptorRequestBuilder<TestTripSchedule> requestBuilder = new RaptorRequestBuilder<>();
+  private final ExecutorService threadPool = Executors.newFixedThreadPool(4);
+
+  @BeforeEach
+  public void setup() {
+    data.withRoute(
+      route("R1", STOP_A, STOP_B, STOP_D).withTimetable(schedule("0:05 0:15 0:45").repeat(12, 600))
+    );
+    data.withRoute(
+      route("R2", STOP_C, STOP_D).withTimetable(schedule("0:20 0:30").repeat(6, 1200))
+    );
+    data.withTransfer(STOP_B, transfer(STOP_C, D1m));
+
+    requestBuilder
+      .profile(RaptorProfile.MULTI_CRITERIA)
+      .enableOptimization(Optimization.PARALLEL)
+      .searchParams()
+      .addAccessPaths(walk(STOP_A, D2m), walk(STOP_B, D10m).withTimePenalty(D1m))
+      .addEgressPaths(walk(STOP_D, D1m))
+      .earliestDepartureTime(EDT)
+      .latestArrivalTime(LAT)
+      .searchWindow(SEARCH_WINDOW)
+      .timetable(true);
+
+    ModuleTestDebugLogging.setupDebugLogging(data, requestBuilder);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    threadPool.shutdown();
+  }
+
+  @ParameterizedTest
+  @ValueSource(ints = { 20, 25, 60 })
+  void splitSearchWindowFindsTheSamePaths(int sliceMinLengthInMinutes) {
+    var request = requestBuilder.build();
+    var service = new RaptorService<>(RaptorConfig.<TestTripSchedule>defaultConfigForTest());
+    var splitService = new RaptorService<>(splitSearchWindowConfig(sliceMinLengthInMinutes * 60));
+
+    var expected = pathsToStringDetailed(service.route(request, data));
+
+    assertTrue(expected.contains("BUS R2"), expected);
+    assertEquals(expected, pathsToStringDetailed(splitService.route(request, data)));
+  }
+
+  private RaptorConfig<TestTripSchedule> splitSearchWindowConfig(int sliceMinLength) {
+    return new RaptorConfig<>(
+      new RaptorTuningParameters() {
+        @Override
+        public int searchWindowSliceMinLengthInSeconds() {
+          return sliceMinLength;
+        }
+      },
+      new RaptorEnvironment() {
+        @Override
+        public ExecutorService threadPool() {
+          return threadPool;
+        }
+      }
+    );
+  }
+}
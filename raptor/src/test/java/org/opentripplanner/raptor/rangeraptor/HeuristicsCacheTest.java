@@ -0,0 +1,182 @@
+package org.opentripplanner.raptor.rangeraptor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collection;
+import java.util.List;
+import javax.annotation.Nullable;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTransitData;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.RaptorAccessEgress;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.path.RaptorPath;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+import org.opentripplanner.raptor.rangeraptor.internalapi.RaptorRouterResult;
+import org.opentripplanner.raptor.rangeraptor.internalapi.SingleCriteriaStopArrivals;
+import org.opentripplanner.raptor.rangeraptor.support.IntArraySingleCriteriaArrivals;
+
+class HeuristicsCacheTest {
+
+  private static final int UNREACHED = -1;
+  private static final RaptorAccessEgress ACCESS = TestAccessEgress.walk(1, 60);
+  private static final RaptorAccessEgress EGRESS = TestAccessEgress.walk(3, 120);
+
+  private final HeuristicsCache<TestTripSchedule> subject = new HeuristicsCache<>(10);
+
+  private int nSearches = 0;
+
+  @Test
+  void repeatedSearchIsCached() {
+    var transitData = transitData("v1");
+
+    route(transitData, request(SearchDirection.REVERSE, 3_600));
+    var result = route(transitData, request(SearchDirection.REVERSE, 3_600));
+
+    assertEquals(1, nSearches);
+    assertEquals(1, subject.size());
+    assertTrue(result.isDestinationReached());
+    assertEquals(600, result.extractBestOverallArrivals().value(2));
+    assertFalse(result.extractBestOverallArrivals().isReached(4));
+    assertEquals(1, result.extractBestNumberOfTransfers().value(2));
+  }
+
+  @Test
+  void differentSearchParametersAreNotCached() {
+    var transitData = transitData("v1");
+
+    route(transitData, request(SearchDirection.REVERSE, 3_600));
+    route(transitData, request(SearchDirection.FORWARD, 3_600));
+    route(transitData, request(SearchDirection.REVERSE, 3_660));
+
+    assertEquals(3, nSearches);
+  }
+
+  @Test
+  void newTransitDataIsNotCached() {
+    route(transitData("v1"), request(SearchDirection.REVERSE, 3_600));
+    route(transitData("v2"), request(SearchDirection.REVERSE, 3_600));
+
+    assertEquals(2, nSearches);
+  }
+
+  @Test
+  void transitDataWithoutKeyIsNotCached() {
+    route(transitData(null), request(SearchDirection.REVERSE, 3_600));
+    route(transitData(null), request(SearchDirection.REVERSE, 3_600));
+
+    assertEquals(2, nSearches);
+    assertEquals(0, subject.size());
+  }
+
+  @Test
+  void accessAndEgressWithSameValuesAreCached() {
+    var transitData = transitData("v1");
+
+    route(transitData, request(SearchDirection.REVERSE, 3_600, TestAccessEgress.flex(1, 60)));
+    route(transitData, request(SearchDirection.REVERSE, 3_600, TestAccessEgress.flex(1, 60)));
+    route(transitData, request(SearchDirection.REVERSE, 3_600, TestAccessEgress.flex(1, 120)));
+
+    assertEquals(2, nSearches);
+  }
+
+  @Test
+  void widenTimeLimits() {
+    var params = subject.widenTimeLimits(request(SearchDirection.FORWARD, 3_601)).searchParams();
+
+    assertEquals(3_600, params.earliestDepartureTime());
+    assertEquals(3_600 + 7_200 + 300, params.latestArrivalTime());
+
+    params = subject.widenTimeLimits(request(SearchDirection.FORWARD, 3_600)).searchParams();
+
+    assertEquals(3_600, params.earliestDepartureTime());
+    assertEquals(3_600 + 7_200, params.latestArrivalTime());
+  }
+
+  @Test
+  void requestsInTheSameTimeBucketAreCached() {
+    var transitData = transitData("v1");
+
+    route(transitData, subject.widenTimeLimits(request(SearchDirection.REVERSE, 3_610)));
+    route(transitData, subject.widenTimeLimits(request(SearchDirection.REVERSE, 3_650)));
+    route(transitData, subject.widenTimeLimits(request(SearchDirection.REVERSE, 3_910)));
+
+    assertEquals(2, nSearches);
+  }
+
+  private RaptorRouterResult<TestTripSchedule> route(
+    TestTransitData transitData,
+    RaptorRequest<TestTripSchedule> request
+  ) {
+    return subject.route(
+      transitData,
+      request,
+      () -> {
+        ++nSearches;
+        return new TestResult();
+      }
+    );
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(SearchDirection direction, int time) {
+    return request(direction, time, ACCESS);
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(
+    SearchDirection direction,
+    int time,
+    RaptorAccessEgress access
+  ) {
+    var builder = new RaptorRequestBuilder<TestTripSchedule>().searchDirection(direction);
+    builder
+      .searchParams()
+      .earliestDepartureTime(time)
+      .latestArrivalTime(time + 7_200)
+      .searchOneIterationOnly()
+      .addAccessPaths(access)
+      .addEgressPaths(EGRESS);
+    return builder.build();
+  }
+
+  private static TestTransitData transitData(@Nullable Object key) {
+    var transitData = new TestTransitData() {
+      @Override
+      public Object transitDataCacheKey() {
+        return key;
+      }
+    };
+    return transitData.withTransit("R1", "0:10 0:20 0:30 0:40", 1, 2, 3, 4);
+  }
+
+  private static class TestResult implements RaptorRouterResult<TestTripSchedule> {
+
+    @Override
+    public Collection<RaptorPath<TestTripSchedule>> extractPaths() {
+      return List.of();
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestOverallArrivals() {
+      return new IntArraySingleCriteriaArrivals(UNREACHED, new int[] { -1, 0, 600, 1200, -1 });
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestTransitArrivals() {
+      return extractBestOverallArrivals();
+    }
+
+    @Override
+    public SingleCriteriaStopArrivals extractBestNumberOfTransfers() {
+      return new IntArraySingleCriteriaArrivals(UNREACHED, new int[] { -1, 0, 1, 1, -1 });
+    }
+
+    @Override
+    public boolean isDestinationReached() {
+      return true;
+    }
+  }
+}
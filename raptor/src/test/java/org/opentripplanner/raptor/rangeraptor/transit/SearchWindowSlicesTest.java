@@ -0,0 +1,95 @@
+package org.opentripplanner.raptor.rangeraptor.transit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.opentripplanner.raptor._data.transit.TestAccessEgress;
+import org.opentripplanner.raptor._data.transit.TestTripSchedule;
+import org.opentripplanner.raptor.api.model.SearchDirection;
+import org.opentripplanner.raptor.api.request.RaptorRequest;
+import org.opentripplanner.raptor.api.request.RaptorRequestBuilder;
+
+class SearchWindowSlicesTest {
+
+  private static final int STEP = 60;
+  private static final int EDT = 3_600;
+
+  @Test
+  void splitSearchWindow() {
+    // 3 hours split in 1 hour slices, the latest slice first
+    var slices = SearchWindowSlices.split(request(3 * 3_600), 3_600, STEP);
+    assertEquals("[3h-4h, 2h-3h, 1h-2h]", toString(slices));
+  }
+
+  @Test
+  void sliceLengthIsRoundedUpToIterationStep() {
+    // 101 minutes split in two slices of 50.5 minutes, rounded up to 51 minutes. The last slice
+    // get the remainder.
+    var slices = SearchWindowSlices.split(request(101 * 60), 50 * 60, STEP);
+    assertEquals("[1h50m-2h41m, 1h-1h50m]", toString(slices));
+  }
+
+  @Test
+  void doNotSplitShortSearchWindow() {
+    var request = request(3_600 + 3_599);
+    assertSame(request, SearchWindowSlices.split(request, 3_600, STEP).getFirst());
+  }
+
+  @Test
+  void doNotSplitIfDisabled() {
+    var request = request(6 * 3_600);
+    assertEquals(List.of(request), SearchWindowSlices.split(request, 0, STEP));
+  }
+
+  @Test
+  void doNotSplitReverseSearch() {
+    var request = request(6 * 3_600)
+      .mutate()
+      .searchDirection(SearchDirection.REVERSE)
+      .searchParams()
+      .latestArrivalTime(10 * 3_600)
+      .build();
+    assertEquals(List.of(request), SearchWindowSlices.split(request, 3_600, STEP));
+  }
+
+  @Test
+  void mergeRemainderOfOneIterationStepIntoLastSlice() {
+    // 50 minutes give 4 slices of 12.5 minutes, rounded up to 20 minutes with a 10 minutes
+    // iteration step. The remainder is 10 minutes, and is merged into the last slice.
+    var slices = SearchWindowSlices.split(request(50 * 60), 12 * 60, 10 * 60);
+    assertEquals("[1h30m-1h50m, 1h-1h30m]", toString(slices));
+  }
+
+  private static RaptorRequest<TestTripSchedule> request(int searchWindow) {
+    return new RaptorRequestBuilder<TestTripSchedule>()
+      .searchParams()
+      .earliestDepartureTime(EDT)
+      .searchWindowInSeconds(searchWindow)
+      .addAccessPaths(TestAccessEgress.walk(1, 30))
+      .addEgressPaths(TestAccessEgress.walk(2, 30))
+      .build();
+  }
+
+  private static String toString(List<RaptorRequest<TestTripSchedule>> slices) {
+    return slices
+      .stream()
+      .map(it -> {
+        var p = it.searchParams();
+        return (
+          hm(p.earliestDepartureTime()) +
+          "-" +
+          hm(p.earliestDepartureTime() + p.searchWindowInSeconds())
+        );
+      })
+      .toList()
+      .toString();
+  }
+
+  private static String hm(int seconds) {
+    int h = seconds / 3_600;
+    int m = (seconds % 3_600) / 60;
+    return h + "h" + (m == 0 ? "" : m + "m");
+  }
+}
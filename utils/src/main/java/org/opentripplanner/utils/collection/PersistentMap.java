@@ -0,0 +1,412 @@
+package org.opentripplanner.utils.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * An immutable hash map implemented as a hash array mapped trie (HAMT). Adding or removing an
+ * entry returns a new map and leaves this one unchanged, but the new map shares all unchanged
+ * parts of the trie with this map. The cost of {@link #plus(Object, Object)} and
+ * {@link #minus(Object)} is therefore proportional to the depth of the trie (at most 7 levels),
+ * not to the size of the map.
+ * <p>
+ * Use this when many versions of a large map must be kept alive at the same time, and each new
+ * version differs from the previous only by a few entries. A typical example is a snapshot
+ * published to many reader threads, while a single writer keeps building the next version.
+ * See {@link PersistentMapBuffer} for a mutable {@link Map} backed by this class.
+ * <p>
+ * Neither keys nor values can be {@code null}. The map is read-only through the {@link Map}
+ * interface, any attempt to modify it with the standard map methods will throw an exception.
+ * The iteration order is unspecified.
+ */
+public final class PersistentMap<K, V> extends AbstractMap<K, V> {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(BitmapNode.EMPTY, 0);
+
+  private final BitmapNode root;
+  private final int size;
+
+  private PersistentMap(BitmapNode root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> PersistentMap<K, V> empty() {
+    return (PersistentMap<K, V>) EMPTY;
+  }
+
+  public static <K, V> PersistentMap<K, V> copyOf(Map<? extends K, ? extends V> map) {
+    if (map instanceof PersistentMap<? extends K, ? extends V> other) {
+      @SuppressWarnings("unchecked")
+      var result = (PersistentMap<K, V>) other;
+      return result;
+    }
+    PersistentMap<K, V> result = empty();
+    for (Entry<? extends K, ? extends V> e : map.entrySet()) {
+      result = result.plus(e.getKey(), e.getValue());
+    }
+    return result;
+  }
+
+  /**
+   * Return a map with the given key mapped to the given value. If the key is already mapped to
+   * the same (identical) value, this map is returned.
+   */
+  public PersistentMap<K, V> plus(K key, V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+    int hash = key.hashCode();
+    Leaf<K, V> existing = find(hash, key);
+    if (existing != null && existing.getValue() == value) {
+      return this;
+    }
+    var newRoot = (BitmapNode) insert(root, 0, new Leaf<>(hash, key, value));
+    return new PersistentMap<>(newRoot, existing == null ? size + 1 : size);
+  }
+
+  /**
+   * Return a map without the given key. If the key does not exist, this map is returned.
+   */
+  public PersistentMap<K, V> minus(Object key) {
+    if (key == null) {
+      return this;
+    }
+    int hash = key.hashCode();
+    if (find(hash, key) == null) {
+      return this;
+    }
+    return new PersistentMap<>(remove(root, 0, hash, key), size - 1);
+  }
+
+  @Override
+  public V get(Object key) {
+    if (key == null) {
+      return null;
+    }
+    Leaf<K, V> leaf = find(key.hashCode(), key);
+    return leaf == null ? null : leaf.getValue();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return key != null && find(key.hashCode(), key) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        return new EntryIterator<>(root);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+    };
+  }
+
+  /* private methods */
+
+  @SuppressWarnings("unchecked")
+  private Leaf<K, V> find(int hash, Object key) {
+    Object node = root;
+    int shift = 0;
+    while (true) {
+      if (node instanceof BitmapNode b) {
+        int bit = bit(hash, shift);
+        if ((b.bitmap & bit) == 0) {
+          return null;
+        }
+        node = b.slots[b.index(bit)];
+        shift += BITS;
+      } else if (node instanceof Leaf<?, ?> leaf) {
+        return leaf.matches(hash, key) ? (Leaf<K, V>) leaf : null;
+      } else {
+        return (Leaf<K, V>) ((CollisionNode) node).find(hash, key);
+      }
+    }
+  }
+
+  /**
+   * Insert the given leaf into the given node, the node must be a {@link BitmapNode} or a
+   * {@link CollisionNode}. The new node is returned, the given node is left unchanged.
+   */
+  private static Object insert(Object node, int shift, Leaf<?, ?> leaf) {
+    if (node instanceof CollisionNode c) {
+      if (c.hash == leaf.hash) {
+        return c.with(leaf);
+      }
+      return merge(c, c.hash, leaf, leaf.hash, shift);
+    }
+    var b = (BitmapNode) node;
+    int bit = bit(leaf.hash, shift);
+    int index = b.index(bit);
+
+    if ((b.bitmap & bit) == 0) {
+      return b.insertSlot(bit, index, leaf);
+    }
+    Object slot = b.slots[index];
+
+    if (slot instanceof Leaf<?, ?> other) {
+      if (other.matches(leaf.hash, leaf.getKey())) {
+        return b.replaceSlot(index, leaf);
+      }
+      if (other.hash == leaf.hash) {
+        return b.replaceSlot(index, new CollisionNode(leaf.hash, new Leaf<?, ?>[] { other, leaf }));
+      }
+      return b.replaceSlot(index, merge(other, other.hash, leaf, leaf.hash, shift + BITS));
+    }
+    return b.replaceSlot(index, insert(slot, shift + BITS, leaf));
+  }
+
+  /**
+   * Create a new node at the given level containing the two given slots. The hashes must be
+   * different.
+   */
+  private static BitmapNode merge(Object a, int hashA, Object b, int hashB, int shift) {
+    int fragA = fragment(hashA, shift);
+    int fragB = fragment(hashB, shift);
+    if (fragA == fragB) {
+      return new BitmapNode(1 << fragA, new Object[] { merge(a, hashA, b, hashB, shift + BITS) });
+    }
+    int bitmap = (1 << fragA) | (1 << fragB);
+    return fragA < fragB
+      ? new BitmapNode(bitmap, new Object[] { a, b })
+      : new BitmapNode(bitmap, new Object[] { b, a });
+  }
+
+  /**
+   * Remove the given key from the node. Child nodes left with a single leaf are collapsed into
+   * the parent to keep the trie compact.
+   */
+  private static BitmapNode remove(BitmapNode node, int shift, int hash, Object key) {
+    int bit = bit(hash, shift);
+    if ((node.bitmap & bit) == 0) {
+      return node;
+    }
+    int index = node.index(bit);
+    Object slot = node.slots[index];
+    Object newSlot;
+
+    if (slot instanceof Leaf<?, ?> leaf) {
+      newSlot = leaf.matches(hash, key) ? null : slot;
+    } else if (slot instanceof CollisionNode c) {
+      newSlot = c.without(hash, key);
+    } else {
+      var child = remove((BitmapNode) slot, shift + BITS, hash, key);
+      if (child.bitmap == 0) {
+        newSlot = null;
+      } else if (child.slots.length == 1 && child.slots[0] instanceof Leaf<?, ?>) {
+        newSlot = child.slots[0];
+      } else {
+        newSlot = child;
+      }
+    }
+    if (newSlot == slot) {
+      return node;
+    }
+    return newSlot == null ? node.removeSlot(bit, index) : node.replaceSlot(index, newSlot);
+  }
+
+  private static int fragment(int hash, int shift) {
+    return (hash >>> shift) & MASK;
+  }
+
+  private static int bit(int hash, int shift) {
+    return 1 << fragment(hash, shift);
+  }
+
+  /* nested classes */
+
+  private static final class Leaf<K, V> extends SimpleImmutableEntry<K, V> {
+
+    private final int hash;
+
+    private Leaf(int hash, K key, V value) {
+      super(key, value);
+      this.hash = hash;
+    }
+
+    private boolean matches(int hash, Object key) {
+      return this.hash == hash && getKey().equals(key);
+    }
+  }
+
+  /**
+   * A trie node with up to 32 slots. Each slot is a {@link Leaf}, a {@link BitmapNode} or a
+   * {@link CollisionNode}. Only slots in use are stored, the bitmap tells which are present.
+   */
+  private static final class BitmapNode {
+
+    private static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+    private final int bitmap;
+    private final Object[] slots;
+
+    private BitmapNode(int bitmap, Object[] slots) {
+      this.bitmap = bitmap;
+      this.slots = slots;
+    }
+
+    private int index(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    private BitmapNode insertSlot(int bit, int index, Object slot) {
+      Object[] copy = new Object[slots.length + 1];
+      System.arraycopy(slots, 0, copy, 0, index);
+      copy[index] = slot;
+      System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+      return new BitmapNode(bitmap | bit, copy);
+    }
+
+    private BitmapNode replaceSlot(int index, Object slot) {
+      Object[] copy = slots.clone();
+      copy[index] = slot;
+      return new BitmapNode(bitmap, copy);
+    }
+
+    private BitmapNode removeSlot(int bit, int index) {
+      Object[] copy = new Object[slots.length - 1];
+      System.arraycopy(slots, 0, copy, 0, index);
+      System.arraycopy(slots, index + 1, copy, index, copy.length - index);
+      return new BitmapNode(bitmap & ~bit, copy);
+    }
+  }
+
+  /**
+   * Holds two or more leaves with the same hash code, but different keys.
+   */
+  private static final class CollisionNode {
+
+    private final int hash;
+    private final Leaf<?, ?>[] leaves;
+
+    private CollisionNode(int hash, Leaf<?, ?>[] leaves) {
+      this.hash = hash;
+      this.leaves = leaves;
+    }
+
+    private Leaf<?, ?> find(int hash, Object key) {
+      if (this.hash != hash) {
+        return null;
+      }
+      for (Leaf<?, ?> it : leaves) {
+        if (it.getKey().equals(key)) {
+          return it;
+        }
+      }
+      return null;
+    }
+
+    private CollisionNode with(Leaf<?, ?> leaf) {
+      for (int i = 0; i < leaves.length; ++i) {
+        if (leaves[i].getKey().equals(leaf.getKey())) {
+          var copy = leaves.clone();
+          copy[i] = leaf;
+          return new CollisionNode(hash, copy);
+        }
+      }
+      var copy = new Leaf<?, ?>[leaves.length + 1];
+      System.arraycopy(leaves, 0, copy, 0, leaves.length);
+      copy[leaves.length] = leaf;
+      return new CollisionNode(hash, copy);
+    }
+
+    /**
+     * Return this node if the key is not found, the remaining leaf if only one is left, or a new
+     * collision node without the given key.
+     */
+    private Object without(int hash, Object key) {
+      Leaf<?, ?> leaf = find(hash, key);
+      if (leaf == null) {
+        return this;
+      }
+      if (leaves.length == 2) {
+        return leaves[0] == leaf ? leaves[1] : leaves[0];
+      }
+      var copy = new Leaf<?, ?>[leaves.length - 1];
+      int i = 0;
+      for (Leaf<?, ?> it : leaves) {
+        if (it != leaf) {
+          copy[i++] = it;
+        }
+      }
+      return new CollisionNode(hash, copy);
+    }
+  }
+
+  /**
+   * Depth-first iterator over all leaves in the trie. The depth of the trie is limited by the
+   * number of bits in the hash code, plus one level for collision nodes.
+   */
+  private static final class EntryIterator<K, V> implements Iterator<Entry<K, V>> {
+
+    private static final int MAX_DEPTH = (Integer.SIZE + BITS - 1) / BITS + 2;
+
+    private final Object[][] stack = new Object[MAX_DEPTH][];
+    private final int[] pos = new int[MAX_DEPTH];
+    private int depth = 0;
+    private Leaf<K, V> next;
+
+    private EntryIterator(BitmapNode root) {
+      stack[0] = root.slots;
+      advance();
+    }
+
+    @Override
+    public boolean hasNext() {
+      return next != null;
+    }
+
+    @Override
+    public Entry<K, V> next() {
+      if (next == null) {
+        throw new NoSuchElementException();
+      }
+      var current = next;
+      advance();
+      return current;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void advance() {
+      while (depth >= 0) {
+        if (pos[depth] == stack[depth].length) {
+          --depth;
+          continue;
+        }
+        Object slot = stack[depth][pos[depth]++];
+        if (slot instanceof Leaf<?, ?> leaf) {
+          next = (Leaf<K, V>) leaf;
+          return;
+        }
+        ++depth;
+        stack[depth] = slot instanceof BitmapNode b ? b.slots : ((CollisionNode) slot).leaves;
+        pos[depth] = 0;
+      }
+      next = null;
+    }
+  }
+}
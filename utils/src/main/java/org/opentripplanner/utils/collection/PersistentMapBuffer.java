@@ -0,0 +1,107 @@
+package org.opentripplanner.utils.collection;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * A mutable {@link java.util.Map} backed by a {@link PersistentMap}. Every modification replaces
+ * the internal persistent map with a new version, so taking an immutable {@link #snapshot()} of
+ * the current state is free - no entries are copied.
+ * <p>
+ * Iterators work on the version of the map that was current when the iterator was created. It is
+ * safe to modify the map while iterating, and {@link Iterator#remove()} is supported.
+ * <p>
+ * This class is NOT thread-safe. It is intended for a single writer building up the next version
+ * of a map, while readers use the snapshots.
+ */
+public final class PersistentMapBuffer<K, V> extends AbstractMap<K, V> {
+
+  private PersistentMap<K, V> current = PersistentMap.empty();
+
+  /**
+   * Return the current state of the map. The returned map is immutable and is not affected by
+   * later modifications of this buffer.
+   */
+  public PersistentMap<K, V> snapshot() {
+    return current;
+  }
+
+  @Override
+  public V get(Object key) {
+    return current.get(key);
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return current.containsKey(key);
+  }
+
+  @Override
+  public int size() {
+    return current.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return current.isEmpty();
+  }
+
+  @Override
+  public V put(K key, V value) {
+    V old = current.get(key);
+    current = current.plus(key, value);
+    return old;
+  }
+
+  @Override
+  public V remove(Object key) {
+    V old = current.get(key);
+    current = current.minus(key);
+    return old;
+  }
+
+  @Override
+  public void clear() {
+    current = PersistentMap.empty();
+  }
+
+  @Override
+  public Set<Entry<K, V>> entrySet() {
+    return new AbstractSet<>() {
+      @Override
+      public Iterator<Entry<K, V>> iterator() {
+        var it = current.entrySet().iterator();
+        return new Iterator<>() {
+          private Entry<K, V> last;
+
+          @Override
+          public boolean hasNext() {
+            return it.hasNext();
+          }
+
+          @Override
+          public Entry<K, V> next() {
+            last = it.next();
+            return last;
+          }
+
+          @Override
+          public void remove() {
+            if (last == null) {
+              throw new IllegalStateException();
+            }
+            PersistentMapBuffer.this.remove(last.getKey());
+            last = null;
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return current.size();
+      }
+    };
+  }
+}
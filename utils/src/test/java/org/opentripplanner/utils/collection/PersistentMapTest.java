@@ -0,0 +1,128 @@
+package org.opentripplanner.utils.collection;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PersistentMapTest {
+
+  @Test
+  void plusAndMinus() {
+    PersistentMap<String, Integer> empty = PersistentMap.empty();
+    var a = empty.plus("A", 1);
+    var ab = a.plus("B", 2);
+
+    assertTrue(empty.isEmpty());
+    assertEquals(Map.of("A", 1), a);
+    assertEquals(Map.of("A", 1, "B", 2), ab);
+
+    var b = ab.minus("A");
+    assertEquals(Map.of("B", 2), b);
+    // Old versions are not changed
+    assertEquals(Map.of("A", 1, "B", 2), ab);
+
+    assertSame(ab, ab.minus("X"));
+    assertSame(ab, ab.plus("A", ab.get("A")));
+  }
+
+  @Test
+  void keysWithSameHashCode() {
+    var k1 = new Key("1", 7);
+    var k2 = new Key("2", 7);
+    var k3 = new Key("3", 7);
+
+    PersistentMap<Key, String> subject = PersistentMap
+      .<Key, String>empty()
+      .plus(k1, "A")
+      .plus(k2, "B")
+      .plus(k3, "C");
+
+    assertEquals(3, subject.size());
+    assertEquals("B", subject.get(k2));
+
+    subject = subject.plus(k2, "X").minus(k1);
+    assertEquals(Map.of(k2, "X", k3, "C"), subject);
+
+    subject = subject.minus(k3);
+    assertEquals(Map.of(k2, "X"), subject);
+  }
+
+  @Test
+  void compareWithHashMapUsingRandomOperations() {
+    var rnd = new Random(47);
+    var expected = new HashMap<Integer, Integer>();
+    PersistentMap<Integer, Integer> subject = PersistentMap.empty();
+
+    for (int i = 0; i < 20_000; ++i) {
+      // Use a hash code with few bits set to force deep tries and collisions
+      Integer key = rnd.nextInt(5000) * (rnd.nextBoolean() ? 1 : 1 << 20);
+      if (rnd.nextInt(3) == 0) {
+        expected.remove(key);
+        subject = subject.minus(key);
+      } else {
+        expected.put(key, i);
+        subject = subject.plus(key, i);
+      }
+    }
+    assertEquals(expected.size(), subject.size());
+    assertEquals(expected, subject);
+    assertEquals(subject, expected);
+  }
+
+  @Test
+  void nullKeysAndValuesAreNotAllowed() {
+    PersistentMap<String, String> subject = PersistentMap.empty();
+    assertThrows(NullPointerException.class, () -> subject.plus(null, "A"));
+    assertThrows(NullPointerException.class, () -> subject.plus("A", null));
+    assertNull(subject.get(null));
+    assertFalse(subject.containsKey(null));
+  }
+
+  @Test
+  void isReadOnly() {
+    var subject = PersistentMap.<String, String>empty().plus("A", "B");
+    assertThrows(UnsupportedOperationException.class, () -> subject.put("C", "D"));
+    assertThrows(UnsupportedOperationException.class, () -> subject.remove("A"));
+  }
+
+  @Test
+  void copyOf() {
+    var subject = PersistentMap.copyOf(Map.of("A", 1, "B", 2));
+    assertEquals(Map.of("A", 1, "B", 2), subject);
+    assertSame(subject, PersistentMap.copyOf(subject));
+  }
+
+  @Test
+  void buffer() {
+    var buffer = new PersistentMapBuffer<String, Integer>();
+    buffer.put("A", 1);
+    buffer.put("B", 2);
+
+    var snapshot = buffer.snapshot();
+
+    buffer.put("C", 3);
+    buffer.keySet().removeIf("A"::equals);
+
+    assertEquals(Map.of("B", 2, "C", 3), buffer);
+    assertEquals(Map.of("A", 1, "B", 2), snapshot);
+
+    buffer.clear();
+    assertTrue(buffer.isEmpty());
+    assertEquals(2, snapshot.size());
+  }
+
+  private record Key(String value, int hash) {
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}